@@ -0,0 +1,113 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultIntroductionAdvisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RegexpMethodPointcutAdvisor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量开关一个 Advisor 之后，代理的每个方法第一次被调用时的总耗时，即修改配置后调用方需要承担的拦截器链重建开销。
+ * <p>
+ * 代理上有8个使用正则表达式切点的 Advisor 与一个引介 Advisor，每次操作添加或移除一个诊断用的拦截器，然后依次调用代理的8个方法。
+ * {@link ProxyFactory} 每次修改后清空方法缓存，每个方法都要对全部 Advisor 重新匹配；
+ * {@link SnapshotProxyFactory} 只需要匹配被开关的 Advisor。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdvisorToggleBenchmark {
+
+    @Param({"spring", "snapshot"})
+    private String factory;
+
+    private ProxyFactory proxyFactory;
+
+    private CounterService proxy;
+
+    private Advisor diagnosticsAdvisor;
+
+    private boolean enabled;
+
+    @Setup
+    public void setup() {
+        this.proxyFactory = ("snapshot".equals(this.factory) ? new SnapshotProxyFactory(new CounterService()) : new ProxyFactory(new CounterService()));
+        this.proxyFactory.setProxyTargetClass(true);
+        for (int i = 0; i < 8; i++) {
+            this.proxyFactory.addAdvisor(new RegexpMethodPointcutAdvisor(
+                    ".*CounterService\\.(increment" + i + "|reset|get)", (MethodInterceptor) invocation -> invocation.proceed()));
+        }
+        this.proxyFactory.addAdvisor(new DefaultIntroductionAdvisor(new MyMonitoringIntroductionAdvice(), MyLatencyMonitoringCapable.class));
+        this.proxy = (CounterService) this.proxyFactory.getProxy();
+        this.diagnosticsAdvisor = new DefaultPointcutAdvisor((MethodInterceptor) invocation -> invocation.proceed());
+    }
+
+    @Benchmark
+    public int toggleAndInvoke() {
+        this.enabled = !this.enabled;
+        if (this.enabled) {
+            this.proxyFactory.addAdvisor(this.diagnosticsAdvisor);
+        } else {
+            this.proxyFactory.removeAdvisor(this.diagnosticsAdvisor);
+        }
+        CounterService proxy = this.proxy;
+        return proxy.increment0() + proxy.increment1() + proxy.increment2() + proxy.increment3() +
+                proxy.increment4() + proxy.increment5() + proxy.increment6() + proxy.increment7();
+    }
+
+    public static class CounterService {
+
+        private int count;
+
+        public int increment0() {
+            return ++this.count;
+        }
+
+        public int increment1() {
+            return ++this.count;
+        }
+
+        public int increment2() {
+            return ++this.count;
+        }
+
+        public int increment3() {
+            return ++this.count;
+        }
+
+        public int increment4() {
+            return ++this.count;
+        }
+
+        public int increment5() {
+            return ++this.count;
+        }
+
+        public int increment6() {
+            return ++this.count;
+        }
+
+        public int increment7() {
+            return ++this.count;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AdvisorToggleBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
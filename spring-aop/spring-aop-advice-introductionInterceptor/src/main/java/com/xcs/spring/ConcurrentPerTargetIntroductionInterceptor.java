@@ -0,0 +1,220 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.DynamicIntroductionAdvice;
+import org.springframework.aop.IntroductionInterceptor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.IntroductionInfoSupport;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为每个目标对象创建独立委托对象的引介拦截器，与 {@code DelegatePerTargetObjectIntroductionInterceptor} 的用法相同。
+ * <p>
+ * Spring 的实现把委托对象保存在 {@code synchronized} 的 {@code WeakHashMap} 中，每次调用引介方法都要获取同一个监视器，
+ * 多个线程、多个代理同时调用时在这里排队。本类把委托对象保存在弱引用键的 {@link ConcurrentHashMap} 中：
+ * 读取不加锁，只有第一次为某个目标对象创建委托对象时锁住一个桶。键按对象标识比较，
+ * 重写了 {@code equals} 的两个目标对象也各自拥有委托对象；目标对象被回收后，对应的条目在下一次读取或创建委托对象时清除，
+ * 引用队列为空时检查只是一次 volatile 读。
+ * <p>
+ * 子类可以重写 {@link #doProceed} 并通过 {@link #getIntroductionDelegateFor} 读取当前目标对象的委托对象，
+ * 使每个代理拥有自己的引介状态。与 Spring 的实现一样，委托对象不应强引用目标对象，否则条目不会被回收。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:41:18
+ */
+public class ConcurrentPerTargetIntroductionInterceptor extends IntroductionInfoSupport implements IntroductionInterceptor {
+
+    private final WeakIdentityMap delegateMap = new WeakIdentityMap();
+
+    /**
+     * 没有目标对象的代理共享的委托对象
+     */
+    @Nullable
+    private volatile Object nullTargetDelegate;
+
+    private final Class<?> defaultImplType;
+
+    private final Class<?> interfaceType;
+
+    public ConcurrentPerTargetIntroductionInterceptor(Class<?> defaultImplType, Class<?> interfaceType) {
+        this.defaultImplType = defaultImplType;
+        this.interfaceType = interfaceType;
+        // 与 Spring 相同，先创建一个委托对象来检查实现类型并确定要引入的接口
+        Object delegate = createNewDelegate();
+        implementInterfacesOnObject(delegate);
+        suppressInterface(IntroductionInterceptor.class);
+        suppressInterface(DynamicIntroductionAdvice.class);
+    }
+
+    @Override
+    @Nullable
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        if (isMethodOnIntroducedInterface(mi)) {
+            Object delegate = getIntroductionDelegateFor(mi.getThis());
+            Object retVal = AopUtils.invokeJoinpointUsingReflection(delegate, mi.getMethod(), mi.getArguments());
+            // 委托对象返回自己时改为返回代理
+            if (retVal == delegate && mi instanceof ProxyMethodInvocation) {
+                retVal = ((ProxyMethodInvocation) mi).getProxy();
+            }
+            return retVal;
+        }
+        return doProceed(mi);
+    }
+
+    /**
+     * 调用目标方法，子类可以重写以在调用前后加入自己的逻辑。
+     *
+     * @param mi 方法调用
+     * @return 目标方法的返回值
+     * @throws Throwable 目标方法抛出的异常
+     */
+    @Nullable
+    protected Object doProceed(MethodInvocation mi) throws Throwable {
+        return mi.proceed();
+    }
+
+    /**
+     * 获取目标对象的委托对象，不存在时创建。
+     *
+     * @param target 目标对象
+     * @return 委托对象
+     */
+    protected Object getIntroductionDelegateFor(@Nullable Object target) {
+        if (target == null) {
+            return getNullTargetDelegate();
+        }
+        Object delegate = this.delegateMap.get(target);
+        if (delegate == null) {
+            delegate = this.delegateMap.computeIfAbsent(target, this);
+        }
+        return delegate;
+    }
+
+    /**
+     * 获取当前保存的委托对象数量，先清除已经进入引用队列的条目，目标对象刚被回收、尚未入队的条目仍会被计入。
+     *
+     * @return 委托对象数量
+     */
+    public int getDelegateCount() {
+        return this.delegateMap.size();
+    }
+
+    private Object getNullTargetDelegate() {
+        Object delegate = this.nullTargetDelegate;
+        if (delegate == null) {
+            synchronized (this) {
+                delegate = this.nullTargetDelegate;
+                if (delegate == null) {
+                    delegate = createNewDelegate();
+                    this.nullTargetDelegate = delegate;
+                }
+            }
+        }
+        return delegate;
+    }
+
+    private Object createNewDelegate() {
+        try {
+            return ReflectionUtils.accessibleConstructor(this.defaultImplType).newInstance();
+        } catch (Throwable ex) {
+            throw new IllegalArgumentException("Cannot create default implementation for '" +
+                    this.interfaceType.getName() + "' mixin (" + this.defaultImplType.getName() + "): " + ex);
+        }
+    }
+
+    /**
+     * 以对象标识比较、弱引用保存键的并发映射，读取不加锁。
+     */
+    private static final class WeakIdentityMap {
+
+        private final ConcurrentHashMap<Object, Object> map = new ConcurrentHashMap<>();
+
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+        @Nullable
+        Object get(Object key) {
+            expungeStaleEntries();
+            // 查找键只在这一次调用中使用，通常会被逃逸分析消除
+            return this.map.get(new LookupKey(key));
+        }
+
+        Object computeIfAbsent(Object key, ConcurrentPerTargetIntroductionInterceptor interceptor) {
+            expungeStaleEntries();
+            return this.map.computeIfAbsent(new WeakKey(key, this.queue), k -> interceptor.createNewDelegate());
+        }
+
+        int size() {
+            expungeStaleEntries();
+            return this.map.size();
+        }
+
+        /**
+         * 清除目标对象已被回收的条目。队列为空时 {@link ReferenceQueue#poll()} 只读取一次队首，不加锁。
+         */
+        private void expungeStaleEntries() {
+            Reference<?> reference;
+            while ((reference = this.queue.poll()) != null) {
+                this.map.remove(reference);
+            }
+        }
+    }
+
+    /**
+     * 保存在映射中的键，目标对象被回收后只与自身相等，清除时按引用删除。
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+
+        private final int hash;
+
+        WeakKey(Object referent, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof WeakKey)) {
+                return false;
+            }
+            Object referent = get();
+            return (referent != null && referent == ((WeakKey) other).get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * 查找时使用的键，不创建弱引用。
+     */
+    private static final class LookupKey {
+
+        private final Object referent;
+
+        LookupKey(Object referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (other instanceof WeakKey && ((WeakKey) other).get() == this.referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.referent);
+        }
+    }
+}
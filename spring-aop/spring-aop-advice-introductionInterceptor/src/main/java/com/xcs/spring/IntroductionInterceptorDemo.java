@@ -1,5 +1,6 @@
 package com.xcs.spring;
 
+import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultIntroductionAdvisor;
 
@@ -11,14 +12,53 @@ public class IntroductionInterceptorDemo {
         // 强制私用CGLIB
         proxyFactory.setProxyTargetClass(true);
         // 创建通知
-        proxyFactory.addAdvisor(new DefaultIntroductionAdvisor(new MyMonitoringIntroductionAdvice(), MyMonitoringCapable.class));
+        proxyFactory.addAdvisor(new DefaultIntroductionAdvisor(new MyMonitoringIntroductionAdvice(), MyLatencyMonitoringCapable.class));
         // 创建代理对象
         MyService proxy = (MyService) proxyFactory.getProxy();
         // 调用代理对象的方法
         proxy.foo();
         // 开始监控
-        ((MyMonitoringCapable) proxy).toggleMonitoring();
+        ((MyLatencyMonitoringCapable) proxy).toggleMonitoring();
         // 再次调用代理对象的方法
         proxy.foo();
+        // 导出监控数据
+        System.out.println(((MyLatencyMonitoringCapable) proxy).exportLatencies());
+
+        // 使用快照保存拦截器链的代理工厂，在运行中开关监控通知
+        SnapshotProxyFactory snapshotProxyFactory = new SnapshotProxyFactory(new MyService());
+        snapshotProxyFactory.setProxyTargetClass(true);
+        MyMonitoringIntroductionAdvice monitoringAdvice = new MyMonitoringIntroductionAdvice();
+        monitoringAdvice.setActive(true);
+        Advisor monitoringAdvisor = new DefaultIntroductionAdvisor(monitoringAdvice, MyLatencyMonitoringCapable.class);
+        snapshotProxyFactory.addAdvisor(monitoringAdvisor);
+        MyService snapshotProxy = (MyService) snapshotProxyFactory.getProxy();
+        // 会被记录
+        snapshotProxy.foo();
+        // 关闭监控通知，不会被记录
+        snapshotProxyFactory.setAdvisorEnabled(monitoringAdvisor, false);
+        snapshotProxy.foo();
+        // 重新开启
+        snapshotProxyFactory.setAdvisorEnabled(monitoringAdvisor, true);
+        System.out.println(monitoringAdvice.exportLatencies());
+
+        // 每个目标对象拥有独立监控状态的引介通知，两个代理共享同一个 Advisor
+        Advisor perTargetAdvisor = new DefaultIntroductionAdvisor(new MyPerTargetMonitoringIntroductionAdvice(), MyLatencyMonitoringCapable.class);
+        MyService first = createProxy(perTargetAdvisor);
+        MyService second = createProxy(perTargetAdvisor);
+        // 只开启第一个代理的监控
+        ((MyLatencyMonitoringCapable) first).toggleMonitoring();
+        first.foo();
+        second.foo();
+        System.out.println("first active = " + ((MyLatencyMonitoringCapable) first).isMonitoringActive() +
+                ", second active = " + ((MyLatencyMonitoringCapable) second).isMonitoringActive());
+        System.out.println(((MyLatencyMonitoringCapable) first).exportLatencies());
+        System.out.println(((MyLatencyMonitoringCapable) second).exportLatencies());
+    }
+
+    private static MyService createProxy(Advisor advisor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new MyService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return (MyService) proxyFactory.getProxy();
     }
 }
@@ -0,0 +1,123 @@
+package com.xcs.spring;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟直方图在某一时刻的不可变快照，用于计算次数、平均值、百分位等统计值。
+ *
+ * @author xcs
+ * @date 2026年10月18日16:30:45
+ */
+public class LatencySnapshot {
+
+    /**
+     * 直方图名称
+     */
+    private final String name;
+
+    /**
+     * 各个桶的计数
+     */
+    private final long[] buckets;
+
+    /**
+     * 记录次数
+     */
+    private final long count;
+
+    /**
+     * 记录值的总和（纳秒）
+     */
+    private final long totalNanos;
+
+    /**
+     * 最大值（纳秒）
+     */
+    private final long maxNanos;
+
+    LatencySnapshot(String name, long[] buckets, long totalNanos, long maxNanos) {
+        this.name = name;
+        this.buckets = buckets;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        long sum = 0;
+        for (long bucket : buckets) {
+            sum += bucket;
+        }
+        this.count = sum;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    public long getMaxNanos() {
+        return this.maxNanos;
+    }
+
+    /**
+     * 获取平均耗时。
+     *
+     * @return 平均耗时（纳秒），没有记录时返回0
+     */
+    public double getMeanNanos() {
+        return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+    }
+
+    /**
+     * 获取百分位耗时。
+     *
+     * @param percentile 百分位，取值范围 (0, 100]，例如 99.9
+     * @return 百分位耗时（纳秒），没有记录时返回0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long seen = 0;
+        for (int i = 0; i < this.buckets.length; i++) {
+            seen += this.buckets[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), this.maxNanos);
+            }
+        }
+        return this.maxNanos;
+    }
+
+    /**
+     * 以制表符分隔的单行文本导出统计值，耗时单位为微秒。
+     *
+     * @return 导出文本
+     */
+    public String export() {
+        return this.name +
+                '\t' + this.count +
+                '\t' + toMicros(getMeanNanos()) +
+                '\t' + toMicros(getValueAtPercentile(50)) +
+                '\t' + toMicros(getValueAtPercentile(90)) +
+                '\t' + toMicros(getValueAtPercentile(99)) +
+                '\t' + toMicros(getValueAtPercentile(99.9)) +
+                '\t' + toMicros(this.maxNanos);
+    }
+
+    private static String toMicros(double nanos) {
+        return String.format("%.3f", nanos / TimeUnit.MICROSECONDS.toNanos(1));
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "name='" + this.name + '\'' +
+                ", count=" + this.count +
+                ", meanNanos=" + getMeanNanos() +
+                ", p50Nanos=" + getValueAtPercentile(50) +
+                ", p99Nanos=" + getValueAtPercentile(99) +
+                ", maxNanos=" + this.maxNanos +
+                '}';
+    }
+}
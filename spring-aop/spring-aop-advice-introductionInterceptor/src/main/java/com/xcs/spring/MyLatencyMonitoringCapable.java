@@ -0,0 +1,54 @@
+package com.xcs.spring;
+
+import java.util.Map;
+
+/**
+ * 延迟监控引介接口，通过引介通知为目标对象增加按方法统计调用耗时的能力。
+ */
+public interface MyLatencyMonitoringCapable {
+
+    /**
+     * 切换监控状态。
+     */
+    void toggleMonitoring();
+
+    /**
+     * 判断监控是否处于激活状态。
+     *
+     * @return 激活时返回true
+     */
+    boolean isMonitoringActive();
+
+    /**
+     * 设置采样间隔，平均每 {@code interval} 次调用记录一次，1 表示记录每一次调用。
+     *
+     * @param interval 采样间隔
+     */
+    void setSamplingInterval(int interval);
+
+    /**
+     * 获取每个方法的耗时快照。
+     *
+     * @return 方法签名到快照的映射
+     */
+    Map<String, LatencySnapshot> snapshotLatencies();
+
+    /**
+     * 获取每个方法的耗时快照，并清空已记录的数据。
+     *
+     * @return 方法签名到快照的映射
+     */
+    Map<String, LatencySnapshot> snapshotAndResetLatencies();
+
+    /**
+     * 清空已记录的数据。
+     */
+    void resetLatencies();
+
+    /**
+     * 以制表符分隔的文本导出每个方法的耗时统计，耗时单位为微秒。
+     *
+     * @return 导出文本，第一行为表头
+     */
+    String exportLatencies();
+}
@@ -1,5 +0,0 @@
-package com.xcs.spring;
-
-public interface MyMonitoringCapable {
-    void toggleMonitoring();
-}
@@ -2,10 +2,25 @@ package com.xcs.spring;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.springframework.aop.support.DelegatingIntroductionInterceptor;
+import org.springframework.util.Assert;
 
-public class MyMonitoringIntroductionAdvice extends DelegatingIntroductionInterceptor implements MyMonitoringCapable {
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
-    private boolean active = false;
+public class MyMonitoringIntroductionAdvice extends DelegatingIntroductionInterceptor implements MyLatencyMonitoringCapable {
+
+    private volatile boolean active = false;
+
+    // 采样间隔，1 表示记录每一次调用
+    private volatile int samplingInterval = 1;
+
+    // 每个方法一个延迟直方图，记录路径上只读取不分配
+    private final ConcurrentMap<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
 
     public void setActive(boolean active) {
         this.active = active;
@@ -13,20 +28,82 @@ public class MyMonitoringIntroductionAdvice extends DelegatingIntroductionInterc
 
     @Override
     public void toggleMonitoring() {
-        setActive(true);
+        setActive(!this.active);
+    }
+
+    @Override
+    public boolean isMonitoringActive() {
+        return this.active;
+    }
+
+    @Override
+    public void setSamplingInterval(int interval) {
+        Assert.isTrue(interval > 0, "Sampling interval must be greater than 0");
+        this.samplingInterval = interval;
     }
 
-    // 当被监控的方法被调用时，如果监控处于激活状态，则输出日志
+    // 当被监控的方法被调用时，如果监控处于激活状态且命中采样，则记录纳秒级耗时
     @Override
     protected Object doProceed(MethodInvocation mi) throws Throwable {
-        if (this.active) {
-            System.out.println("[开启监控" + mi.getMethod().getName() + "]");
-            long startTime = System.currentTimeMillis();
-            Object result = super.doProceed(mi);
-            long endTime = System.currentTimeMillis();
-            System.out.println("[结束监控" + mi.getMethod().getName() + "] 耗费时间：" + (endTime - startTime) + " 毫秒");
-            return result;
+        if (!this.active) {
+            return super.doProceed(mi);
+        }
+        int interval = this.samplingInterval;
+        if (interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0) {
+            return super.doProceed(mi);
+        }
+        LatencyHistogram histogram = getHistogram(mi.getMethod());
+        long startTime = System.nanoTime();
+        try {
+            return super.doProceed(mi);
+        } finally {
+            histogram.record(System.nanoTime() - startTime);
+        }
+    }
+
+    private LatencyHistogram getHistogram(Method method) {
+        LatencyHistogram histogram = this.histograms.get(method);
+        if (histogram == null) {
+            histogram = this.histograms.computeIfAbsent(method, m -> new LatencyHistogram(describe(m)));
+        }
+        return histogram;
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> snapshotLatencies() {
+        return collect(LatencyHistogram::snapshot);
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> snapshotAndResetLatencies() {
+        return collect(LatencyHistogram::snapshotAndReset);
+    }
+
+    @Override
+    public void resetLatencies() {
+        this.histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    @Override
+    public String exportLatencies() {
+        StringBuilder builder = new StringBuilder("method\tcount\tmean(us)\tp50(us)\tp90(us)\tp99(us)\tp999(us)\tmax(us)");
+        snapshotLatencies().values().forEach(snapshot -> builder.append('\n').append(snapshot.export()));
+        return builder.toString();
+    }
+
+    private Map<String, LatencySnapshot> collect(Function<LatencyHistogram, LatencySnapshot> snapshotter) {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        this.histograms.values().forEach(histogram -> snapshots.put(histogram.getName(), snapshotter.apply(histogram)));
+        return snapshots;
+    }
+
+    // 生成方法的可读签名，例如 MyService#foo()
+    private static String describe(Method method) {
+        StringBuilder builder = new StringBuilder(method.getDeclaringClass().getSimpleName()).append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            builder.append(i > 0 ? ", " : "").append(parameterTypes[i].getSimpleName());
         }
-        return super.doProceed(mi);
+        return builder.append(')').toString();
     }
 }
@@ -0,0 +1,26 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 每个目标对象拥有独立监控状态的引介通知。
+ * <p>
+ * {@link MyMonitoringIntroductionAdvice} 的激活状态、采样间隔和直方图由使用它的所有代理共享。
+ * 本类为每个目标对象创建一个 {@link MyMonitoringIntroductionAdvice} 作为委托对象，
+ * 通过某个代理调用 {@link MyLatencyMonitoringCapable} 的方法只影响该代理自己的监控，记录耗时也由该委托对象完成。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:46:05
+ */
+public class MyPerTargetMonitoringIntroductionAdvice extends ConcurrentPerTargetIntroductionInterceptor {
+
+    public MyPerTargetMonitoringIntroductionAdvice() {
+        super(MyMonitoringIntroductionAdvice.class, MyLatencyMonitoringCapable.class);
+    }
+
+    @Override
+    protected Object doProceed(MethodInvocation mi) throws Throwable {
+        MyMonitoringIntroductionAdvice monitor = (MyMonitoringIntroductionAdvice) getIntroductionDelegateFor(mi.getThis());
+        return monitor.doProceed(mi);
+    }
+}
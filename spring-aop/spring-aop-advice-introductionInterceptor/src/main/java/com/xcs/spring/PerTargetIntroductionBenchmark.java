@@ -0,0 +1,77 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultIntroductionAdvisor;
+import org.springframework.aop.support.DelegatePerTargetObjectIntroductionInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link DelegatePerTargetObjectIntroductionInterceptor} 与 {@link ConcurrentPerTargetIntroductionInterceptor}
+ * 查找委托对象的开销：64 个代理共享一个引介 Advisor，依次调用每个代理的引介方法 {@code isMonitoringActive()}。
+ * <p>
+ * {@code @Threads} 可以调大以观察多个线程争用 Spring 实现中同一个监视器的情况。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerTargetIntroductionBenchmark {
+
+    private static final int PROXY_COUNT = 64;
+
+    @Param({"spring", "concurrent"})
+    private String interceptor;
+
+    private MyLatencyMonitoringCapable[] proxies;
+
+    @Setup
+    public void setup() {
+        IntroductionInterceptor advice = ("concurrent".equals(this.interceptor) ? new MyPerTargetMonitoringIntroductionAdvice() :
+                new DelegatePerTargetObjectIntroductionInterceptor(MyMonitoringIntroductionAdvice.class, MyLatencyMonitoringCapable.class));
+        Advisor advisor = new DefaultIntroductionAdvisor(advice, MyLatencyMonitoringCapable.class);
+        this.proxies = new MyLatencyMonitoringCapable[PROXY_COUNT];
+        for (int i = 0; i < PROXY_COUNT; i++) {
+            ProxyFactory proxyFactory = new ProxyFactory(new Target());
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvisor(advisor);
+            this.proxies[i] = (MyLatencyMonitoringCapable) proxyFactory.getProxy();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROXY_COUNT)
+    public int invokeIntroduced() {
+        int active = 0;
+        for (MyLatencyMonitoringCapable proxy : this.proxies) {
+            if (proxy.isMonitoringActive()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    public static class Target {
+
+        public int value() {
+            return 1;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PerTargetIntroductionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
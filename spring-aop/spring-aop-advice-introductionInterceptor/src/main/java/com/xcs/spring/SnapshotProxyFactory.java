@@ -0,0 +1,300 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.IntroductionAwareMethodMatcher;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 以不可变快照保存拦截器链的 {@link ProxyFactory}，适合在运行中的代理上频繁添加、移除 Advisor。
+ * <p>
+ * {@code AdvisedSupport} 在每次修改 Advisor 后清空整个方法缓存，所有方法在下一次调用时都要重新对全部 Advisor 做类匹配与方法匹配；
+ * 并且清空缓存与正在构建拦截器链的调用线程之间存在竞争，旧配置构建的拦截器链可能在清空之后才被放回缓存。
+ * 本类在每次修改后发布一个新的快照（Advisor 数组 + 该快照自己的方法缓存），调用线程只读取 volatile 引用，不加锁：
+ * <ul>
+ *     <li>正在进行的调用继续使用旧快照的拦截器链，新的调用使用新快照，拦截器链只会由同一个快照中的 Advisor 构建；</li>
+ *     <li>每个方法的拦截器链在新快照中第一次被调用时才重新构建，构建时复用每个 Advisor 在该方法上已有的匹配结果，
+ *     只有新加入的 Advisor 需要重新匹配，开关一个诊断用的 Advisor 不会让其他 Advisor 重新匹配。</li>
+ * </ul>
+ * 拦截器链的构建逻辑与 {@code DefaultAdvisorChainFactory} 相同，设置的 {@code AdvisorChainFactory} 不会被使用。
+ * 修改 Advisor 的方法仍由父类同步，只有修改方之间互相等待。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:03:27
+ */
+public class SnapshotProxyFactory extends ProxyFactory {
+
+    @Nullable
+    private transient volatile ChainSnapshot snapshot;
+
+    public SnapshotProxyFactory() {
+    }
+
+    public SnapshotProxyFactory(Object target) {
+        super(target);
+    }
+
+    /**
+     * 开启或关闭一个 Advisor，已经处于目标状态时不做任何修改。
+     *
+     * @param advisor Advisor
+     * @param enabled 是否开启
+     */
+    public synchronized void setAdvisorEnabled(Advisor advisor, boolean enabled) {
+        boolean present = (indexOf(advisor) >= 0);
+        if (enabled && !present) {
+            addAdvisor(advisor);
+        } else if (!enabled && present) {
+            removeAdvisor(advisor);
+        }
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+        ChainSnapshot snapshot = obtainSnapshot();
+        MethodKey key = new MethodKey(method, targetClass);
+        List<Object> chain = snapshot.chains.get(key);
+        if (chain == null) {
+            chain = buildChain(snapshot, method, targetClass);
+            List<Object> existing = snapshot.chains.putIfAbsent(key, chain);
+            if (existing != null) {
+                chain = existing;
+            }
+        }
+        return chain;
+    }
+
+    @Override
+    protected void adviceChanged() {
+        super.adviceChanged();
+        this.snapshot = new ChainSnapshot(getAdvisors(), this.snapshot);
+    }
+
+    private ChainSnapshot obtainSnapshot() {
+        ChainSnapshot snapshot = this.snapshot;
+        if (snapshot == null) {
+            // 反序列化之后快照为空，与修改 Advisor 的方法使用同一把锁，避免覆盖更新的快照
+            synchronized (this) {
+                snapshot = this.snapshot;
+                if (snapshot == null) {
+                    snapshot = new ChainSnapshot(getAdvisors(), null);
+                    this.snapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private List<Object> buildChain(ChainSnapshot snapshot, Method method, @Nullable Class<?> targetClass) {
+        Advisor[] advisors = snapshot.advisors;
+        Class<?> actualClass = (targetClass != null ? targetClass : method.getDeclaringClass());
+        boolean hasIntroductions = hasMatchingIntroductions(advisors, actualClass);
+        ContributionKey key = new ContributionKey(method, actualClass, hasIntroductions, isPreFiltered());
+        List<Object> chain = new ArrayList<>(advisors.length);
+        for (int i = 0; i < advisors.length; i++) {
+            Map<ContributionKey, Object[]> contributions = snapshot.contributions[i];
+            Object[] interceptors = contributions.get(key);
+            if (interceptors == null) {
+                interceptors = match(advisors[i], method, actualClass, hasIntroductions);
+                contributions.put(key, interceptors);
+            }
+            Collections.addAll(chain, interceptors);
+        }
+        return chain;
+    }
+
+    /**
+     * 与 {@code DefaultAdvisorChainFactory} 相同的匹配逻辑，只处理一个 Advisor。
+     */
+    private Object[] match(Advisor advisor, Method method, Class<?> actualClass, boolean hasIntroductions) {
+        AdvisorAdapterRegistry registry = GlobalAdvisorAdapterRegistry.getInstance();
+        if (advisor instanceof PointcutAdvisor) {
+            PointcutAdvisor pointcutAdvisor = (PointcutAdvisor) advisor;
+            if (!isPreFiltered() && !pointcutAdvisor.getPointcut().getClassFilter().matches(actualClass)) {
+                return new Object[0];
+            }
+            MethodMatcher mm = pointcutAdvisor.getPointcut().getMethodMatcher();
+            boolean match = (mm instanceof IntroductionAwareMethodMatcher ?
+                    ((IntroductionAwareMethodMatcher) mm).matches(method, actualClass, hasIntroductions) :
+                    mm.matches(method, actualClass));
+            if (!match) {
+                return new Object[0];
+            }
+            MethodInterceptor[] interceptors = registry.getInterceptors(advisor);
+            if (!mm.isRuntime()) {
+                return interceptors;
+            }
+            Object[] dynamicInterceptors = new Object[interceptors.length];
+            for (int i = 0; i < interceptors.length; i++) {
+                dynamicInterceptors[i] = new DynamicMatchingInterceptor(interceptors[i], mm, actualClass);
+            }
+            return dynamicInterceptors;
+        }
+        if (advisor instanceof IntroductionAdvisor) {
+            IntroductionAdvisor introductionAdvisor = (IntroductionAdvisor) advisor;
+            if (!isPreFiltered() && !introductionAdvisor.getClassFilter().matches(actualClass)) {
+                return new Object[0];
+            }
+        }
+        return registry.getInterceptors(advisor);
+    }
+
+    private static boolean hasMatchingIntroductions(Advisor[] advisors, Class<?> actualClass) {
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof IntroductionAdvisor && ((IntroductionAdvisor) advisor).getClassFilter().matches(actualClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 不可变的 Advisor 数组及基于它构建的拦截器链。
+     */
+    private static final class ChainSnapshot {
+
+        private final Advisor[] advisors;
+
+        /**
+         * 每个 Advisor 在各个方法上贡献的拦截器，下标与 {@link #advisors} 对应
+         */
+        private final Map<ContributionKey, Object[]>[] contributions;
+
+        private final Map<MethodKey, List<Object>> chains = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        ChainSnapshot(Advisor[] advisors, @Nullable ChainSnapshot previous) {
+            this.advisors = advisors;
+            this.contributions = new Map[advisors.length];
+            // 按引用沿用上一个快照中仍然存在的 Advisor 的匹配结果，Advisor 的 hashCode 通常是常量，不适合作为散列键
+            Map<Advisor, Map<ContributionKey, Object[]>> reusable = new IdentityHashMap<>();
+            if (previous != null) {
+                for (int i = 0; i < previous.advisors.length; i++) {
+                    reusable.put(previous.advisors[i], previous.contributions[i]);
+                }
+            }
+            for (int i = 0; i < advisors.length; i++) {
+                Map<ContributionKey, Object[]> existing = reusable.get(advisors[i]);
+                this.contributions[i] = (existing != null ? existing : new ConcurrentHashMap<>());
+            }
+        }
+    }
+
+    /**
+     * 方法与目标类。
+     */
+    private static final class MethodKey {
+
+        private final Method method;
+
+        @Nullable
+        private final Class<?> targetClass;
+
+        private final int hashCode;
+
+        MethodKey(Method method, @Nullable Class<?> targetClass) {
+            this.method = method;
+            this.targetClass = targetClass;
+            this.hashCode = method.hashCode() * 31 + ObjectUtils.nullSafeHashCode(targetClass);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof MethodKey)) {
+                return false;
+            }
+            MethodKey otherKey = (MethodKey) other;
+            return (this.method.equals(otherKey.method) && this.targetClass == otherKey.targetClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * 决定一个 Advisor 匹配结果的全部输入。
+     */
+    private static final class ContributionKey {
+
+        private final Method method;
+
+        private final Class<?> actualClass;
+
+        private final boolean hasIntroductions;
+
+        private final boolean preFiltered;
+
+        ContributionKey(Method method, Class<?> actualClass, boolean hasIntroductions, boolean preFiltered) {
+            this.method = method;
+            this.actualClass = actualClass;
+            this.hasIntroductions = hasIntroductions;
+            this.preFiltered = preFiltered;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ContributionKey)) {
+                return false;
+            }
+            ContributionKey otherKey = (ContributionKey) other;
+            return (this.method.equals(otherKey.method) && this.actualClass == otherKey.actualClass &&
+                    this.hasIntroductions == otherKey.hasIntroductions && this.preFiltered == otherKey.preFiltered);
+        }
+
+        @Override
+        public int hashCode() {
+            return (this.method.hashCode() * 31 + this.actualClass.hashCode()) * 4 +
+                    (this.hasIntroductions ? 2 : 0) + (this.preFiltered ? 1 : 0);
+        }
+    }
+
+    /**
+     * 运行时匹配的拦截器。Spring 的 {@code InterceptorAndDynamicMethodMatcher} 不对外公开，这里在拦截器内部完成同样的参数匹配。
+     */
+    private static final class DynamicMatchingInterceptor implements MethodInterceptor {
+
+        private final MethodInterceptor interceptor;
+
+        private final MethodMatcher methodMatcher;
+
+        private final Class<?> targetClass;
+
+        DynamicMatchingInterceptor(MethodInterceptor interceptor, MethodMatcher methodMatcher, Class<?> targetClass) {
+            this.interceptor = interceptor;
+            this.methodMatcher = methodMatcher;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (this.methodMatcher.matches(invocation.getMethod(), this.targetClass, invocation.getArguments())) {
+                return this.interceptor.invoke(invocation);
+            }
+            return invocation.proceed();
+        }
+    }
+}
@@ -2,9 +2,16 @@ package com.xcs.spring;
 
 import org.springframework.aop.framework.ProxyFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class MethodInterceptorDemo {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // 创建代理工厂&创建目标对象
         ProxyFactory proxyFactory = new ProxyFactory(new MyService());
         // 创建通知
@@ -13,5 +20,40 @@ public class MethodInterceptorDemo {
         MyService proxy = (MyService) proxyFactory.getProxy();
         // 调用代理对象的方法
         proxy.foo();
+
+        // 合并并发的相同调用
+        MyQueryService queryService = new MyQueryService();
+        ProxyFactory singleFlightProxyFactory = new ProxyFactory(queryService);
+        SingleFlightMethodInterceptor singleFlightInterceptor = new SingleFlightMethodInterceptor();
+        singleFlightProxyFactory.addAdvice(singleFlightInterceptor);
+        MyQueryService queryProxy = (MyQueryService) singleFlightProxyFactory.getProxy();
+        // 10个线程同时以相同的参数查询
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                return queryProxy.findUser("1");
+            }));
+        }
+        startSignal.countDown();
+        for (Future<String> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        System.out.println("result = " + results.get(0).get() + ", queryCount = " + queryService.getQueryCount());
+        System.out.println(singleFlightInterceptor);
+
+        // 按采样追踪方法调用
+        SamplingTraceInterceptor traceInterceptor = new SamplingTraceInterceptor(TraceSampler.everyNth(4), new SpanRingBuffer(16));
+        ProxyFactory traceProxyFactory = new ProxyFactory(new MyService());
+        traceProxyFactory.addAdvice(traceInterceptor);
+        MyService traceProxy = (MyService) traceProxyFactory.getProxy();
+        for (int i = 0; i < 8; i++) {
+            traceProxy.foo();
+        }
+        traceInterceptor.exportSpans().forEach(System.out::println);
+        System.out.println(traceInterceptor);
     }
 }
@@ -0,0 +1,20 @@
+package com.xcs.spring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MyQueryService {
+
+    private final AtomicInteger queryCount = new AtomicInteger();
+
+    public String findUser(String id) throws InterruptedException {
+        System.out.println("findUser " + id + "...");
+        queryCount.incrementAndGet();
+        // 模拟耗时的后端查询
+        Thread.sleep(100);
+        return "user-" + id;
+    }
+
+    public int getQueryCount() {
+        return queryCount.get();
+    }
+}
@@ -0,0 +1,67 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * 按采样记录方法调用耗时的方法拦截器。
+ * <p>
+ * 每次调用先由 {@link TraceSampler} 判断是否采样，未被采样的调用直接执行 {@code proceed()}，不读取时钟、不创建对象；
+ * 被采样的调用记录开始时间、耗时、调用线程以及抛出的异常类型，写入预先分配的 {@link SpanRingBuffer}，
+ * 之后可以通过 {@link #exportSpans()} 导出。适合挂在整个服务层上做持续的低开销追踪。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:21:15
+ */
+public class SamplingTraceInterceptor implements MethodInterceptor {
+
+    private final TraceSampler sampler;
+
+    private final SpanRingBuffer buffer;
+
+    public SamplingTraceInterceptor(TraceSampler sampler, SpanRingBuffer buffer) {
+        Assert.notNull(sampler, "TraceSampler must not be null");
+        Assert.notNull(buffer, "SpanRingBuffer must not be null");
+        this.sampler = sampler;
+        this.buffer = buffer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!this.sampler.isSampled()) {
+            return invocation.proceed();
+        }
+        Class<? extends Throwable> errorType = null;
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            errorType = ex.getClass();
+            throw ex;
+        } finally {
+            long duration = System.nanoTime() - start;
+            this.buffer.record(invocation.getMethod(), Thread.currentThread().getName(), start, duration, errorType);
+        }
+    }
+
+    public SpanRingBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * 导出环形缓冲区中最近被采样的调用。
+     *
+     * @return 按记录顺序排列的调用
+     */
+    public List<Span> exportSpans() {
+        return this.buffer.export();
+    }
+
+    @Override
+    public String toString() {
+        return "SamplingTraceInterceptor{" + this.buffer + '}';
+    }
+}
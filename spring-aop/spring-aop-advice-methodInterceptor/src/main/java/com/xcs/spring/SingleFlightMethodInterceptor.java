@@ -0,0 +1,198 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 合并并发相同调用的方法拦截器（single-flight）。
+ * <p>
+ * 同一时刻多个线程以相同的参数调用同一个目标对象的同一个方法时，只有第一个线程（leader）真正调用目标方法，
+ * 其余线程等待它的结果，最终所有调用方得到同一个返回值或同一个异常。调用完成后立即移除记录，不缓存结果，
+ * 之后的调用会重新调用目标方法。参数通过 {@link KeyGenerator} 转换为键，默认使用 {@link SimpleKeyGenerator}。
+ * <p>
+ * 等待超过 {@code maxWait} 的线程不再等待，自己调用目标方法；leader 在调用过程中再次以相同的参数调用时也直接调用，避免等待自己。
+ * 等待中被中断的线程保留中断状态并抛出 {@link CancellationException}，不会调用目标方法。
+ * 只适用于幂等的方法，并且调用方不应修改共享的返回值。
+ *
+ * @author xcs
+ * @date 2026年10月19日01:10:37
+ */
+public class SingleFlightMethodInterceptor implements MethodInterceptor {
+
+    private final KeyGenerator keyGenerator;
+
+    private final long maxWaitNanos;
+
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+
+    private final LongAdder invocationCount = new LongAdder();
+
+    private final LongAdder collapsedCount = new LongAdder();
+
+    private final LongAdder timeoutCount = new LongAdder();
+
+    public SingleFlightMethodInterceptor() {
+        this(new SimpleKeyGenerator(), Duration.ofSeconds(30));
+    }
+
+    public SingleFlightMethodInterceptor(KeyGenerator keyGenerator, Duration maxWait) {
+        Assert.notNull(keyGenerator, "KeyGenerator must not be null");
+        Assert.isTrue(maxWait != null && !maxWait.isNegative(), "Max wait must not be negative");
+        this.keyGenerator = keyGenerator;
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        Object argumentsKey = this.keyGenerator.generate(target, invocation.getMethod(), invocation.getArguments());
+        FlightKey key = new FlightKey(target, invocation.getMethod(), argumentsKey);
+        Flight flight = new Flight();
+        Flight existing = this.flights.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, invocation);
+        }
+        if (existing.leader == Thread.currentThread()) {
+            return proceed(invocation);
+        }
+        return follow(existing, invocation);
+    }
+
+    private Object lead(FlightKey key, Flight flight, MethodInvocation invocation) throws Throwable {
+        try {
+            Object result = proceed(invocation);
+            flight.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            this.flights.remove(key, flight);
+        }
+    }
+
+    private Object follow(Flight flight, MethodInvocation invocation) throws Throwable {
+        try {
+            Object result = flight.get(this.maxWaitNanos, TimeUnit.NANOSECONDS);
+            this.collapsedCount.increment();
+            return result;
+        } catch (ExecutionException ex) {
+            this.collapsedCount.increment();
+            throw ex.getCause();
+        } catch (TimeoutException ex) {
+            this.timeoutCount.increment();
+            return proceed(invocation);
+        } catch (InterruptedException ex) {
+            // 保留中断状态并放弃这次调用，被中断的线程不应再调用目标方法
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Interrupted while waiting for in-flight call to " + invocation.getMethod());
+            cancelled.initCause(ex);
+            throw cancelled;
+        }
+    }
+
+    private Object proceed(MethodInvocation invocation) throws Throwable {
+        this.invocationCount.increment();
+        return invocation.proceed();
+    }
+
+    /**
+     * 获取实际调用目标方法的次数。
+     *
+     * @return 调用次数
+     */
+    public long getInvocationCount() {
+        return this.invocationCount.sum();
+    }
+
+    /**
+     * 获取被合并、直接使用其他线程结果的调用次数。
+     *
+     * @return 合并次数
+     */
+    public long getCollapsedCount() {
+        return this.collapsedCount.sum();
+    }
+
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    public int getInFlightCount() {
+        return this.flights.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlightMethodInterceptor{" +
+                "invocations=" + getInvocationCount() +
+                ", collapsed=" + getCollapsedCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", inFlight=" + getInFlightCount() +
+                '}';
+    }
+
+    /**
+     * 正在进行的调用，记录 leader 线程以识别重入。
+     */
+    private static final class Flight extends CompletableFuture<Object> {
+
+        private final Thread leader = Thread.currentThread();
+    }
+
+    /**
+     * 目标对象（按引用比较）、方法与参数键。
+     */
+    private static final class FlightKey {
+
+        @Nullable
+        private final Object target;
+
+        private final Method method;
+
+        private final Object argumentsKey;
+
+        private final int hashCode;
+
+        FlightKey(@Nullable Object target, Method method, Object argumentsKey) {
+            this.target = target;
+            this.method = method;
+            this.argumentsKey = argumentsKey;
+            this.hashCode = (System.identityHashCode(target) * 31 + this.method.hashCode()) * 31 + ObjectUtils.nullSafeHashCode(argumentsKey);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof FlightKey)) {
+                return false;
+            }
+            FlightKey otherKey = (FlightKey) other;
+            return (this.target == otherKey.target && this.method.equals(otherKey.method) &&
+                    ObjectUtils.nullSafeEquals(this.argumentsKey, otherKey.argumentsKey));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.xcs.spring;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.time.Instant;
+
+/**
+ * 从 {@link SpanRingBuffer} 导出的一次被采样的方法调用。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:15:31
+ */
+public final class Span {
+
+    private final long sequence;
+
+    private final Method method;
+
+    private final String threadName;
+
+    private final long startEpochNanos;
+
+    private final long durationNanos;
+
+    @Nullable
+    private final Class<? extends Throwable> errorType;
+
+    Span(long sequence, Method method, String threadName, long startEpochNanos, long durationNanos,
+         @Nullable Class<? extends Throwable> errorType) {
+        this.sequence = sequence;
+        this.method = method;
+        this.threadName = threadName;
+        this.startEpochNanos = startEpochNanos;
+        this.durationNanos = durationNanos;
+        this.errorType = errorType;
+    }
+
+    /**
+     * 获取写入环形缓冲区时的序号，序号越大记录得越晚。
+     *
+     * @return 序号
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    public String getName() {
+        return this.method.getDeclaringClass().getSimpleName() + "#" + this.method.getName();
+    }
+
+    public String getThreadName() {
+        return this.threadName;
+    }
+
+    public Instant getStartTime() {
+        return Instant.ofEpochSecond(0, this.startEpochNanos);
+    }
+
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * 获取目标方法抛出的异常类型。
+     *
+     * @return 异常类型，正常返回时为 {@code null}
+     */
+    @Nullable
+    public Class<? extends Throwable> getErrorType() {
+        return this.errorType;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "sequence=" + this.sequence +
+                ", name=" + getName() +
+                ", thread=" + this.threadName +
+                ", start=" + getStartTime() +
+                ", duration=" + this.durationNanos + "ns" +
+                (this.errorType != null ? ", error=" + this.errorType.getName() : "") +
+                '}';
+    }
+}
@@ -0,0 +1,164 @@
+package com.xcs.spring;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预先分配的环形缓冲区，保存最近被采样的方法调用，供 {@link SamplingTraceInterceptor} 写入。
+ * <p>
+ * 每个字段单独保存在一个创建时分配好的数组中，写入一条记录不创建任何对象；缓冲区写满后新的记录覆盖最旧的记录。
+ * 写入方通过递增序号取得槽位，每个槽位带有一个版本号：写入前通过CAS把版本号改为写入中，写完后设置为本条记录的序号。
+ * 导出时只读取版本号在读取前后都等于期望序号的槽位，正在写入或在读取期间被覆盖的记录会被跳过，导出方不会阻塞写入方。
+ * 一个写入方落后整整一圈、其槽位已经被更新的记录占用或正在写入时，它的记录被丢弃并计入 {@link #getDroppedCount()}。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:17:49
+ */
+public class SpanRingBuffer {
+
+    private static final long WRITING = Long.MIN_VALUE;
+
+    private final int mask;
+
+    private final AtomicLong cursor = new AtomicLong();
+
+    private final AtomicLongArray versions;
+
+    private final Method[] methods;
+
+    private final String[] threadNames;
+
+    private final long[] startTimes;
+
+    private final long[] durations;
+
+    private final Class<?>[] errorTypes;
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * {@link System#nanoTime()} 与纪元时间之间的换算基准
+     */
+    private final long baseEpochNanos;
+
+    private final long baseNanoTime;
+
+    /**
+     * 创建环形缓冲区。
+     *
+     * @param capacity 容量，向上取整为2的幂
+     */
+    public SpanRingBuffer(int capacity) {
+        Assert.isTrue(capacity > 0 && capacity <= (1 << 30), "Capacity must be between 1 and 2^30");
+        int size = (capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = size - 1;
+        this.versions = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            // 序号从0开始，初始版本号小于任何序号
+            this.versions.set(i, -1);
+        }
+        this.methods = new Method[size];
+        this.threadNames = new String[size];
+        this.startTimes = new long[size];
+        this.durations = new long[size];
+        this.errorTypes = new Class<?>[size];
+        Instant now = Instant.now();
+        this.baseNanoTime = System.nanoTime();
+        this.baseEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * 写入一条记录。
+     *
+     * @param method        被调用的方法
+     * @param threadName    调用线程名称
+     * @param startNanoTime 开始时的 {@link System#nanoTime()}
+     * @param durationNanos 耗时
+     * @param errorType     抛出的异常类型，正常返回时为 {@code null}
+     */
+    public void record(Method method, String threadName, long startNanoTime, long durationNanos,
+                       @Nullable Class<? extends Throwable> errorType) {
+        long sequence = this.cursor.getAndIncrement();
+        int index = (int) sequence & this.mask;
+        long version = this.versions.get(index);
+        if (version == WRITING || version >= sequence || !this.versions.compareAndSet(index, version, WRITING)) {
+            this.droppedCount.increment();
+            return;
+        }
+        // 确保导出方先看到写入中的版本号，再看到新的字段
+        VarHandle.storeStoreFence();
+        this.methods[index] = method;
+        this.threadNames[index] = threadName;
+        this.startTimes[index] = startNanoTime;
+        this.durations[index] = durationNanos;
+        this.errorTypes[index] = errorType;
+        // volatile 写保证以上字段先于版本号可见
+        this.versions.set(index, sequence);
+    }
+
+    /**
+     * 导出缓冲区中当前保存的记录，不会清除它们。
+     *
+     * @return 按序号从旧到新排列的记录
+     */
+    @SuppressWarnings("unchecked")
+    public List<Span> export() {
+        long end = this.cursor.get();
+        long start = Math.max(0, end - this.methods.length);
+        List<Span> spans = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            int index = (int) sequence & this.mask;
+            if (this.versions.get(index) != sequence) {
+                continue;
+            }
+            Method method = this.methods[index];
+            String threadName = this.threadNames[index];
+            long startNanoTime = this.startTimes[index];
+            long durationNanos = this.durations[index];
+            Class<?> errorType = this.errorTypes[index];
+            // 确保以上读取先于再次读取版本号完成
+            VarHandle.loadLoadFence();
+            if (this.versions.get(index) != sequence) {
+                continue;
+            }
+            spans.add(new Span(sequence, method, threadName, this.baseEpochNanos + (startNanoTime - this.baseNanoTime),
+                    durationNanos, (Class<? extends Throwable>) errorType));
+        }
+        return spans;
+    }
+
+    public int getCapacity() {
+        return this.methods.length;
+    }
+
+    /**
+     * 获取写入过的记录总数，包括已被覆盖和被丢弃的记录。
+     *
+     * @return 记录总数
+     */
+    public long getRecordedCount() {
+        return this.cursor.get();
+    }
+
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SpanRingBuffer{" +
+                "capacity=" + getCapacity() +
+                ", recorded=" + getRecordedCount() +
+                ", dropped=" + getDroppedCount() +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.xcs.spring;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 决定一次调用是否被 {@link SamplingTraceInterceptor} 采样。
+ * <p>
+ * 每次调用都会执行一次判断，实现必须足够廉价并且线程安全，不应加锁或写共享变量。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:14:06
+ */
+@FunctionalInterface
+public interface TraceSampler {
+
+    /**
+     * 判断当前调用是否被采样。
+     *
+     * @return 被采样时返回 {@code true}
+     */
+    boolean isSampled();
+
+    /**
+     * 每个线程每 {@code n} 次调用采样一次，使用线程本地的计数器，线程之间不共享任何状态。
+     *
+     * @param n 采样间隔，为1时采样全部调用
+     * @return 采样器
+     */
+    static TraceSampler everyNth(int n) {
+        Assert.isTrue(n > 0, "Sampling interval must be positive");
+        // 每个线程从随机位置开始计数，避免所有线程在同一轮调用上被采样
+        ThreadLocal<int[]> countdown = ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt(n) + 1});
+        return () -> {
+            int[] remaining = countdown.get();
+            if (--remaining[0] > 0) {
+                return false;
+            }
+            remaining[0] = n;
+            return true;
+        };
+    }
+
+    /**
+     * 以固定的概率随机采样，使用 {@link ThreadLocalRandom}。
+     *
+     * @param probability 采样概率，0到1之间
+     * @return 采样器
+     */
+    static TraceSampler probability(double probability) {
+        Assert.isTrue(probability >= 0.0 && probability <= 1.0, "Sampling probability must be between 0 and 1");
+        return () -> ThreadLocalRandom.current().nextDouble() < probability;
+    }
+}
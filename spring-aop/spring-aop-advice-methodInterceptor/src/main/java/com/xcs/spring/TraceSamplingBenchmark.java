@@ -0,0 +1,113 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量 {@link SamplingTraceInterceptor} 在不同采样率下给每次调用增加的开销。
+ * <p>
+ * {@code baseline} 直接调用 {@code proceed()}；{@code everyNth1024} 与 {@code probability1024} 分别按线程本地计数和随机数
+ * 每1024次调用采样一次；{@code always} 记录每一次调用，相当于不做采样的追踪拦截器。直接调用拦截器，排除代理本身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceSamplingBenchmark {
+
+    private MethodInterceptor everyNthInterceptor;
+
+    private MethodInterceptor probabilityInterceptor;
+
+    private MethodInterceptor alwaysInterceptor;
+
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setup() throws Exception {
+        this.everyNthInterceptor = new SamplingTraceInterceptor(TraceSampler.everyNth(1024), new SpanRingBuffer(4096));
+        this.probabilityInterceptor = new SamplingTraceInterceptor(TraceSampler.probability(1.0 / 1024), new SpanRingBuffer(4096));
+        this.alwaysInterceptor = new SamplingTraceInterceptor(TraceSampler.everyNth(1), new SpanRingBuffer(4096));
+        this.invocation = new ReturningInvocation(MyService.class.getMethod("foo"));
+    }
+
+    @Benchmark
+    public Object baseline() throws Throwable {
+        return this.invocation.proceed();
+    }
+
+    @Benchmark
+    public Object everyNth1024() throws Throwable {
+        return this.everyNthInterceptor.invoke(this.invocation);
+    }
+
+    @Benchmark
+    public Object probability1024() throws Throwable {
+        return this.probabilityInterceptor.invoke(this.invocation);
+    }
+
+    @Benchmark
+    public Object always() throws Throwable {
+        return this.alwaysInterceptor.invoke(this.invocation);
+    }
+
+    /**
+     * 直接返回固定值的方法调用。
+     */
+    private static class ReturningInvocation implements MethodInvocation {
+
+        private final Method method;
+
+        private final Object[] arguments = new Object[0];
+
+        private final Object target = new Object();
+
+        ReturningInvocation(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Method getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return this.arguments;
+        }
+
+        @Override
+        public Object proceed() {
+            return "this is a foo";
+        }
+
+        @Override
+        public Object getThis() {
+            return this.target;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return this.method;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TraceSamplingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,222 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.AfterAdvice;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带异常分派缓存的 {@link org.springframework.aop.ThrowsAdvice} 拦截器。
+ * <p>
+ * 处理方法的约定与 {@link org.springframework.aop.framework.adapter.ThrowsAdviceInterceptor} 相同：
+ * {@code afterThrowing([Method, args, target], ThrowableSubclass)}。区别在于：
+ * <ul>
+ *     <li>按抛出的异常的具体类型缓存查找结果，同一种异常只沿继承层次查找一次；</li>
+ *     <li>没有对应处理方法的异常类型同样会被缓存（负缓存），不会在每次抛出时重新查找；</li>
+ *     <li>缓存的条目数有上限，超出后移除任意条目，避免异常类型过多时无限增长；</li>
+ *     <li>处理方法在创建时转换为绑定了通知对象的 {@link MethodHandle}，调用时不再经过反射。</li>
+ * </ul>
+ * 通过 {@code proxyFactory.addAdvice(new CachedThrowsAdviceInterceptor(throwsAdvice))} 使用，
+ * 不要同时直接添加同一个 ThrowsAdvice，否则默认的适配器会再创建一个拦截器。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:52:30
+ */
+public class CachedThrowsAdviceInterceptor implements MethodInterceptor, AfterAdvice {
+
+    private static final String AFTER_THROWING = "afterThrowing";
+
+    /**
+     * 单参数处理方法转换后的统一类型
+     */
+    private static final MethodType SHORT_TYPE = MethodType.methodType(void.class, Throwable.class);
+
+    /**
+     * 四参数处理方法转换后的统一类型
+     */
+    private static final MethodType FULL_TYPE = MethodType.methodType(void.class, Method.class, Object[].class, Object.class, Throwable.class);
+
+    /**
+     * 负缓存的占位值
+     */
+    private static final Handler NO_HANDLER = new Handler(null, false);
+
+    private final Object throwsAdvice;
+
+    /**
+     * 处理方法声明的异常类型到处理方法的映射
+     */
+    private final Map<Class<?>, Handler> declaredHandlers = new HashMap<>();
+
+    /**
+     * 抛出的异常的具体类型到处理方法的缓存
+     */
+    private final Map<Class<?>, Handler> dispatchCache = new ConcurrentHashMap<>();
+
+    private final int maxCacheSize;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    public CachedThrowsAdviceInterceptor(Object throwsAdvice) {
+        this(throwsAdvice, 256);
+    }
+
+    public CachedThrowsAdviceInterceptor(Object throwsAdvice, int maxCacheSize) {
+        Assert.notNull(throwsAdvice, "Advice must not be null");
+        Assert.isTrue(maxCacheSize > 0, "maxCacheSize must be greater than 0");
+        this.throwsAdvice = throwsAdvice;
+        this.maxCacheSize = maxCacheSize;
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Method method : throwsAdvice.getClass().getMethods()) {
+            if (!method.getName().equals(AFTER_THROWING) || Modifier.isStatic(method.getModifiers()) ||
+                    (method.getParameterCount() != 1 && method.getParameterCount() != 4)) {
+                continue;
+            }
+            Class<?> exceptionClass = method.getParameterTypes()[method.getParameterCount() - 1];
+            if (!Throwable.class.isAssignableFrom(exceptionClass)) {
+                continue;
+            }
+            boolean full = method.getParameterCount() == 4;
+            try {
+                // 通知类不是 public 时也可以访问
+                ReflectionUtils.makeAccessible(method);
+                MethodHandle handle = lookup.unreflect(method).bindTo(throwsAdvice).asType(full ? FULL_TYPE : SHORT_TYPE);
+                this.declaredHandlers.put(exceptionClass, new Handler(handle, full));
+            } catch (IllegalAccessException ex) {
+                throw new AopConfigException("无法访问异常处理方法 [" + method + "]", ex);
+            }
+        }
+        if (this.declaredHandlers.isEmpty()) {
+            throw new IllegalArgumentException("At least one handler method must be found in class [" + throwsAdvice.getClass() + "]");
+        }
+    }
+
+    public int getHandlerMethodCount() {
+        return this.declaredHandlers.size();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        try {
+            return mi.proceed();
+        } catch (Throwable ex) {
+            Handler handler = getHandler(ex.getClass());
+            if (handler != NO_HANDLER) {
+                if (handler.full) {
+                    handler.handle.invokeExact(mi.getMethod(), mi.getArguments(), mi.getThis(), ex);
+                } else {
+                    handler.handle.invokeExact(ex);
+                }
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * 获取异常类型对应的处理方法，优先读取缓存。
+     *
+     * @param exceptionClass 抛出的异常的具体类型
+     * @return 处理方法，没有时返回 {@link #NO_HANDLER}
+     */
+    private Handler getHandler(Class<?> exceptionClass) {
+        Handler handler = this.dispatchCache.get(exceptionClass);
+        if (handler != null) {
+            this.hitCount.increment();
+            return handler;
+        }
+        this.missCount.increment();
+        handler = NO_HANDLER;
+        // 与 ThrowsAdviceInterceptor 相同：沿继承层次查找最接近的处理方法
+        for (Class<?> current = exceptionClass; current != Throwable.class && current != null; current = current.getSuperclass()) {
+            Handler declared = this.declaredHandlers.get(current);
+            if (declared != null) {
+                handler = declared;
+                break;
+            }
+        }
+        if (handler == NO_HANDLER) {
+            handler = this.declaredHandlers.getOrDefault(Throwable.class, NO_HANDLER);
+        }
+        if (this.dispatchCache.size() >= this.maxCacheSize) {
+            evict();
+        }
+        this.dispatchCache.put(exceptionClass, handler);
+        return handler;
+    }
+
+    /**
+     * 移除任意条目，使缓存回到上限以内。
+     */
+    private void evict() {
+        Iterator<Class<?>> iterator = this.dispatchCache.keySet().iterator();
+        while (this.dispatchCache.size() >= this.maxCacheSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            this.evictionCount.increment();
+        }
+    }
+
+    public int getCacheSize() {
+        return this.dispatchCache.size();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedThrowsAdviceInterceptor{" +
+                "throwsAdvice=" + this.throwsAdvice.getClass().getName() +
+                ", handlers=" + this.declaredHandlers.size() +
+                ", cacheSize=" + getCacheSize() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+
+    /**
+     * 处理方法。
+     */
+    private static final class Handler {
+
+        final MethodHandle handle;
+
+        /**
+         * 是否为四参数形式
+         */
+        final boolean full;
+
+        Handler(MethodHandle handle, boolean full) {
+            this.handle = handle;
+            this.full = full;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ThrowsAdvice;
+import org.springframework.aop.framework.adapter.ThrowsAdviceInterceptor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在高频抛出异常的场景下对比 Spring 默认的 {@code ThrowsAdviceInterceptor} 与 {@link CachedThrowsAdviceInterceptor}。
+ * <p>
+ * 直接调用拦截器，方法调用抛出预先创建、不填充栈轨迹的异常，使结果只反映处理方法的查找与调用开销。
+ * {@code handled} 抛出的异常在继承层次上方存在处理方法，{@code unhandled} 抛出的异常没有对应的处理方法。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThrowsAdviceBenchmark {
+
+    @Param({"handled", "unhandled"})
+    private String exception;
+
+    private MethodInterceptor throwsAdviceInterceptor;
+
+    private MethodInterceptor cachedThrowsAdviceInterceptor;
+
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        RuntimeException toThrow = "handled".equals(this.exception) ? new RetryRequestedException() : new AbortRequestedException();
+        this.invocation = new ThrowingInvocation(FlowControl.class.getMethod("proceed"), toThrow);
+        this.throwsAdviceInterceptor = new ThrowsAdviceInterceptor(new CountingThrowsAdvice());
+        this.cachedThrowsAdviceInterceptor = new CachedThrowsAdviceInterceptor(new CountingThrowsAdvice());
+    }
+
+    @Benchmark
+    public Object throwsAdviceInterceptor() throws Throwable {
+        try {
+            return this.throwsAdviceInterceptor.invoke(this.invocation);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object cachedThrowsAdviceInterceptor() throws Throwable {
+        try {
+            return this.cachedThrowsAdviceInterceptor.invoke(this.invocation);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    public interface FlowControl {
+        void proceed();
+    }
+
+    /**
+     * 每次执行都直接抛出同一个异常的方法调用，避免代理与反射调用的开销掩盖处理方法的分派开销。
+     */
+    static class ThrowingInvocation implements MethodInvocation {
+
+        private final Method method;
+
+        private final RuntimeException exception;
+
+        ThrowingInvocation(Method method, RuntimeException exception) {
+            this.method = method;
+            this.exception = exception;
+        }
+
+        @Override
+        public Method getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object proceed() {
+            throw this.exception;
+        }
+
+        @Override
+        public Object getThis() {
+            return null;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return this.method;
+        }
+    }
+
+    /**
+     * 只处理 {@link IllegalArgumentException} 的异常通知，处理时只做计数。
+     */
+    public static class CountingThrowsAdvice implements ThrowsAdvice {
+
+        private long count;
+
+        public void afterThrowing(IllegalArgumentException ex) {
+            this.count++;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+    }
+
+    /**
+     * 用于控制流程的异常，处理方法声明在其父类上。
+     */
+    public static class RetryRequestedException extends IllegalArgumentException {
+        public RetryRequestedException() {
+            super("retry", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * 用于控制流程的异常，没有对应的处理方法。
+     */
+    public static class AbortRequestedException extends IllegalStateException {
+        public AbortRequestedException() {
+            super("abort", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ThrowsAdviceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -11,6 +11,22 @@ public class ThrowsAdviceDemo {
         proxyFactory.addAdvice(new MyThrowsAdvice());
         // 获取代理对象
         MyService proxy = (MyService) proxyFactory.getProxy();
+
+        // 创建代理工厂&创建目标对象，使用带异常分派缓存的拦截器执行同一个异常通知
+        ProxyFactory cachedProxyFactory = new ProxyFactory(new MyService());
+        CachedThrowsAdviceInterceptor interceptor = new CachedThrowsAdviceInterceptor(new MyThrowsAdvice());
+        cachedProxyFactory.addAdvice(interceptor);
+        MyService cachedProxy = (MyService) cachedProxyFactory.getProxy();
+        for (int i = 0; i < 2; i++) {
+            try {
+                cachedProxy.foo();
+            } catch (ArithmeticException ex) {
+                // 忽略异常，继续下一次调用
+            }
+        }
+        // 打印分派缓存的统计信息
+        System.out.println(interceptor);
+
         // 调用代理对象的方法
         proxy.foo();
     }
@@ -2,9 +2,14 @@ package com.xcs.spring;
 
 import org.springframework.aop.framework.ProxyFactory;
 
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 public class AdvisorDemo {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // 创建代理工厂
         ProxyFactory proxyFactory = new ProxyFactory(new MyService());
         // 添加Advisor
@@ -13,5 +18,41 @@ public class AdvisorDemo {
         MyService proxy = (MyService) proxyFactory.getProxy();
         // 调用方法
         proxy.foo();
+
+        // 缓存带有 @MyCacheable 注解的方法，写入200毫秒后在后台刷新，1秒后过期
+        WTinyLfuCache<Object, Object> cache = WTinyLfuCache.builder()
+                .maximumSize(1000)
+                .refreshAfterWrite(Duration.ofMillis(200))
+                .expireAfterWrite(Duration.ofSeconds(1))
+                .build();
+        MemoizingAdvisor memoizingAdvisor = new MemoizingAdvisor(cache);
+        ProxyFactory cachingProxyFactory = new ProxyFactory(new MyService());
+        cachingProxyFactory.addAdvisor(memoizingAdvisor);
+        MyService cachingProxy = (MyService) cachingProxyFactory.getProxy();
+        System.out.println(cachingProxy.findUser("1"));
+        System.out.println(cachingProxy.findUser("1"));
+        System.out.println(cachingProxy.findUser("2"));
+        // 超过刷新时间后仍返回旧值，同时在后台重新加载
+        Thread.sleep(300);
+        System.out.println(cachingProxy.findUser("1"));
+        Thread.sleep(100);
+        System.out.println(cachingProxy.findUser("1"));
+        System.out.println(memoizingAdvisor.getStats());
+
+        // 对带有 @MyIdempotent 注解的方法发起对冲调用，对冲延迟取p90，对冲调用最多占10%
+        ThreadPoolExecutor hedgeExecutor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16));
+        HedgingMethodInterceptor hedgingInterceptor = new HedgingMethodInterceptor(hedgeExecutor, 90, 0.1);
+        hedgingInterceptor.setWindowSize(20);
+        ProxyFactory hedgingProxyFactory = new ProxyFactory(new MyService());
+        hedgingProxyFactory.addAdvisor(new HedgingAdvisor(hedgingInterceptor));
+        MyService hedgingProxy = (MyService) hedgingProxyFactory.getProxy();
+        for (int i = 0; i < 100; i++) {
+            hedgingProxy.findOrder(String.valueOf(i));
+        }
+        // 等待被取消的第一次调用结束，记录节省的耗时
+        Thread.sleep(300);
+        hedgeExecutor.shutdown();
+        System.out.println(hedgingInterceptor);
+        System.out.println(hedgingInterceptor.exportLatencies());
     }
 }
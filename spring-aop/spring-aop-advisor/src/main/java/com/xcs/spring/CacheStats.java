@@ -0,0 +1,110 @@
+package com.xcs.spring;
+
+/**
+ * {@link WTinyLfuCache} 的统计快照。
+ *
+ * @author xcs
+ * @date 2026年10月19日01:29:10
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long loadSuccessCount;
+
+    private final long loadFailureCount;
+
+    private final long totalLoadTime;
+
+    private final long refreshCount;
+
+    private final long evictionCount;
+
+    private final long evictionWeight;
+
+    CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount,
+               long totalLoadTime, long refreshCount, long evictionCount, long evictionWeight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTime = totalLoadTime;
+        this.refreshCount = refreshCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+    }
+
+    public long getHitCount() {
+        return this.hitCount;
+    }
+
+    public long getMissCount() {
+        return this.missCount;
+    }
+
+    /**
+     * 获取命中率。
+     *
+     * @return 命中次数占查询次数的比例，没有查询时返回 1.0
+     */
+    public double getHitRate() {
+        long requestCount = this.hitCount + this.missCount;
+        return (requestCount == 0 ? 1.0 : (double) this.hitCount / requestCount);
+    }
+
+    public long getLoadSuccessCount() {
+        return this.loadSuccessCount;
+    }
+
+    public long getLoadFailureCount() {
+        return this.loadFailureCount;
+    }
+
+    /**
+     * 获取加载（包括后台刷新）花费的总时间。
+     *
+     * @return 纳秒
+     */
+    public long getTotalLoadTime() {
+        return this.totalLoadTime;
+    }
+
+    /**
+     * 获取每次加载的平均耗时。
+     *
+     * @return 纳秒，没有加载时返回 0
+     */
+    public double getAverageLoadPenalty() {
+        long loadCount = this.loadSuccessCount + this.loadFailureCount;
+        return (loadCount == 0 ? 0.0 : (double) this.totalLoadTime / loadCount);
+    }
+
+    public long getRefreshCount() {
+        return this.refreshCount;
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount;
+    }
+
+    public long getEvictionWeight() {
+        return this.evictionWeight;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "hits=" + this.hitCount +
+                ", misses=" + this.missCount +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                ", loads=" + this.loadSuccessCount +
+                ", loadFailures=" + this.loadFailureCount +
+                ", averageLoadPenalty=" + String.format("%.0f", getAverageLoadPenalty()) + "ns" +
+                ", refreshes=" + this.refreshCount +
+                ", evictions=" + this.evictionCount +
+                ", evictionWeight=" + this.evictionWeight +
+                '}';
+    }
+}
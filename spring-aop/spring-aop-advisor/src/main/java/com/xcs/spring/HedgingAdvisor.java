@@ -0,0 +1,41 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * 对冲Advisor，对带有 {@link MyIdempotent} 注解的方法发起对冲调用。
+ */
+public class HedgingAdvisor implements PointcutAdvisor {
+
+    /**
+     * 通知对象
+     */
+    private final HedgingMethodInterceptor advice;
+
+    /**
+     * 切点对象，用于匹配带有幂等注解的方法
+     */
+    private final Pointcut pointcut = new AnnotationMatchingPointcut(null, MyIdempotent.class);
+
+    public HedgingAdvisor(HedgingMethodInterceptor advice) {
+        this.advice = advice;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+
+    @Override
+    public boolean isPerInstance() {
+        return true;
+    }
+}
@@ -0,0 +1,557 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.framework.ReflectiveMethodInvocation;
+import org.springframework.core.MethodClassKey;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对冲调用（hedged request）的方法拦截器，用于降低幂等方法的尾延迟。
+ * <p>
+ * 第一次调用（primary）提交到有界的线程池中执行，调用方最多等待对冲延迟；超过延迟仍未返回时，在同一个线程池中再发起一次调用（hedge），
+ * 两次调用中先成功返回的结果被返回给调用方，另一次调用被取消：尚未开始执行的不再执行，已经在执行的继续运行，结果被丢弃。
+ * 正在执行的调用不会被中断，中断任意的业务代码并不安全，例如被中断的NIO通道会被关闭。只有两次调用都失败时才抛出异常，优先抛出第一次调用的异常。
+ * <p>
+ * 对冲延迟取每个方法第一次调用耗时的百分位（例如p95），每积累 {@code windowSize} 个样本重新计算一次，样本不足时使用初始延迟。
+ * 对冲的频率受令牌桶限制：每次调用增加 {@code maxHedgeRatio} 个令牌，每次对冲消耗一个令牌，最多积累10个，
+ * 后端整体变慢时对冲调用不会使负载翻倍。线程池拒绝第一次调用时在当前线程中直接调用，不做对冲。
+ * <p>
+ * 每个方法记录调用方观察到的耗时，以及对冲胜出时第一次调用实际多花的时间（第一次调用完成后才能得知），导出为延迟直方图。
+ * 调用在线程池中执行，依赖线程本地变量的逻辑（例如事务）不适合对冲；不是由 Spring 代理发起的调用不做对冲。
+ * 每次调用都在调用方线程上创建一个新的方法调用，从本拦截器之后的拦截器继续执行，并拥有原始用户属性的独立副本，
+ * 之后的 AspectJ 通知在属性中缓存的连接点不会在两次调用之间共享。代理没有实现 {@link Advised}（{@code opaque}）时
+ * 无法取得之后的拦截器，退回到 {@link ProxyMethodInvocation#invocableClone()}，此时两次调用共享用户属性。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:36:42
+ */
+public class HedgingMethodInterceptor implements MethodInterceptor {
+
+    /**
+     * 表示本拦截器不在代理的拦截器链中，无法取得之后的拦截器
+     */
+    private static final List<Object> UNKNOWN_CHAIN = Collections.emptyList();
+
+    /**
+     * 一个令牌对应的计数，令牌以千分之一为单位累积
+     */
+    private static final long TOKEN = 1000;
+
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final Executor executor;
+
+    private final double delayPercentile;
+
+    private final long tokensPerCall;
+
+    private final AtomicLong tokens = new AtomicLong(MAX_TOKENS);
+
+    private final AdvisorChainFactory chainFactory = new DefaultAdvisorChainFactory();
+
+    /**
+     * 代理的 Advisor 数组到（方法，目标类）之后拦截器链的缓存。代理配置变更时 Advisor 数组被整体替换，旧的条目自然失效
+     */
+    private final Map<Advisor[], Map<MethodClassKey, List<Object>>> remainingChains = new ConcurrentReferenceHashMap<>();
+
+    private volatile long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private volatile long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private volatile int windowSize = 100;
+
+    private final ConcurrentMap<Method, MethodStats> methodStats = new ConcurrentHashMap<>();
+
+    private final LongAdder callCount = new LongAdder();
+
+    private final LongAdder hedgeCount = new LongAdder();
+
+    private final LongAdder hedgeWinCount = new LongAdder();
+
+    private final LongAdder budgetDeniedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 创建对冲拦截器。
+     *
+     * @param executor        执行调用的线程池，应当是有界的
+     * @param delayPercentile 对冲延迟使用的百分位，例如95
+     * @param maxHedgeRatio   对冲调用占全部调用的最大比例，例如0.05
+     */
+    public HedgingMethodInterceptor(Executor executor, double delayPercentile, double maxHedgeRatio) {
+        Assert.notNull(executor, "Executor must not be null");
+        Assert.isTrue(delayPercentile > 0 && delayPercentile <= 100, "Delay percentile must be between 0 and 100");
+        Assert.isTrue(maxHedgeRatio >= 0 && maxHedgeRatio <= 1, "Max hedge ratio must be between 0 and 1");
+        this.executor = executor;
+        this.delayPercentile = delayPercentile;
+        this.tokensPerCall = Math.round(maxHedgeRatio * TOKEN);
+    }
+
+    /**
+     * 设置样本不足时使用的对冲延迟，默认100毫秒。
+     */
+    public void setInitialDelay(Duration initialDelay) {
+        this.initialDelayNanos = initialDelay.toNanos();
+    }
+
+    /**
+     * 设置对冲延迟的下限，默认1毫秒，避免耗时很短的方法几乎每次都对冲。
+     */
+    public void setMinDelay(Duration minDelay) {
+        this.minDelayNanos = minDelay.toNanos();
+    }
+
+    /**
+     * 设置重新计算对冲延迟的样本数量，默认100。
+     */
+    public void setWindowSize(int windowSize) {
+        Assert.isTrue(windowSize > 0, "Window size must be positive");
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(invocation instanceof ProxyMethodInvocation)) {
+            return invocation.proceed();
+        }
+        MethodStats stats = getMethodStats(invocation.getMethod());
+        this.callCount.increment();
+        addTokens(this.tokensPerCall);
+        ProxyMethodInvocation original = (ProxyMethodInvocation) invocation;
+        long start = System.nanoTime();
+        Race race = new Race(stats, start);
+        Attempt primary = new Attempt(race, newAttemptInvocation(original), true, start);
+        race.primary = primary;
+        try {
+            this.executor.execute(primary);
+        } catch (RejectedExecutionException ex) {
+            this.rejectedCount.increment();
+            try {
+                return invocation.proceed();
+            } finally {
+                stats.latencies.record(System.nanoTime() - start);
+            }
+        }
+        try {
+            return await(race, original, stats);
+        } finally {
+            stats.latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    private Object await(Race race, ProxyMethodInvocation original, MethodStats stats) throws Throwable {
+        try {
+            return race.outcome.get(stats.delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            hedge(race, original);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        } catch (InterruptedException ex) {
+            // 保留中断状态，继续等待结果
+            Thread.currentThread().interrupt();
+        }
+        try {
+            return race.outcome.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause();
+        } finally {
+            race.cancelLosers();
+        }
+    }
+
+    private void hedge(Race race, ProxyMethodInvocation original) {
+        if (!tryAcquireToken()) {
+            this.budgetDeniedCount.increment();
+            return;
+        }
+        Attempt hedge = new Attempt(race, newAttemptInvocation(original), false, System.nanoTime());
+        if (!race.add(hedge)) {
+            // 第一次调用已经失败，不再对冲
+            addTokens(TOKEN);
+            return;
+        }
+        try {
+            this.executor.execute(hedge);
+            this.hedgeCount.increment();
+        } catch (RejectedExecutionException ex) {
+            this.rejectedCount.increment();
+            addTokens(TOKEN);
+            hedge.cancel();
+        }
+    }
+
+    /**
+     * 在调用方线程上为一次调用创建方法调用，从本拦截器之后的拦截器继续执行。
+     * {@link ProxyMethodInvocation#invocableClone()} 复制出的调用与原始调用共享同一个用户属性映射，之后的 AspectJ 通知会把连接点缓存在其中，
+     * 两次调用并发执行时会同时读写这个映射，因此这里创建新的调用，并通过公开的 API 复制原始调用的用户属性。
+     *
+     * @param original 原始调用
+     * @return 只供一次调用使用的方法调用
+     */
+    private MethodInvocation newAttemptInvocation(ProxyMethodInvocation original) {
+        Object target = original.getThis();
+        Class<?> targetClass = (target != null ? target.getClass() : null);
+        List<Object> chain = getRemainingChain(original.getProxy(), original.getMethod(), targetClass);
+        if (chain == UNKNOWN_CHAIN) {
+            return original.invocableClone();
+        }
+        Object[] arguments = original.getArguments();
+        AttemptInvocation attempt = new AttemptInvocation(original.getProxy(), target, original.getMethod(),
+                (arguments.length == 0 ? arguments : arguments.clone()), targetClass, chain);
+        if (original instanceof ReflectiveMethodInvocation) {
+            ((ReflectiveMethodInvocation) original).getUserAttributes().forEach(attempt::setUserAttribute);
+        }
+        return attempt;
+    }
+
+    /**
+     * 获取代理的拦截器链中位于本拦截器之后的部分，按代理当前的 Advisor 数组缓存。
+     *
+     * @return 之后的拦截器，代理没有实现 {@link Advised} 或链中没有本拦截器时返回 {@link #UNKNOWN_CHAIN}
+     */
+    private List<Object> getRemainingChain(Object proxy, Method method, @Nullable Class<?> targetClass) {
+        if (!(proxy instanceof Advised)) {
+            return UNKNOWN_CHAIN;
+        }
+        Advised advised = (Advised) proxy;
+        Map<MethodClassKey, List<Object>> chains = this.remainingChains.computeIfAbsent(advised.getAdvisors(), k -> new ConcurrentHashMap<>());
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        List<Object> chain = chains.get(key);
+        if (chain == null) {
+            chain = UNKNOWN_CHAIN;
+            List<Object> fullChain = this.chainFactory.getInterceptorsAndDynamicInterceptionAdvice(advised, method, targetClass);
+            for (int i = 0; i < fullChain.size(); i++) {
+                if (fullChain.get(i) == this) {
+                    chain = Collections.unmodifiableList(new ArrayList<>(fullChain.subList(i + 1, fullChain.size())));
+                    break;
+                }
+            }
+            chains.put(key, chain);
+        }
+        return chain;
+    }
+
+    private void addTokens(long amount) {
+        this.tokens.accumulateAndGet(amount, (current, delta) -> Math.min(MAX_TOKENS, current + delta));
+    }
+
+    private boolean tryAcquireToken() {
+        while (true) {
+            long current = this.tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (this.tokens.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private MethodStats getMethodStats(Method method) {
+        MethodStats stats = this.methodStats.get(method);
+        if (stats == null) {
+            stats = this.methodStats.computeIfAbsent(method, m -> new MethodStats(describe(m), this.initialDelayNanos));
+        }
+        return stats;
+    }
+
+    /**
+     * 获取每个方法调用方观察到的耗时。
+     *
+     * @return 方法签名到快照的映射
+     */
+    public Map<String, LatencySnapshot> snapshotLatencies() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        this.methodStats.values().forEach(stats -> snapshots.put(stats.name, stats.latencies.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * 获取每个方法在对冲胜出时节省的耗时，即第一次调用比调用方实际等待的时间多出的部分。
+     *
+     * @return 方法签名到快照的映射
+     */
+    public Map<String, LatencySnapshot> snapshotSavings() {
+        Map<String, LatencySnapshot> snapshots = new LinkedHashMap<>();
+        this.methodStats.values().forEach(stats -> snapshots.put(stats.name, stats.savings.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * 以制表符分隔的文本导出耗时与节省的耗时，单位为微秒。
+     *
+     * @return 导出文本
+     */
+    public String exportLatencies() {
+        StringBuilder builder = new StringBuilder("method\tcount\tmean(us)\tp50(us)\tp90(us)\tp99(us)\tp999(us)\tmax(us)");
+        this.methodStats.values().forEach(stats -> builder
+                .append('\n').append(stats.latencies.snapshot().export())
+                .append('\n').append(stats.savings.snapshot().export()));
+        return builder.toString();
+    }
+
+    /**
+     * 获取方法当前的对冲延迟。
+     *
+     * @param method 方法
+     * @return 对冲延迟，方法还没有被调用过时返回初始延迟
+     */
+    public Duration getHedgeDelay(Method method) {
+        MethodStats stats = this.methodStats.get(method);
+        return Duration.ofNanos(stats != null ? stats.delayNanos : this.initialDelayNanos);
+    }
+
+    public long getCallCount() {
+        return this.callCount.sum();
+    }
+
+    public long getHedgeCount() {
+        return this.hedgeCount.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return this.hedgeWinCount.sum();
+    }
+
+    public long getBudgetDeniedCount() {
+        return this.budgetDeniedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return this.rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingMethodInterceptor{" +
+                "calls=" + getCallCount() +
+                ", hedges=" + getHedgeCount() +
+                ", hedgeWins=" + getHedgeWinCount() +
+                ", budgetDenied=" + getBudgetDeniedCount() +
+                ", rejected=" + getRejectedCount() +
+                '}';
+    }
+
+    // 生成方法的可读签名，例如 MyService#foo()
+    private static String describe(Method method) {
+        StringBuilder builder = new StringBuilder(method.getDeclaringClass().getSimpleName()).append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            builder.append(i > 0 ? ", " : "").append(parameterTypes[i].getSimpleName());
+        }
+        return builder.append(')').toString();
+    }
+
+    /**
+     * 一个方法的耗时统计与当前的对冲延迟。
+     */
+    private final class MethodStats {
+
+        private final String name;
+
+        private final LatencyHistogram latencies;
+
+        private final LatencyHistogram savings;
+
+        /**
+         * 最近一个窗口内第一次调用的耗时，用于计算对冲延迟
+         */
+        private final LatencyHistogram window;
+
+        private final AtomicInteger windowSamples = new AtomicInteger();
+
+        private volatile long delayNanos;
+
+        MethodStats(String name, long initialDelayNanos) {
+            this.name = name;
+            this.latencies = new LatencyHistogram(name);
+            this.savings = new LatencyHistogram(name + " saved");
+            this.window = new LatencyHistogram(name);
+            this.delayNanos = initialDelayNanos;
+        }
+
+        void recordPrimary(long nanos) {
+            this.window.record(nanos);
+            int samples = this.windowSamples.incrementAndGet();
+            // 使用 >=，窗口调小后已有的样本数也能触发重新计算；只有把计数归零的线程重新计算，并发记录的样本留在下一个窗口
+            if (samples >= windowSize && this.windowSamples.compareAndSet(samples, 0)) {
+                long percentile = this.window.snapshotAndReset().getValueAtPercentile(delayPercentile);
+                this.delayNanos = Math.max(minDelayNanos, percentile);
+            }
+        }
+    }
+
+    /**
+     * 同一次方法调用的第一次调用与对冲调用之间的竞争。
+     */
+    private final class Race {
+
+        private final MethodStats stats;
+
+        private final long start;
+
+        private final CompletableFuture<Object> outcome = new CompletableFuture<>();
+
+        /**
+         * 尚未结束的调用数量，为0时不再接受新的调用
+         */
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private volatile Attempt primary;
+
+        private volatile Attempt hedge;
+
+        private volatile Throwable primaryFailure;
+
+        /**
+         * 对冲胜出时调用方的耗时，用于计算节省的耗时
+         */
+        private volatile long hedgeWinNanos = -1;
+
+        Race(MethodStats stats, long start) {
+            this.stats = stats;
+            this.start = start;
+        }
+
+        boolean add(Attempt attempt) {
+            int current;
+            do {
+                current = this.pending.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!this.pending.compareAndSet(current, current + 1));
+            this.hedge = attempt;
+            return true;
+        }
+
+        void succeeded(Attempt attempt, Object result, long elapsedNanos) {
+            if (attempt.primary) {
+                this.stats.recordPrimary(elapsedNanos);
+            }
+            if (this.outcome.complete(result)) {
+                if (!attempt.primary) {
+                    this.hedgeWinNanos = System.nanoTime() - this.start;
+                    hedgeWinCount.increment();
+                }
+            } else if (attempt.primary && this.hedgeWinNanos >= 0) {
+                // 对冲已经胜出，第一次调用完成后才知道节省了多少时间
+                this.stats.savings.record(elapsedNanos - this.hedgeWinNanos);
+            }
+            release(null);
+        }
+
+        void failed(Attempt attempt, Throwable failure) {
+            if (attempt.primary) {
+                this.primaryFailure = failure;
+            }
+            release(failure);
+        }
+
+        /**
+         * 一次调用结束或被取消，所有调用都结束仍没有结果时以失败结束，此时至少有一次调用失败。
+         */
+        void release(@Nullable Throwable failure) {
+            if (this.pending.decrementAndGet() == 0 && !this.outcome.isDone()) {
+                Throwable primaryFailure = this.primaryFailure;
+                this.outcome.completeExceptionally(primaryFailure != null ? primaryFailure : failure);
+            }
+        }
+
+        void cancelLosers() {
+            this.primary.cancel();
+            Attempt hedge = this.hedge;
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    /**
+     * 在线程池中执行的一次调用。
+     */
+    private static final class Attempt implements Runnable {
+
+        private final Race race;
+
+        private final MethodInvocation invocation;
+
+        private final boolean primary;
+
+        private final long submitted;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Attempt(Race race, MethodInvocation invocation, boolean primary, long submitted) {
+            this.race = race;
+            this.invocation = invocation;
+            this.primary = primary;
+            this.submitted = submitted;
+        }
+
+        @Override
+        public void run() {
+            if (!this.claimed.compareAndSet(false, true)) {
+                return;
+            }
+            Object result;
+            try {
+                result = this.invocation.proceed();
+            } catch (Throwable ex) {
+                this.race.failed(this, ex);
+                return;
+            }
+            this.race.succeeded(this, result, System.nanoTime() - this.submitted);
+        }
+
+        /**
+         * 取消尚未开始执行的调用。
+         */
+        void cancel() {
+            if (this.claimed.compareAndSet(false, true)) {
+                this.race.release(null);
+            }
+        }
+    }
+
+    /**
+     * 一次调用使用的方法调用，拦截器链只包含本拦截器之后的拦截器，用户属性属于这次调用自己。
+     */
+    private static final class AttemptInvocation extends ReflectiveMethodInvocation {
+
+        AttemptInvocation(Object proxy, @Nullable Object target, Method method, Object[] arguments,
+                          @Nullable Class<?> targetClass, List<Object> remainingChain) {
+            super(proxy, target, method, arguments, targetClass, remainingChain);
+        }
+    }
+}
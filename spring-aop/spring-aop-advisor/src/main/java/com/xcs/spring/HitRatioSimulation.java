@@ -0,0 +1,75 @@
+package com.xcs.spring;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 在同一份访问序列上对比 {@link WTinyLfuCache} 与 LRU 的命中率。
+ * <p>
+ * 访问序列由两部分交替组成：服从 Zipf 分布（s=0.9）的热点访问，以及周期性的顺序扫描（每个键只访问一次，模拟批量任务或爬虫）。
+ * LRU 会被扫描冲掉热点数据，而 W-TinyLFU 的准入策略会拒绝访问频率低的扫描数据。
+ */
+public class HitRatioSimulation {
+
+    private static final int KEY_SPACE = 100_000;
+
+    private static final int CACHE_SIZE = 1_000;
+
+    private static final int REQUESTS = 2_000_000;
+
+    public static void main(String[] args) throws Throwable {
+        long[] trace = createTrace(new Random(42));
+        WTinyLfuCache<Long, Long> tinyLfu = WTinyLfuCache.<Long, Long>builder().maximumSize(CACHE_SIZE).build();
+        for (long key : trace) {
+            tinyLfu.get(key, () -> key);
+        }
+        Map<Long, Long> lru = new LinkedHashMap<Long, Long>(CACHE_SIZE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        long lruHits = 0;
+        for (long key : trace) {
+            if (lru.get(key) != null) {
+                lruHits++;
+            } else {
+                lru.put(key, key);
+            }
+        }
+        System.out.printf("LRU        hitRate=%.3f%n", (double) lruHits / trace.length);
+        System.out.printf("W-TinyLFU  hitRate=%.3f%n", tinyLfu.stats().getHitRate());
+    }
+
+    private static long[] createTrace(Random random) {
+        double[] cumulative = new double[KEY_SPACE];
+        double sum = 0;
+        for (int i = 0; i < KEY_SPACE; i++) {
+            sum += 1.0 / Math.pow(i + 1, 0.9);
+            cumulative[i] = sum;
+        }
+        long[] trace = new long[REQUESTS];
+        long scanKey = KEY_SPACE;
+        for (int i = 0; i < REQUESTS; i++) {
+            // 每10000次访问中有2000次是扫描
+            if (i % 10_000 < 2_000) {
+                trace[i] = scanKey++;
+                continue;
+            }
+            double target = random.nextDouble() * sum;
+            int low = 0;
+            int high = KEY_SPACE - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            trace[i] = low;
+        }
+        return trace;
+    }
+}
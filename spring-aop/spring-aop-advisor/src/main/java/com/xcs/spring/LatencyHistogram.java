@@ -0,0 +1,145 @@
+package com.xcs.spring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的延迟直方图，按照 HdrHistogram 的思路将纳秒级耗时划分到对数线性桶中。
+ * <p>
+ * 小于 64 纳秒的值各自占一个桶；更大的值按最高有效位分段，每段再线性划分为 32 个子桶，
+ * 因此任意记录值的相对误差不超过 1/32（约 3%），而整张表只需 1888 个桶即可覆盖 {@code long} 的全部取值范围。
+ * 记录时只做位运算与原子自增，不分配任何对象。
+ *
+ * @author xcs
+ * @date 2026年10月18日16:30:45
+ */
+public class LatencyHistogram {
+
+    /**
+     * 线性段的桶数量
+     */
+    private static final int LINEAR_BUCKETS = 64;
+
+    /**
+     * 对数段中每一段的子桶数量
+     */
+    private static final int SUB_BUCKETS = 32;
+
+    /**
+     * 桶总数：线性段 + 57 个对数段
+     */
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + 57 * SUB_BUCKETS;
+
+    /**
+     * 直方图名称，通常为方法签名
+     */
+    private final String name;
+
+    /**
+     * 各个桶的计数
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录值的总和，用于计算平均值
+     */
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    /**
+     * 记录到的最大值
+     */
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        this.counts.incrementAndGet(bucketIndex(nanos));
+        this.totalNanos.addAndGet(nanos);
+        long max;
+        while (nanos > (max = this.maxNanos.get())) {
+            if (this.maxNanos.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 生成当前数据的快照。
+     *
+     * @return 快照
+     */
+    public LatencySnapshot snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * 生成当前数据的快照并清空直方图，适合按固定周期导出增量数据。
+     *
+     * @return 快照
+     */
+    public LatencySnapshot snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    /**
+     * 清空直方图。
+     */
+    public void reset() {
+        snapshot(true);
+    }
+
+    private LatencySnapshot snapshot(boolean reset) {
+        long[] buckets = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = reset ? this.counts.getAndSet(i, 0) : this.counts.get(i);
+        }
+        long total = reset ? this.totalNanos.getAndSet(0) : this.totalNanos.get();
+        long max = reset ? this.maxNanos.getAndSet(0) : this.maxNanos.get();
+        return new LatencySnapshot(this.name, buckets, total, max);
+    }
+
+    /**
+     * 计算耗时所在的桶下标。
+     *
+     * @param nanos 耗时（纳秒），不能为负数
+     * @return 桶下标
+     */
+    static int bucketIndex(long nanos) {
+        if (nanos < LINEAR_BUCKETS) {
+            return (int) nanos;
+        }
+        // 右移后使结果落在 [32, 64) 区间内
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - 5;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((nanos >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * 获取桶所覆盖的最大值，用于计算百分位。
+     *
+     * @param index 桶下标
+     * @return 桶内的最大值（纳秒）
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int offset = index - LINEAR_BUCKETS;
+        int shift = offset / SUB_BUCKETS + 1;
+        long subBucket = offset % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,51 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+/**
+ * 缓存Advisor，用于缓存带有 {@link MyCacheable} 注解的方法的返回值。
+ * 缓存的键只包含方法与参数，一个 Advisor 应只用于同一个目标对象。
+ */
+public class MemoizingAdvisor implements PointcutAdvisor {
+
+    /**
+     * 通知对象
+     */
+    private final MemoizingMethodInterceptor advice;
+
+    /**
+     * 切点对象，用于匹配带有缓存注解的方法
+     */
+    private final Pointcut pointcut = new AnnotationMatchingPointcut(null, MyCacheable.class);
+
+    public MemoizingAdvisor(WTinyLfuCache<Object, Object> cache) {
+        this.advice = new MemoizingMethodInterceptor(cache);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return advice;
+    }
+
+    @Override
+    public boolean isPerInstance() {
+        return true;
+    }
+
+    /**
+     * 获取缓存的统计信息。
+     *
+     * @return 统计快照
+     */
+    public CacheStats getStats() {
+        return advice.getCache().stats();
+    }
+}
@@ -0,0 +1,114 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * 按目标对象、方法与参数缓存返回值的方法拦截器，缓存使用 {@link WTinyLfuCache}。
+ * <p>
+ * 目标对象按引用（{@code ==}）区分，同一个拦截器用于多个目标对象时各自的返回值互不混用，缓存条目在被淘汰前持有目标对象。
+ * 目标方法在加载过程中以相同的参数递归调用自己时，递归的调用直接执行，不等待自己的加载。
+ * 缓存未命中时调用目标方法并缓存返回值（包括 {@code null}），目标方法抛出的异常不会被缓存，
+ * 同一个键的并发未命中只调用一次目标方法。命中时不复制调用，也不创建加载器。
+ * 缓存配置了后台刷新时，未命中的调用在继续执行之前通过 {@link ProxyMethodInvocation#invocableClone()} 复制一份保存在条目中，
+ * 刷新时会再次经过该拦截器之后的拦截器链；未配置刷新时条目不持有调用。
+ * 不是由 Spring 代理发起的调用不使用缓存。
+ *
+ * @author xcs
+ * @date 2026年10月19日01:44:18
+ */
+public class MemoizingMethodInterceptor implements MethodInterceptor {
+
+    private final WTinyLfuCache<Object, Object> cache;
+
+    public MemoizingMethodInterceptor(WTinyLfuCache<Object, Object> cache) {
+        Assert.notNull(cache, "Cache must not be null");
+        this.cache = cache;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!(invocation instanceof ProxyMethodInvocation)) {
+            return invocation.proceed();
+        }
+        Object[] arguments = invocation.getArguments();
+        Object[] elements = new Object[arguments.length + 2];
+        elements[0] = new TargetIdentity(invocation.getThis());
+        elements[1] = invocation.getMethod();
+        System.arraycopy(arguments, 0, elements, 2, arguments.length);
+        // 命中时加载器不会被调用，只有未命中的线程才会复制调用
+        return this.cache.get(new SimpleKey(elements), new InvocationLoader((ProxyMethodInvocation) invocation, this.cache.isRefreshEnabled()));
+    }
+
+    public WTinyLfuCache<Object, Object> getCache() {
+        return this.cache;
+    }
+
+    /**
+     * 未命中时的加载器。第一次加载在调用线程上继续执行原始调用，需要刷新时先复制一份停留在当前拦截器位置的调用，
+     * 之后每次刷新再从这份复制中复制出新的调用执行，原始调用在第一次加载后不再被持有。
+     */
+    private static final class InvocationLoader implements WTinyLfuCache.Loader<Object> {
+
+        @Nullable
+        private ProxyMethodInvocation invocation;
+
+        private final boolean refreshable;
+
+        @Nullable
+        private ProxyMethodInvocation template;
+
+        InvocationLoader(ProxyMethodInvocation invocation, boolean refreshable) {
+            this.invocation = invocation;
+            this.refreshable = refreshable;
+        }
+
+        @Override
+        @Nullable
+        public Object load() throws Throwable {
+            ProxyMethodInvocation current = this.invocation;
+            if (current != null) {
+                this.invocation = null;
+                if (this.refreshable) {
+                    // 在继续执行之前复制，复制的调用停留在当前拦截器的位置
+                    this.template = (ProxyMethodInvocation) current.invocableClone();
+                }
+                return current.proceed();
+            }
+            Assert.state(this.template != null, "Loader is not refreshable");
+            return this.template.invocableClone().proceed();
+        }
+    }
+
+    /**
+     * 按引用比较的目标对象，目标对象自己的 {@code equals} 不参与缓存键的比较
+     */
+    private static final class TargetIdentity {
+
+        @Nullable
+        private final Object target;
+
+        TargetIdentity(@Nullable Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (this == other || (other instanceof TargetIdentity && this.target == ((TargetIdentity) other).target));
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.target);
+        }
+
+        @Override
+        public String toString() {
+            return (this.target != null ? this.target.getClass().getSimpleName() + "@" + Integer.toHexString(hashCode()) : "null");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.xcs.spring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 缓存注解，标注的方法的返回值由 {@link MemoizingAdvisor} 按方法与参数缓存
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyCacheable {
+}
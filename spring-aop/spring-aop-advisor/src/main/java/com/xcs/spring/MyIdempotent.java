@@ -0,0 +1,14 @@
+package com.xcs.spring;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 幂等注解，标注的方法可以被 {@link HedgingAdvisor} 重复调用，调用过慢时发起对冲调用
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MyIdempotent {
+}
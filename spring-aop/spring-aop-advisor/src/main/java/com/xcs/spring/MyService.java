@@ -1,9 +1,26 @@
 package com.xcs.spring;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class MyService {
 
+    private final AtomicInteger orderQueryCount = new AtomicInteger();
+
     @MyCustomAnnotation
     public void foo() {
         System.out.println("foo...");
     }
+
+    @MyCacheable
+    public String findUser(String id) {
+        System.out.println("findUser " + id + "...");
+        return "user-" + id + "@" + System.currentTimeMillis() % 100000;
+    }
+
+    @MyIdempotent
+    public String findOrder(String id) throws InterruptedException {
+        // 模拟后端查询，通常耗时10毫秒，每20次查询中有一次卡顿200毫秒
+        Thread.sleep(orderQueryCount.incrementAndGet() % 20 == 0 ? 200 : 10);
+        return "order-" + id;
+    }
 }
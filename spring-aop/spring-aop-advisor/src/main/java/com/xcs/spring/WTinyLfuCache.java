@@ -0,0 +1,681 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 使用 W-TinyLFU 淘汰策略的并发缓存。
+ * <p>
+ * 缓存按权重限制大小（默认每个条目权重为1，即按条目数限制），空间分为三段：
+ * <ul>
+ *     <li>窗口区（1%）：新条目先进入这里，按 LRU 顺序淘汰，使突发的新数据有机会积累访问频率；</li>
+ *     <li>试用区（主区的20%）：从窗口区淘汰的条目与试用区中最久未使用的条目比较 {@link FrequencySketch} 估算的访问频率，
+ *     频率更高的留下，这就是 TinyLFU 的准入策略，一次性的扫描访问因此不会冲掉热点数据；</li>
+ *     <li>保护区（主区的80%）：试用区中再次被访问的条目晋升到这里，保护区满时最久未使用的条目降回试用区。</li>
+ * </ul>
+ * 查询通过 {@link ConcurrentHashMap} 完成，不加锁；访问记录只在能立即获得锁时更新，竞争激烈时会丢弃部分访问记录，
+ * 这只影响淘汰的精度，不影响正确性。写入、淘汰与刷新在锁内完成。
+ * <p>
+ * 条目在写入 {@code expireAfterWrite} 之后过期，过期的条目在下次查询时被移除并重新加载；写入 {@code refreshAfterWrite} 之后的查询仍返回当前值，
+ * 同时在 {@code refreshExecutor} 中异步重新加载（refresh-ahead），刷新失败时保留旧值。
+ * 同一个键同时未命中时只有一个线程执行加载，其他线程等待并共享它的结果或异常。
+ * 条目的值允许为 {@code null}。
+ *
+ * @author xcs
+ * @date 2026年10月19日01:36:45
+ */
+public class WTinyLfuCache<K, V> {
+
+    private static final Log logger = LogFactory.getLog(WTinyLfuCache.class);
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    private static final int NONE = -1;
+
+    /**
+     * 加载条目的值
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        @Nullable
+        V load() throws Throwable;
+    }
+
+    /**
+     * 计算条目的权重
+     */
+    @FunctionalInterface
+    public interface Weigher<K, V> {
+
+        int weigh(K key, @Nullable V value);
+    }
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    /**
+     * 正在加载的键，同一个键的并发未命中等待同一次加载
+     */
+    private final ConcurrentHashMap<K, LoadingFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final long maximumWeight;
+
+    private final Weigher<? super K, ? super V> weigher;
+
+    private final long expireAfterWriteNanos;
+
+    private final long refreshAfterWriteNanos;
+
+    private final Executor refreshExecutor;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final FrequencySketch sketch;
+
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+
+    private final AccessOrderDeque<K, V> protectedDeque = new AccessOrderDeque<>();
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private long windowWeight;
+
+    private long protectedWeight;
+
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder loadSuccessCount = new LongAdder();
+
+    private final LongAdder loadFailureCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private final LongAdder refreshCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder evictionWeight = new LongAdder();
+
+    private WTinyLfuCache(Builder<K, V> builder) {
+        this.maximumWeight = builder.maximumWeight;
+        this.weigher = builder.weigher;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.refreshAfterWriteNanos = builder.refreshAfterWriteNanos;
+        this.refreshExecutor = builder.refreshExecutor;
+        this.windowMaximum = Math.max(1, this.maximumWeight / 100);
+        this.protectedMaximum = (this.maximumWeight - this.windowMaximum) * 80 / 100;
+        this.sketch = new FrequencySketch(this.maximumWeight);
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 获取缓存的值，不存在或已过期时通过 {@code loader} 加载并放入缓存。
+     * 同一个键同时未命中时只有一个线程调用 {@code loader}，其他线程等待它的结果，加载失败时抛出同一个异常。
+     * 加载线程在 {@code loader} 中再次以同一个键调用时不等待自己，直接调用新的 {@code loader}，其结果不放入缓存。
+     * 存在 {@code refreshAfterWrite} 时，同一个 {@code loader} 还会被条目保存并用于后台刷新，因此它必须可以重复调用；
+     * 否则加载结束后不再持有 {@code loader}。
+     *
+     * @param key    键
+     * @param loader 加载器
+     * @return 缓存的值
+     * @throws Throwable 加载器抛出的异常，异常不会被缓存
+     */
+    @Nullable
+    public V get(K key, Loader<? extends V> loader) throws Throwable {
+        Node<K, V> node = getNode(key);
+        if (node != null) {
+            return readAndRefresh(node);
+        }
+        this.missCount.increment();
+        LoadingFuture<V> future = new LoadingFuture<>(Thread.currentThread());
+        LoadingFuture<V> inFlight = this.loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            if (inFlight.owner == Thread.currentThread()) {
+                // 递归加载同一个键，等待自己的加载会死锁
+                return load(loader);
+            }
+            return await(inFlight);
+        }
+        try {
+            // 上一次加载可能在查询与登记之间完成
+            Node<K, V> loaded = this.data.get(key);
+            V value;
+            if (loaded != null && !isExpired(loaded, System.nanoTime())) {
+                value = loaded.value;
+            } else {
+                value = load(loader);
+                put(key, value, (isRefreshEnabled() ? loader : null));
+            }
+            future.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            this.loading.remove(key, future);
+        }
+    }
+
+    /**
+     * 判断是否配置了 {@code refreshAfterWrite}，调用方可以据此决定是否需要准备可重复调用的加载器。
+     *
+     * @return 配置了后台刷新返回true
+     */
+    public boolean isRefreshEnabled() {
+        return this.refreshAfterWriteNanos > 0;
+    }
+
+    /**
+     * 获取缓存的值，不会触发加载。
+     *
+     * @param key 键
+     * @return 缓存的值，不存在、已过期或值本身为 {@code null} 时返回 {@code null}
+     */
+    @Nullable
+    public V getIfPresent(K key) {
+        Node<K, V> node = getNode(key);
+        if (node == null) {
+            this.missCount.increment();
+            return null;
+        }
+        return readAndRefresh(node);
+    }
+
+    /**
+     * 查找未过期的条目并记录命中，已过期的条目被移除。未命中时由调用方记录。
+     */
+    @Nullable
+    private Node<K, V> getNode(K key) {
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            removeExpired(node);
+            return null;
+        }
+        this.hitCount.increment();
+        afterRead(node);
+        return node;
+    }
+
+    /**
+     * 先读取当前值再触发刷新，刷新在其他线程上完成得再快，本次查询也返回旧值。
+     */
+    @Nullable
+    private V readAndRefresh(Node<K, V> node) {
+        V value = node.value;
+        refreshIfNeeded(node, System.nanoTime());
+        return value;
+    }
+
+    @Nullable
+    private V await(CompletableFuture<V> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * 放入缓存的值，该条目不会被后台刷新。
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, @Nullable V value) {
+        put(key, value, null);
+    }
+
+    private void put(K key, @Nullable V value, @Nullable Loader<? extends V> loader) {
+        int weight = this.weigher.weigh(key, value);
+        Assert.state(weight >= 0, "Weight must not be negative");
+        Node<K, V> node = new Node<>(key, value, weight, System.nanoTime(), loader);
+        this.evictionLock.lock();
+        try {
+            Node<K, V> old = this.data.put(key, node);
+            if (old != null) {
+                unlink(old);
+                this.totalWeight -= old.weight;
+                old.retired = true;
+            }
+            if (weight > this.maximumWeight) {
+                // 单个条目超过了缓存的容量
+                this.data.remove(key, node);
+                node.retired = true;
+                this.evictionCount.increment();
+                this.evictionWeight.add(weight);
+                return;
+            }
+            node.queue = WINDOW;
+            this.window.addLast(node);
+            this.windowWeight += weight;
+            this.totalWeight += weight;
+            this.sketch.increment(key);
+            evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        this.evictionLock.lock();
+        try {
+            Node<K, V> node = this.data.remove(key);
+            if (node != null) {
+                unlink(node);
+                this.totalWeight -= node.weight;
+                node.retired = true;
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        this.evictionLock.lock();
+        try {
+            for (K key : this.data.keySet()) {
+                invalidate(key);
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Nullable
+    private V load(Loader<? extends V> loader) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            V value = loader.load();
+            this.loadSuccessCount.increment();
+            return value;
+        } catch (Throwable ex) {
+            this.loadFailureCount.increment();
+            throw ex;
+        } finally {
+            this.totalLoadTime.add(System.nanoTime() - start);
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (this.expireAfterWriteNanos > 0 && now - node.writeTime >= this.expireAfterWriteNanos);
+    }
+
+    private void removeExpired(Node<K, V> node) {
+        this.evictionLock.lock();
+        try {
+            if (this.data.remove(node.key, node)) {
+                unlink(node);
+                this.totalWeight -= node.weight;
+                node.retired = true;
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 记录访问。获取不到锁时放弃本次记录。
+     */
+    private void afterRead(Node<K, V> node) {
+        if (this.evictionLock.tryLock()) {
+            try {
+                onAccess(node);
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        if (node.retired) {
+            return;
+        }
+        this.sketch.increment(node.key);
+        if (node.queue == WINDOW) {
+            this.window.moveToBack(node);
+        } else if (node.queue == PROBATION) {
+            // 试用区中再次被访问的条目晋升到保护区
+            this.probation.remove(node);
+            node.queue = PROTECTED;
+            this.protectedDeque.addLast(node);
+            this.protectedWeight += node.weight;
+            while (this.protectedWeight > this.protectedMaximum) {
+                Node<K, V> demoted = this.protectedDeque.pollFirst();
+                this.protectedWeight -= demoted.weight;
+                demoted.queue = PROBATION;
+                this.probation.addLast(demoted);
+            }
+        } else if (node.queue == PROTECTED) {
+            this.protectedDeque.moveToBack(node);
+        }
+    }
+
+    /**
+     * 淘汰超出容量的条目，必须持有锁。
+     */
+    private void evict() {
+        while (this.windowWeight > this.windowMaximum) {
+            Node<K, V> candidate = this.window.pollFirst();
+            this.windowWeight -= candidate.weight;
+            candidate.queue = NONE;
+            if (this.totalWeight <= this.maximumWeight) {
+                candidate.queue = PROBATION;
+                this.probation.addLast(candidate);
+                continue;
+            }
+            Node<K, V> victim = this.probation.peekFirst();
+            if (victim == null) {
+                victim = this.protectedDeque.peekFirst();
+            }
+            if (victim == null) {
+                evictNode(candidate);
+            } else if (this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key)) {
+                // TinyLFU 准入：候选条目的访问频率更高，淘汰试用区中最久未使用的条目
+                evictNode(victim);
+                candidate.queue = PROBATION;
+                this.probation.addLast(candidate);
+            } else {
+                evictNode(candidate);
+            }
+        }
+        while (this.totalWeight > this.maximumWeight) {
+            Node<K, V> victim = this.probation.peekFirst();
+            if (victim == null) {
+                victim = this.protectedDeque.peekFirst();
+            }
+            if (victim == null) {
+                victim = this.window.peekFirst();
+            }
+            evictNode(victim);
+        }
+    }
+
+    private void evictNode(Node<K, V> node) {
+        unlink(node);
+        this.data.remove(node.key, node);
+        this.totalWeight -= node.weight;
+        node.retired = true;
+        this.evictionCount.increment();
+        this.evictionWeight.add(node.weight);
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.queue == WINDOW) {
+            this.window.remove(node);
+            this.windowWeight -= node.weight;
+        } else if (node.queue == PROBATION) {
+            this.probation.remove(node);
+        } else if (node.queue == PROTECTED) {
+            this.protectedDeque.remove(node);
+            this.protectedWeight -= node.weight;
+        }
+        node.queue = NONE;
+    }
+
+    private void refreshIfNeeded(Node<K, V> node, long now) {
+        if (this.refreshAfterWriteNanos <= 0 || node.loader == null ||
+                now - node.writeTime < this.refreshAfterWriteNanos || !node.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.refreshExecutor.execute(() -> refresh(node));
+        } catch (RejectedExecutionException ex) {
+            node.refreshing.set(false);
+        }
+    }
+
+    private void refresh(Node<K, V> node) {
+        try {
+            V value = load(node.loader);
+            this.refreshCount.increment();
+            int weight = this.weigher.weigh(node.key, value);
+            this.evictionLock.lock();
+            try {
+                if (node.retired) {
+                    return;
+                }
+                // 原地更新，保留条目所在的区域与访问顺序
+                long delta = weight - node.weight;
+                this.totalWeight += delta;
+                if (node.queue == WINDOW) {
+                    this.windowWeight += delta;
+                } else if (node.queue == PROTECTED) {
+                    this.protectedWeight += delta;
+                }
+                node.weight = weight;
+                node.value = value;
+                node.writeTime = System.nanoTime();
+                evict();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        } catch (Throwable ex) {
+            logger.debug("Refresh failed for key " + node.key + ", keeping the current value", ex);
+        } finally {
+            node.refreshing.set(false);
+        }
+    }
+
+    public long estimatedSize() {
+        return this.data.size();
+    }
+
+    public long weightedSize() {
+        this.evictionLock.lock();
+        try {
+            return this.totalWeight;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(this.hitCount.sum(), this.missCount.sum(), this.loadSuccessCount.sum(),
+                this.loadFailureCount.sum(), this.totalLoadTime.sum(), this.refreshCount.sum(),
+                this.evictionCount.sum(), this.evictionWeight.sum());
+    }
+
+    /**
+     * 缓存条目。访问顺序相关的字段由锁保护。
+     */
+    /**
+     * 一次加载的结果，记录执行加载的线程以识别递归加载
+     */
+    private static final class LoadingFuture<V> extends CompletableFuture<V> {
+
+        private final Thread owner;
+
+        LoadingFuture(Thread owner) {
+            this.owner = owner;
+        }
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        @Nullable
+        private volatile V value;
+
+        private volatile long writeTime;
+
+        @Nullable
+        private final Loader<? extends V> loader;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private int weight;
+
+        private int queue = NONE;
+
+        private boolean retired;
+
+        @Nullable
+        private Node<K, V> prev;
+
+        @Nullable
+        private Node<K, V> next;
+
+        Node(K key, @Nullable V value, int weight, long writeTime, @Nullable Loader<? extends V> loader) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+            this.loader = loader;
+        }
+    }
+
+    /**
+     * 按访问顺序排列的双向链表，头部是最久未使用的条目。
+     */
+    private static final class AccessOrderDeque<K, V> {
+
+        @Nullable
+        private Node<K, V> first;
+
+        @Nullable
+        private Node<K, V> last;
+
+        void addLast(Node<K, V> node) {
+            node.prev = this.last;
+            node.next = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.next = node;
+            }
+            this.last = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                this.first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (node != this.last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        @Nullable
+        Node<K, V> peekFirst() {
+            return this.first;
+        }
+
+        @Nullable
+        Node<K, V> pollFirst() {
+            Node<K, V> node = this.first;
+            if (node != null) {
+                remove(node);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * {@link WTinyLfuCache} 的构建器。
+     */
+    public static final class Builder<K, V> {
+
+        private long maximumWeight = 10_000;
+
+        private Weigher<? super K, ? super V> weigher = (key, value) -> 1;
+
+        private long expireAfterWriteNanos;
+
+        private long refreshAfterWriteNanos;
+
+        private Executor refreshExecutor = ForkJoinPool.commonPool();
+
+        private Builder() {
+        }
+
+        /**
+         * 按条目数限制大小。
+         */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            Assert.isTrue(maximumSize > 0, "Maximum size must be positive");
+            this.maximumWeight = maximumSize;
+            this.weigher = (key, value) -> 1;
+            return this;
+        }
+
+        /**
+         * 按权重限制大小。
+         */
+        public Builder<K, V> maximumWeight(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+            Assert.isTrue(maximumWeight > 0, "Maximum weight must be positive");
+            Assert.notNull(weigher, "Weigher must not be null");
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(Duration duration) {
+            Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be positive");
+            this.expireAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        public Builder<K, V> refreshAfterWrite(Duration duration) {
+            Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be positive");
+            this.refreshAfterWriteNanos = duration.toNanos();
+            return this;
+        }
+
+        public Builder<K, V> refreshExecutor(Executor refreshExecutor) {
+            Assert.notNull(refreshExecutor, "Executor must not be null");
+            this.refreshExecutor = refreshExecutor;
+            return this;
+        }
+
+        public WTinyLfuCache<K, V> build() {
+            Assert.isTrue(this.expireAfterWriteNanos == 0 || this.refreshAfterWriteNanos < this.expireAfterWriteNanos,
+                    "refreshAfterWrite must be shorter than expireAfterWrite");
+            return new WTinyLfuCache<>(this);
+        }
+    }
+}
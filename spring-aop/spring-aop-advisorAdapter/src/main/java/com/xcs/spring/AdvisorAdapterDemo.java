@@ -5,7 +5,7 @@ import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
 
 public class AdvisorAdapterDemo {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // 注册自定义适配器
         GlobalAdvisorAdapterRegistry.getInstance().registerAdvisorAdapter(new NullReturningAdviceAdapter());
         // 创建代理工厂
@@ -20,5 +20,21 @@ public class AdvisorAdapterDemo {
         System.out.println("==================================");
         // 会触发通知
         System.out.println("bar return value : " + proxy.bar());
+        // 换行
+        System.out.println("==================================");
+
+        // 注册异步返回通知适配器，队列满时丢弃
+        AsyncAfterReturningAdviceAdapter asyncAdapter = new AsyncAfterReturningAdviceAdapter(1024, 64, AsyncAdviceDispatcher.OverflowPolicy.DROP);
+        GlobalAdvisorAdapterRegistry.getInstance().registerAdvisorAdapter(asyncAdapter);
+        ProxyFactory asyncProxyFactory = new ProxyFactory(new MyService());
+        MyAuditAdvice auditAdvice = new MyAuditAdvice();
+        asyncProxyFactory.addAdvice(auditAdvice);
+        MyService asyncProxy = (MyService) asyncProxyFactory.getProxy();
+        for (int i = 0; i < 5; i++) {
+            asyncProxy.foo();
+        }
+        // 等待队列中的快照处理完成
+        asyncAdapter.destroy();
+        System.out.println(asyncAdapter.getDispatcher(auditAdvice));
     }
 }
@@ -0,0 +1,135 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.aop.framework.adapter.AfterReturningAdviceInterceptor;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比同步的 {@link AfterReturningAdvice} 与 {@link AsyncAfterReturningAdvice} 对调用方耗时的影响。
+ * <p>
+ * 通知模拟一个审计存储：每次写入有固定的开销，每条记录还有少量额外开销。同步通知每次调用都写入一次；
+ * 异步通知在后台线程中按批写入，{@code asyncBlock} 在队列满时阻塞调用方，{@code asyncDrop} 在队列满时丢弃。
+ * 直接调用拦截器，排除代理本身的开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncAdviceBenchmark {
+
+    private static final long WRITE_TOKENS = 2000;
+
+    private static final long RECORD_TOKENS = 20;
+
+    private MethodInterceptor inlineInterceptor;
+
+    private AsyncAdviceDispatcher blockDispatcher;
+
+    private MethodInterceptor asyncBlockInterceptor;
+
+    private AsyncAdviceDispatcher dropDispatcher;
+
+    private MethodInterceptor asyncDropInterceptor;
+
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setup() throws Exception {
+        AfterReturningAdvice inlineAdvice = (returnValue, method, args, target) -> {
+            Blackhole.consumeCPU(WRITE_TOKENS + RECORD_TOKENS);
+        };
+        this.inlineInterceptor = new AfterReturningAdviceInterceptor(inlineAdvice);
+        AsyncAfterReturningAdvice asyncAdvice = invocations -> Blackhole.consumeCPU(WRITE_TOKENS + RECORD_TOKENS * invocations.size());
+        this.blockDispatcher = new AsyncAdviceDispatcher(asyncAdvice, 1024, 64, AsyncAdviceDispatcher.OverflowPolicy.BLOCK);
+        this.asyncBlockInterceptor = new AsyncAfterReturningAdviceInterceptor(asyncAdvice, this.blockDispatcher);
+        this.dropDispatcher = new AsyncAdviceDispatcher(asyncAdvice, 1024, 64, AsyncAdviceDispatcher.OverflowPolicy.DROP);
+        this.asyncDropInterceptor = new AsyncAfterReturningAdviceInterceptor(asyncAdvice, this.dropDispatcher);
+        this.invocation = new ReturningInvocation(MyService.class.getMethod("foo"));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.blockDispatcher.close();
+        this.dropDispatcher.close();
+        System.out.println();
+        System.out.println("block " + this.blockDispatcher);
+        System.out.println("drop  " + this.dropDispatcher);
+    }
+
+    @Benchmark
+    public Object inline() throws Throwable {
+        return this.inlineInterceptor.invoke(this.invocation);
+    }
+
+    @Benchmark
+    public Object asyncBlock() throws Throwable {
+        return this.asyncBlockInterceptor.invoke(this.invocation);
+    }
+
+    @Benchmark
+    public Object asyncDrop() throws Throwable {
+        return this.asyncDropInterceptor.invoke(this.invocation);
+    }
+
+    /**
+     * 直接返回固定值的方法调用。
+     */
+    private static class ReturningInvocation implements MethodInvocation {
+
+        private final Method method;
+
+        private final Object[] arguments = new Object[0];
+
+        private final Object target = new Object();
+
+        ReturningInvocation(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Method getMethod() {
+            return this.method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return this.arguments;
+        }
+
+        @Override
+        public Object proceed() {
+            return "this is a foo";
+        }
+
+        @Override
+        public Object getThis() {
+            return this.target;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return this.method;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AsyncAdviceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,231 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 在后台线程中批量执行 {@link AsyncAfterReturningAdvice} 的调度器。
+ * <p>
+ * 调用快照先放入有界队列，由一个工作线程取出：每次阻塞等待第一条，再一次性取走队列中已有的其余快照（最多 {@code batchSize} 条），
+ * 合并成一批交给通知。队列空闲时不会为了凑满一批而等待，负载越高批次越大。同一个通知只有一个工作线程，因此批次按提交顺序依次处理。
+ * <p>
+ * 队列已满时的处理方式由 {@link OverflowPolicy} 决定。调用 {@link #close()} 后不再接受新的快照，
+ * 工作线程处理完队列中剩余的快照后退出。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:52:14
+ */
+public class AsyncAdviceDispatcher implements AutoCloseable {
+
+    private static final Log logger = LogFactory.getLog(AsyncAdviceDispatcher.class);
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * 队列已满时的处理方式
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * 丢弃新的快照并计数，调用方不受影响
+         */
+        DROP,
+
+        /**
+         * 阻塞调用方直到队列有空位
+         */
+        BLOCK,
+
+        /**
+         * 在调用方线程中直接执行通知，此时通知可能与工作线程并发执行
+         */
+        CALLER_RUNS
+    }
+
+    private final AsyncAfterReturningAdvice advice;
+
+    private final BlockingQueue<ReturnedInvocation> queue;
+
+    private final int batchSize;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    private final LongAdder submittedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder callerRunsCount = new LongAdder();
+
+    private final LongAdder processedCount = new LongAdder();
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final LongAdder failureCount = new LongAdder();
+
+    public AsyncAdviceDispatcher(AsyncAfterReturningAdvice advice, int capacity, int batchSize, OverflowPolicy overflowPolicy) {
+        Assert.notNull(advice, "Advice must not be null");
+        Assert.isTrue(capacity > 0, "Capacity must be positive");
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+        this.advice = advice;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.worker = new Thread(this::processLoop, "async-advice-" + threadCount.incrementAndGet());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 提交一条调用快照，队列已满时按 {@link OverflowPolicy} 处理。
+     *
+     * @param invocation 调用快照
+     */
+    public void submit(ReturnedInvocation invocation) {
+        if (!this.running) {
+            this.droppedCount.increment();
+            return;
+        }
+        this.submittedCount.increment();
+        if (this.queue.offer(invocation)) {
+            recheckAfterEnqueue(invocation);
+            return;
+        }
+        switch (this.overflowPolicy) {
+            case BLOCK:
+                try {
+                    this.queue.put(invocation);
+                    recheckAfterEnqueue(invocation);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    this.droppedCount.increment();
+                }
+                break;
+            case CALLER_RUNS:
+                this.callerRunsCount.increment();
+                process(Collections.singletonList(invocation));
+                break;
+            default:
+                this.droppedCount.increment();
+        }
+    }
+
+    /**
+     * 入队后再次检查是否已经关闭。上面的检查与入队之间调用了 {@link #shutdown} 时，工作线程可能已经处理完队列并退出，
+     * 这条快照既不会被处理也不会被计数；此时把它从队列中撤回并计为丢弃。撤回失败说明工作线程已经取走了它，会正常处理。
+     * 关闭标志是 volatile 的：如果这里仍读到运行中，工作线程之后读到关闭标志时一定能从队列中取到这条快照。
+     */
+    private void recheckAfterEnqueue(ReturnedInvocation invocation) {
+        if (!this.running && this.queue.remove(invocation)) {
+            this.droppedCount.increment();
+        }
+    }
+
+    private void processLoop() {
+        while (true) {
+            ReturnedInvocation first;
+            try {
+                first = (this.running ? this.queue.poll(100, TimeUnit.MILLISECONDS) : this.queue.poll());
+            } catch (InterruptedException ex) {
+                // 工作线程只在关闭后处理完剩余的快照时退出
+                continue;
+            }
+            if (first == null) {
+                if (!this.running) {
+                    return;
+                }
+                continue;
+            }
+            List<ReturnedInvocation> batch = new ArrayList<>(Math.min(this.batchSize, this.queue.size() + 1));
+            batch.add(first);
+            this.queue.drainTo(batch, this.batchSize - 1);
+            process(batch);
+        }
+    }
+
+    private void process(List<ReturnedInvocation> batch) {
+        try {
+            this.advice.afterReturning(batch);
+        } catch (Throwable ex) {
+            this.failureCount.increment();
+            logger.warn("Async after-returning advice failed for " + batch.size() + " invocation(s)", ex);
+        }
+        this.batchCount.increment();
+        this.processedCount.add(batch.size());
+    }
+
+    /**
+     * 停止接受新的快照，并等待队列中剩余的快照处理完成。
+     *
+     * @param timeout 最长等待时间，不大于 0 时不等待
+     * @param unit    时间单位
+     * @return 是否在超时前处理完成
+     * @throws InterruptedException 等待时被中断
+     */
+    public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        this.running = false;
+        // Thread.join(0) 会无限等待，timedJoin 在超时不大于 0 时直接返回
+        unit.timedJoin(this.worker, timeout);
+        return !this.worker.isAlive();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        shutdown(10, TimeUnit.SECONDS);
+    }
+
+    public int getQueueDepth() {
+        return this.queue.size();
+    }
+
+    public long getSubmittedCount() {
+        return this.submittedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return this.droppedCount.sum();
+    }
+
+    public long getCallerRunsCount() {
+        return this.callerRunsCount.sum();
+    }
+
+    public long getProcessedCount() {
+        return this.processedCount.sum();
+    }
+
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    public long getFailureCount() {
+        return this.failureCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncAdviceDispatcher{" +
+                "queueDepth=" + getQueueDepth() +
+                ", submitted=" + getSubmittedCount() +
+                ", dropped=" + getDroppedCount() +
+                ", callerRuns=" + getCallerRunsCount() +
+                ", processed=" + getProcessedCount() +
+                ", batches=" + getBatchCount() +
+                ", failures=" + getFailureCount() +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.xcs.spring;
+
+import org.springframework.aop.AfterAdvice;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * 异步返回通知接口，继承自 AfterAdvice。
+ * <p>
+ * 与 {@link org.springframework.aop.AfterReturningAdvice} 不同，目标方法正常返回后只记录一份调用快照，
+ * 通知本身由 {@link AsyncAdviceDispatcher} 在后台线程中批量执行，不会增加调用方的耗时。
+ * 适合日志、审计、指标这类不影响返回结果的通知；通知抛出的异常不会传递给调用方。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:41:06
+ */
+public interface AsyncAfterReturningAdvice extends AfterAdvice {
+
+    /**
+     * 在后台线程中处理一批已返回的调用。
+     *
+     * @param invocations 按提交顺序排列的调用快照
+     * @throws Throwable 处理失败时抛出，只会被记录
+     */
+    void afterReturning(List<ReturnedInvocation> invocations) throws Throwable;
+
+    /**
+     * 复制返回值或参数。调用方在方法返回后可能继续修改这些对象，需要保留当时状态的可变对象应在此返回其副本。
+     *
+     * @param value 返回值或参数
+     * @return 保存到快照中的值，默认直接返回原对象
+     */
+    @Nullable
+    default Object snapshot(@Nullable Object value) {
+        return value;
+    }
+}
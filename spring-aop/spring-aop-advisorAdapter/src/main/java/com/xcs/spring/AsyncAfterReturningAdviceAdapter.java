@@ -0,0 +1,79 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.adapter.AdvisorAdapter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 异步返回通知适配器，用于将异步返回通知（AsyncAfterReturningAdvice）适配到拦截器链中。
+ * <p>
+ * 每个通知对应一个 {@link AsyncAdviceDispatcher}，同一个通知出现在多个代理或多个方法的拦截器链中时共用同一个队列。
+ * 队列容量、批次大小与溢出策略对该适配器处理的所有通知生效。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:58:33
+ */
+public class AsyncAfterReturningAdviceAdapter implements AdvisorAdapter, DisposableBean {
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final AsyncAdviceDispatcher.OverflowPolicy overflowPolicy;
+
+    private final Map<AsyncAfterReturningAdvice, AsyncAdviceDispatcher> dispatchers = new ConcurrentHashMap<>();
+
+    public AsyncAfterReturningAdviceAdapter() {
+        this(1024, 64, AsyncAdviceDispatcher.OverflowPolicy.DROP);
+    }
+
+    public AsyncAfterReturningAdviceAdapter(int capacity, int batchSize, AsyncAdviceDispatcher.OverflowPolicy overflowPolicy) {
+        Assert.isTrue(capacity > 0, "Capacity must be positive");
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public boolean supportsAdvice(Advice advice) {
+        return (advice instanceof AsyncAfterReturningAdvice);
+    }
+
+    @Override
+    public MethodInterceptor getInterceptor(Advisor advisor) {
+        AsyncAfterReturningAdvice advice = (AsyncAfterReturningAdvice) advisor.getAdvice();
+        AsyncAdviceDispatcher dispatcher = this.dispatchers.computeIfAbsent(advice,
+                key -> new AsyncAdviceDispatcher(key, this.capacity, this.batchSize, this.overflowPolicy));
+        return new AsyncAfterReturningAdviceInterceptor(advice, dispatcher);
+    }
+
+    /**
+     * 获取通知对应的调度器，用于查看队列深度、丢弃数量等指标。
+     *
+     * @param advice 异步返回通知
+     * @return 调度器，通知尚未被适配时返回 {@code null}
+     */
+    @Nullable
+    public AsyncAdviceDispatcher getDispatcher(AsyncAfterReturningAdvice advice) {
+        return this.dispatchers.get(advice);
+    }
+
+    /**
+     * 关闭所有调度器，等待队列中剩余的快照处理完成。
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        for (AsyncAdviceDispatcher dispatcher : this.dispatchers.values()) {
+            dispatcher.close();
+        }
+    }
+}
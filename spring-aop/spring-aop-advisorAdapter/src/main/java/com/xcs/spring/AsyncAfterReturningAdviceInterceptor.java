@@ -0,0 +1,40 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.AfterAdvice;
+import org.springframework.util.Assert;
+
+/**
+ * 异步返回通知拦截器，目标方法正常返回后复制返回值与参数，交给 {@link AsyncAdviceDispatcher} 异步执行通知。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:45:52
+ */
+public class AsyncAfterReturningAdviceInterceptor implements MethodInterceptor, AfterAdvice {
+
+    private final AsyncAfterReturningAdvice advice;
+
+    private final AsyncAdviceDispatcher dispatcher;
+
+    public AsyncAfterReturningAdviceInterceptor(AsyncAfterReturningAdvice advice, AsyncAdviceDispatcher dispatcher) {
+        Assert.notNull(advice, "Advice must not be null");
+        Assert.notNull(dispatcher, "Dispatcher must not be null");
+        this.advice = advice;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        Object retVal = mi.proceed();
+        // 参数数组可能被调用方复用，必须复制
+        Object[] arguments = mi.getArguments();
+        Object[] argumentsSnapshot = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            argumentsSnapshot[i] = this.advice.snapshot(arguments[i]);
+        }
+        this.dispatcher.submit(new ReturnedInvocation(mi.getMethod(), argumentsSnapshot,
+                this.advice.snapshot(retVal), mi.getThis(), System.currentTimeMillis()));
+        return retVal;
+    }
+}
@@ -0,0 +1,13 @@
+package com.xcs.spring;
+
+import java.util.List;
+
+public class MyAuditAdvice implements AsyncAfterReturningAdvice {
+
+    @Override
+    public void afterReturning(List<ReturnedInvocation> invocations) throws Throwable {
+        // 模拟较慢的审计存储，每批写入耗时约10毫秒
+        Thread.sleep(10);
+        System.out.println("Audit batch of " + invocations.size() + " : " + invocations.get(0));
+    }
+}
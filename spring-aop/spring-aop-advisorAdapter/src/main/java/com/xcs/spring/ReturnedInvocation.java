@@ -0,0 +1,69 @@
+package com.xcs.spring;
+
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * 目标方法正常返回时的调用快照，交给 {@link AsyncAfterReturningAdvice} 在后台线程中处理。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:43:27
+ */
+public final class ReturnedInvocation {
+
+    private final Method method;
+
+    private final Object[] arguments;
+
+    @Nullable
+    private final Object returnValue;
+
+    @Nullable
+    private final Object target;
+
+    /**
+     * 方法返回时的 {@link System#currentTimeMillis()}
+     */
+    private final long timestamp;
+
+    public ReturnedInvocation(Method method, Object[] arguments, @Nullable Object returnValue, @Nullable Object target, long timestamp) {
+        this.method = method;
+        this.arguments = arguments;
+        this.returnValue = returnValue;
+        this.target = target;
+        this.timestamp = timestamp;
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    public Object[] getArguments() {
+        return this.arguments;
+    }
+
+    @Nullable
+    public Object getReturnValue() {
+        return this.returnValue;
+    }
+
+    @Nullable
+    public Object getTarget() {
+        return this.target;
+    }
+
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "ReturnedInvocation{" +
+                "method=" + this.method.getName() +
+                ", arguments=" + Arrays.toString(this.arguments) +
+                ", returnValue=" + this.returnValue +
+                '}';
+    }
+}
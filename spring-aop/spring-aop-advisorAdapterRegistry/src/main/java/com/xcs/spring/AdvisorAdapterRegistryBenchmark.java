@@ -0,0 +1,61 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.DefaultAdvisorAdapterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link DefaultAdvisorAdapterRegistry} 与 {@link TypeIndexedAdvisorAdapterRegistry} 包装通知并获取拦截器的耗时。
+ * 两个注册表都额外注册了 {@link NullReturningAdviceAdapter}，模拟存在自定义适配器的应用。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdvisorAdapterRegistryBenchmark {
+
+    private AdvisorAdapterRegistry defaultRegistry;
+
+    private AdvisorAdapterRegistry typeIndexedRegistry;
+
+    private MyNullReturningAdvice advice;
+
+    @Setup
+    public void setup() {
+        this.defaultRegistry = new DefaultAdvisorAdapterRegistry();
+        this.defaultRegistry.registerAdvisorAdapter(new NullReturningAdviceAdapter());
+        this.typeIndexedRegistry = new TypeIndexedAdvisorAdapterRegistry();
+        this.typeIndexedRegistry.registerAdvisorAdapter(new NullReturningAdviceAdapter());
+        this.advice = new MyNullReturningAdvice();
+    }
+
+    @Benchmark
+    public MethodInterceptor[] defaultRegistry() {
+        Advisor advisor = this.defaultRegistry.wrap(this.advice);
+        return this.defaultRegistry.getInterceptors(advisor);
+    }
+
+    @Benchmark
+    public MethodInterceptor[] typeIndexedRegistry() {
+        Advisor advisor = this.typeIndexedRegistry.wrap(this.advice);
+        return this.typeIndexedRegistry.getInterceptors(advisor);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AdvisorAdapterRegistryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -2,7 +2,9 @@ package com.xcs.spring;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.framework.adapter.DefaultAdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.UnknownAdviceTypeException;
 
 public class AdvisorAdapterRegistryDemo {
 
@@ -18,5 +20,27 @@ public class AdvisorAdapterRegistryDemo {
         for (MethodInterceptor interceptor : interceptors) {
             System.out.println("interceptor = " + interceptor);
         }
+
+        // 创建按通知类型建立索引的注册表，模拟大量原型代理反复包装同一类型的通知
+        TypeIndexedAdvisorAdapterRegistry typeIndexedRegistry = new TypeIndexedAdvisorAdapterRegistry();
+        for (int i = 0; i < 1000; i++) {
+            typeIndexedRegistry.getInterceptors(typeIndexedRegistry.wrap(new MyMethodBeforeAdvice()));
+        }
+        // 尚未注册适配器的通知类型无法被包装
+        try {
+            typeIndexedRegistry.wrap(new MyNullReturningAdvice());
+        } catch (UnknownAdviceTypeException ex) {
+            System.out.println(ex.getMessage());
+        }
+        // 运行期注册自定义适配器，只有MyNullReturningAdvice对应的缓存条目会被移除
+        typeIndexedRegistry.registerAdvisorAdapter(new NullReturningAdviceAdapter());
+        System.out.println(typeIndexedRegistry);
+
+        // 让代理使用该注册表构建拦截器链
+        ProxyFactory proxyFactory = new ProxyFactory(new MyService());
+        proxyFactory.setAdvisorChainFactory(new RegistryAdvisorChainFactory(typeIndexedRegistry));
+        proxyFactory.addAdvisor(typeIndexedRegistry.wrap(new MyNullReturningAdvice()));
+        MyService proxy = (MyService) proxyFactory.getProxy();
+        System.out.println("bar return value : " + proxy.bar());
     }
 }
@@ -0,0 +1,126 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.Interceptor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.IntroductionAwareMethodMatcher;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 使用指定 {@link AdvisorAdapterRegistry} 构建拦截器链的工厂。
+ * <p>
+ * {@link org.springframework.aop.framework.DefaultAdvisorChainFactory} 固定使用全局注册表，
+ * 本工厂的匹配逻辑与其相同，只是把 Advisor 转换为拦截器的工作交给构造时传入的注册表，
+ * 以便代理使用 {@link TypeIndexedAdvisorAdapterRegistry}。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:24:10
+ */
+public class RegistryAdvisorChainFactory implements AdvisorChainFactory {
+
+    private final AdvisorAdapterRegistry registry;
+
+    public RegistryAdvisorChainFactory(AdvisorAdapterRegistry registry) {
+        Assert.notNull(registry, "AdvisorAdapterRegistry must not be null");
+        this.registry = registry;
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Advised config, Method method, @Nullable Class<?> targetClass) {
+        Advisor[] advisors = config.getAdvisors();
+        List<Object> interceptorList = new ArrayList<>(advisors.length);
+        Class<?> actualClass = (targetClass != null ? targetClass : method.getDeclaringClass());
+        Boolean hasIntroductions = null;
+
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof PointcutAdvisor) {
+                PointcutAdvisor pointcutAdvisor = (PointcutAdvisor) advisor;
+                if (config.isPreFiltered() || pointcutAdvisor.getPointcut().getClassFilter().matches(actualClass)) {
+                    MethodMatcher mm = pointcutAdvisor.getPointcut().getMethodMatcher();
+                    boolean match;
+                    if (mm instanceof IntroductionAwareMethodMatcher) {
+                        if (hasIntroductions == null) {
+                            hasIntroductions = hasMatchingIntroductions(advisors, actualClass);
+                        }
+                        match = ((IntroductionAwareMethodMatcher) mm).matches(method, actualClass, hasIntroductions);
+                    } else {
+                        match = mm.matches(method, actualClass);
+                    }
+                    if (match) {
+                        MethodInterceptor[] interceptors = this.registry.getInterceptors(advisor);
+                        if (mm.isRuntime()) {
+                            for (MethodInterceptor interceptor : interceptors) {
+                                interceptorList.add(new DynamicMatchingInterceptor(interceptor, mm, actualClass));
+                            }
+                        } else {
+                            interceptorList.addAll(Arrays.asList(interceptors));
+                        }
+                    }
+                }
+            } else if (advisor instanceof IntroductionAdvisor) {
+                IntroductionAdvisor ia = (IntroductionAdvisor) advisor;
+                if (config.isPreFiltered() || ia.getClassFilter().matches(actualClass)) {
+                    Interceptor[] interceptors = this.registry.getInterceptors(advisor);
+                    interceptorList.addAll(Arrays.asList(interceptors));
+                }
+            } else {
+                Interceptor[] interceptors = this.registry.getInterceptors(advisor);
+                interceptorList.addAll(Arrays.asList(interceptors));
+            }
+        }
+        return interceptorList;
+    }
+
+    private static boolean hasMatchingIntroductions(Advisor[] advisors, Class<?> actualClass) {
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof IntroductionAdvisor) {
+                IntroductionAdvisor ia = (IntroductionAdvisor) advisor;
+                if (ia.getClassFilter().matches(actualClass)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在调用时检查动态方法匹配器的拦截器。
+     * Spring 内部使用的 {@code InterceptorAndDynamicMethodMatcher} 不是公共类，这里以包装拦截器实现相同的语义：
+     * 参数不匹配时跳过被包装的拦截器，直接执行链中的下一个拦截器。
+     */
+    private static final class DynamicMatchingInterceptor implements MethodInterceptor {
+
+        private final MethodInterceptor interceptor;
+
+        private final MethodMatcher methodMatcher;
+
+        private final Class<?> targetClass;
+
+        DynamicMatchingInterceptor(MethodInterceptor interceptor, MethodMatcher methodMatcher, Class<?> targetClass) {
+            this.interceptor = interceptor;
+            this.methodMatcher = methodMatcher;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (this.methodMatcher.matches(invocation.getMethod(), this.targetClass, invocation.getArguments())) {
+                return this.interceptor.invoke(invocation);
+            }
+            return invocation.proceed();
+        }
+    }
+}
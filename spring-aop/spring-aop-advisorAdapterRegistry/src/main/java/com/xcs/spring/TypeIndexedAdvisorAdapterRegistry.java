@@ -0,0 +1,306 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.ThrowsAdvice;
+import org.springframework.aop.framework.adapter.AdvisorAdapter;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.AfterReturningAdviceInterceptor;
+import org.springframework.aop.framework.adapter.MethodBeforeAdviceInterceptor;
+import org.springframework.aop.framework.adapter.ThrowsAdviceInterceptor;
+import org.springframework.aop.framework.adapter.UnknownAdviceTypeException;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 按通知类型建立索引的 Advisor 适配器注册表。
+ * <p>
+ * {@link org.springframework.aop.framework.adapter.DefaultAdvisorAdapterRegistry} 每次包装通知或获取拦截器时，
+ * 都会依次调用所有适配器的 {@code supportsAdvice} 方法。本注册表以通知的具体类作为键，缓存支持该类的适配器列表，
+ * 同一类型的通知再次包装时直接从缓存表构建拦截器：
+ * <ul>
+ *     <li>不被任何适配器支持的通知类型同样会被缓存，重复包装时直接抛出 {@link UnknownAdviceTypeException}；</li>
+ *     <li>运行期注册新的适配器时，只移除新适配器支持的那些通知类型的条目，其余条目保持不变；</li>
+ *     <li>缓存以软引用持有，内存紧张时可被回收，不会阻止通知类被卸载；</li>
+ *     <li>包装与获取拦截器的调用次数、累计耗时以及缓存命中情况均通过getter暴露。</li>
+ * </ul>
+ * 与 Spring 内置的适配器一样，本注册表假定 {@code supportsAdvice} 的结果只取决于通知的类型，而不取决于通知实例的状态。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:06:42
+ */
+public class TypeIndexedAdvisorAdapterRegistry implements AdvisorAdapterRegistry {
+
+    /**
+     * 已注册的适配器，按注册顺序排列
+     */
+    private final List<AdvisorAdapter> adapters = new CopyOnWriteArrayList<>();
+
+    /**
+     * 通知类型到适配器列表的缓存
+     */
+    private final Map<Class<?>, AdapterEntry> adapterCache = new ConcurrentReferenceHashMap<>();
+
+    /**
+     * 适配器注册次数，用于识别与注册并发的缓存查找
+     */
+    private volatile int generation;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder invalidationCount = new LongAdder();
+
+    private final LongAdder wrapCount = new LongAdder();
+
+    private final LongAdder wrapNanos = new LongAdder();
+
+    private final LongAdder interceptorsCount = new LongAdder();
+
+    private final LongAdder interceptorsNanos = new LongAdder();
+
+    /**
+     * 创建注册表，并注册与 {@link org.springframework.aop.framework.adapter.DefaultAdvisorAdapterRegistry} 相同的内置适配器。
+     */
+    public TypeIndexedAdvisorAdapterRegistry() {
+        registerAdvisorAdapter(new TypeAdapter<>(MethodBeforeAdvice.class, MethodBeforeAdviceInterceptor::new));
+        registerAdvisorAdapter(new TypeAdapter<>(AfterReturningAdvice.class, AfterReturningAdviceInterceptor::new));
+        registerAdvisorAdapter(new TypeAdapter<>(ThrowsAdvice.class, ThrowsAdviceInterceptor::new));
+    }
+
+    @Override
+    public Advisor wrap(Object adviceObject) throws UnknownAdviceTypeException {
+        long start = System.nanoTime();
+        try {
+            if (adviceObject instanceof Advisor) {
+                return (Advisor) adviceObject;
+            }
+            if (!(adviceObject instanceof Advice)) {
+                throw new UnknownAdviceTypeException(adviceObject);
+            }
+            Advice advice = (Advice) adviceObject;
+            if (!getAdapterEntry(advice).isSupported()) {
+                throw new UnknownAdviceTypeException(advice);
+            }
+            return new DefaultPointcutAdvisor(advice);
+        } finally {
+            this.wrapNanos.add(System.nanoTime() - start);
+            this.wrapCount.increment();
+        }
+    }
+
+    @Override
+    public MethodInterceptor[] getInterceptors(Advisor advisor) throws UnknownAdviceTypeException {
+        long start = System.nanoTime();
+        try {
+            Advice advice = advisor.getAdvice();
+            AdapterEntry entry = getAdapterEntry(advice);
+            if (!entry.isSupported()) {
+                throw new UnknownAdviceTypeException(advice);
+            }
+            AdvisorAdapter[] supportingAdapters = entry.adapters;
+            int offset = (entry.methodInterceptor ? 1 : 0);
+            MethodInterceptor[] interceptors = new MethodInterceptor[supportingAdapters.length + offset];
+            if (entry.methodInterceptor) {
+                interceptors[0] = (MethodInterceptor) advice;
+            }
+            for (int i = 0; i < supportingAdapters.length; i++) {
+                interceptors[i + offset] = supportingAdapters[i].getInterceptor(advisor);
+            }
+            return interceptors;
+        } finally {
+            this.interceptorsNanos.add(System.nanoTime() - start);
+            this.interceptorsCount.increment();
+        }
+    }
+
+    /**
+     * 注册适配器，并移除新适配器所支持的通知类型的缓存条目。
+     *
+     * @param adapter 要注册的适配器
+     */
+    @Override
+    public synchronized void registerAdvisorAdapter(AdvisorAdapter adapter) {
+        Assert.notNull(adapter, "AdvisorAdapter must not be null");
+        this.adapters.add(adapter);
+        this.generation++;
+        int removed = 0;
+        for (Iterator<AdapterEntry> iterator = this.adapterCache.values().iterator(); iterator.hasNext(); ) {
+            // 用首次查找时的通知实例判断新适配器是否支持该类型
+            if (adapter.supportsAdvice(iterator.next().sample)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        this.invalidationCount.add(removed);
+    }
+
+    /**
+     * 获取支持给定通知的适配器列表，缓存未命中时依次询问所有适配器。
+     */
+    private AdapterEntry getAdapterEntry(Advice advice) {
+        AdapterEntry entry = this.adapterCache.get(advice.getClass());
+        if (entry != null) {
+            this.hitCount.increment();
+            return entry;
+        }
+        this.missCount.increment();
+        int generation = this.generation;
+        List<AdvisorAdapter> supportingAdapters = new ArrayList<>(2);
+        for (AdvisorAdapter adapter : this.adapters) {
+            if (adapter.supportsAdvice(advice)) {
+                supportingAdapters.add(adapter);
+            }
+        }
+        entry = new AdapterEntry(advice, supportingAdapters.toArray(new AdvisorAdapter[0]));
+        this.adapterCache.put(advice.getClass(), entry);
+        if (this.generation != generation) {
+            // 遍历期间注册了新的适配器，本次结果可能已经过期，不予保留
+            this.adapterCache.remove(advice.getClass(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public void clear() {
+        this.adapterCache.clear();
+    }
+
+    public int getAdapterCount() {
+        return this.adapters.size();
+    }
+
+    public int getCacheSize() {
+        return this.adapterCache.size();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getInvalidationCount() {
+        return this.invalidationCount.sum();
+    }
+
+    public long getWrapCount() {
+        return this.wrapCount.sum();
+    }
+
+    /**
+     * 获取 {@link #wrap(Object)} 的累计耗时。
+     *
+     * @return 累计耗时（纳秒）
+     */
+    public long getTotalWrapNanos() {
+        return this.wrapNanos.sum();
+    }
+
+    public long getInterceptorsCount() {
+        return this.interceptorsCount.sum();
+    }
+
+    /**
+     * 获取 {@link #getInterceptors(Advisor)} 的累计耗时。
+     *
+     * @return 累计耗时（纳秒）
+     */
+    public long getTotalInterceptorsNanos() {
+        return this.interceptorsNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TypeIndexedAdvisorAdapterRegistry{" +
+                "adapters=" + getAdapterCount() +
+                ", cacheSize=" + getCacheSize() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", invalidations=" + getInvalidationCount() +
+                ", wraps=" + getWrapCount() +
+                ", wrapNanos=" + getTotalWrapNanos() +
+                ", getInterceptors=" + getInterceptorsCount() +
+                ", getInterceptorsNanos=" + getTotalInterceptorsNanos() +
+                '}';
+    }
+
+    /**
+     * 某个通知类型的缓存条目。
+     */
+    private static final class AdapterEntry {
+
+        /**
+         * 首次查找时的通知实例，注册新适配器时用于判断是否需要移除该条目
+         */
+        final Advice sample;
+
+        /**
+         * 支持该类型的适配器，按注册顺序排列
+         */
+        final AdvisorAdapter[] adapters;
+
+        /**
+         * 通知本身是否就是 MethodInterceptor
+         */
+        final boolean methodInterceptor;
+
+        AdapterEntry(Advice sample, AdvisorAdapter[] adapters) {
+            this.sample = sample;
+            this.adapters = adapters;
+            this.methodInterceptor = (sample instanceof MethodInterceptor);
+        }
+
+        boolean isSupported() {
+            return (this.methodInterceptor || this.adapters.length > 0);
+        }
+    }
+
+    /**
+     * 按通知类型判断是否支持的适配器，用于注册 Spring 内置的三种通知。
+     * Spring 自带的适配器类不是公共类，无法直接创建。
+     */
+    private static final class TypeAdapter<A extends Advice> implements AdvisorAdapter {
+
+        private final Class<A> adviceType;
+
+        private final Function<A, MethodInterceptor> interceptorFactory;
+
+        TypeAdapter(Class<A> adviceType, Function<A, MethodInterceptor> interceptorFactory) {
+            this.adviceType = adviceType;
+            this.interceptorFactory = interceptorFactory;
+        }
+
+        @Override
+        public boolean supportsAdvice(Advice advice) {
+            return this.adviceType.isInstance(advice);
+        }
+
+        @Override
+        public MethodInterceptor getInterceptor(Advisor advisor) {
+            return this.interceptorFactory.apply(this.adviceType.cast(advisor.getAdvice()));
+        }
+
+        @Override
+        public String toString() {
+            return "TypeAdapter{" + this.adviceType.getSimpleName() + '}';
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.xcs.spring;
 
+import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.AdvisedSupport;
 import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -26,5 +29,32 @@ public class AdvisorChainFactoryDemo {
         List<Object> chain = chainFactory.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
         // 打印Advisor链中的拦截器
         chain.forEach(System.out::println);
+
+        // 创建多个代理共享的有界缓存Advisor链工厂
+        BoundedCachingAdvisorChainFactory cachingChainFactory = new BoundedCachingAdvisorChainFactory(256);
+        // 多个代理使用同一批Advisor实例，与自动代理时共享容器中的Advisor相同
+        Advisor beforeAdvisor = new DefaultPointcutAdvisor(new MyMethodBeforeAdvice());
+        Advisor afterReturningAdvisor = new DefaultPointcutAdvisor(new MyAfterReturningAdvice());
+        // 模拟为多个原型Bean创建代理，Advisor相同的代理共享同一份拦截器链
+        for (int i = 0; i < 3; i++) {
+            ChainCachingProxyFactory proxyFactory = new ChainCachingProxyFactory(new MyService(), cachingChainFactory);
+            proxyFactory.addAdvisor(beforeAdvisor);
+            proxyFactory.addAdvisor(afterReturningAdvisor);
+            MyService proxy = (MyService) proxyFactory.getProxy();
+            proxy.foo();
+        }
+        // 打印缓存统计信息
+        System.out.println(cachingChainFactory);
+
+        // 只包含静态前置通知与后置返回通知的链，使用生成的直接分派代理
+        ProxyFactory directProxyFactory = new ProxyFactory(new MyService());
+        directProxyFactory.setAopProxyFactory(new DirectDispatchAopProxyFactory());
+        directProxyFactory.addAdvisor(beforeAdvisor);
+        directProxyFactory.addAdvisor(afterReturningAdvisor);
+        directProxyFactory.setFrozen(true);
+        MyService directProxy = (MyService) directProxyFactory.getProxy();
+        directProxy.foo();
+        // 打印生成的代理类
+        System.out.println("Direct dispatch proxy class = " + directProxy.getClass().getName());
     }
 }
@@ -0,0 +1,438 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 带有界缓存的 Advisor 链工厂，可在多个代理之间共享。
+ * <p>
+ * {@link org.springframework.aop.framework.AdvisedSupport} 自带的方法缓存属于单个代理配置，不限大小，
+ * 并且任意一次 Advisor 变更都会整体清空。大量原型Bean各自创建代理时，同样的链会被重复构建、重复缓存。
+ * 本工厂以 (方法, 目标类, Advisor 集合) 作为缓存键：
+ * <ul>
+ *     <li>Advisor 完全相同（同一批实例、同样的顺序）的代理共享同一份链；</li>
+ *     <li>某个代理的 Advisor 发生变化时只会落到新的缓存键上，其他代理的缓存条目不受影响，
+ *     不再使用的旧条目由容量淘汰自然回收；也可以通过 {@link #invalidate(Advisor)} 只移除包含某个 Advisor 的条目；</li>
+ *     <li>方法、目标类与 Advisor 都以弱引用持有，类被卸载或 Advisor 不再被任何代理配置引用后，对应条目会被自动清理，
+ *     不会阻止类卸载，也不会让从配置中移除的 Advisor 一直可达。代理类会以静态字段持有其
+ *     {@link Method}，因此正常使用时这些弱引用不会被提前回收；</li>
+ *     <li>条目数量超过上限时按 CLOCK（二次机会）算法淘汰最近未被访问的条目。</li>
+ * </ul>
+ * 本工厂只在代理配置自己的方法缓存未命中时被调用（参见 {@link ChainCachingProxyFactory}），查找键的分配与 Advisor 的哈希不在每次调用的路径上。
+ * 命中、未命中、淘汰与回收次数均通过getter暴露。
+ *
+ * @author xcs
+ * @date 2026年10月18日19:48:16
+ */
+public class BoundedCachingAdvisorChainFactory implements AdvisorChainFactory {
+
+    /**
+     * 实际构建拦截器链的工厂
+     */
+    private final AdvisorChainFactory delegate;
+
+    /**
+     * 缓存的最大条目数
+     */
+    private final int maximumSize;
+
+    /**
+     * 缓存的拦截器链
+     */
+    private final Map<CacheKey, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 方法、目标类或 Advisor 被回收后，其弱引用会进入该队列
+     */
+    private final ReferenceQueue<Object> collectedReferences = new ReferenceQueue<>();
+
+    /**
+     * 淘汰锁，同一时刻只允许一个线程移动时钟指针
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * CLOCK 算法的时钟指针
+     */
+    private Iterator<Map.Entry<CacheKey, CacheEntry>> clockHand;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder collectedCount = new LongAdder();
+
+    private final LongAdder invalidationCount = new LongAdder();
+
+    public BoundedCachingAdvisorChainFactory(int maximumSize) {
+        this(new DefaultAdvisorChainFactory(), maximumSize);
+    }
+
+    public BoundedCachingAdvisorChainFactory(AdvisorChainFactory delegate, int maximumSize) {
+        Assert.notNull(delegate, "AdvisorChainFactory must not be null");
+        Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Advised config, Method method, @Nullable Class<?> targetClass) {
+        Advisor[] advisors = config.getAdvisors();
+        LookupKey lookupKey = new LookupKey(method, targetClass, advisors, config.isPreFiltered());
+        CacheEntry entry = this.cache.get(lookupKey);
+        if (entry != null) {
+            this.hitCount.increment();
+            entry.touch();
+            return entry.chain;
+        }
+
+        this.missCount.increment();
+        List<Object> chain = this.delegate.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+        purgeCollectedEntries();
+        CacheKey key = new ReferenceKey(method, targetClass, advisors, config.isPreFiltered(), lookupKey.hash, this.collectedReferences);
+        CacheEntry existing = this.cache.putIfAbsent(key, new CacheEntry(chain));
+        if (existing != null) {
+            // 其他线程已经构建了同样的链，丢弃本次结果
+            return existing.chain;
+        }
+        if (this.cache.size() > this.maximumSize) {
+            evict();
+        }
+        return chain;
+    }
+
+    /**
+     * 移除包含指定 Advisor 的缓存条目，适用于 Advisor 本身的切点或通知发生变化的场景。
+     *
+     * @param advisor 发生变化的 Advisor
+     * @return 移除的条目数量
+     */
+    public int invalidate(Advisor advisor) {
+        int removed = 0;
+        for (Iterator<CacheKey> iterator = this.cache.keySet().iterator(); iterator.hasNext(); ) {
+            CacheKey key = iterator.next();
+            if (key.contains(advisor)) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        this.invalidationCount.add(removed);
+        return removed;
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * 使用 CLOCK 算法淘汰条目，直到缓存大小回到上限以内。
+     * 已有线程在淘汰时直接返回，缓存可能短暂地超出上限。
+     */
+    private void evict() {
+        if (!this.evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            while (this.cache.size() > this.maximumSize) {
+                if (this.clockHand == null || !this.clockHand.hasNext()) {
+                    this.clockHand = this.cache.entrySet().iterator();
+                    if (!this.clockHand.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<CacheKey, CacheEntry> candidate = this.clockHand.next();
+                if (candidate.getValue().referenced) {
+                    // 最近被访问过，给予第二次机会
+                    candidate.getValue().referenced = false;
+                } else if (this.cache.remove(candidate.getKey(), candidate.getValue())) {
+                    this.evictionCount.increment();
+                }
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 移除方法、目标类或 Advisor 已被回收的条目。
+     */
+    private void purgeCollectedEntries() {
+        Reference<?> reference;
+        while ((reference = this.collectedReferences.poll()) != null) {
+            if (this.cache.remove(((KeyReference<?>) reference).owner) != null) {
+                this.collectedCount.increment();
+            }
+        }
+    }
+
+    public int size() {
+        purgeCollectedEntries();
+        return this.cache.size();
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    /**
+     * 获取命中率。
+     *
+     * @return 命中率，没有任何请求时返回0
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    public long getCollectedCount() {
+        return this.collectedCount.sum();
+    }
+
+    public long getInvalidationCount() {
+        return this.invalidationCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCachingAdvisorChainFactory{" +
+                "size=" + size() +
+                ", maximumSize=" + this.maximumSize +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", hitRate=" + String.format("%.2f", getHitRate()) +
+                ", evictions=" + getEvictionCount() +
+                ", collected=" + getCollectedCount() +
+                ", invalidations=" + getInvalidationCount() +
+                '}';
+    }
+
+    /**
+     * 缓存的拦截器链。
+     */
+    private static final class CacheEntry {
+
+        final List<Object> chain;
+
+        /**
+         * CLOCK 算法的访问位
+         */
+        volatile boolean referenced;
+
+        CacheEntry(List<Object> chain) {
+            this.chain = chain;
+        }
+
+        void touch() {
+            // 只在需要时写入，避免命中路径上反复写同一缓存行
+            if (!this.referenced) {
+                this.referenced = true;
+            }
+        }
+    }
+
+    /**
+     * 缓存键，查找时使用强引用的 {@link LookupKey}，存储时使用弱引用的 {@link ReferenceKey}，两者可以相互比较。
+     */
+    private abstract static class CacheKey {
+
+        final boolean preFiltered;
+
+        final int hash;
+
+        CacheKey(boolean preFiltered, int hash) {
+            this.preFiltered = preFiltered;
+            this.hash = hash;
+        }
+
+        @Nullable
+        abstract Method method();
+
+        @Nullable
+        abstract Class<?> targetClass();
+
+        abstract int advisorCount();
+
+        @Nullable
+        abstract Advisor advisor(int index);
+
+        boolean contains(Advisor advisor) {
+            for (int i = 0; i < advisorCount(); i++) {
+                if (advisor(i) == advisor) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) other;
+            if (this.hash != that.hash || this.preFiltered != that.preFiltered || advisorCount() != that.advisorCount()) {
+                return false;
+            }
+            for (int i = 0; i < advisorCount(); i++) {
+                Advisor advisor = advisor(i);
+                if (advisor == null || advisor != that.advisor(i)) {
+                    return false;
+                }
+            }
+            Method method = method();
+            // 已被回收的键只与自身相等
+            return method != null && method.equals(that.method()) && targetClass() == that.targetClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    private static final class LookupKey extends CacheKey {
+
+        private final Method method;
+
+        private final Class<?> targetClass;
+
+        private final Advisor[] advisors;
+
+        LookupKey(Method method, @Nullable Class<?> targetClass, Advisor[] advisors, boolean preFiltered) {
+            super(preFiltered, hash(method, targetClass, advisors));
+            this.method = method;
+            this.targetClass = targetClass;
+            this.advisors = advisors;
+        }
+
+        private static int hash(Method method, @Nullable Class<?> targetClass, Advisor[] advisors) {
+            int hash = method.hashCode() * 31 + Objects.hashCode(targetClass);
+            for (Advisor advisor : advisors) {
+                hash = hash * 31 + System.identityHashCode(advisor);
+            }
+            return hash;
+        }
+
+        @Override
+        Method method() {
+            return this.method;
+        }
+
+        @Override
+        Class<?> targetClass() {
+            return this.targetClass;
+        }
+
+        @Override
+        int advisorCount() {
+            return this.advisors.length;
+        }
+
+        @Override
+        Advisor advisor(int index) {
+            return this.advisors[index];
+        }
+    }
+
+    private static final class ReferenceKey extends CacheKey {
+
+        private final KeyReference<Method> method;
+
+        @Nullable
+        private final KeyReference<Class<?>> targetClass;
+
+        private final KeyReference<?>[] advisors;
+
+        ReferenceKey(Method method, @Nullable Class<?> targetClass, Advisor[] advisors, boolean preFiltered,
+                     int hash, ReferenceQueue<Object> queue) {
+            super(preFiltered, hash);
+            this.method = new KeyReference<>(method, this, queue);
+            this.targetClass = (targetClass != null ? new KeyReference<>(targetClass, this, queue) : null);
+            this.advisors = new KeyReference<?>[advisors.length];
+            for (int i = 0; i < advisors.length; i++) {
+                this.advisors[i] = new KeyReference<>(advisors[i], this, queue);
+            }
+        }
+
+        @Override
+        Method method() {
+            return this.method.get();
+        }
+
+        @Override
+        Class<?> targetClass() {
+            return (this.targetClass != null ? this.targetClass.get() : null);
+        }
+
+        @Override
+        int advisorCount() {
+            return this.advisors.length;
+        }
+
+        @Override
+        Advisor advisor(int index) {
+            return (Advisor) this.advisors[index].get();
+        }
+
+        @Override
+        public String toString() {
+            Advisor[] advisors = new Advisor[advisorCount()];
+            for (int i = 0; i < advisors.length; i++) {
+                advisors[i] = advisor(i);
+            }
+            return "ReferenceKey{method=" + method() + ", targetClass=" + targetClass() +
+                    ", advisors=" + Arrays.toString(advisors) + '}';
+        }
+    }
+
+    /**
+     * 记录所属缓存键的弱引用，被回收后据此移除缓存条目。
+     */
+    private static final class KeyReference<T> extends WeakReference<T> {
+
+        final CacheKey owner;
+
+        KeyReference(T referent, CacheKey owner, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.owner = owner;
+        }
+    }
+}
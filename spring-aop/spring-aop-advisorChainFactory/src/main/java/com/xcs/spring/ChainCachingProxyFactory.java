@@ -0,0 +1,52 @@
+package com.xcs.spring;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在共享的 {@link BoundedCachingAdvisorChainFactory} 前面保留按方法查找的缓存的代理工厂。
+ * <p>
+ * 与 {@link org.springframework.aop.framework.AdvisedSupport} 的方法缓存一样，每次调用只按 {@link Method} 查找一次，
+ * 不复制 Advisor 数组，也不计算 Advisor 的哈希；只有本配置第一次调用某个方法时才去共享缓存中查找，
+ * 大量代理（例如原型Bean的代理）共用共享缓存中已经构建好的拦截器链。Advisor 变更时只清空本配置的方法缓存。
+ *
+ * @author xcs
+ * @date 2026年10月18日19:48:16
+ */
+public class ChainCachingProxyFactory extends ProxyFactory {
+
+    /**
+     * 本配置的方法到拦截器链的缓存，父类构造期间添加接口也会调用 {@link #adviceChanged()}，此时尚未初始化
+     */
+    private final Map<Method, List<Object>> methodChains = new ConcurrentHashMap<>(32);
+
+    public ChainCachingProxyFactory(Object target, BoundedCachingAdvisorChainFactory chainFactory) {
+        super(target);
+        setAdvisorChainFactory(chainFactory);
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+        // 与 AdvisedSupport 相同，同一个配置的目标类固定，只按方法缓存
+        List<Object> chain = this.methodChains.get(method);
+        if (chain == null) {
+            chain = getAdvisorChainFactory().getInterceptorsAndDynamicInterceptionAdvice(this, method, targetClass);
+            this.methodChains.put(method, chain);
+        }
+        return chain;
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    protected void adviceChanged() {
+        super.adviceChanged();
+        if (this.methodChains != null) {
+            this.methodChains.clear();
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.*;
+import org.springframework.aop.framework.*;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.objenesis.ObjenesisException;
+import org.springframework.objenesis.SpringObjenesis;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * 直接分派的 AOP 代理，用于只包含静态前置通知与后置返回通知的拦截器链。
+ * <p>
+ * {@link JdkDynamicAopProxy} 与 {@link CglibAopProxy} 的每次调用都要经过 {@code ReflectiveMethodInvocation.proceed()}
+ * 的递归、把参数装箱到 {@code Object[]}，并通过反射调用目标方法。本代理在创建时就确定每个方法上的通知，
+ * 再用 ASM 生成一个实现类（接口代理）或子类（类代理），在生成的方法中依次直接调用通知与目标方法：
+ * <ul>
+ *     <li>没有通知的方法直接转发到目标对象，不创建参数数组，基本类型参数与返回值不装箱；</li>
+ *     <li>有通知的方法只为通知构建一次参数数组（通知的接口签名要求 {@code Object[]}），目标方法仍然直接调用；</li>
+ *     <li>不创建 {@code MethodInvocation}，没有递归与反射调用。</li>
+ * </ul>
+ * 只有满足以下条件的配置才能使用本代理，由 {@link DirectDispatchAopProxyFactory} 负责判断并在不满足时回退到默认实现：
+ * 配置已冻结、目标源是静态的、不暴露代理、没有引介，并且所有 Advisor 的通知都是 {@link MethodBeforeAdvice} 或
+ * {@link AfterReturningAdvice}，切点不需要运行时匹配；被代理的类型与方法都必须是 public 的。
+ *
+ * @author xcs
+ * @date 2026年10月18日20:21:37
+ */
+public class DirectDispatchAopProxy implements AopProxy {
+
+    /**
+     * 无参方法传给通知的参数数组
+     */
+    public static final Object[] EMPTY_ARGS = new Object[0];
+
+    private static final SpringObjenesis OBJENESIS = new SpringObjenesis();
+
+    /**
+     * AOP配置
+     */
+    private final AdvisedSupport config;
+
+    /**
+     * 代理的生成计划
+     */
+    private final Plan plan;
+
+    DirectDispatchAopProxy(AdvisedSupport config, Plan plan) {
+        this.config = config;
+        this.plan = plan;
+    }
+
+    @Override
+    public Object getProxy() {
+        return getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    @Override
+    public Object getProxy(ClassLoader classLoader) {
+        if (classLoader == null || !ClassUtils.isVisible(DirectDispatchAopProxy.class, classLoader)) {
+            classLoader = DirectDispatchAopProxy.class.getClassLoader();
+        }
+        Class<?> proxyClass = DirectDispatchProxyGenerator.getProxyClass(this.plan, classLoader);
+        Object proxy;
+        try {
+            proxy = OBJENESIS.newInstance(proxyClass, this.config.isFrozen());
+        } catch (ObjenesisException ex) {
+            try {
+                proxy = ReflectionUtils.accessibleConstructor(proxyClass).newInstance();
+            } catch (Throwable ctorEx) {
+                throw new AopConfigException("无法实例化直接分派代理类 [" + proxyClass.getName() + "]", ctorEx);
+            }
+        }
+        bind(proxy);
+        return proxy;
+    }
+
+    /**
+     * 为代理实例设置目标对象、AOP配置以及每个方法上的通知。
+     *
+     * @param proxy 代理实例
+     */
+    private void bind(Object proxy) {
+        Class<?> proxyClass = proxy.getClass();
+        try {
+            proxyClass.getField(DirectDispatchProxyGenerator.TARGET_FIELD).set(proxy, this.plan.target);
+            proxyClass.getField(DirectDispatchProxyGenerator.CONFIG_FIELD).set(proxy, this.config);
+            for (int i = 0; i < this.plan.methods.size(); i++) {
+                ProxiedMethod proxiedMethod = this.plan.methods.get(i);
+                if (proxiedMethod.kind != MethodKind.TARGET || !proxiedMethod.isAdvised()) {
+                    continue;
+                }
+                proxyClass.getField(DirectDispatchProxyGenerator.methodField(i)).set(proxy, proxiedMethod.method);
+                for (int k = 0; k < proxiedMethod.beforeAdvices.length; k++) {
+                    proxyClass.getField(DirectDispatchProxyGenerator.beforeField(i, k)).set(proxy, proxiedMethod.beforeAdvices[k]);
+                }
+                for (int k = 0; k < proxiedMethod.afterReturningAdvices.length; k++) {
+                    proxyClass.getField(DirectDispatchProxyGenerator.afterReturningField(i, k)).set(proxy, proxiedMethod.afterReturningAdvices[k]);
+                }
+            }
+        } catch (ReflectiveOperationException ex) {
+            throw new AopConfigException("无法初始化直接分派代理 [" + proxyClass.getName() + "]", ex);
+        }
+    }
+
+    /**
+     * 生成的代理类的 {@code equals} 实现，与 {@link JdkDynamicAopProxy} 的规则一致。
+     */
+    public static boolean proxyEquals(Object config, Object otherConfig) {
+        return AopProxyUtils.equalsInProxy((AdvisedSupport) config, (AdvisedSupport) otherConfig);
+    }
+
+    /**
+     * 生成的代理类的 {@code hashCode} 实现，与 {@link JdkDynamicAopProxy} 的规则一致。
+     */
+    public static int proxyHashCode(Object config) {
+        return DirectDispatchAopProxy.class.hashCode() * 13 + ((AdvisedSupport) config).getTargetSource().hashCode();
+    }
+
+    /**
+     * 生成的代理类的 {@link DecoratingProxy#getDecoratedClass()} 实现。
+     */
+    public static Class<?> decoratedClass(Object config) {
+        return AopProxyUtils.ultimateTargetClass(config);
+    }
+
+    /**
+     * 为配置制定代理的生成计划。
+     *
+     * @param config AOP配置
+     * @return 生成计划，配置不满足直接分派的条件时返回null
+     */
+    static Plan plan(AdvisedSupport config) {
+        Class<?> targetClass = config.getTargetClass();
+        TargetSource targetSource = config.getTargetSource();
+        if (targetClass == null || !targetSource.isStatic() || !config.isFrozen() || config.isExposeProxy()) {
+            return null;
+        }
+        Advisor[] advisors = config.getAdvisors();
+        for (Advisor advisor : advisors) {
+            if (!isStaticAdvisor(advisor)) {
+                return null;
+            }
+        }
+
+        boolean classProxy = (config.isOptimize() || config.isProxyTargetClass() || hasNoUserSuppliedProxyInterfaces(config)) &&
+                !targetClass.isInterface() && !Proxy.isProxyClass(targetClass);
+        Class<?>[] interfaces = AopProxyUtils.completeProxiedInterfaces(config);
+        if (!classProxy && !config.isInterfaceProxied(DecoratingProxy.class)) {
+            // 与 JdkDynamicAopProxy 相同，接口代理额外实现 DecoratingProxy
+            interfaces = Arrays.copyOf(interfaces, interfaces.length + 1);
+            interfaces[interfaces.length - 1] = DecoratingProxy.class;
+        }
+        for (Class<?> ifc : interfaces) {
+            if (!Modifier.isPublic(ifc.getModifiers())) {
+                return null;
+            }
+        }
+        if (classProxy && !isSubclassable(targetClass)) {
+            return null;
+        }
+
+        Map<String, Method> methods = collectMethods(classProxy ? targetClass : null, interfaces);
+        if (methods == null) {
+            return null;
+        }
+        Object target;
+        try {
+            target = targetSource.getTarget();
+        } catch (Exception ex) {
+            throw new AopConfigException("无法获取目标对象", ex);
+        }
+        if (target == null) {
+            return null;
+        }
+
+        List<ProxiedMethod> proxiedMethods = new ArrayList<>(methods.size());
+        for (Method method : methods.values()) {
+            proxiedMethods.add(planMethod(config, advisors, method, targetClass, classProxy, interfaces));
+        }
+        return new Plan(classProxy ? targetClass : null, interfaces, targetClass, target, proxiedMethods);
+    }
+
+    /**
+     * 判断 Advisor 的通知是否可以在生成的代码中直接调用。
+     */
+    private static boolean isStaticAdvisor(Advisor advisor) {
+        if (advisor instanceof IntroductionAdvisor) {
+            return false;
+        }
+        Advice advice = advisor.getAdvice();
+        if (advice instanceof MethodInterceptor || advice instanceof ThrowsAdvice ||
+                !(advice instanceof MethodBeforeAdvice || advice instanceof AfterReturningAdvice)) {
+            return false;
+        }
+        return !(advisor instanceof PointcutAdvisor) || !((PointcutAdvisor) advisor).getPointcut().getMethodMatcher().isRuntime();
+    }
+
+    private static boolean hasNoUserSuppliedProxyInterfaces(AdvisedSupport config) {
+        Class<?>[] interfaces = config.getProxiedInterfaces();
+        return (interfaces.length == 0 || (interfaces.length == 1 && SpringProxy.class.isAssignableFrom(interfaces[0])));
+    }
+
+    /**
+     * 判断目标类能否被生成的子类完整代理：类本身是 public 且非 final，并且没有生成的子类无法拦截的
+     * protected 或包可见的实例方法。
+     */
+    private static boolean isSubclassable(Class<?> targetClass) {
+        if (!Modifier.isPublic(targetClass.getModifiers()) || Modifier.isFinal(targetClass.getModifiers())) {
+            return false;
+        }
+        for (Class<?> current = targetClass; current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers) && !Modifier.isFinal(modifiers) &&
+                        !Modifier.isPublic(modifiers) && !method.isSynthetic()) {
+                    return false;
+                }
+            }
+        }
+        try {
+            return !Modifier.isFinal(targetClass.getMethod("equals", Object.class).getModifiers()) &&
+                    !Modifier.isFinal(targetClass.getMethod("hashCode").getModifiers());
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * 收集需要在生成的代理类中实现的方法，以方法名与参数类型去重。
+     *
+     * @param targetClass 类代理时的目标类，接口代理时为null
+     * @param interfaces  代理实现的接口
+     * @return 方法签名到方法的映射，接口之间存在返回值冲突的同名方法时返回null
+     */
+    private static Map<String, Method> collectMethods(Class<?> targetClass, Class<?>[] interfaces) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        if (targetClass != null) {
+            for (Method method : targetClass.getMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || method.isBridge()) {
+                    continue;
+                }
+                methods.putIfAbsent(signature(method), method);
+            }
+        } else {
+            try {
+                Method toString = Object.class.getMethod("toString");
+                methods.put(signature(toString), toString);
+                Method equals = Object.class.getMethod("equals", Object.class);
+                methods.put(signature(equals), equals);
+                Method hashCode = Object.class.getMethod("hashCode");
+                methods.put(signature(hashCode), hashCode);
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        for (Class<?> ifc : interfaces) {
+            for (Method method : ifc.getMethods()) {
+                if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) {
+                    continue;
+                }
+                Method existing = methods.putIfAbsent(signature(method), method);
+                if (existing != null && existing.getReturnType() != method.getReturnType() && targetClass == null) {
+                    return null;
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static String signature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+
+    /**
+     * 确定方法的分派方式，以及需要在方法上执行的通知。
+     */
+    private static ProxiedMethod planMethod(AdvisedSupport config, Advisor[] advisors, Method method,
+                                            Class<?> targetClass, boolean classProxy, Class<?>[] interfaces) {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1 &&
+                method.getParameterTypes()[0] == Object.class && method.getReturnType() == boolean.class) {
+            return new ProxiedMethod(method, MethodKind.EQUALS);
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0 && method.getReturnType() == int.class) {
+            return new ProxiedMethod(method, MethodKind.HASH_CODE);
+        }
+        if (method.getDeclaringClass() == DecoratingProxy.class) {
+            return new ProxiedMethod(method, MethodKind.DECORATED_CLASS);
+        }
+        if (!config.isOpaque() && method.getDeclaringClass().isInterface() &&
+                method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+            return new ProxiedMethod(method, MethodKind.CONFIG);
+        }
+
+        List<MethodBeforeAdvice> beforeAdvices = new ArrayList<>();
+        List<AfterReturningAdvice> afterReturningAdvices = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof PointcutAdvisor) {
+                Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+                if (!(config.isPreFiltered() || pointcut.getClassFilter().matches(targetClass)) ||
+                        !pointcut.getMethodMatcher().matches(method, targetClass)) {
+                    continue;
+                }
+            }
+            Advice advice = advisor.getAdvice();
+            if (advice instanceof MethodBeforeAdvice) {
+                beforeAdvices.add((MethodBeforeAdvice) advice);
+            }
+            if (advice instanceof AfterReturningAdvice) {
+                afterReturningAdvices.add((AfterReturningAdvice) advice);
+            }
+        }
+        // 拦截器链中越靠前的后置返回通知越晚执行
+        Collections.reverse(afterReturningAdvices);
+
+        ProxiedMethod proxiedMethod = new ProxiedMethod(method, MethodKind.TARGET);
+        proxiedMethod.beforeAdvices = beforeAdvices.toArray(new MethodBeforeAdvice[0]);
+        proxiedMethod.afterReturningAdvices = afterReturningAdvices.toArray(new AfterReturningAdvice[0]);
+        // 与 JdkDynamicAopProxy 相同：目标方法返回目标对象本身时，改为返回代理
+        Class<?> returnType = method.getReturnType();
+        if (!returnType.isPrimitive() && returnType != Object.class &&
+                !RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+            boolean proxyIsInstance = classProxy && returnType.isAssignableFrom(targetClass);
+            for (Class<?> ifc : interfaces) {
+                proxyIsInstance |= returnType.isAssignableFrom(ifc);
+            }
+            proxiedMethod.returnsProxyForTarget = proxyIsInstance;
+        }
+        return proxiedMethod;
+    }
+
+    /**
+     * 生成的代理方法的分派方式。
+     */
+    enum MethodKind {
+
+        /**
+         * 执行通知并调用目标对象
+         */
+        TARGET,
+
+        /**
+         * 调用 AOP 配置（{@link Advised} 接口中的方法）
+         */
+        CONFIG,
+
+        /**
+         * {@link DecoratingProxy#getDecoratedClass()}
+         */
+        DECORATED_CLASS,
+
+        EQUALS,
+
+        HASH_CODE
+    }
+
+    /**
+     * 代理类中的一个方法。
+     */
+    static final class ProxiedMethod {
+
+        final Method method;
+
+        final MethodKind kind;
+
+        MethodBeforeAdvice[] beforeAdvices = new MethodBeforeAdvice[0];
+
+        AfterReturningAdvice[] afterReturningAdvices = new AfterReturningAdvice[0];
+
+        boolean returnsProxyForTarget;
+
+        ProxiedMethod(Method method, MethodKind kind) {
+            this.method = method;
+            this.kind = kind;
+        }
+
+        boolean isAdvised() {
+            return this.beforeAdvices.length + this.afterReturningAdvices.length > 0;
+        }
+
+        /**
+         * 描述生成的字节码的形状，形状相同的计划可以共用同一个代理类。
+         */
+        void appendShape(StringBuilder shape) {
+            shape.append(this.kind).append(' ')
+                    .append(this.method.getDeclaringClass().getName()).append('.')
+                    .append(this.method.getName()).append(org.springframework.asm.Type.getMethodDescriptor(this.method))
+                    .append(' ').append(this.beforeAdvices.length)
+                    .append('/').append(this.afterReturningAdvices.length)
+                    .append(this.returnsProxyForTarget ? " this" : "")
+                    .append(Arrays.toString(this.method.getExceptionTypes()))
+                    .append(';');
+        }
+    }
+
+    /**
+     * 代理的生成计划。
+     */
+    static final class Plan {
+
+        /**
+         * 类代理时的父类，接口代理时为null
+         */
+        final Class<?> superclass;
+
+        final Class<?>[] interfaces;
+
+        final Class<?> targetClass;
+
+        final Object target;
+
+        final List<ProxiedMethod> methods;
+
+        final String shape;
+
+        Plan(Class<?> superclass, Class<?>[] interfaces, Class<?> targetClass, Object target, List<ProxiedMethod> methods) {
+            this.superclass = superclass;
+            this.interfaces = interfaces;
+            this.targetClass = targetClass;
+            this.target = target;
+            this.methods = methods;
+            StringBuilder shape = new StringBuilder()
+                    .append(superclass != null ? superclass.getName() : "interface").append(' ')
+                    .append(Arrays.toString(interfaces)).append(' ')
+                    .append(targetClass.getName()).append(':');
+            methods.forEach(method -> method.appendShape(shape));
+            this.shape = shape.toString();
+        }
+    }
+}
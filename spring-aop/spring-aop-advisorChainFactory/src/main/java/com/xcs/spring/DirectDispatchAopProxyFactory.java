@@ -0,0 +1,31 @@
+package com.xcs.spring;
+
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.AopProxy;
+import org.springframework.aop.framework.AopProxyFactory;
+import org.springframework.aop.framework.DefaultAopProxyFactory;
+
+/**
+ * 为静态拦截器链创建 {@link DirectDispatchAopProxy} 的 AOP 代理工厂，
+ * 配置不满足直接分派的条件时回退到 {@link DefaultAopProxyFactory}（JDK 动态代理或 CGLIB）。
+ * <p>
+ * 使用方式：{@code proxyFactory.setAopProxyFactory(new DirectDispatchAopProxyFactory())}，
+ * 并在添加完 Advisor 后调用 {@code proxyFactory.setFrozen(true)}。
+ *
+ * @author xcs
+ * @date 2026年10月18日20:21:37
+ */
+public class DirectDispatchAopProxyFactory implements AopProxyFactory {
+
+    private final AopProxyFactory fallback = new DefaultAopProxyFactory();
+
+    @Override
+    public AopProxy createAopProxy(AdvisedSupport config) throws AopConfigException {
+        DirectDispatchAopProxy.Plan plan = DirectDispatchAopProxy.plan(config);
+        if (plan == null) {
+            return this.fallback.createAopProxy(config);
+        }
+        return new DirectDispatchAopProxy(config, plan);
+    }
+}
@@ -0,0 +1,121 @@
+package com.xcs.spring;
+
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.framework.ProxyFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比直接调用、JDK 动态代理、CGLIB 代理与 {@link DirectDispatchAopProxy} 在同一条静态拦截器链
+ * （一个前置通知、一个后置返回通知）下的单次调用耗时与内存分配。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DirectDispatchProxyBenchmark {
+
+    private Calculator target;
+
+    private Calculator jdkProxy;
+
+    private Calculator cglibProxy;
+
+    private Calculator directInterfaceProxy;
+
+    private Calculator directClassProxy;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        this.target = new CalculatorImpl();
+        this.jdkProxy = createProxy(false, false);
+        this.cglibProxy = createProxy(true, false);
+        this.directInterfaceProxy = createProxy(false, true);
+        this.directClassProxy = createProxy(true, true);
+    }
+
+    private Calculator createProxy(boolean proxyTargetClass, boolean directDispatch) {
+        ProxyFactory proxyFactory = new ProxyFactory(this.target);
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        if (directDispatch) {
+            proxyFactory.setAopProxyFactory(new DirectDispatchAopProxyFactory());
+        }
+        proxyFactory.addAdvice(new NoOpBeforeAdvice());
+        proxyFactory.addAdvice(new NoOpAfterReturningAdvice());
+        proxyFactory.setFrozen(true);
+        return (Calculator) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int directCall() {
+        return this.target.add(this.value, 1);
+    }
+
+    @Benchmark
+    public int jdkDynamicAopProxy() {
+        return this.jdkProxy.add(this.value, 1);
+    }
+
+    @Benchmark
+    public int cglibAopProxy() {
+        return this.cglibProxy.add(this.value, 1);
+    }
+
+    @Benchmark
+    public int directDispatchInterfaceProxy() {
+        return this.directInterfaceProxy.add(this.value, 1);
+    }
+
+    @Benchmark
+    public int directDispatchClassProxy() {
+        return this.directClassProxy.add(this.value, 1);
+    }
+
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    public static class CalculatorImpl implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    /**
+     * 不输出日志的前置通知，避免输出耗时掩盖代理机制本身的开销。
+     */
+    public static class NoOpBeforeAdvice implements MethodBeforeAdvice {
+        @Override
+        public void before(Method method, Object[] args, Object target) {
+        }
+    }
+
+    /**
+     * 不输出日志的后置返回通知。
+     */
+    public static class NoOpAfterReturningAdvice implements AfterReturningAdvice {
+        @Override
+        public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(DirectDispatchProxyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,514 @@
+package com.xcs.spring;
+
+import org.springframework.aop.AfterReturningAdvice;
+import org.springframework.aop.MethodBeforeAdvice;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 使用 ASM 生成直接分派的代理类。
+ * <p>
+ * 生成的类以 public 字段持有目标对象、AOP配置、每个方法的 {@link Method} 与通知，由 {@link DirectDispatchAopProxy}
+ * 在实例化后设置。形状相同（代理的类型、方法以及每个方法上通知的数量都相同）的代理共用同一个类。
+ *
+ * @author xcs
+ * @date 2026年10月18日20:21:37
+ */
+final class DirectDispatchProxyGenerator implements Opcodes {
+
+    static final String TARGET_FIELD = "$target";
+
+    static final String CONFIG_FIELD = "$config";
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+
+    private static final String OBJECT_DESC = Type.getDescriptor(Object.class);
+
+    private static final String OBJECT_ARRAY_DESC = Type.getDescriptor(Object[].class);
+
+    private static final String METHOD_DESC = Type.getDescriptor(Method.class);
+
+    private static final String BEFORE_ADVICE = Type.getInternalName(MethodBeforeAdvice.class);
+
+    private static final String AFTER_RETURNING_ADVICE = Type.getInternalName(AfterReturningAdvice.class);
+
+    private static final String PROXY_SUPPORT = Type.getInternalName(DirectDispatchAopProxy.class);
+
+    /**
+     * 已生成的代理类，挂在目标类上，键为 (类加载器, 形状)。
+     * <p>
+     * 缓存由目标类强引用，只有目标类所在的类加载器被卸载时才随之回收，不会因为一次GC就被清空而重复生成代理类；
+     * 代理类引用的类加载器又引用目标类，这个环只通过 {@link ClassValue} 挂在目标类上，不会阻止目标类被卸载。
+     */
+    private static final ClassValue<Map<List<Object>, Class<?>>> proxyClassCache = new ClassValue<Map<List<Object>, Class<?>>>() {
+        @Override
+        protected Map<List<Object>, Class<?>> computeValue(Class<?> targetClass) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+    private DirectDispatchProxyGenerator() {
+    }
+
+    static String methodField(int methodIndex) {
+        return "$m" + methodIndex;
+    }
+
+    static String beforeField(int methodIndex, int adviceIndex) {
+        return "$b" + methodIndex + "_" + adviceIndex;
+    }
+
+    static String afterReturningField(int methodIndex, int adviceIndex) {
+        return "$a" + methodIndex + "_" + adviceIndex;
+    }
+
+    /**
+     * 获取计划对应的代理类，不存在时生成。
+     *
+     * @param plan        代理的生成计划
+     * @param classLoader 定义代理类所用的父类加载器
+     * @return 代理类
+     */
+    static Class<?> getProxyClass(DirectDispatchAopProxy.Plan plan, ClassLoader classLoader) {
+        Map<List<Object>, Class<?>> cache = proxyClassCache.get(plan.targetClass);
+        List<Object> key = Arrays.asList(classLoader, plan.shape);
+        Class<?> proxyClass = cache.get(key);
+        if (proxyClass == null) {
+            String className = DirectDispatchAopProxy.class.getPackage().getName() + "." +
+                    plan.targetClass.getSimpleName() + "$$DirectDispatch$$" + classCounter.getAndIncrement();
+            byte[] bytecode = generate(className.replace('.', '/'), plan);
+            try {
+                proxyClass = new ProxyClassLoader(classLoader).define(className, bytecode);
+            } catch (LinkageError ex) {
+                throw new AopConfigException("无法定义直接分派代理类 [" + className + "]", ex);
+            }
+            Class<?> existing = cache.putIfAbsent(key, proxyClass);
+            if (existing != null) {
+                proxyClass = existing;
+            }
+        }
+        return proxyClass;
+    }
+
+    /**
+     * 生成代理类的字节码。
+     */
+    static byte[] generate(String internalName, DirectDispatchAopProxy.Plan plan) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // 生成的代码不会在栈帧中合并不同的引用类型，无需加载类
+                return OBJECT;
+            }
+        };
+        String superName = (plan.superclass != null ? Type.getInternalName(plan.superclass) : OBJECT);
+        String[] interfaces = new String[plan.interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = Type.getInternalName(plan.interfaces[i]);
+        }
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, internalName, null, superName, interfaces);
+
+        cw.visitField(ACC_PUBLIC, TARGET_FIELD, OBJECT_DESC, null, null).visitEnd();
+        cw.visitField(ACC_PUBLIC, CONFIG_FIELD, OBJECT_DESC, null, null).visitEnd();
+        generateConstructor(cw, plan.superclass, superName);
+
+        List<DirectDispatchAopProxy.ProxiedMethod> methods = plan.methods;
+        for (int i = 0; i < methods.size(); i++) {
+            DirectDispatchAopProxy.ProxiedMethod proxiedMethod = methods.get(i);
+            switch (proxiedMethod.kind) {
+                case TARGET:
+                    generateTargetMethod(cw, internalName, i, proxiedMethod, plan.superclass != null ? plan.targetClass : null);
+                    break;
+                case CONFIG:
+                    generateConfigMethod(cw, internalName, proxiedMethod.method);
+                    break;
+                case DECORATED_CLASS:
+                    generateStaticHelperCall(cw, internalName, proxiedMethod.method, "decoratedClass", "(Ljava/lang/Object;)Ljava/lang/Class;");
+                    break;
+                case HASH_CODE:
+                    generateStaticHelperCall(cw, internalName, proxiedMethod.method, "proxyHashCode", "(Ljava/lang/Object;)I");
+                    break;
+                case EQUALS:
+                    generateEquals(cw, internalName, proxiedMethod.method);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown method kind: " + proxiedMethod.kind);
+            }
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * 生成无参构造器。类代理时父类没有可访问的无参构造器则不生成，实例只能通过 Objenesis 创建。
+     */
+    private static void generateConstructor(ClassWriter cw, Class<?> superclass, String superName) {
+        if (superclass != null) {
+            try {
+                int modifiers = superclass.getDeclaredConstructor().getModifiers();
+                if (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers)) {
+                    return;
+                }
+            } catch (NoSuchMethodException ex) {
+                return;
+            }
+        }
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * 生成执行通知并直接调用目标方法的代理方法：
+     * <pre>
+     * Object[] args = new Object[]{p0, p1, ...};           // 仅当方法上存在通知时
+     * before0.before(m, args, target); ...
+     * R ret = ((T) target).method(p0, p1, ...);           // 存在前置通知时从 args 中取参数，以保留通知对参数的修改
+     * afterReturning0.afterReturning(ret, m, args, target); ...
+     * return (ret == target ? this : ret);                // 仅当返回类型可以接收代理时
+     * </pre>
+     * 存在通知时，未声明的受检异常会被包装为 {@link UndeclaredThrowableException}，与 JDK 动态代理一致。
+     */
+    private static void generateTargetMethod(ClassWriter cw, String internalName, int index,
+                                             DirectDispatchAopProxy.ProxiedMethod proxiedMethod, Class<?> targetClass) {
+        Method method = proxiedMethod.method;
+        Type[] argumentTypes = Type.getArgumentTypes(method);
+        Type returnType = Type.getReturnType(method);
+        MethodBeforeAdvice[] beforeAdvices = proxiedMethod.beforeAdvices;
+        AfterReturningAdvice[] afterReturningAdvices = proxiedMethod.afterReturningAdvices;
+        boolean advised = proxiedMethod.isAdvised();
+
+        if (advised) {
+            cw.visitField(ACC_PUBLIC, methodField(index), METHOD_DESC, null, null).visitEnd();
+            for (int k = 0; k < beforeAdvices.length; k++) {
+                cw.visitField(ACC_PUBLIC, beforeField(index, k), "L" + BEFORE_ADVICE + ";", null, null).visitEnd();
+            }
+            for (int k = 0; k < afterReturningAdvices.length; k++) {
+                cw.visitField(ACC_PUBLIC, afterReturningField(index, k), "L" + AFTER_RETURNING_ADVICE + ";", null, null).visitEnd();
+            }
+        }
+
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null,
+                internalNames(exceptionTypes));
+        mv.visitCode();
+
+        int argsLocal = 1;
+        for (Type argumentType : argumentTypes) {
+            argsLocal += argumentType.getSize();
+        }
+        int returnLocal = argsLocal + 1;
+        int throwableLocal = returnLocal + Math.max(returnType.getSize(), 1);
+
+        boolean wrapUndeclared = advised && !declaresThrowable(exceptionTypes);
+        Label tryStart = new Label();
+        Label tryEnd = new Label();
+        // 每种异常类型使用单独的处理器，避免在栈帧中合并不同的异常类型
+        String[] rethrowTypes = new String[exceptionTypes.length + 2];
+        rethrowTypes[0] = "java/lang/RuntimeException";
+        rethrowTypes[1] = "java/lang/Error";
+        for (int j = 0; j < exceptionTypes.length; j++) {
+            rethrowTypes[j + 2] = Type.getInternalName(exceptionTypes[j]);
+        }
+        Label[] rethrowHandlers = new Label[rethrowTypes.length];
+        Label wrap = new Label();
+        if (wrapUndeclared) {
+            for (int j = 0; j < rethrowTypes.length; j++) {
+                rethrowHandlers[j] = new Label();
+                mv.visitTryCatchBlock(tryStart, tryEnd, rethrowHandlers[j], rethrowTypes[j]);
+            }
+            mv.visitTryCatchBlock(tryStart, tryEnd, wrap, "java/lang/Throwable");
+        }
+        mv.visitLabel(tryStart);
+
+        if (advised) {
+            // 构建传给通知的参数数组
+            if (argumentTypes.length == 0) {
+                mv.visitFieldInsn(GETSTATIC, PROXY_SUPPORT, "EMPTY_ARGS", OBJECT_ARRAY_DESC);
+            } else {
+                pushInt(mv, argumentTypes.length);
+                mv.visitTypeInsn(ANEWARRAY, OBJECT);
+                int local = 1;
+                for (int j = 0; j < argumentTypes.length; j++) {
+                    mv.visitInsn(DUP);
+                    pushInt(mv, j);
+                    mv.visitVarInsn(argumentTypes[j].getOpcode(ILOAD), local);
+                    box(mv, argumentTypes[j]);
+                    mv.visitInsn(AASTORE);
+                    local += argumentTypes[j].getSize();
+                }
+            }
+            mv.visitVarInsn(ASTORE, argsLocal);
+        }
+
+        for (int k = 0; k < beforeAdvices.length; k++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, beforeField(index, k), "L" + BEFORE_ADVICE + ";");
+            loadMethodArgsAndTarget(mv, internalName, index, argsLocal);
+            mv.visitMethodInsn(INVOKEINTERFACE, BEFORE_ADVICE, "before",
+                    "(" + METHOD_DESC + OBJECT_ARRAY_DESC + OBJECT_DESC + ")V", true);
+        }
+
+        // 直接调用目标方法
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, TARGET_FIELD, OBJECT_DESC);
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> owner = (declaringClass.isInterface() || targetClass == null ? declaringClass : targetClass);
+        String ownerName = Type.getInternalName(owner);
+        if (owner != Object.class) {
+            mv.visitTypeInsn(CHECKCAST, ownerName);
+        }
+        if (beforeAdvices.length > 0) {
+            // 前置通知可能修改了参数数组
+            for (int j = 0; j < argumentTypes.length; j++) {
+                mv.visitVarInsn(ALOAD, argsLocal);
+                pushInt(mv, j);
+                mv.visitInsn(AALOAD);
+                unbox(mv, argumentTypes[j]);
+            }
+        } else {
+            int local = 1;
+            for (Type argumentType : argumentTypes) {
+                mv.visitVarInsn(argumentType.getOpcode(ILOAD), local);
+                local += argumentType.getSize();
+            }
+        }
+        mv.visitMethodInsn(owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL, ownerName, method.getName(),
+                Type.getMethodDescriptor(method), owner.isInterface());
+        if (returnType.getSort() != Type.VOID) {
+            mv.visitVarInsn(returnType.getOpcode(ISTORE), returnLocal);
+        }
+
+        for (int k = 0; k < afterReturningAdvices.length; k++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, afterReturningField(index, k), "L" + AFTER_RETURNING_ADVICE + ";");
+            if (returnType.getSort() == Type.VOID) {
+                mv.visitInsn(ACONST_NULL);
+            } else {
+                mv.visitVarInsn(returnType.getOpcode(ILOAD), returnLocal);
+                box(mv, returnType);
+            }
+            loadMethodArgsAndTarget(mv, internalName, index, argsLocal);
+            mv.visitMethodInsn(INVOKEINTERFACE, AFTER_RETURNING_ADVICE, "afterReturning",
+                    "(" + OBJECT_DESC + METHOD_DESC + OBJECT_ARRAY_DESC + OBJECT_DESC + ")V", true);
+        }
+        mv.visitLabel(tryEnd);
+
+        if (proxiedMethod.returnsProxyForTarget) {
+            Label notTarget = new Label();
+            mv.visitVarInsn(ALOAD, returnLocal);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, internalName, TARGET_FIELD, OBJECT_DESC);
+            mv.visitJumpInsn(IF_ACMPNE, notTarget);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitInsn(ARETURN);
+            mv.visitLabel(notTarget);
+        }
+        if (returnType.getSort() == Type.VOID) {
+            mv.visitInsn(RETURN);
+        } else {
+            mv.visitVarInsn(returnType.getOpcode(ILOAD), returnLocal);
+            mv.visitInsn(returnType.getOpcode(IRETURN));
+        }
+
+        if (wrapUndeclared) {
+            for (Label rethrowHandler : rethrowHandlers) {
+                mv.visitLabel(rethrowHandler);
+                mv.visitInsn(ATHROW);
+            }
+            mv.visitLabel(wrap);
+            mv.visitVarInsn(ASTORE, throwableLocal);
+            mv.visitTypeInsn(NEW, Type.getInternalName(UndeclaredThrowableException.class));
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, throwableLocal);
+            mv.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(UndeclaredThrowableException.class), "<init>",
+                    "(Ljava/lang/Throwable;)V", false);
+            mv.visitInsn(ATHROW);
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * 压入通知方法共有的三个参数：{@link Method}、参数数组与目标对象。
+     */
+    private static void loadMethodArgsAndTarget(MethodVisitor mv, String internalName, int index, int argsLocal) {
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, methodField(index), METHOD_DESC);
+        mv.visitVarInsn(ALOAD, argsLocal);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, TARGET_FIELD, OBJECT_DESC);
+    }
+
+    /**
+     * 生成转发到 AOP 配置的方法，用于 {@link org.springframework.aop.framework.Advised} 接口。
+     */
+    private static void generateConfigMethod(ClassWriter cw, String internalName, Method method) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null,
+                internalNames(method.getExceptionTypes()));
+        mv.visitCode();
+        String ownerName = Type.getInternalName(method.getDeclaringClass());
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, CONFIG_FIELD, OBJECT_DESC);
+        mv.visitTypeInsn(CHECKCAST, ownerName);
+        int local = 1;
+        for (Type argumentType : Type.getArgumentTypes(method)) {
+            mv.visitVarInsn(argumentType.getOpcode(ILOAD), local);
+            local += argumentType.getSize();
+        }
+        mv.visitMethodInsn(INVOKEINTERFACE, ownerName, method.getName(), Type.getMethodDescriptor(method), true);
+        mv.visitInsn(Type.getReturnType(method).getOpcode(IRETURN));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * 生成以 AOP 配置为参数调用 {@link DirectDispatchAopProxy} 静态方法的代理方法。
+     */
+    private static void generateStaticHelperCall(ClassWriter cw, String internalName, Method method,
+                                                 String helperName, String helperDescriptor) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, CONFIG_FIELD, OBJECT_DESC);
+        mv.visitMethodInsn(INVOKESTATIC, PROXY_SUPPORT, helperName, helperDescriptor, false);
+        mv.visitInsn(Type.getReturnType(method).getOpcode(IRETURN));
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * 生成 {@code equals}：同一实例相等；同一代理类的实例按 AOP 配置比较。
+     */
+    private static void generateEquals(ClassWriter cw, String internalName, Method method) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, method.getName(), Type.getMethodDescriptor(method), null, null);
+        mv.visitCode();
+        Label notSame = new Label();
+        Label sameClass = new Label();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitJumpInsn(IF_ACMPNE, notSame);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(notSame);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(INSTANCEOF, internalName);
+        mv.visitJumpInsn(IFNE, sameClass);
+        mv.visitInsn(ICONST_0);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(sameClass);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, internalName, CONFIG_FIELD, OBJECT_DESC);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, internalName);
+        mv.visitFieldInsn(GETFIELD, internalName, CONFIG_FIELD, OBJECT_DESC);
+        mv.visitMethodInsn(INVOKESTATIC, PROXY_SUPPORT, "proxyEquals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+        mv.visitInsn(IRETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static boolean declaresThrowable(Class<?>[] exceptionTypes) {
+        for (Class<?> exceptionType : exceptionTypes) {
+            if (exceptionType == Throwable.class) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] internalNames(Class<?>[] types) {
+        if (types.length == 0) {
+            return null;
+        }
+        String[] names = new String[types.length];
+        for (int i = 0; i < types.length; i++) {
+            names[i] = Type.getInternalName(types[i]);
+        }
+        return names;
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else {
+            mv.visitIntInsn(value <= Byte.MAX_VALUE ? BIPUSH : SIPUSH, value);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Type type) {
+        if (type.getSort() >= Type.ARRAY) {
+            return;
+        }
+        String wrapper = wrapperName(type);
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + type.getDescriptor() + ")L" + wrapper + ";", false);
+    }
+
+    private static void unbox(MethodVisitor mv, Type type) {
+        if (type.getSort() >= Type.ARRAY) {
+            if (!type.getInternalName().equals(OBJECT)) {
+                mv.visitTypeInsn(CHECKCAST, type.getInternalName());
+            }
+            return;
+        }
+        String wrapper = wrapperName(type);
+        mv.visitTypeInsn(CHECKCAST, wrapper);
+        mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getClassName() + "Value", "()" + type.getDescriptor(), false);
+    }
+
+    private static String wrapperName(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return "java/lang/Boolean";
+            case Type.CHAR:
+                return "java/lang/Character";
+            case Type.BYTE:
+                return "java/lang/Byte";
+            case Type.SHORT:
+                return "java/lang/Short";
+            case Type.INT:
+                return "java/lang/Integer";
+            case Type.FLOAT:
+                return "java/lang/Float";
+            case Type.LONG:
+                return "java/lang/Long";
+            case Type.DOUBLE:
+                return "java/lang/Double";
+            default:
+                throw new IllegalArgumentException("Not a primitive type: " + type);
+        }
+    }
+
+    /**
+     * 每个代理类使用独立的类加载器定义，代理类不再被引用时可以连同类加载器一起卸载。
+     */
+    private static final class ProxyClassLoader extends ClassLoader {
+
+        ProxyClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytecode) {
+            return defineClass(name, bytecode, 0, bytecode.length, DirectDispatchAopProxy.class.getProtectionDomain());
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.*;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.AspectJPrecedenceInformation;
+import org.springframework.aop.aspectj.InstantiationModelAwarePointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Advisor × 类 的适用性矩阵。
+ * <p>
+ * 在容器刷新时一次性、并行地计算每个候选类与每个 Advisor 的匹配结果：对每个类记录哪些 Advisor 可以应用，
+ * 以及每个 Advisor 的切点匹配该类的哪些方法（以 {@link BitSet} 压缩存储）。之后筛选 Advisor 与构建拦截器链时
+ * 只需查表，不再为每个Bean、每个方法重复执行切点匹配。
+ * <p>
+ * 切点的匹配结果依赖于当前Bean名称（例如 AspectJ 的 {@code bean()} 表达式）时无法按类缓存，这类 Advisor
+ * 不进入矩阵，而是在查询时交给调用方按原有方式匹配。并行计算要求切点的匹配逻辑是线程安全的。
+ * <p>
+ * 原型作用域与 {@code perthis}/{@code pertarget} 切面每次获取候选 Advisor 时都会创建新的 Advisor 实例，
+ * 因此矩阵的列按 Advisor 的定义（切面名称与通知方法，或切点）而不是实例来识别，这些新实例仍然命中已有的列。
+ *
+ * @author xcs
+ * @date 2026年10月18日19:02:51
+ */
+public class AdvisorEligibilityMatrix {
+
+    /**
+     * 构建矩阵时使用的候选 Advisor，顺序即矩阵的列顺序
+     */
+    private final Advisor[] advisors;
+
+    /**
+     * 每列 Advisor 的定义，见 {@link #definitionKey(Advisor)}
+     */
+    private final Object[] definitionKeys;
+
+    /**
+     * Advisor 到列下标的映射
+     */
+    private final Map<Advisor, Integer> advisorIndexes = new IdentityHashMap<>();
+
+    /**
+     * Advisor 定义到列下标的映射，用于识别同一定义的新 Advisor 实例
+     */
+    private final Map<Object, Integer> definitionIndexes = new HashMap<>();
+
+    /**
+     * 匹配结果依赖Bean名称、不能按类缓存的 Advisor
+     */
+    private final BitSet nameSensitiveAdvisors = new BitSet();
+
+    /**
+     * 方法匹配器需要在运行时根据参数匹配的 Advisor
+     */
+    private final BitSet runtimeAdvisors = new BitSet();
+
+    /**
+     * 每个类的匹配结果，即矩阵的行
+     */
+    private final ConcurrentMap<Class<?>, ClassEligibility> rows = new ConcurrentHashMap<>();
+
+    private AdvisorEligibilityMatrix(List<Advisor> advisors) {
+        this.advisors = advisors.toArray(new Advisor[0]);
+        this.definitionKeys = new Object[this.advisors.length];
+        for (int i = 0; i < this.advisors.length; i++) {
+            Advisor advisor = this.advisors[i];
+            this.advisorIndexes.put(advisor, i);
+            this.definitionKeys[i] = definitionKey(advisor);
+            this.definitionIndexes.putIfAbsent(this.definitionKeys[i], i);
+            if (advisor instanceof PointcutAdvisor) {
+                Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+                if (pointcut instanceof AspectJExpressionPointcut) {
+                    String expression = ((AspectJExpressionPointcut) pointcut).getExpression();
+                    if (expression != null && expression.contains("bean(")) {
+                        this.nameSensitiveAdvisors.set(i);
+                    }
+                }
+                if (pointcut.getMethodMatcher().isRuntime()) {
+                    this.runtimeAdvisors.set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上并行构建矩阵。
+     *
+     * @param advisors 候选 Advisor
+     * @param classes  候选类
+     * @param pool     执行并行计算的线程池
+     * @return 适用性矩阵
+     */
+    public static AdvisorEligibilityMatrix build(List<Advisor> advisors, Collection<Class<?>> classes, ForkJoinPool pool) {
+        AdvisorEligibilityMatrix matrix = new AdvisorEligibilityMatrix(advisors);
+        List<Class<?>> distinctClasses = classes.stream().distinct().collect(Collectors.toList());
+        pool.submit(() -> distinctClasses.parallelStream().forEach(matrix::getRow)).join();
+        return matrix;
+    }
+
+    /**
+     * 判断矩阵是否基于同一组候选 Advisor 构建。
+     *
+     * @param candidateAdvisors 候选 Advisor
+     * @return 同一组 Advisor（顺序相同，每个位置是同一个实例或同一定义的新实例）时返回true
+     */
+    public boolean isBuiltFor(List<Advisor> candidateAdvisors) {
+        if (candidateAdvisors.size() != this.advisors.length) {
+            return false;
+        }
+        for (int i = 0; i < this.advisors.length; i++) {
+            Advisor candidate = candidateAdvisors.get(i);
+            if (candidate != this.advisors[i] && !this.definitionKeys[i].equals(definitionKey(candidate))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取可以应用到指定类的 Advisor，结果与 {@link AopUtils#findAdvisorsThatCanApply} 一致。
+     *
+     * @param candidateAdvisors     候选 Advisor，必须满足 {@link #isBuiltFor(List)}
+     * @param beanClass             Bean 的类型
+     * @param nameSensitiveResolver 对依赖Bean名称的 Advisor 按原有方式实时匹配的回调，仅在存在这类 Advisor 时调用
+     * @return 可以应用的候选 Advisor 实例，保持候选 Advisor 的原有顺序
+     */
+    public List<Advisor> getEligibleAdvisors(List<Advisor> candidateAdvisors, Class<?> beanClass,
+                                             UnaryOperator<List<Advisor>> nameSensitiveResolver) {
+        Advisor[] candidates = candidateAdvisors.toArray(new Advisor[0]);
+        ClassEligibility row = getRow(beanClass);
+        Set<Advisor> nameSensitiveEligible = Collections.emptySet();
+        if (!this.nameSensitiveAdvisors.isEmpty()) {
+            List<Advisor> nameSensitiveCandidates = new ArrayList<>();
+            this.nameSensitiveAdvisors.stream().forEach(i -> nameSensitiveCandidates.add(candidates[i]));
+            nameSensitiveEligible = Collections.newSetFromMap(new IdentityHashMap<>());
+            nameSensitiveEligible.addAll(nameSensitiveResolver.apply(nameSensitiveCandidates));
+        }
+
+        List<Advisor> eligible = new ArrayList<>(row.eligibleAdvisors.cardinality() + nameSensitiveEligible.size());
+        // 与 AopUtils 相同，引介 Advisor 排在前面
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] instanceof IntroductionAdvisor && row.eligibleAdvisors.get(i)) {
+                eligible.add(candidates[i]);
+            }
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            if (candidates[i] instanceof IntroductionAdvisor) {
+                continue;
+            }
+            if (this.nameSensitiveAdvisors.get(i) ? nameSensitiveEligible.contains(candidates[i]) : row.eligibleAdvisors.get(i)) {
+                eligible.add(candidates[i]);
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * 获取 Advisor 在矩阵中的列下标，同一定义的新 Advisor 实例对应同一列。
+     *
+     * @param advisor Advisor
+     * @return 列下标，不在矩阵中时返回-1
+     */
+    int indexOf(Advisor advisor) {
+        Integer index = this.advisorIndexes.get(advisor);
+        if (index == null) {
+            index = this.definitionIndexes.get(definitionKey(advisor));
+        }
+        return (index != null ? index : -1);
+    }
+
+    /**
+     * 计算 Advisor 的定义，定义相同的 Advisor 对任意类、任意方法的匹配结果都相同。
+     * <p>
+     * 由 {@code @Aspect} 通知方法生成的 Advisor 以（切面名称，通知方法）为定义，其余切点 Advisor 以（Advisor 类型，切点）为定义，
+     * 引介 Advisor 与无法识别的 Advisor 以实例本身为定义。
+     *
+     * @param advisor Advisor
+     * @return Advisor 的定义
+     */
+    private static Object definitionKey(Advisor advisor) {
+        if (advisor instanceof InstantiationModelAwarePointcutAdvisor && advisor instanceof AspectJPrecedenceInformation) {
+            // 懒加载切面的通知在这里创建，与构建拦截器链时相同，不会实例化切面
+            Advice advice = advisor.getAdvice();
+            if (advice instanceof AbstractAspectJAdvice) {
+                return new AdvisorDefinition(((AspectJPrecedenceInformation) advisor).getAspectName(),
+                        ((AbstractAspectJAdvice) advice).getAspectJAdviceMethod());
+            }
+        }
+        if (advisor instanceof PointcutAdvisor && !(advisor instanceof IntroductionAdvisor)) {
+            return new AdvisorDefinition(advisor.getClass(), ((PointcutAdvisor) advisor).getPointcut());
+        }
+        return advisor;
+    }
+
+    /**
+     * 判断某列的匹配结果是否可以直接用于构建拦截器链。
+     *
+     * @param advisorIndex 列下标
+     * @return 静态匹配且与Bean名称无关时返回true
+     */
+    boolean isCacheable(int advisorIndex) {
+        return !this.nameSensitiveAdvisors.get(advisorIndex) && !this.runtimeAdvisors.get(advisorIndex);
+    }
+
+    /**
+     * 获取类的匹配结果，不存在时立即计算。
+     *
+     * @param targetClass 目标类
+     * @return 类的匹配结果
+     */
+    ClassEligibility getRow(Class<?> targetClass) {
+        ClassEligibility row = this.rows.get(targetClass);
+        if (row == null) {
+            row = this.rows.computeIfAbsent(targetClass, this::computeRow);
+        }
+        return row;
+    }
+
+    /**
+     * 计算一个类与所有 Advisor 的匹配结果，匹配规则与 {@link AopUtils#canApply(Advisor, Class, boolean)} 相同，
+     * 区别在于会遍历所有方法并记录匹配的方法，而不是在第一次匹配时返回。
+     *
+     * @param targetClass 目标类
+     * @return 类的匹配结果
+     */
+    private ClassEligibility computeRow(Class<?> targetClass) {
+        Method[] methods = collectMethods(targetClass);
+        ClassEligibility row = new ClassEligibility(methods, this.advisors.length);
+
+        // 先匹配引介 Advisor，其结果决定了方法匹配时的 hasIntroductions 参数
+        for (int i = 0; i < this.advisors.length; i++) {
+            Advisor advisor = this.advisors[i];
+            if (advisor instanceof IntroductionAdvisor && ((IntroductionAdvisor) advisor).getClassFilter().matches(targetClass)) {
+                row.eligibleAdvisors.set(i);
+            }
+        }
+        row.hasIntroductions = !row.eligibleAdvisors.isEmpty();
+
+        for (int i = 0; i < this.advisors.length; i++) {
+            Advisor advisor = this.advisors[i];
+            if (advisor instanceof IntroductionAdvisor || this.nameSensitiveAdvisors.get(i)) {
+                continue;
+            }
+            if (!(advisor instanceof PointcutAdvisor)) {
+                // 没有切点的 Advisor 适用于所有类
+                row.eligibleAdvisors.set(i);
+                continue;
+            }
+            Pointcut pointcut = ((PointcutAdvisor) advisor).getPointcut();
+            if (!pointcut.getClassFilter().matches(targetClass)) {
+                continue;
+            }
+            MethodMatcher methodMatcher = pointcut.getMethodMatcher();
+            BitSet matchedMethods = new BitSet(methods.length);
+            if (methodMatcher == MethodMatcher.TRUE) {
+                matchedMethods.set(0, methods.length);
+                row.eligibleAdvisors.set(i);
+            } else {
+                IntroductionAwareMethodMatcher introductionAwareMethodMatcher =
+                        (methodMatcher instanceof IntroductionAwareMethodMatcher ? (IntroductionAwareMethodMatcher) methodMatcher : null);
+                for (int m = 0; m < methods.length; m++) {
+                    boolean matches = (introductionAwareMethodMatcher != null ?
+                            introductionAwareMethodMatcher.matches(methods[m], targetClass, row.hasIntroductions) :
+                            methodMatcher.matches(methods[m], targetClass));
+                    if (matches) {
+                        matchedMethods.set(m);
+                    }
+                }
+                if (!matchedMethods.isEmpty()) {
+                    row.eligibleAdvisors.set(i);
+                }
+            }
+            row.matchedMethods[i] = matchedMethods;
+        }
+        return row;
+    }
+
+    /**
+     * 收集类及其所有接口上声明的方法，范围与 {@link AopUtils#canApply(Pointcut, Class, boolean)} 相同。
+     *
+     * @param targetClass 目标类
+     * @return 去重后的方法
+     */
+    private static Method[] collectMethods(Class<?> targetClass) {
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        if (!Proxy.isProxyClass(targetClass)) {
+            classes.add(ClassUtils.getUserClass(targetClass));
+        }
+        classes.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+        Set<Method> methods = new LinkedHashSet<>();
+        for (Class<?> clazz : classes) {
+            Collections.addAll(methods, ReflectionUtils.getAllDeclaredMethods(clazz));
+        }
+        return methods.toArray(new Method[0]);
+    }
+
+    /**
+     * 获取矩阵中已计算的类的数量。
+     *
+     * @return 行数
+     */
+    public int getClassCount() {
+        return this.rows.size();
+    }
+
+    /**
+     * 获取矩阵中 Advisor 的数量。
+     *
+     * @return 列数
+     */
+    public int getAdvisorCount() {
+        return this.advisors.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AdvisorEligibilityMatrix{" +
+                "classes=" + getClassCount() +
+                ", advisors=" + getAdvisorCount() +
+                ", nameSensitiveAdvisors=" + this.nameSensitiveAdvisors.cardinality() +
+                ", runtimeAdvisors=" + this.runtimeAdvisors.cardinality() +
+                '}';
+    }
+
+    /**
+     * Advisor 的定义，由两部分组成。
+     */
+    private static final class AdvisorDefinition {
+
+        private final Object source;
+
+        private final Object element;
+
+        AdvisorDefinition(Object source, Object element) {
+            this.source = source;
+            this.element = element;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof AdvisorDefinition)) {
+                return false;
+            }
+            AdvisorDefinition that = (AdvisorDefinition) other;
+            return (ObjectUtils.nullSafeEquals(this.source, that.source) && ObjectUtils.nullSafeEquals(this.element, that.element));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * ObjectUtils.nullSafeHashCode(this.source) + ObjectUtils.nullSafeHashCode(this.element);
+        }
+    }
+
+    /**
+     * 矩阵中的一行：一个类与所有 Advisor 的匹配结果。
+     */
+    static final class ClassEligibility {
+
+        /**
+         * 方法到下标的映射，下标对应 {@link #matchedMethods} 中的位
+         */
+        private final Map<Method, Integer> methodIndexes;
+
+        /**
+         * 可以应用到该类的 Advisor
+         */
+        final BitSet eligibleAdvisors = new BitSet();
+
+        /**
+         * 每个切点 Advisor 匹配的方法，引介 Advisor 与不进入矩阵的 Advisor 为null
+         */
+        final BitSet[] matchedMethods;
+
+        /**
+         * 该类是否存在可以应用的引介 Advisor
+         */
+        boolean hasIntroductions;
+
+        ClassEligibility(Method[] methods, int advisorCount) {
+            this.methodIndexes = new HashMap<>(methods.length * 2);
+            for (int i = 0; i < methods.length; i++) {
+                this.methodIndexes.put(methods[i], i);
+            }
+            this.matchedMethods = new BitSet[advisorCount];
+        }
+
+        /**
+         * 获取方法的下标。
+         *
+         * @param method 方法
+         * @return 方法下标，不属于该类时返回-1
+         */
+        int indexOf(Method method) {
+            Integer index = this.methodIndexes.get(method);
+            return (index != null ? index : -1);
+        }
+    }
+}
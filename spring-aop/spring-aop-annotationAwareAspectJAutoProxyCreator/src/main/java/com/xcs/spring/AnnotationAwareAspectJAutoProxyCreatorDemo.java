@@ -1,5 +1,6 @@
 package com.xcs.spring;
 
+import org.springframework.aop.config.AopConfigUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class AnnotationAwareAspectJAutoProxyCreatorDemo {
@@ -11,5 +12,8 @@ public class AnnotationAwareAspectJAutoProxyCreatorDemo {
         MyService myService = context.getBean(MyService.class);
         // 调用MyService的方法
         myService.foo();
+        // 打印自动代理创建器预先计算的 Advisor 适用性矩阵
+        PrecomputedAspectJAutoProxyCreator proxyCreator = context.getBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, PrecomputedAspectJAutoProxyCreator.class);
+        System.out.println("Eligibility Matrix = " + proxyCreator.getMatrix());
     }
 }
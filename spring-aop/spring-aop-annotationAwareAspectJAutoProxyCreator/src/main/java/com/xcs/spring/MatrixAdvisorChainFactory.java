@@ -0,0 +1,100 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AdvisorChainFactory;
+import org.springframework.aop.framework.DefaultAdvisorChainFactory;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 基于 {@link AdvisorEligibilityMatrix} 构建拦截器链的 AdvisorChainFactory。
+ * <p>
+ * 方法与 Advisor 的匹配结果直接读取矩阵中预先计算好的位图，不再执行切点匹配。
+ * 遇到矩阵无法回答的情况（不在矩阵中的 Advisor 或方法、运行时匹配器、引介 Advisor、依赖Bean名称的切点）时，
+ * 整条链交给 {@link DefaultAdvisorChainFactory} 按原有方式计算。
+ */
+public class MatrixAdvisorChainFactory implements AdvisorChainFactory {
+
+    /**
+     * 预先计算的适用性矩阵
+     */
+    private final AdvisorEligibilityMatrix matrix;
+
+    /**
+     * 矩阵无法回答时使用的默认实现
+     */
+    private final AdvisorChainFactory fallback = new DefaultAdvisorChainFactory();
+
+    public MatrixAdvisorChainFactory(AdvisorEligibilityMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    @Override
+    public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Advised config, Method method, Class<?> targetClass) {
+        if (targetClass == null) {
+            return this.fallback.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+        }
+        AdvisorEligibilityMatrix.ClassEligibility row = this.matrix.getRow(targetClass);
+        int methodIndex = row.indexOf(method);
+        Advisor[] advisors = config.getAdvisors();
+        if (methodIndex < 0 || !isCacheable(advisors)) {
+            return this.fallback.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+        }
+
+        AdvisorAdapterRegistry registry = GlobalAdvisorAdapterRegistry.getInstance();
+        List<Object> interceptorList = new ArrayList<>(advisors.length);
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof PointcutAdvisor) {
+                int advisorIndex = this.matrix.indexOf(advisor);
+                if (!config.isPreFiltered() && !row.eligibleAdvisors.get(advisorIndex)) {
+                    continue;
+                }
+                BitSet matchedMethods = row.matchedMethods[advisorIndex];
+                if (matchedMethods == null) {
+                    // 类过滤器不匹配时矩阵没有记录方法匹配结果，预筛选的配置仍要逐个方法匹配，交给默认实现
+                    if (config.isPreFiltered()) {
+                        return this.fallback.getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+                    }
+                    continue;
+                }
+                if (!matchedMethods.get(methodIndex)) {
+                    continue;
+                }
+            }
+            MethodInterceptor[] interceptors = registry.getInterceptors(advisor);
+            Collections.addAll(interceptorList, interceptors);
+        }
+        return interceptorList;
+    }
+
+    /**
+     * 判断是否可以完全根据矩阵构建拦截器链。
+     *
+     * @param advisors 代理配置中的 Advisor
+     * @return 所有切点 Advisor 都在矩阵中且为静态匹配、并且不包含引介 Advisor 时返回true
+     */
+    private boolean isCacheable(Advisor[] advisors) {
+        for (Advisor advisor : advisors) {
+            if (advisor instanceof IntroductionAdvisor) {
+                return false;
+            }
+            if (advisor instanceof PointcutAdvisor) {
+                int advisorIndex = this.matrix.indexOf(advisor);
+                if (advisorIndex < 0 || !this.matrix.isCacheable(advisorIndex)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
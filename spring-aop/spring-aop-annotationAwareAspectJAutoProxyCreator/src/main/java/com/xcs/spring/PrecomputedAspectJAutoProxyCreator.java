@@ -0,0 +1,116 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 使用 {@link AdvisorEligibilityMatrix} 的 AnnotationAwareAspectJAutoProxyCreator。
+ * <p>
+ * 第一次为Bean筛选 Advisor 时，根据容器中所有Bean定义的类型并行构建 Advisor × 类 的适用性矩阵，
+ * 之后每个Bean的 Advisor 筛选与代理的拦截器链构建都直接查表。候选 Advisor 发生变化时重新构建矩阵。
+ */
+public class PrecomputedAspectJAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator {
+
+    /**
+     * 并行构建矩阵的线程池
+     */
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+    /**
+     * 当前的适用性矩阵
+     */
+    private volatile AdvisorEligibilityMatrix matrix;
+
+    /**
+     * 设置并行构建矩阵的线程池，默认使用公共线程池。
+     *
+     * @param forkJoinPool 线程池
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * 获取当前的适用性矩阵。
+     *
+     * @return 适用性矩阵，尚未构建时返回null
+     */
+    public AdvisorEligibilityMatrix getMatrix() {
+        return this.matrix;
+    }
+
+    @Override
+    protected List<Advisor> findAdvisorsThatCanApply(List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName) {
+        AdvisorEligibilityMatrix matrix = obtainMatrix(candidateAdvisors);
+        // 依赖Bean名称的切点仍由父类在设置了当前Bean名称的上下文中匹配
+        return matrix.getEligibleAdvisors(candidateAdvisors, beanClass, advisors -> super.findAdvisorsThatCanApply(advisors, beanClass, beanName));
+    }
+
+    @Override
+    protected void customizeProxyFactory(ProxyFactory proxyFactory) {
+        AdvisorEligibilityMatrix matrix = this.matrix;
+        if (matrix != null) {
+            proxyFactory.setAdvisorChainFactory(new MatrixAdvisorChainFactory(matrix));
+        }
+    }
+
+    /**
+     * 获取与候选 Advisor 对应的矩阵，不存在或已过期时重新构建。
+     *
+     * @param candidateAdvisors 候选 Advisor
+     * @return 适用性矩阵
+     */
+    private AdvisorEligibilityMatrix obtainMatrix(List<Advisor> candidateAdvisors) {
+        AdvisorEligibilityMatrix matrix = this.matrix;
+        if (matrix != null && matrix.isBuiltFor(candidateAdvisors)) {
+            return matrix;
+        }
+        synchronized (this) {
+            matrix = this.matrix;
+            if (matrix == null || !matrix.isBuiltFor(candidateAdvisors)) {
+                long startTime = System.nanoTime();
+                matrix = AdvisorEligibilityMatrix.build(candidateAdvisors, resolveBeanClasses(), this.forkJoinPool);
+                this.matrix = matrix;
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Built " + matrix + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+                }
+            }
+            return matrix;
+        }
+    }
+
+    /**
+     * 解析容器中所有Bean定义的类型，作为矩阵的候选类。
+     *
+     * @return Bean 的类型
+     */
+    private Set<Class<?>> resolveBeanClasses() {
+        Set<Class<?>> beanClasses = new LinkedHashSet<>();
+        if (!(getBeanFactory() instanceof ConfigurableListableBeanFactory)) {
+            return beanClasses;
+        }
+        ConfigurableListableBeanFactory beanFactory = (ConfigurableListableBeanFactory) getBeanFactory();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            try {
+                Class<?> beanType = beanFactory.getType(beanName, false);
+                if (beanType != null && !isInfrastructureClass(beanType)) {
+                    beanClasses.add(ClassUtils.getUserClass(beanType));
+                }
+            } catch (RuntimeException ex) {
+                // 类型暂时无法解析的Bean在创建时再按需计算
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Could not resolve type of bean '" + beanName + "' for advisor eligibility matrix", ex);
+                }
+            }
+        }
+        return beanClasses;
+    }
+}
@@ -3,6 +3,7 @@ package com.xcs.spring;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class AopContextDemo {
 
@@ -17,5 +18,21 @@ public class AopContextDemo {
         MyService proxy = (MyService) proxyFactory.getProxy();
         // 调用代理对象的方法
         proxy.foo();
+
+        // 创建代理工厂&创建目标对象，不再暴露代理对象
+        ProxyFactory selfProxyFactory = new ProxyFactory(new MySelfProxyService());
+        // 创建通知器
+        selfProxyFactory.addAdvisor(new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(MyAnnotation.class), new MyMethodBeforeAdvice()));
+        // 获取代理对象
+        MySelfProxyService selfProxy = (MySelfProxyService) selfProxyFactory.getProxy();
+        // 将代理对象注入到目标对象的@SelfProxy字段
+        SelfProxyInjector.inject(selfProxy);
+        // 调用代理对象的方法
+        selfProxy.foo();
+
+        // 在容器中由SelfProxyBeanPostProcessor自动注入代理对象
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
+        context.getBean(MySelfProxyService.class).foo();
+        context.close();
     }
 }
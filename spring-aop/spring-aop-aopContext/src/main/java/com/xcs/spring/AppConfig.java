@@ -0,0 +1,31 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class AppConfig {
+
+    /**
+     * 在容器创建代理后自动注入 @SelfProxy 字段，静态方法避免提前初始化配置类
+     */
+    @Bean
+    public static SelfProxyBeanPostProcessor selfProxyBeanPostProcessor() {
+        return new SelfProxyBeanPostProcessor();
+    }
+
+    @Bean
+    public Advisor myAnnotationAdvisor() {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(MyAnnotation.class), new MyMethodBeforeAdvice());
+    }
+
+    @Bean
+    public MySelfProxyService mySelfProxyService() {
+        return new MySelfProxyService();
+    }
+}
@@ -0,0 +1,21 @@
+package com.xcs.spring;
+
+@MyAnnotation
+public class MySelfProxyService {
+
+    /**
+     * 创建代理后注入的自身代理对象
+     */
+    @SelfProxy
+    private MySelfProxyService self;
+
+    public void foo() {
+        System.out.println("foo...");
+        // 通过注入的代理对象调用bar，无需暴露代理
+        this.self.bar();
+    }
+
+    public void bar() {
+        System.out.println("bar...");
+    }
+}
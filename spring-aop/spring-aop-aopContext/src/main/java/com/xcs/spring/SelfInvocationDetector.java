@@ -0,0 +1,100 @@
+package com.xcs.spring;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 通过读取字节码粗略检测类中的自调用，只用于输出提示，不影响代理的行为。
+ * <p>
+ * 实例方法中对本类或父类方法的 {@code invokevirtual} 都视为自调用。这类调用直接到达目标对象，不会经过代理，因此其上的通知不会执行。
+ * 检测只扫描指令，不分析控制流与接收者：不可达代码中的调用同样会被报告，对同类型其他实例的调用会被误报，
+ * 把 {@code this} 传给其他对象后再回调、通过接口或 lambda 发起的调用则会漏报。默认不启用，
+ * 需要时通过 {@link SelfProxyInjector#inject(Object, boolean)} 或 {@link SelfProxyBeanPostProcessor#setDetectSelfInvocation(boolean)} 开启。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:24:52
+ */
+public final class SelfInvocationDetector {
+
+    private SelfInvocationDetector() {
+    }
+
+    /**
+     * 检测类中可能通过 {@code this} 调用的实例方法。
+     *
+     * @param targetClass 目标类
+     * @return 可能被自调用的方法，无法读取字节码时不包含该类中的调用
+     */
+    public static Set<Method> detect(Class<?> targetClass) {
+        Set<String> owners = new HashSet<>();
+        for (Class<?> current = targetClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            owners.add(Type.getInternalName(current));
+        }
+        Set<String> invoked = new HashSet<>();
+        for (Class<?> current = targetClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            ClassLoader classLoader = current.getClassLoader();
+            if (classLoader == null) {
+                continue;
+            }
+            String resource = ClassUtils.convertClassNameToResourcePath(current.getName()) + ClassUtils.CLASS_FILE_SUFFIX;
+            try (InputStream in = classLoader.getResourceAsStream(resource)) {
+                if (in != null) {
+                    new ClassReader(in).accept(new SelfCallClassVisitor(owners, invoked),
+                            ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+                }
+            } catch (IOException | IllegalArgumentException ex) {
+                // 无法读取字节码（包括 ASM 不支持的类文件版本）时视为没有自调用
+            }
+        }
+
+        Set<Method> methods = new LinkedHashSet<>();
+        for (Method method : targetClass.getMethods()) {
+            if (!Modifier.isStatic(method.getModifiers()) &&
+                    invoked.contains(method.getName() + Type.getMethodDescriptor(method))) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static final class SelfCallClassVisitor extends ClassVisitor {
+
+        private final Set<String> owners;
+
+        private final Set<String> invoked;
+
+        SelfCallClassVisitor(Set<String> owners, Set<String> invoked) {
+            super(SpringAsmInfo.ASM_VERSION);
+            this.owners = owners;
+            this.invoked = invoked;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            if ((access & Opcodes.ACC_STATIC) != 0) {
+                return null;
+            }
+            return new MethodVisitor(SpringAsmInfo.ASM_VERSION) {
+                @Override
+                public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                    if (opcode == Opcodes.INVOKEVIRTUAL && owners.contains(owner)) {
+                        invoked.add(name + descriptor);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.xcs.spring;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记用于保存自身代理对象的字段。
+ * <p>
+ * 创建代理后，{@link SelfProxyInjector} 会把代理对象直接注入到目标对象的该字段中，方法内部通过该字段调用自身的其他方法即可
+ * 经过通知，不再需要 {@code setExposeProxy(true)} 与 {@link org.springframework.aop.framework.AopContext#currentProxy()}。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:24:52
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SelfProxy {
+}
@@ -0,0 +1,55 @@
+package com.xcs.spring;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * 在容器创建代理后自动执行 {@link SelfProxyInjector#inject(Object)} 的后置处理器。
+ * <p>
+ * 优先级最低，确保在自动代理创建器之后执行，此时拿到的Bean已经是最终的代理对象。
+ * 存在循环依赖时，自动代理创建器在 {@code getEarlyBeanReference} 中提前创建代理，
+ * 之后的 {@code postProcessAfterInitialization} 拿到的是原始对象，因此提前暴露的代理也在这里注入。
+ * 自调用检测需要读取每个代理类的字节码，默认关闭，可以在开发环境中通过 {@link #setDetectSelfInvocation(boolean)} 开启。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:24:52
+ */
+public class SelfProxyBeanPostProcessor implements SmartInstantiationAwareBeanPostProcessor, Ordered {
+
+    private boolean detectSelfInvocation = false;
+
+    /**
+     * 设置没有 {@link SelfProxy} 字段时是否检测绕过通知的自调用并输出警告，默认不检测。
+     *
+     * @param detectSelfInvocation 是否检测
+     */
+    public void setDetectSelfInvocation(boolean detectSelfInvocation) {
+        this.detectSelfInvocation = detectSelfInvocation;
+    }
+
+    @Override
+    public Object getEarlyBeanReference(Object bean, String beanName) throws BeansException {
+        injectIfProxy(bean);
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        injectIfProxy(bean);
+        return bean;
+    }
+
+    private void injectIfProxy(Object bean) {
+        if (AopUtils.isAopProxy(bean) && bean instanceof Advised && ((Advised) bean).getTargetSource().isStatic()) {
+            SelfProxyInjector.inject(bean, this.detectSelfInvocation);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+}
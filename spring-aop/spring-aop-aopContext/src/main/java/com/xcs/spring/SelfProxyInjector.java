@@ -0,0 +1,117 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 把代理对象注入到目标对象中标记了 {@link SelfProxy} 的字段，替代 {@code exposeProxy} 与 {@code AopContext.currentProxy()}。
+ * <p>
+ * {@code exposeProxy} 会在每一次代理调用前后读写 {@code ThreadLocal}，即使方法从不自调用；注入后目标对象直接持有自身的代理，
+ * 只有真正的自调用才会多一次字段读取。开启检测时，如果目标类没有可注入的字段，还会通过 {@link SelfInvocationDetector}
+ * 粗略检测通过 {@code this} 调用的、带有通知的方法，并输出警告提示这些调用不会经过通知；检测需要读取字节码，默认不启用。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:24:52
+ */
+public final class SelfProxyInjector {
+
+    private static final Log logger = LogFactory.getLog(SelfProxyInjector.class);
+
+    private SelfProxyInjector() {
+    }
+
+    /**
+     * 将代理对象注入到目标对象的 {@link SelfProxy} 字段中，不检测自调用。
+     *
+     * @param proxy 代理对象
+     * @return 注入的字段数量
+     */
+    public static int inject(Object proxy) {
+        return inject(proxy, false);
+    }
+
+    /**
+     * 将代理对象注入到目标对象的 {@link SelfProxy} 字段中。
+     *
+     * @param proxy                代理对象
+     * @param detectSelfInvocation 没有可注入的字段时，是否检测绕过通知的自调用并输出警告
+     * @return 注入的字段数量
+     */
+    public static int inject(Object proxy, boolean detectSelfInvocation) {
+        if (!(proxy instanceof Advised)) {
+            throw new AopConfigException("对象 [" + proxy + "] 不是未设置 opaque 的 Spring AOP 代理，无法注入自身代理");
+        }
+        Advised advised = (Advised) proxy;
+        TargetSource targetSource = advised.getTargetSource();
+        if (!targetSource.isStatic()) {
+            // 每次调用可能使用不同的目标对象，注入到某一个目标对象上没有意义
+            throw new AopConfigException("目标源 [" + targetSource + "] 不是静态的，无法注入自身代理");
+        }
+        Object target;
+        try {
+            target = targetSource.getTarget();
+        } catch (Exception ex) {
+            throw new AopConfigException("无法获取目标对象", ex);
+        }
+        if (target == null) {
+            return 0;
+        }
+
+        List<String> injected = new ArrayList<>();
+        ReflectionUtils.doWithFields(target.getClass(), field -> {
+            if (!field.getType().isInstance(proxy)) {
+                throw new AopConfigException("字段 [" + field + "] 的类型与代理对象 [" + proxy.getClass().getName() + "] 不兼容");
+            }
+            ReflectionUtils.makeAccessible(field);
+            ReflectionUtils.setField(field, target, proxy);
+            injected.add(field.getName());
+        }, field -> field.isAnnotationPresent(SelfProxy.class));
+
+        if (injected.isEmpty()) {
+            if (detectSelfInvocation) {
+                warnBypassedSelfInvocations(advised, target.getClass());
+            }
+        } else if (advised.isExposeProxy() && logger.isInfoEnabled()) {
+            logger.info("已将代理注入到 " + target.getClass().getName() + injected + "，可以关闭 exposeProxy");
+        }
+        return injected.size();
+    }
+
+    /**
+     * 输出自调用绕过通知的警告。
+     */
+    private static void warnBypassedSelfInvocations(Advised advised, Class<?> targetClass) {
+        if (advised.isExposeProxy() || !logger.isWarnEnabled()) {
+            return;
+        }
+        Set<Method> selfInvoked = SelfInvocationDetector.detect(targetClass);
+        for (Method method : selfInvoked) {
+            if (isAdvised(advised, method, targetClass)) {
+                logger.warn("方法 " + method + " 在 " + targetClass.getName() + " 内部通过 this 调用，不会执行通知；" +
+                        "可以声明一个 @SelfProxy 字段并通过该字段调用");
+            }
+        }
+    }
+
+    private static boolean isAdvised(Advised advised, Method method, Class<?> targetClass) {
+        for (Advisor advisor : advised.getAdvisors()) {
+            if (AopUtils.canApply(advisor, targetClass) && (!(advisor instanceof PointcutAdvisor) ||
+                    ((PointcutAdvisor) advisor).getPointcut().getMethodMatcher().matches(method, targetClass))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
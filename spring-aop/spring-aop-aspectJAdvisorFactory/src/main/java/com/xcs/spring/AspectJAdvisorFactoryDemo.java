@@ -1,11 +1,14 @@
 package com.xcs.spring;
 
 import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJProxyUtils;
 import org.springframework.aop.aspectj.annotation.BeanFactoryAspectInstanceFactory;
 import org.springframework.aop.aspectj.annotation.MetadataAwareAspectInstanceFactory;
 import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class AspectJAdvisorFactoryDemo {
@@ -24,5 +27,17 @@ public class AspectJAdvisorFactoryDemo {
         List<Advisor> advisors = aspectJAdvisorFactory.getAdvisors(factory);
         // 打印 Advisors
         advisors.forEach(System.out::println);
+
+        // 只在通知方法声明了连接点参数时才创建连接点
+        beanFactory.registerSingleton("myAroundAspect", new MyAroundAspect());
+        LazyJoinPointAspectJAdvisorFactory lazyAdvisorFactory = new LazyJoinPointAspectJAdvisorFactory(beanFactory);
+        List<Advisor> lazyAdvisors = new ArrayList<>(lazyAdvisorFactory.getAdvisors(factory));
+        lazyAdvisors.addAll(lazyAdvisorFactory.getAdvisors(new BeanFactoryAspectInstanceFactory(beanFactory, "myAroundAspect")));
+        // 添加 ExposeInvocationInterceptor，通知需要通过它获取当前调用
+        AspectJProxyUtils.makeAdvisorChainAspectJCapableIfNecessary(lazyAdvisors);
+        ProxyFactory proxyFactory = new ProxyFactory(new MyService());
+        proxyFactory.addAdvisors(lazyAdvisors);
+        MyService proxy = (MyService) proxyFactory.getProxy();
+        proxy.foo();
     }
 }
@@ -0,0 +1,290 @@
+package com.xcs.spring;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * 按 {@link Method} 缓存的不可变 {@link MethodSignature}，供 {@link LazyProceedingJoinPoint} 使用。
+ * <p>
+ * {@code MethodInvocationProceedingJoinPoint} 在每次调用中都创建新的方法签名和静态部分，
+ * {@code toString()} 的结果也不会保留。方法签名只与方法有关，因此同一个方法在所有调用中共享一个实例：
+ * 参数名称、各种字符串形式以及 {@link JoinPoint.StaticPart} 都在第一次使用时计算并缓存。
+ * 字符串格式与 {@code MethodInvocationProceedingJoinPoint} 相同。
+ *
+ * @author xcs
+ * @date 2026年10月19日02:58:14
+ */
+public final class CachedMethodSignature implements MethodSignature {
+
+    private static final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private static final Map<Method, CachedMethodSignature> cache = new ConcurrentReferenceHashMap<>();
+
+    private final Method method;
+
+    private final JoinPoint.StaticPart staticPart = new MethodExecutionStaticPart();
+
+    @Nullable
+    private volatile String[] parameterNames;
+
+    @Nullable
+    private volatile String shortString;
+
+    @Nullable
+    private volatile String longString;
+
+    @Nullable
+    private volatile String string;
+
+    private CachedMethodSignature(Method method) {
+        this.method = method;
+    }
+
+    /**
+     * 获取方法的签名。
+     *
+     * @param method 方法
+     * @return 共享的签名实例
+     */
+    public static CachedMethodSignature forMethod(Method method) {
+        CachedMethodSignature signature = cache.get(method);
+        if (signature == null) {
+            signature = cache.computeIfAbsent(method, CachedMethodSignature::new);
+        }
+        return signature;
+    }
+
+    /**
+     * 获取方法执行连接点的静态部分。
+     *
+     * @return 共享的静态部分
+     */
+    public JoinPoint.StaticPart getStaticPart() {
+        return this.staticPart;
+    }
+
+    @Override
+    public String getName() {
+        return this.method.getName();
+    }
+
+    @Override
+    public int getModifiers() {
+        return this.method.getModifiers();
+    }
+
+    @Override
+    public Class<?> getDeclaringType() {
+        return this.method.getDeclaringClass();
+    }
+
+    @Override
+    public String getDeclaringTypeName() {
+        return this.method.getDeclaringClass().getName();
+    }
+
+    @Override
+    public Class<?> getReturnType() {
+        return this.method.getReturnType();
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public Class<?>[] getParameterTypes() {
+        return this.method.getParameterTypes();
+    }
+
+    @Override
+    @Nullable
+    public String[] getParameterNames() {
+        String[] parameterNames = this.parameterNames;
+        if (parameterNames == null) {
+            parameterNames = parameterNameDiscoverer.getParameterNames(this.method);
+            this.parameterNames = parameterNames;
+        }
+        return (parameterNames != null ? parameterNames.clone() : null);
+    }
+
+    @Override
+    public Class<?>[] getExceptionTypes() {
+        return this.method.getExceptionTypes();
+    }
+
+    @Override
+    public String toShortString() {
+        String shortString = this.shortString;
+        if (shortString == null) {
+            shortString = toString(false, false, false, false);
+            this.shortString = shortString;
+        }
+        return shortString;
+    }
+
+    @Override
+    public String toLongString() {
+        String longString = this.longString;
+        if (longString == null) {
+            longString = toString(true, true, true, true);
+            this.longString = longString;
+        }
+        return longString;
+    }
+
+    @Override
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            string = toString(false, true, false, true);
+            this.string = string;
+        }
+        return string;
+    }
+
+    private String toString(boolean includeModifier, boolean includeReturnTypeAndArgs,
+                            boolean useLongReturnAndArgumentTypeName, boolean useLongTypeName) {
+        StringBuilder sb = new StringBuilder();
+        if (includeModifier) {
+            sb.append(Modifier.toString(getModifiers()));
+            sb.append(' ');
+        }
+        if (includeReturnTypeAndArgs) {
+            appendType(sb, getReturnType(), useLongReturnAndArgumentTypeName);
+            sb.append(' ');
+        }
+        appendType(sb, getDeclaringType(), useLongTypeName);
+        sb.append('.');
+        sb.append(getName());
+        sb.append('(');
+        Class<?>[] parameterTypes = this.method.getParameterTypes();
+        if (includeReturnTypeAndArgs) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                appendType(sb, parameterTypes[i], useLongReturnAndArgumentTypeName);
+                if (i < parameterTypes.length - 1) {
+                    sb.append(", ");
+                }
+            }
+        } else if (parameterTypes.length != 0) {
+            sb.append("..");
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    private static void appendType(StringBuilder sb, Class<?> type, boolean useLongTypeName) {
+        if (type.isArray()) {
+            appendType(sb, type.getComponentType(), useLongTypeName);
+            sb.append("[]");
+        } else {
+            sb.append(useLongTypeName ? type.getName() : type.getSimpleName());
+        }
+    }
+
+    /**
+     * 方法执行连接点的静态部分，字符串形式与连接点相同，同样在第一次使用时缓存。
+     */
+    private final class MethodExecutionStaticPart implements JoinPoint.StaticPart {
+
+        @Nullable
+        private volatile String shortString;
+
+        @Nullable
+        private volatile String longString;
+
+        @Nullable
+        private volatile String string;
+
+        @Override
+        public Signature getSignature() {
+            return CachedMethodSignature.this;
+        }
+
+        @Override
+        public SourceLocation getSourceLocation() {
+            return UnsupportedSourceLocation.INSTANCE;
+        }
+
+        @Override
+        public String getKind() {
+            return JoinPoint.METHOD_EXECUTION;
+        }
+
+        @Override
+        public int getId() {
+            // 只有编译期织入的连接点才有编号
+            return 0;
+        }
+
+        @Override
+        public String toShortString() {
+            String shortString = this.shortString;
+            if (shortString == null) {
+                shortString = "execution(" + CachedMethodSignature.this.toShortString() + ")";
+                this.shortString = shortString;
+            }
+            return shortString;
+        }
+
+        @Override
+        public String toLongString() {
+            String longString = this.longString;
+            if (longString == null) {
+                longString = "execution(" + CachedMethodSignature.this.toLongString() + ")";
+                this.longString = longString;
+            }
+            return longString;
+        }
+
+        @Override
+        public String toString() {
+            String string = this.string;
+            if (string == null) {
+                string = "execution(" + CachedMethodSignature.this.toString() + ")";
+                this.string = string;
+            }
+            return string;
+        }
+    }
+
+    /**
+     * 代理方式下没有源代码位置信息。
+     */
+    static final class UnsupportedSourceLocation implements SourceLocation {
+
+        static final SourceLocation INSTANCE = new UnsupportedSourceLocation();
+
+        @Override
+        public Class<?> getWithinType() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getFileName() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getLine() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @Deprecated
+        public int getColumn() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
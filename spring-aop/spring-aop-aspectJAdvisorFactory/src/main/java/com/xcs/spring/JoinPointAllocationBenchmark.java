@@ -0,0 +1,120 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJProxyUtils;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.SingletonMetadataAwareAspectInstanceFactory;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比注解式切面在 {@link ReflectiveAspectJAdvisorFactory} 与 {@link LazyJoinPointAspectJAdvisorFactory} 下每次调用的耗时与内存分配。
+ * <p>
+ * 切面包含不声明连接点参数的前置、后置通知，以及一个只调用 {@code proceed()} 的环绕通知；
+ * {@code interceptor} 使用三个功能相同的 {@link MethodInterceptor} 作为参照。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinPointAllocationBenchmark {
+
+    @Param({"spring", "lazy", "interceptor"})
+    private String factory;
+
+    private Calculator proxy;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        ProxyFactory proxyFactory = new ProxyFactory(new Calculator());
+        proxyFactory.setProxyTargetClass(true);
+        if ("interceptor".equals(this.factory)) {
+            MethodInterceptor before = invocation -> {
+                Counter.count++;
+                return invocation.proceed();
+            };
+            MethodInterceptor after = invocation -> {
+                try {
+                    return invocation.proceed();
+                } finally {
+                    Counter.count++;
+                }
+            };
+            MethodInterceptor around = invocation -> invocation.proceed();
+            proxyFactory.addAdvice(before);
+            proxyFactory.addAdvice(after);
+            proxyFactory.addAdvice(around);
+        } else {
+            AspectJAdvisorFactory advisorFactory = ("lazy".equals(this.factory) ?
+                    new LazyJoinPointAspectJAdvisorFactory() : new ReflectiveAspectJAdvisorFactory());
+            List<Advisor> advisors = new ArrayList<>(advisorFactory.getAdvisors(
+                    new SingletonMetadataAwareAspectInstanceFactory(new CalculatorAspect(), "calculatorAspect")));
+            AspectJProxyUtils.makeAdvisorChainAspectJCapableIfNecessary(advisors);
+            proxyFactory.addAdvisors(advisors);
+        }
+        this.proxy = (Calculator) proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public int invoke() {
+        return this.proxy.add(this.value++, 1);
+    }
+
+    public static class Calculator {
+
+        public int add(int left, int right) {
+            return left + right;
+        }
+    }
+
+    static class Counter {
+
+        static int count;
+    }
+
+    @Aspect
+    public static class CalculatorAspect {
+
+        @Before("execution(int add(int, int))")
+        public void before() {
+            Counter.count++;
+        }
+
+        @After("execution(int add(int, int))")
+        public void after() {
+            Counter.count++;
+        }
+
+        @Around("execution(int add(int, int))")
+        public Object around(ProceedingJoinPoint pjp) throws Throwable {
+            return pjp.proceed();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JoinPointAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,228 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.AspectInstanceFactory;
+import org.springframework.aop.aspectj.AspectJAfterAdvice;
+import org.springframework.aop.aspectj.AspectJAfterReturningAdvice;
+import org.springframework.aop.aspectj.AspectJAfterThrowingAdvice;
+import org.springframework.aop.aspectj.AspectJAroundAdvice;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.AspectJMethodBeforeAdvice;
+import org.springframework.aop.aspectj.annotation.MetadataAwareAspectInstanceFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 只在通知方法需要时才创建连接点的 {@link ReflectiveAspectJAdvisorFactory}。
+ * <p>
+ * Spring 的 AspectJ 通知在每次调用中都会创建 {@code MethodInvocationProceedingJoinPoint}，即使通知方法并不声明
+ * {@link JoinPoint}、{@link ProceedingJoinPoint} 或 {@link JoinPoint.StaticPart} 参数；前置、后置通知还会把它保存到调用的用户属性中，
+ * 这又会为每次调用创建一个 {@code HashMap}。本工厂创建的通知先检查通知方法的第一个参数（与 Spring 绑定连接点的规则相同），
+ * 不需要连接点时完全不创建，需要时创建 {@link LazyProceedingJoinPoint}，方法签名等按方法缓存，参数在读取时才复制。
+ * <p>
+ * 通知的创建逻辑与父类相同，只是换成了下面的子类。用于 {@code AnnotationAwareAspectJAutoProxyCreator#setAspectJAdvisorFactory}
+ * 或直接调用 {@link #getAdvisors}，代理中同样需要 {@link ExposeInvocationInterceptor}。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:11:52
+ */
+public class LazyJoinPointAspectJAdvisorFactory extends ReflectiveAspectJAdvisorFactory {
+
+    public LazyJoinPointAspectJAdvisorFactory() {
+    }
+
+    public LazyJoinPointAspectJAdvisorFactory(@Nullable BeanFactory beanFactory) {
+        super(beanFactory);
+    }
+
+    @Override
+    @Nullable
+    public Advice getAdvice(Method candidateAdviceMethod, AspectJExpressionPointcut expressionPointcut,
+                            MetadataAwareAspectInstanceFactory aspectInstanceFactory, int declarationOrder, String aspectName) {
+        Class<?> candidateAspectClass = aspectInstanceFactory.getAspectMetadata().getAspectClass();
+        validate(candidateAspectClass);
+
+        AspectJAnnotation<?> aspectJAnnotation = findAspectJAnnotationOnMethod(candidateAdviceMethod);
+        if (aspectJAnnotation == null) {
+            return null;
+        }
+        if (!isAspect(candidateAspectClass)) {
+            throw new AopConfigException("Advice must be declared inside an aspect type: " +
+                    "Offending method '" + candidateAdviceMethod + "' in class [" +
+                    candidateAspectClass.getName() + "]");
+        }
+
+        AbstractAspectJAdvice springAdvice;
+        switch (aspectJAnnotation.getAnnotationType()) {
+            case AtPointcut:
+                return null;
+            case AtAround:
+                springAdvice = new LazyAroundAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+                break;
+            case AtBefore:
+                springAdvice = new LazyMethodBeforeAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+                break;
+            case AtAfter:
+                springAdvice = new LazyAfterAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+                break;
+            case AtAfterReturning:
+                springAdvice = new LazyAfterReturningAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+                AfterReturning afterReturningAnnotation = (AfterReturning) aspectJAnnotation.getAnnotation();
+                if (StringUtils.hasText(afterReturningAnnotation.returning())) {
+                    springAdvice.setReturningName(afterReturningAnnotation.returning());
+                }
+                break;
+            case AtAfterThrowing:
+                springAdvice = new LazyAfterThrowingAdvice(candidateAdviceMethod, expressionPointcut, aspectInstanceFactory);
+                AfterThrowing afterThrowingAnnotation = (AfterThrowing) aspectJAnnotation.getAnnotation();
+                if (StringUtils.hasText(afterThrowingAnnotation.throwing())) {
+                    springAdvice.setThrowingName(afterThrowingAnnotation.throwing());
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("Unsupported advice type on method: " + candidateAdviceMethod);
+        }
+
+        springAdvice.setAspectName(aspectName);
+        springAdvice.setDeclarationOrder(declarationOrder);
+        String[] argNames = this.parameterNameDiscoverer.getParameterNames(candidateAdviceMethod);
+        if (argNames != null) {
+            springAdvice.setArgumentNamesFromStringArray(argNames);
+        }
+        springAdvice.calculateArgumentBindings();
+        return springAdvice;
+    }
+
+    /**
+     * 通知方法是否声明了连接点参数，Spring 只把第一个参数绑定为连接点。
+     */
+    static boolean declaresJoinPoint(Method adviceMethod) {
+        if (adviceMethod.getParameterCount() == 0) {
+            return false;
+        }
+        Class<?> firstParameterType = adviceMethod.getParameterTypes()[0];
+        return (firstParameterType == JoinPoint.class || firstParameterType == ProceedingJoinPoint.class ||
+                firstParameterType == JoinPoint.StaticPart.class);
+    }
+
+    /**
+     * 获取当前调用的连接点，与 {@link AbstractAspectJAdvice#currentJoinPoint()} 一样保存在调用的用户属性中，
+     * 同一次调用的多个通知共享一个连接点。
+     */
+    static JoinPoint currentJoinPoint() {
+        ProxyMethodInvocation pmi = (ProxyMethodInvocation) ExposeInvocationInterceptor.currentInvocation();
+        JoinPoint joinPoint = (JoinPoint) pmi.getUserAttribute(JoinPoint.class.getName());
+        if (joinPoint == null) {
+            joinPoint = new LazyProceedingJoinPoint(pmi);
+            pmi.setUserAttribute(JoinPoint.class.getName(), joinPoint);
+        }
+        return joinPoint;
+    }
+
+    /**
+     * 环绕通知，通知方法没有声明 {@link ProceedingJoinPoint} 时不创建连接点。
+     */
+    static class LazyAroundAdvice extends AspectJAroundAdvice {
+
+        private final boolean declaresJoinPoint;
+
+        LazyAroundAdvice(Method adviceMethod, AspectJExpressionPointcut pointcut, AspectInstanceFactory aif) {
+            super(adviceMethod, pointcut, aif);
+            this.declaresJoinPoint = declaresJoinPoint(adviceMethod);
+        }
+
+        @Override
+        @Nullable
+        protected ProceedingJoinPoint lazyGetProceedingJoinPoint(ProxyMethodInvocation rmi) {
+            return (this.declaresJoinPoint ? new LazyProceedingJoinPoint(rmi) : null);
+        }
+    }
+
+    /**
+     * 前置通知，通知方法没有声明连接点参数时不创建连接点。
+     */
+    static class LazyMethodBeforeAdvice extends AspectJMethodBeforeAdvice {
+
+        private final boolean declaresJoinPoint;
+
+        LazyMethodBeforeAdvice(Method adviceMethod, AspectJExpressionPointcut pointcut, AspectInstanceFactory aif) {
+            super(adviceMethod, pointcut, aif);
+            this.declaresJoinPoint = declaresJoinPoint(adviceMethod);
+        }
+
+        @Override
+        @Nullable
+        protected JoinPoint getJoinPoint() {
+            return (this.declaresJoinPoint ? currentJoinPoint() : null);
+        }
+    }
+
+    /**
+     * 后置通知，通知方法没有声明连接点参数时不创建连接点。
+     */
+    static class LazyAfterAdvice extends AspectJAfterAdvice {
+
+        private final boolean declaresJoinPoint;
+
+        LazyAfterAdvice(Method adviceMethod, AspectJExpressionPointcut pointcut, AspectInstanceFactory aif) {
+            super(adviceMethod, pointcut, aif);
+            this.declaresJoinPoint = declaresJoinPoint(adviceMethod);
+        }
+
+        @Override
+        @Nullable
+        protected JoinPoint getJoinPoint() {
+            return (this.declaresJoinPoint ? currentJoinPoint() : null);
+        }
+    }
+
+    /**
+     * 返回通知，通知方法没有声明连接点参数时不创建连接点。
+     */
+    static class LazyAfterReturningAdvice extends AspectJAfterReturningAdvice {
+
+        private final boolean declaresJoinPoint;
+
+        LazyAfterReturningAdvice(Method adviceMethod, AspectJExpressionPointcut pointcut, AspectInstanceFactory aif) {
+            super(adviceMethod, pointcut, aif);
+            this.declaresJoinPoint = declaresJoinPoint(adviceMethod);
+        }
+
+        @Override
+        @Nullable
+        protected JoinPoint getJoinPoint() {
+            return (this.declaresJoinPoint ? currentJoinPoint() : null);
+        }
+    }
+
+    /**
+     * 异常通知，通知方法没有声明连接点参数时不创建连接点。
+     */
+    static class LazyAfterThrowingAdvice extends AspectJAfterThrowingAdvice {
+
+        private final boolean declaresJoinPoint;
+
+        LazyAfterThrowingAdvice(Method adviceMethod, AspectJExpressionPointcut pointcut, AspectInstanceFactory aif) {
+            super(adviceMethod, pointcut, aif);
+            this.declaresJoinPoint = declaresJoinPoint(adviceMethod);
+        }
+
+        @Override
+        @Nullable
+        protected JoinPoint getJoinPoint() {
+            return (this.declaresJoinPoint ? currentJoinPoint() : null);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.xcs.spring;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * 轻量的 {@link ProceedingJoinPoint}，行为与 {@code MethodInvocationProceedingJoinPoint} 相同。
+ * <p>
+ * 方法签名、静态部分以及各种字符串形式都来自按方法缓存的 {@link CachedMethodSignature}，不会在每次调用中重新创建；
+ * 参数只在第一次调用 {@link #getArgs()} 时复制，通知方法不读取参数时不复制。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:04:37
+ */
+public class LazyProceedingJoinPoint implements ProceedingJoinPoint {
+
+    private final ProxyMethodInvocation methodInvocation;
+
+    private final CachedMethodSignature signature;
+
+    @Nullable
+    private Object[] args;
+
+    public LazyProceedingJoinPoint(ProxyMethodInvocation methodInvocation) {
+        Assert.notNull(methodInvocation, "MethodInvocation must not be null");
+        this.methodInvocation = methodInvocation;
+        this.signature = CachedMethodSignature.forMethod(methodInvocation.getMethod());
+    }
+
+    @Override
+    public void set$AroundClosure(AroundClosure aroundClosure) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        return this.methodInvocation.invocableClone().proceed();
+    }
+
+    @Override
+    public Object proceed(Object[] arguments) throws Throwable {
+        Assert.notNull(arguments, "Argument array passed to proceed cannot be null");
+        if (arguments.length != this.methodInvocation.getArguments().length) {
+            throw new IllegalArgumentException("Expecting " +
+                    this.methodInvocation.getArguments().length + " arguments to proceed, " +
+                    "but was passed " + arguments.length + " arguments");
+        }
+        this.methodInvocation.setArguments(arguments);
+        return this.methodInvocation.invocableClone(arguments).proceed();
+    }
+
+    /**
+     * 返回代理对象，与 {@code MethodInvocationProceedingJoinPoint} 相同。
+     */
+    @Override
+    public Object getThis() {
+        return this.methodInvocation.getProxy();
+    }
+
+    @Override
+    @Nullable
+    public Object getTarget() {
+        return this.methodInvocation.getThis();
+    }
+
+    @Override
+    public Object[] getArgs() {
+        if (this.args == null) {
+            this.args = this.methodInvocation.getArguments().clone();
+        }
+        return this.args;
+    }
+
+    @Override
+    public Signature getSignature() {
+        return this.signature;
+    }
+
+    @Override
+    public SourceLocation getSourceLocation() {
+        return CachedMethodSignature.UnsupportedSourceLocation.INSTANCE;
+    }
+
+    @Override
+    public String getKind() {
+        return JoinPoint.METHOD_EXECUTION;
+    }
+
+    @Override
+    public JoinPoint.StaticPart getStaticPart() {
+        return this.signature.getStaticPart();
+    }
+
+    @Override
+    public String toShortString() {
+        return this.signature.getStaticPart().toShortString();
+    }
+
+    @Override
+    public String toLongString() {
+        return this.signature.getStaticPart().toLongString();
+    }
+
+    @Override
+    public String toString() {
+        return this.signature.getStaticPart().toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.xcs.spring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+@Aspect
+class MyAroundAspect {
+
+    @Around("execution(* com.xcs.spring.MyService.foo(..))")
+    public Object around(ProceedingJoinPoint pjp) throws Throwable {
+        System.out.println("Around before " + pjp.getSignature().toShortString());
+        Object result = pjp.proceed();
+        System.out.println("Around after " + pjp);
+        return result;
+    }
+}
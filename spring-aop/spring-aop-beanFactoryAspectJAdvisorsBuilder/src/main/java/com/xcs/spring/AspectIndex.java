@@ -0,0 +1,110 @@
+package com.xcs.spring;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 由 {@link AspectIndexProcessor} 在编译期生成的切面索引。
+ * <p>
+ * 类路径中的每个 jar 都可以带有自己的索引，读取时会合并所有的 {@value #INDEX_LOCATION}。
+ * 与 Spring 的 {@code spring.components} 索引一样，存在索引时即认为它是完整的：没有索引的 jar 中的切面不会被发现，
+ * 此时可以设置系统属性 {@value #IGNORE_INDEX_PROPERTY} 为 {@code true} 回退到扫描所有Bean。
+ *
+ * @author xcs
+ * @date 2026年10月18日23:20:51
+ */
+public final class AspectIndex {
+
+    /**
+     * 索引文件位置
+     */
+    public static final String INDEX_LOCATION = "META-INF/aspect-index.properties";
+
+    /**
+     * 忽略索引的系统属性
+     */
+    public static final String IGNORE_INDEX_PROPERTY = "spring.aspect.index.ignore";
+
+    /**
+     * 切面类名到通知方法名的映射
+     */
+    private final Map<String, List<String>> aspects;
+
+    private AspectIndex(Map<String, List<String>> aspects) {
+        this.aspects = aspects;
+    }
+
+    /**
+     * 读取类加载器中的全部切面索引。
+     *
+     * @param classLoader 类加载器
+     * @return 合并后的索引，不存在任何索引或设置了 {@value #IGNORE_INDEX_PROPERTY} 时返回 {@code null}
+     */
+    @Nullable
+    public static AspectIndex load(ClassLoader classLoader) {
+        if (SpringProperties.getFlag(IGNORE_INDEX_PROPERTY)) {
+            return null;
+        }
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return null;
+            }
+            Map<String, List<String>> aspects = new TreeMap<>();
+            while (urls.hasMoreElements()) {
+                Properties properties = new Properties();
+                try (InputStream in = urls.nextElement().openStream()) {
+                    properties.load(in);
+                }
+                for (String className : properties.stringPropertyNames()) {
+                    String[] adviceMethods = StringUtils.commaDelimitedListToStringArray(properties.getProperty(className));
+                    aspects.put(className, Collections.unmodifiableList(Arrays.asList(adviceMethods)));
+                }
+            }
+            return new AspectIndex(aspects);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to load " + INDEX_LOCATION, ex);
+        }
+    }
+
+    /**
+     * 获取索引中的全部切面类名。
+     *
+     * @return 切面类名
+     */
+    public Set<String> getAspectClassNames() {
+        return Collections.unmodifiableSet(this.aspects.keySet());
+    }
+
+    /**
+     * 获取切面类中的通知方法名。
+     *
+     * @param className 切面类名
+     * @return 通知方法名，类不在索引中时返回空列表
+     */
+    public List<String> getAdviceMethods(String className) {
+        return this.aspects.getOrDefault(className, Collections.emptyList());
+    }
+
+    public boolean contains(String className) {
+        return this.aspects.containsKey(className);
+    }
+
+    @Override
+    public String toString() {
+        return "AspectIndex" + this.aspects;
+    }
+}
@@ -0,0 +1,168 @@
+package com.xcs.spring;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 编译期切面索引处理器，把所有标注了 {@code @Aspect} 的类及其通知方法写入 {@value AspectIndex#INDEX_LOCATION}。
+ * <p>
+ * 索引的每一行对应一个切面类，键为类的二进制名称，值为以逗号分隔的通知方法名
+ * （标注了 {@code @Before}、{@code @After}、{@code @AfterReturning}、{@code @AfterThrowing}、{@code @Around} 的方法，包括继承的方法）。
+ * 与 Spring 查找切面时使用的 {@code AnnotationUtils.findAnnotation} 一致，父类标注了 {@code @Aspect} 的类同样是切面，
+ * 因此处理器检查每一轮编译的全部类，而不只是直接标注了 {@code @Aspect} 的类。
+ * 运行时由 {@link IndexedBeanFactoryAspectJAdvisorsBuilder} 读取，只检查索引中的类，不再对所有Bean的类型逐一判断。
+ * <p>
+ * 增量编译时只有部分源文件会被处理，因此写出索引前会先合并输出目录中已有的索引，这与 Spring 的
+ * {@code CandidateComponentsIndexer} 的做法相同；删除切面类后需要完整地重新编译。
+ * 处理器只依赖注解的全限定名，编译期不需要 AspectJ。
+ *
+ * @author xcs
+ * @date 2026年10月18日23:12:26
+ */
+public class AspectIndexProcessor extends AbstractProcessor {
+
+    private static final String ASPECT_ANNOTATION = "org.aspectj.lang.annotation.Aspect";
+
+    private static final Set<String> ADVICE_ANNOTATIONS = Set.of(
+            "org.aspectj.lang.annotation.Before",
+            "org.aspectj.lang.annotation.After",
+            "org.aspectj.lang.annotation.AfterReturning",
+            "org.aspectj.lang.annotation.AfterThrowing",
+            "org.aspectj.lang.annotation.Around");
+
+    /**
+     * 本次编译发现的切面类及其通知方法
+     */
+    private final Map<String, List<String>> aspects = new TreeMap<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        // 继承切面的子类本身没有 @Aspect，需要处理所有类；process 返回false，不会占用其他处理器的注解
+        return Set.of("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            collectAspects(type);
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * 检查类及其嵌套类是否为切面。
+     */
+    private void collectAspects(TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS && isAspect(type)) {
+            this.aspects.put(this.processingEnv.getElementUtils().getBinaryName(type).toString(), findAdviceMethods(type));
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collectAspects(nested);
+        }
+    }
+
+    /**
+     * 类或其任意父类标注了 {@code @Aspect} 时返回true。
+     */
+    private boolean isAspect(TypeElement type) {
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (AnnotationMirror mirror : current.getAnnotationMirrors()) {
+                if (ASPECT_ANNOTATION.equals(((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 收集类及其父类中的通知方法名。
+     */
+    private List<String> findAdviceMethods(TypeElement type) {
+        Set<String> adviceMethods = new LinkedHashSet<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind() == ElementKind.METHOD && isAdvice(member)) {
+                    adviceMethods.add(member.getSimpleName().toString());
+                }
+            }
+        }
+        return new ArrayList<>(adviceMethods);
+    }
+
+    private static TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isAdvice(Element method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (ADVICE_ANNOTATIONS.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (this.aspects.isEmpty()) {
+            return;
+        }
+        Properties index = readExistingIndex();
+        this.aspects.forEach((className, adviceMethods) -> index.setProperty(className, String.join(",", adviceMethods)));
+        try {
+            FileObject file = this.processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", AspectIndex.INDEX_LOCATION);
+            try (OutputStream out = file.openOutputStream()) {
+                index.store(out, "@Aspect classes and their advice methods");
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to write " + AspectIndex.INDEX_LOCATION, ex);
+        }
+    }
+
+    private Properties readExistingIndex() {
+        Properties index = new Properties();
+        try {
+            FileObject existing = this.processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", AspectIndex.INDEX_LOCATION);
+            try (InputStream in = existing.openInputStream()) {
+                index.load(in);
+            }
+        } catch (IOException ex) {
+            // 第一次编译时索引还不存在
+        }
+        return index;
+    }
+}
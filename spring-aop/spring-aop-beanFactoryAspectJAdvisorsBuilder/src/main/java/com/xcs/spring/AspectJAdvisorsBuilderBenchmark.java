@@ -0,0 +1,82 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.BeanFactoryAspectJAdvisorsBuilder;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link BeanFactoryAspectJAdvisorsBuilder} 与 {@link IndexedBeanFactoryAspectJAdvisorsBuilder}
+ * 在大量Bean、少量切面的容器中第一次构建 Advisor 的耗时。
+ * <p>
+ * 第一次构建时解析出的Bean类型会缓存在Bean定义中，因此每次测量前都会重新创建包含 {@code beanCount} 个Bean定义
+ * 和一个切面的容器，并以单次执行模式测量，模拟容器启动时的情况。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 30)
+@Fork(1)
+public class AspectJAdvisorsBuilderBenchmark {
+
+    private static final String[] BEAN_CLASS_NAMES = {
+            MyService.class.getName(),
+            "java.util.ArrayList",
+            "java.util.HashMap",
+            "java.util.LinkedList",
+            "java.lang.StringBuilder"
+    };
+
+    @Param({"1000", "5000"})
+    private int beanCount;
+
+    private AspectIndex index;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @Setup(Level.Trial)
+    public void loadIndex() {
+        this.index = AspectIndex.load(getClass().getClassLoader());
+    }
+
+    @Setup(Level.Iteration)
+    public void createBeanFactory() {
+        this.beanFactory = new DefaultListableBeanFactory();
+        for (int i = 0; i < this.beanCount; i++) {
+            GenericBeanDefinition definition = new GenericBeanDefinition();
+            definition.setBeanClassName(BEAN_CLASS_NAMES[i % BEAN_CLASS_NAMES.length]);
+            this.beanFactory.registerBeanDefinition("bean" + i, definition);
+        }
+        GenericBeanDefinition aspect = new GenericBeanDefinition();
+        aspect.setBeanClassName(MyAspect.class.getName());
+        this.beanFactory.registerBeanDefinition("myAspect", aspect);
+    }
+
+    @Benchmark
+    public List<Advisor> scanAllBeans() {
+        return new BeanFactoryAspectJAdvisorsBuilder(this.beanFactory, new ReflectiveAspectJAdvisorFactory(this.beanFactory))
+                .buildAspectJAdvisors();
+    }
+
+    @Benchmark
+    public List<Advisor> indexedBeans() {
+        return new IndexedBeanFactoryAspectJAdvisorsBuilder(this.beanFactory, new ReflectiveAspectJAdvisorFactory(this.beanFactory), this.index)
+                .buildAspectJAdvisors();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(AspectJAdvisorsBuilderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
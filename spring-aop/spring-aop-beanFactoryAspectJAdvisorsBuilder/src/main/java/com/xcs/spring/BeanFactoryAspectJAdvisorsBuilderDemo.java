@@ -1,5 +1,6 @@
 package com.xcs.spring;
 
+import org.springframework.aop.config.AopConfigUtils;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 
 public class BeanFactoryAspectJAdvisorsBuilderDemo {
@@ -11,5 +12,11 @@ public class BeanFactoryAspectJAdvisorsBuilderDemo {
         MyService myService = context.getBean(MyService.class);
         // 调用MyService的方法
         myService.foo();
+
+        // 查看编译期生成的切面索引，以及构建Advisor时实际检查过类型的Bean数量
+        IndexedAspectJAutoProxyCreator creator = context.getBean(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME, IndexedAspectJAutoProxyCreator.class);
+        IndexedBeanFactoryAspectJAdvisorsBuilder builder = creator.getIndexedAdvisorsBuilder();
+        System.out.println("index = " + builder.getIndex());
+        System.out.println("inspected beans = " + builder.getInspectedBeanCount() + " / " + context.getBeanDefinitionCount());
     }
 }
@@ -0,0 +1,82 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.framework.autoproxy.BeanFactoryAdvisorRetrievalHelper;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * 使用 {@link IndexedBeanFactoryAspectJAdvisorsBuilder} 查找 {@code @Aspect} Bean 的 AnnotationAwareAspectJAutoProxyCreator。
+ * <p>
+ * 父类在 {@code findCandidateAdvisors()} 中固定使用自己创建的 BeanFactoryAspectJAdvisorsBuilder，
+ * 因此这里重写该方法：Advisor 类型的Bean仍由 {@link BeanFactoryAdvisorRetrievalHelper} 查找，
+ * {@code @Aspect} Bean 则交给按索引查找的构建器。通过 {@link #setAspectJAdvisorFactory} 设置的 AspectJAdvisorFactory、
+ * includePatterns 等其余配置保持不变。
+ *
+ * @author xcs
+ * @date 2026年10月18日23:46:30
+ */
+public class IndexedAspectJAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator {
+
+    private BeanFactoryAdvisorRetrievalHelper advisorRetrievalHelper;
+
+    private IndexedBeanFactoryAspectJAdvisorsBuilder indexedAdvisorsBuilder;
+
+    /**
+     * 父类的 aspectJAdvisorFactory 是私有字段，这里保存一份设置的值
+     */
+    private AspectJAdvisorFactory aspectJAdvisorFactory;
+
+    @Override
+    public void setAspectJAdvisorFactory(AspectJAdvisorFactory aspectJAdvisorFactory) {
+        super.setAspectJAdvisorFactory(aspectJAdvisorFactory);
+        this.aspectJAdvisorFactory = aspectJAdvisorFactory;
+    }
+
+    @Override
+    protected void initBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        super.initBeanFactory(beanFactory);
+        this.advisorRetrievalHelper = new BeanFactoryAdvisorRetrievalHelper(beanFactory) {
+            @Override
+            protected boolean isEligibleBean(String beanName) {
+                return isEligibleAdvisorBean(beanName);
+            }
+        };
+        ClassLoader classLoader = (beanFactory.getBeanClassLoader() != null ? beanFactory.getBeanClassLoader() : ClassUtils.getDefaultClassLoader());
+        // 与父类相同，没有设置时才创建默认的 ReflectiveAspectJAdvisorFactory
+        AspectJAdvisorFactory advisorFactory = this.aspectJAdvisorFactory;
+        if (advisorFactory == null) {
+            advisorFactory = new ReflectiveAspectJAdvisorFactory(beanFactory);
+            this.aspectJAdvisorFactory = advisorFactory;
+        }
+        this.indexedAdvisorsBuilder = new IndexedBeanFactoryAspectJAdvisorsBuilder(beanFactory, advisorFactory, AspectIndex.load(classLoader)) {
+            @Override
+            protected boolean isEligibleBean(String beanName) {
+                return isEligibleAspectBean(beanName);
+            }
+        };
+    }
+
+    @Override
+    protected List<Advisor> findCandidateAdvisors() {
+        Assert.state(this.advisorRetrievalHelper != null, "No BeanFactoryAdvisorRetrievalHelper available");
+        List<Advisor> advisors = this.advisorRetrievalHelper.findAdvisorBeans();
+        advisors.addAll(this.indexedAdvisorsBuilder.buildAspectJAdvisors());
+        return advisors;
+    }
+
+    /**
+     * 获取按索引查找切面的构建器。
+     *
+     * @return 构建器
+     */
+    public IndexedBeanFactoryAspectJAdvisorsBuilder getIndexedAdvisorsBuilder() {
+        return this.indexedAdvisorsBuilder;
+    }
+}
@@ -0,0 +1,252 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.aspectj.lang.reflect.PerClauseKind;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.InstantiationModelAwarePointcutAdvisor;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.AspectMetadata;
+import org.springframework.aop.aspectj.annotation.BeanFactoryAspectInstanceFactory;
+import org.springframework.aop.aspectj.annotation.BeanFactoryAspectJAdvisorsBuilder;
+import org.springframework.aop.aspectj.annotation.MetadataAwareAspectInstanceFactory;
+import org.springframework.aop.aspectj.annotation.PrototypeAspectInstanceFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.HierarchicalBeanFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 借助编译期切面索引构建 AspectJ Advisor 的 {@link BeanFactoryAspectJAdvisorsBuilder}。
+ * <p>
+ * 父类第一次构建 Advisor 时会遍历所有Bean名称，逐个解析Bean类型并反射检查是否标注了 {@code @Aspect}。
+ * 本类只比较Bean定义中登记的类名（或 {@code @Bean} 方法声明的返回类型）是否出现在 {@link AspectIndex} 中，
+ * 这一步不会加载任何类，只有命中索引的Bean才会解析类型并交给 {@link AspectJAdvisorFactory} 构建 Advisor。
+ * 无法从Bean定义中得知类名的Bean（例如 XML 中的工厂方法）以及手动注册的单例仍按原方式检查。
+ * <p>
+ * 限制：通过 {@code FactoryBean} 创建、或 {@code @Bean} 方法声明的返回类型不是切面类本身的切面不会被发现。
+ * 类路径中不存在索引时直接使用父类的实现。构建后的 Advisor 缓存方式与父类相同；实际的通知方法与索引中记录的不一致时，
+ * 说明索引已经过期，输出警告提示完整地重新编译。
+ *
+ * @author xcs
+ * @date 2026年10月18日23:34:08
+ */
+public class IndexedBeanFactoryAspectJAdvisorsBuilder extends BeanFactoryAspectJAdvisorsBuilder {
+
+    private static final Log logger = LogFactory.getLog(IndexedBeanFactoryAspectJAdvisorsBuilder.class);
+
+    private final ConfigurableListableBeanFactory beanFactory;
+
+    private final AspectJAdvisorFactory advisorFactory;
+
+    @Nullable
+    private final AspectIndex index;
+
+    @Nullable
+    private volatile List<String> aspectBeanNames;
+
+    private final Map<String, List<Advisor>> advisorsCache = new ConcurrentHashMap<>();
+
+    private final Map<String, MetadataAwareAspectInstanceFactory> aspectFactoryCache = new ConcurrentHashMap<>();
+
+    /**
+     * 检查过类型的Bean数量
+     */
+    private volatile int inspectedBeanCount;
+
+    public IndexedBeanFactoryAspectJAdvisorsBuilder(ConfigurableListableBeanFactory beanFactory,
+                                                    AspectJAdvisorFactory advisorFactory, @Nullable AspectIndex index) {
+        super(beanFactory, advisorFactory);
+        Assert.notNull(advisorFactory, "AspectJAdvisorFactory must not be null");
+        this.beanFactory = beanFactory;
+        this.advisorFactory = advisorFactory;
+        this.index = index;
+    }
+
+    @Override
+    public List<Advisor> buildAspectJAdvisors() {
+        if (this.index == null) {
+            return super.buildAspectJAdvisors();
+        }
+        List<String> aspectNames = this.aspectBeanNames;
+        if (aspectNames == null) {
+            synchronized (this) {
+                aspectNames = this.aspectBeanNames;
+                if (aspectNames == null) {
+                    List<Advisor> advisors = new ArrayList<>();
+                    aspectNames = new ArrayList<>();
+                    Set<String> candidateNames = findCandidateBeanNames(this.index);
+                    this.inspectedBeanCount = candidateNames.size();
+                    for (String beanName : candidateNames) {
+                        if (!isEligibleBean(beanName)) {
+                            continue;
+                        }
+                        Class<?> beanType = this.beanFactory.getType(beanName, false);
+                        if (beanType == null || !this.advisorFactory.isAspect(beanType)) {
+                            continue;
+                        }
+                        aspectNames.add(beanName);
+                        List<Advisor> classAdvisors = buildAdvisors(beanName, beanType);
+                        checkAdviceMethods(this.index, beanType, classAdvisors);
+                        advisors.addAll(classAdvisors);
+                    }
+                    this.aspectBeanNames = aspectNames;
+                    return advisors;
+                }
+            }
+        }
+
+        if (aspectNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Advisor> advisors = new ArrayList<>();
+        for (String aspectName : aspectNames) {
+            List<Advisor> cachedAdvisors = this.advisorsCache.get(aspectName);
+            if (cachedAdvisors != null) {
+                advisors.addAll(cachedAdvisors);
+            } else {
+                MetadataAwareAspectInstanceFactory factory = this.aspectFactoryCache.get(aspectName);
+                advisors.addAll(this.advisorFactory.getAdvisors(factory));
+            }
+        }
+        return advisors;
+    }
+
+    /**
+     * 与父类相同的 Advisor 构建与缓存逻辑。
+     */
+    private List<Advisor> buildAdvisors(String beanName, Class<?> beanType) {
+        AspectMetadata amd = new AspectMetadata(beanType, beanName);
+        if (amd.getAjType().getPerClause().getKind() == PerClauseKind.SINGLETON) {
+            MetadataAwareAspectInstanceFactory factory = new BeanFactoryAspectInstanceFactory(this.beanFactory, beanName);
+            List<Advisor> classAdvisors = this.advisorFactory.getAdvisors(factory);
+            if (this.beanFactory.isSingleton(beanName)) {
+                this.advisorsCache.put(beanName, classAdvisors);
+            } else {
+                this.aspectFactoryCache.put(beanName, factory);
+            }
+            return classAdvisors;
+        }
+        // Per target or per this.
+        if (this.beanFactory.isSingleton(beanName)) {
+            throw new IllegalArgumentException("Bean with name '" + beanName +
+                    "' is a singleton, but aspect instantiation model is not singleton");
+        }
+        MetadataAwareAspectInstanceFactory factory = new PrototypeAspectInstanceFactory(this.beanFactory, beanName);
+        this.aspectFactoryCache.put(beanName, factory);
+        return this.advisorFactory.getAdvisors(factory);
+    }
+
+    /**
+     * 比较实际构建出的通知方法与索引中记录的通知方法。两者不一致说明索引是过期的（例如增量编译后删除或重命名了通知方法），
+     * 依赖同一份索引发现的其他切面也可能有遗漏，因此输出警告提示完整地重新编译。
+     */
+    private void checkAdviceMethods(AspectIndex index, Class<?> beanType, List<Advisor> classAdvisors) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        String className = ClassUtils.getUserClass(beanType).getName();
+        if (!index.contains(className)) {
+            // 没有登记类名、按原方式检查的Bean
+            return;
+        }
+        Set<String> adviceMethods = new TreeSet<>();
+        for (Advisor advisor : classAdvisors) {
+            if (advisor instanceof InstantiationModelAwarePointcutAdvisor && advisor.getAdvice() instanceof AbstractAspectJAdvice) {
+                adviceMethods.add(((AbstractAspectJAdvice) advisor.getAdvice()).getAspectJAdviceMethod().getName());
+            }
+        }
+        Set<String> indexedAdviceMethods = new TreeSet<>(index.getAdviceMethods(className));
+        if (!adviceMethods.equals(indexedAdviceMethods)) {
+            logger.warn("Aspect class [" + className + "] declares advice methods " + adviceMethods +
+                    " but " + AspectIndex.INDEX_LOCATION + " lists " + indexedAdviceMethods + "; the index is stale, rebuild the project");
+        }
+    }
+
+    /**
+     * 找出可能是切面的Bean，包括父容器中的Bean。
+     */
+    private Set<String> findCandidateBeanNames(AspectIndex index) {
+        Set<String> candidateNames = new LinkedHashSet<>();
+        BeanFactory current = this.beanFactory;
+        while (current instanceof ConfigurableListableBeanFactory) {
+            ConfigurableListableBeanFactory factory = (ConfigurableListableBeanFactory) current;
+            for (String beanName : factory.getBeanDefinitionNames()) {
+                BeanDefinition definition = factory.getBeanDefinition(beanName);
+                if (definition.getParentName() != null) {
+                    // 子定义的类名可能继承自父定义
+                    definition = factory.getMergedBeanDefinition(beanName);
+                }
+                if (!candidateNames.contains(beanName) && isCandidate(definition, index)) {
+                    candidateNames.add(beanName);
+                }
+            }
+            for (String singletonName : factory.getSingletonNames()) {
+                if (!factory.containsBeanDefinition(singletonName) && !candidateNames.contains(singletonName)) {
+                    Object singleton = factory.getSingleton(singletonName);
+                    if (singleton != null && index.contains(singleton.getClass().getName())) {
+                        candidateNames.add(singletonName);
+                    }
+                }
+            }
+            current = (current instanceof HierarchicalBeanFactory ? ((HierarchicalBeanFactory) current).getParentBeanFactory() : null);
+        }
+        return candidateNames;
+    }
+
+    /**
+     * 只根据Bean定义中的类名判断，不加载类。
+     */
+    private boolean isCandidate(BeanDefinition definition, AspectIndex index) {
+        if (definition.isAbstract()) {
+            return false;
+        }
+        if (definition.getFactoryMethodName() == null) {
+            String beanClassName = definition.getBeanClassName();
+            // 没有登记类名的定义无法仅凭类名判断
+            return (beanClassName == null || index.contains(beanClassName));
+        }
+        if (definition instanceof AnnotatedBeanDefinition) {
+            MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return index.contains(factoryMethod.getReturnTypeName());
+            }
+        }
+        // 其他工厂方法只能解析返回类型
+        return true;
+    }
+
+    /**
+     * 获取使用的切面索引。
+     *
+     * @return 切面索引，类路径中不存在索引时返回 {@code null}
+     */
+    @Nullable
+    public AspectIndex getIndex() {
+        return this.index;
+    }
+
+    /**
+     * 获取构建 Advisor 时实际解析过类型的Bean数量。
+     *
+     * @return Bean数量
+     */
+    public int getInspectedBeanCount() {
+        return this.inspectedBeanCount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行本模块的全部代理基准测试。
+ * <p>
+ * 启用 GC 分析器统计每次操作分配的字节数（{@code gc.alloc.rate.norm}），并以 JSON 格式输出结果，便于比较不同版本之间的差异。
+ * <ul>
+ *     <li>第一个参数：结果文件路径，默认为 {@code target/aop-benchmark.json}；</li>
+ *     <li>第二个参数：需要运行的基准测试的正则表达式，默认运行全部。</li>
+ * </ul>
+ */
+public class AopBenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String resultFile = args.length > 0 ? args[0] : "target/aop-benchmark.json";
+        String include = args.length > 1 ? args[1] : "com\\.xcs\\.spring\\..*Benchmark";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
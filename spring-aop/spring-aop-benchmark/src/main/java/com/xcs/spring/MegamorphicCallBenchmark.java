@@ -0,0 +1,109 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一个调用点依次遇到 1、2、4、8 种不同代理类时的调用耗时。
+ * <p>
+ * 超过两种接收者类型后 JIT 无法再内联调用点，生产环境中同一接口的多个代理实现正是这种情况。
+ * 每种目标实现类都会生成独立的代理类，{@code receivers} 控制调用点上出现的代理类数量。
+ * JDK 动态代理类只取决于接口集合，因此每种实现类都通过一个继承 {@link MyService} 的专属接口创建代理，
+ * 否则所有 JDK 代理共享一个代理类，调用点始终是单态的。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MegamorphicCallBenchmark {
+
+    /**
+     * 每次调用经过的代理数量，结果需要除以该值得到单次调用耗时
+     */
+    private static final int CALLS_PER_INVOCATION = 8;
+
+    @Param({"JDK_DYNAMIC_AOP_PROXY", "CGLIB_AOP_PROXY"})
+    public ProxyMechanism mechanism;
+
+    @Param({"1", "2", "4", "8"})
+    public int receivers;
+
+    @Param({"1"})
+    public int interceptors;
+
+    private final MyService[] proxies = new MyService[CALLS_PER_INVOCATION];
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        MyService[] targets = {new Impl0(), new Impl1(), new Impl2(), new Impl3(), new Impl4(), new Impl5(), new Impl6(), new Impl7()};
+        Class<?>[] interfaces = {Receiver0.class, Receiver1.class, Receiver2.class, Receiver3.class,
+                Receiver4.class, Receiver5.class, Receiver6.class, Receiver7.class};
+        for (int i = 0; i < CALLS_PER_INVOCATION; i++) {
+            int receiver = i % this.receivers;
+            this.proxies[i] = (MyService) this.mechanism.createProxy(targets[receiver], interfaces[receiver], this.interceptors);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS_PER_INVOCATION)
+    public int invoke() {
+        int result = 0;
+        for (MyService proxy : this.proxies) {
+            result += proxy.compute(this.value);
+        }
+        return result;
+    }
+
+    public interface Receiver0 extends MyService {
+    }
+
+    public static class Impl0 extends MyServiceImpl implements Receiver0 {
+    }
+
+    public interface Receiver1 extends MyService {
+    }
+
+    public static class Impl1 extends MyServiceImpl implements Receiver1 {
+    }
+
+    public interface Receiver2 extends MyService {
+    }
+
+    public static class Impl2 extends MyServiceImpl implements Receiver2 {
+    }
+
+    public interface Receiver3 extends MyService {
+    }
+
+    public static class Impl3 extends MyServiceImpl implements Receiver3 {
+    }
+
+    public interface Receiver4 extends MyService {
+    }
+
+    public static class Impl4 extends MyServiceImpl implements Receiver4 {
+    }
+
+    public interface Receiver5 extends MyService {
+    }
+
+    public static class Impl5 extends MyServiceImpl implements Receiver5 {
+    }
+
+    public interface Receiver6 extends MyService {
+    }
+
+    public static class Impl6 extends MyServiceImpl implements Receiver6 {
+    }
+
+    public interface Receiver7 extends MyService {
+    }
+
+    public static class Impl7 extends MyServiceImpl implements Receiver7 {
+    }
+}
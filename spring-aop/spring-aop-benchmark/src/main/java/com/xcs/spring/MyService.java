@@ -0,0 +1,7 @@
+package com.xcs.spring;
+
+public interface MyService {
+
+    int compute(int value);
+
+}
@@ -0,0 +1,9 @@
+package com.xcs.spring;
+
+public class MyServiceImpl implements MyService {
+
+    @Override
+    public int compute(int value) {
+        return value + 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 只调用 {@code proceed()} 的拦截器，基准测试中用它来衡量代理机制本身的开销。
+ */
+public class PassThroughInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return invocation.proceed();
+    }
+}
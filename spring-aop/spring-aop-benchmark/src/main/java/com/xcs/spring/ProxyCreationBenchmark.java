@@ -0,0 +1,31 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代理对象的创建开销。代理类在预热阶段已经生成并被缓存，因此这里衡量的是
+ * 代理配置（ProxyFactory、Enhancer 等）与实例化的稳态成本。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyCreationBenchmark {
+
+    @Param({"JDK_PROXY", "CGLIB_ENHANCER", "JDK_DYNAMIC_AOP_PROXY", "CGLIB_AOP_PROXY"})
+    public ProxyMechanism mechanism;
+
+    @Param({"1"})
+    public int interceptors;
+
+    private final MyService target = new MyServiceImpl();
+
+    @Benchmark
+    public Object createProxy() {
+        return this.mechanism.createProxy(this.target, MyService.class, this.interceptors);
+    }
+}
@@ -0,0 +1,37 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring AOP 代理在不同拦截器数量下的单次调用耗时。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProxyInvocationBenchmark {
+
+    @Param({"JDK_DYNAMIC_AOP_PROXY", "CGLIB_AOP_PROXY"})
+    public ProxyMechanism mechanism;
+
+    @Param({"0", "1", "5", "10"})
+    public int interceptors;
+
+    private MyService proxy;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        this.proxy = (MyService) this.mechanism.createProxy(new MyServiceImpl(), MyService.class, this.interceptors);
+    }
+
+    @Benchmark
+    public int invoke() {
+        return this.proxy.compute(this.value);
+    }
+}
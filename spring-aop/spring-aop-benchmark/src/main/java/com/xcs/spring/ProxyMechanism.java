@@ -0,0 +1,80 @@
+package com.xcs.spring;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * 仓库中演示过的各种代理机制，统一提供创建代理对象的方法，供各个基准测试复用。
+ */
+public enum ProxyMechanism {
+
+    /**
+     * 原生 JDK 动态代理（spring-aop-jdkProxy），调用处理器直接转发给目标对象
+     */
+    JDK_PROXY {
+        @Override
+        public Object createProxy(Object target, Class<?> proxyInterface, int interceptorCount) {
+            InvocationHandler handler = (proxy, method, args) -> method.invoke(target, args);
+            return Proxy.newProxyInstance(proxyInterface.getClassLoader(), new Class<?>[]{proxyInterface}, handler);
+        }
+    },
+
+    /**
+     * 原生 CGLIB Enhancer（spring-aop-cglibProxy），回调通过 MethodProxy 调用父类方法
+     */
+    CGLIB_ENHANCER {
+        @Override
+        public Object createProxy(Object target, Class<?> proxyInterface, int interceptorCount) {
+            Enhancer enhancer = new Enhancer();
+            enhancer.setSuperclass(target.getClass());
+            enhancer.setCallback((MethodInterceptor) (obj, method, args, methodProxy) -> methodProxy.invokeSuper(obj, args));
+            return enhancer.create();
+        }
+    },
+
+    /**
+     * 通过 ProxyFactory 创建的 JdkDynamicAopProxy
+     */
+    JDK_DYNAMIC_AOP_PROXY {
+        @Override
+        public Object createProxy(Object target, Class<?> proxyInterface, int interceptorCount) {
+            ProxyFactory proxyFactory = newProxyFactory(target, interceptorCount);
+            proxyFactory.setInterfaces(proxyInterface);
+            return proxyFactory.getProxy();
+        }
+    },
+
+    /**
+     * 通过 ProxyFactory 创建的 CglibAopProxy
+     */
+    CGLIB_AOP_PROXY {
+        @Override
+        public Object createProxy(Object target, Class<?> proxyInterface, int interceptorCount) {
+            ProxyFactory proxyFactory = newProxyFactory(target, interceptorCount);
+            proxyFactory.setProxyTargetClass(true);
+            return proxyFactory.getProxy();
+        }
+    };
+
+    /**
+     * 创建代理对象。
+     *
+     * @param target           目标对象
+     * @param proxyInterface   代理需要实现的接口
+     * @param interceptorCount 拦截器数量，原生代理机制只有一个回调，忽略该参数
+     * @return 代理对象
+     */
+    public abstract Object createProxy(Object target, Class<?> proxyInterface, int interceptorCount);
+
+    private static ProxyFactory newProxyFactory(Object target, int interceptorCount) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        for (int i = 0; i < interceptorCount; i++) {
+            proxyFactory.addAdvice(new PassThroughInterceptor());
+        }
+        return proxyFactory;
+    }
+}
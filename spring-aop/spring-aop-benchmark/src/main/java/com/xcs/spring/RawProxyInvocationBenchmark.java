@@ -0,0 +1,47 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 直接调用与原生代理机制（JDK 动态代理、CGLIB Enhancer）的单次调用耗时，作为 Spring AOP 代理的对照组。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RawProxyInvocationBenchmark {
+
+    private MyService direct;
+
+    private MyService jdkProxy;
+
+    private MyService cglibEnhancer;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        this.direct = new MyServiceImpl();
+        this.jdkProxy = (MyService) ProxyMechanism.JDK_PROXY.createProxy(new MyServiceImpl(), MyService.class, 0);
+        this.cglibEnhancer = (MyService) ProxyMechanism.CGLIB_ENHANCER.createProxy(new MyServiceImpl(), MyService.class, 0);
+    }
+
+    @Benchmark
+    public int direct() {
+        return this.direct.compute(this.value);
+    }
+
+    @Benchmark
+    public int jdkProxy() {
+        return this.jdkProxy.compute(this.value);
+    }
+
+    @Benchmark
+    public int cglibEnhancer() {
+        return this.cglibEnhancer.compute(this.value);
+    }
+}
@@ -1,10 +1,19 @@
 package com.xcs.spring;
 
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableLoadTimeWeaving;
 
 @Configuration
-@EnableLoadTimeWeaving
 public class AppConfig {
 
+    /**
+     * 只有类没有在构建期织入时才启用加载时织入
+     */
+    @Configuration
+    @EnableLoadTimeWeaving
+    @Conditional(LoadTimeWeavingRequiredCondition.class)
+    static class LoadTimeWeavingConfig {
+
+    }
 }
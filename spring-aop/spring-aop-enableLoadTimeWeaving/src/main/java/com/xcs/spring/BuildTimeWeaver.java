@@ -0,0 +1,166 @@
+package com.xcs.spring;
+
+import org.aspectj.weaver.loadtime.ClassLoaderWeavingAdaptor;
+import org.aspectj.weaver.loadtime.DefaultWeavingContext;
+import org.springframework.util.Assert;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 构建期织入器，在编译完成后按 {@code META-INF/aop.xml} 的声明把切面直接织入到编译输出目录中的类文件里。
+ * <p>
+ * 织入使用与 AspectJ 加载时织入代理完全相同的 {@link ClassLoaderWeavingAdaptor}，因此 aop.xml 中的
+ * {@code <weaver>} 包含/排除规则与 {@code <aspects>} 声明在两种模式下含义一致。织入完成后写出
+ * {@link WovenClassesManifest}，运行时据此判断类已被预先织入，从而跳过加载时织入代理的注册。
+ * <p>
+ * 由 {@code build-time-weaving} 构建配置在 {@code process-classes} 阶段调用：
+ * <pre>
+ * mvn -Pbuild-time-weaving process-classes
+ * </pre>
+ * 已经织入且未被重新编译的类会被跳过，因此可以重复执行。aop.xml 发生变化后已织入的类无法还原，此时需要先执行
+ * {@code mvn clean}。
+ *
+ * @author xcs
+ * @date 2026年10月18日22:08:15
+ */
+public class BuildTimeWeaver {
+
+    /**
+     * 编译输出目录
+     */
+    private final Path classesDirectory;
+
+    /**
+     * 织入时解析类型所用的类路径，包含编译输出目录以及全部依赖
+     */
+    private final URL[] classpath;
+
+    public BuildTimeWeaver(Path classesDirectory, URL[] classpath) {
+        Assert.isTrue(Files.isDirectory(classesDirectory), () -> "Classes directory does not exist: " + classesDirectory);
+        this.classesDirectory = classesDirectory;
+        this.classpath = classpath;
+    }
+
+    /**
+     * 织入编译输出目录中的全部类，并写出织入清单。
+     *
+     * @return 织入清单
+     * @throws IOException 读写类文件失败时抛出
+     */
+    public WovenClassesManifest weave() throws IOException {
+        Path aopXml = this.classesDirectory.resolve(WovenClassesManifest.AOP_XML_LOCATION);
+        Assert.state(Files.exists(aopXml), () -> "No " + WovenClassesManifest.AOP_XML_LOCATION + " found in " + this.classesDirectory);
+        String aopXmlDigest = WovenClassesManifest.digest(Files.readAllBytes(aopXml));
+
+        Map<String, String> previouslyWoven = loadPreviousManifest(aopXmlDigest);
+        Map<String, String> classDigests = new LinkedHashMap<>();
+        try (URLClassLoader weavingLoader = new URLClassLoader(this.classpath, ClassLoader.getPlatformClassLoader())) {
+            BuildTimeWeavingAdaptor adaptor = new BuildTimeWeavingAdaptor(weavingLoader, (className, bytes) -> {
+                writeClass(className, bytes);
+                classDigests.put(className, WovenClassesManifest.digest(bytes));
+            });
+            for (Path classFile : findClassFiles()) {
+                String className = toClassName(classFile);
+                byte[] bytes = Files.readAllBytes(classFile);
+                String digest = WovenClassesManifest.digest(bytes);
+                if (digest.equals(previouslyWoven.get(className))) {
+                    // 上次织入后没有被重新编译，保持原样
+                    classDigests.put(className, digest);
+                    continue;
+                }
+                byte[] woven = adaptor.weaveClass(className, bytes);
+                if (!Arrays.equals(bytes, woven)) {
+                    Files.write(classFile, woven);
+                    classDigests.put(className, WovenClassesManifest.digest(woven));
+                }
+            }
+        }
+
+        WovenClassesManifest manifest = new WovenClassesManifest(aopXmlDigest, classDigests);
+        manifest.store(this.classesDirectory.toFile());
+        return manifest;
+    }
+
+    /**
+     * 读取上次织入时写出的清单，aop.xml 发生变化时不能在已织入的类上再次织入。
+     */
+    private Map<String, String> loadPreviousManifest(String aopXmlDigest) throws IOException {
+        URL[] urls = {this.classesDirectory.toUri().toURL()};
+        try (URLClassLoader classLoader = new URLClassLoader(urls, null)) {
+            WovenClassesManifest previous = WovenClassesManifest.load(classLoader);
+            if (previous == null) {
+                return Map.of();
+            }
+            Assert.state(previous.getAopXmlDigest().equals(aopXmlDigest), () -> WovenClassesManifest.AOP_XML_LOCATION +
+                    " has changed since the classes in " + this.classesDirectory + " were woven, run 'mvn clean' first");
+            return previous.getClassDigests();
+        }
+    }
+
+    private List<Path> findClassFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.classesDirectory)) {
+            return paths.filter(path -> path.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private String toClassName(Path classFile) {
+        String relativePath = this.classesDirectory.relativize(classFile).toString();
+        return relativePath.substring(0, relativePath.length() - ".class".length()).replace(File.separatorChar, '.');
+    }
+
+    private void writeClass(String className, byte[] bytes) {
+        try {
+            Files.write(this.classesDirectory.resolve(className.replace('.', File.separatorChar) + ".class"), bytes);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to write generated class " + className, ex);
+        }
+    }
+
+    /**
+     * 接收织入过程中生成的类（例如环绕通知的闭包类）。
+     */
+    @FunctionalInterface
+    interface GeneratedClassWriter {
+        void write(String className, byte[] bytes);
+    }
+
+    /**
+     * 加载时织入使用的适配器会把生成的类直接定义到类加载器中，构建期织入改为写入编译输出目录。
+     */
+    private static final class BuildTimeWeavingAdaptor extends ClassLoaderWeavingAdaptor {
+
+        BuildTimeWeavingAdaptor(ClassLoader weavingLoader, GeneratedClassWriter writer) {
+            initialize(weavingLoader, new DefaultWeavingContext(weavingLoader));
+            this.generatedClassHandler = (name, originalBytes, wovenBytes) -> writer.write(name, wovenBytes);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Assert.isTrue(args.length == 1, "Usage: BuildTimeWeaver <classesDirectory>");
+        Path classesDirectory = Path.of(args[0]);
+        // 编译输出目录在前，依赖在后，与运行时的类路径顺序一致
+        List<URL> classpath = new ArrayList<>();
+        classpath.add(classesDirectory.toUri().toURL());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!entry.isEmpty() && !path.toAbsolutePath().equals(classesDirectory.toAbsolutePath())) {
+                classpath.add(path.toUri().toURL());
+            }
+        }
+        WovenClassesManifest manifest = new BuildTimeWeaver(classesDirectory, classpath.toArray(new URL[0])).weave();
+        System.out.println("Woven " + manifest.getClassDigests().size() + " classes into " + classesDirectory + ": " +
+                manifest.getClassDigests().keySet());
+    }
+}
@@ -0,0 +1,53 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.ConfigurationCondition;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+
+/**
+ * 判断是否仍需要加载时织入的条件。
+ * <p>
+ * 类路径中存在与当前 {@code META-INF/aop.xml} 及类文件一致的 {@link WovenClassesManifest} 时，说明切面已在构建期织入，
+ * 条件不成立，{@code @EnableLoadTimeWeaving} 不会被导入，也就不需要 {@code -javaagent} 启动参数；
+ * 清单不存在或已经失效时条件成立，回退到加载时织入。
+ *
+ * @author xcs
+ * @date 2026年10月18日22:31:49
+ */
+public class LoadTimeWeavingRequiredCondition implements ConfigurationCondition {
+
+    private static final Log logger = LogFactory.getLog(LoadTimeWeavingRequiredCondition.class);
+
+    /**
+     * 只在解析配置类时判断一次，结果决定 {@code @EnableLoadTimeWeaving} 是否被导入
+     */
+    @Override
+    public ConfigurationPhase getConfigurationPhase() {
+        return ConfigurationPhase.PARSE_CONFIGURATION;
+    }
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        ClassLoader classLoader = (context.getClassLoader() != null ? context.getClassLoader() : ClassUtils.getDefaultClassLoader());
+        try {
+            WovenClassesManifest manifest = WovenClassesManifest.load(classLoader);
+            if (manifest == null) {
+                return true;
+            }
+            if (manifest.matches(classLoader)) {
+                logger.info("Classes " + manifest.getClassDigests().keySet() + " were woven at build time, skipping load-time weaving");
+                return false;
+            }
+            logger.warn(WovenClassesManifest.MANIFEST_LOCATION + " is out of date, falling back to load-time weaving");
+            return true;
+        } catch (IOException ex) {
+            logger.warn("Failed to read " + WovenClassesManifest.MANIFEST_LOCATION + ", falling back to load-time weaving", ex);
+            return true;
+        }
+    }
+}
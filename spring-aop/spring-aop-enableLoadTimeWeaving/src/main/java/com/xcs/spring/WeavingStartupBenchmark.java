@@ -0,0 +1,122 @@
+package com.xcs.spring;
+
+import org.springframework.util.Assert;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比加载时织入与构建期织入两种方式的启动耗时。
+ * <p>
+ * 启动耗时包含 JVM 启动、Java 代理初始化以及类加载时的织入，这些开销都发生在 JMH 的测量范围之外，
+ * 因此这里每次都启动一个新的 JVM 运行 {@link EnableLoadTimeWeavingDemo}，记录从进程启动到退出的时间：
+ * <ul>
+ *     <li>{@code agent}：未织入的类 + {@code -javaagent:spring-instrument.jar}，切面在类加载时织入；</li>
+ *     <li>{@code pre-woven}：先由 {@link BuildTimeWeaver} 织入的类，不使用 Java 代理。</li>
+ * </ul>
+ * 两种方式交替运行以减小机器负载波动的影响，每次运行都会检查切面确实生效。
+ * 需要在未织入的编译输出上运行（即执行 {@code mvn compile} 而不是 {@code mvn -Pbuild-time-weaving process-classes}），
+ * 参数为每种方式的运行次数，默认10次。
+ *
+ * @author xcs
+ * @date 2026年10月18日22:47:03
+ */
+public class WeavingStartupBenchmark {
+
+    private static final String EXPECTED_OUTPUT = "Before Method foo";
+
+    public static void main(String[] args) throws Exception {
+        int runs = (args.length > 0 ? Integer.parseInt(args[0]) : 10);
+        Path classesDirectory = Path.of(WeavingStartupBenchmark.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Assert.state(!Files.exists(classesDirectory.resolve(WovenClassesManifest.MANIFEST_LOCATION)),
+                () -> classesDirectory + " has already been woven, run 'mvn clean compile' first");
+
+        List<String> dependencies = new ArrayList<>();
+        String agentJar = null;
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (entry.isEmpty() || Path.of(entry).toAbsolutePath().equals(classesDirectory.toAbsolutePath())) {
+                continue;
+            }
+            dependencies.add(entry);
+            if (Path.of(entry).getFileName().toString().startsWith("spring-instrument")) {
+                agentJar = entry;
+            }
+        }
+        Assert.state(agentJar != null, "spring-instrument is not on the classpath");
+
+        Path workDirectory = Files.createTempDirectory("weaving-startup");
+        try {
+            // 两份相同的编译输出，其中一份在构建期织入
+            Path agentClasses = workDirectory.resolve("agent");
+            Path preWovenClasses = workDirectory.resolve("pre-woven");
+            FileSystemUtils.copyRecursively(classesDirectory, agentClasses);
+            FileSystemUtils.copyRecursively(classesDirectory, preWovenClasses);
+            List<URL> weavingClasspath = new ArrayList<>();
+            weavingClasspath.add(preWovenClasses.toUri().toURL());
+            for (String dependency : dependencies) {
+                weavingClasspath.add(Path.of(dependency).toUri().toURL());
+            }
+            new BuildTimeWeaver(preWovenClasses, weavingClasspath.toArray(new URL[0])).weave();
+
+            List<String> agentCommand = javaCommand(agentClasses, dependencies,
+                    // AspectJ 需要通过反射把环绕通知的闭包类定义到应用类加载器中
+                    "--add-opens", "java.base/java.lang=ALL-UNNAMED", "-javaagent:" + agentJar);
+            List<String> preWovenCommand = javaCommand(preWovenClasses, dependencies);
+
+            // 预热文件系统缓存
+            run(agentCommand);
+            run(preWovenCommand);
+            long[] agentTimes = new long[runs];
+            long[] preWovenTimes = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                agentTimes[i] = run(agentCommand);
+                preWovenTimes[i] = run(preWovenCommand);
+            }
+            print("agent", agentTimes);
+            print("pre-woven", preWovenTimes);
+        } finally {
+            FileSystemUtils.deleteRecursively(workDirectory);
+        }
+    }
+
+    private static List<String> javaCommand(Path classes, List<String> dependencies, String... jvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmArgs));
+        command.add("-cp");
+        command.add(classes + File.pathSeparator + String.join(File.pathSeparator, dependencies));
+        command.add(EnableLoadTimeWeavingDemo.class.getName());
+        return command;
+    }
+
+    /**
+     * 启动一个新的 JVM 运行示例，返回从启动到退出的耗时（毫秒）。
+     */
+    private static long run(List<String> command) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = StreamUtils.copyToString(process.getInputStream(), StandardCharsets.UTF_8);
+        int exitCode = process.waitFor();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assert.state(exitCode == 0 && output.contains(EXPECTED_OUTPUT), () -> "Aspect was not applied:\n" + output);
+        return elapsed;
+    }
+
+    private static void print(String mode, long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        System.out.printf("%-10s runs=%d min=%dms median=%dms mean=%.1fms max=%dms%n",
+                mode, sorted.length, sorted[0], sorted[sorted.length / 2], mean, sorted[sorted.length - 1]);
+    }
+}
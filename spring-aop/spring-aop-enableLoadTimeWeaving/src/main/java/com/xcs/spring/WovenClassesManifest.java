@@ -0,0 +1,151 @@
+package com.xcs.spring;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * 构建期织入清单，记录构建时织入所依据的 {@code META-INF/aop.xml} 以及被织入（或由织入生成）的类。
+ * <p>
+ * 清单由 {@link BuildTimeWeaver} 在构建时写入 {@value #MANIFEST_LOCATION}，运行时由
+ * {@link LoadTimeWeavingRequiredCondition} 读取并校验。每个类都记录了织入后字节码的摘要，
+ * 因此 {@code aop.xml} 被修改、或类在织入之后被重新编译时，清单都会被判定为失效，应用会回退到加载时织入。
+ * 校验只读取类文件资源，不会加载任何类。
+ *
+ * @author xcs
+ * @date 2026年10月18日21:52:37
+ */
+public class WovenClassesManifest {
+
+    /**
+     * 清单文件位置
+     */
+    public static final String MANIFEST_LOCATION = "META-INF/aop-woven.properties";
+
+    /**
+     * AspectJ 织入配置文件位置
+     */
+    public static final String AOP_XML_LOCATION = "META-INF/aop.xml";
+
+    private static final String AOP_XML_DIGEST_KEY = "aop-xml-digest";
+
+    private static final String CLASS_KEY_PREFIX = "class.";
+
+    /**
+     * 构建时 aop.xml 的摘要
+     */
+    private final String aopXmlDigest;
+
+    /**
+     * 类名到织入后字节码摘要的映射
+     */
+    private final Map<String, String> classDigests;
+
+    public WovenClassesManifest(String aopXmlDigest, Map<String, String> classDigests) {
+        this.aopXmlDigest = aopXmlDigest;
+        this.classDigests = new TreeMap<>(classDigests);
+    }
+
+    /**
+     * 从类加载器中读取清单。
+     *
+     * @param classLoader 类加载器
+     * @return 清单，不存在时返回 {@code null}
+     * @throws IOException 读取失败时抛出
+     */
+    @Nullable
+    public static WovenClassesManifest load(ClassLoader classLoader) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = classLoader.getResourceAsStream(MANIFEST_LOCATION)) {
+            if (in == null) {
+                return null;
+            }
+            properties.load(in);
+        }
+        Map<String, String> classDigests = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(CLASS_KEY_PREFIX)) {
+                classDigests.put(key.substring(CLASS_KEY_PREFIX.length()), properties.getProperty(key));
+            }
+        }
+        return new WovenClassesManifest(properties.getProperty(AOP_XML_DIGEST_KEY, ""), classDigests);
+    }
+
+    /**
+     * 将清单写入输出目录。
+     *
+     * @param outputDirectory 编译输出目录
+     * @throws IOException 写入失败时抛出
+     */
+    public void store(File outputDirectory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(AOP_XML_DIGEST_KEY, this.aopXmlDigest);
+        this.classDigests.forEach((className, digest) -> properties.setProperty(CLASS_KEY_PREFIX + className, digest));
+        File file = new File(outputDirectory, MANIFEST_LOCATION);
+        Files.createDirectories(file.getParentFile().toPath());
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            properties.store(out, "Classes woven at build time from " + AOP_XML_LOCATION);
+        }
+    }
+
+    /**
+     * 校验清单与类加载器中的 aop.xml 以及各个类文件是否一致。
+     *
+     * @param classLoader 类加载器
+     * @return 一致时返回 {@code true}
+     * @throws IOException 读取资源失败时抛出
+     */
+    public boolean matches(ClassLoader classLoader) throws IOException {
+        String currentAopXmlDigest = digestResource(classLoader, AOP_XML_LOCATION);
+        if (!this.aopXmlDigest.equals(currentAopXmlDigest)) {
+            return false;
+        }
+        for (Map.Entry<String, String> entry : this.classDigests.entrySet()) {
+            String resourceName = entry.getKey().replace('.', '/') + ".class";
+            if (!entry.getValue().equals(digestResource(classLoader, resourceName))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getAopXmlDigest() {
+        return this.aopXmlDigest;
+    }
+
+    public Map<String, String> getClassDigests() {
+        return Collections.unmodifiableMap(this.classDigests);
+    }
+
+    /**
+     * 计算字节数组的摘要。
+     */
+    static String digest(byte[] bytes) {
+        return DigestUtils.md5DigestAsHex(bytes);
+    }
+
+    @Nullable
+    private static String digestResource(ClassLoader classLoader, String resourceName) throws IOException {
+        try (InputStream in = classLoader.getResourceAsStream(resourceName)) {
+            return (in != null ? digest(StreamUtils.copyToByteArray(in)) : null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WovenClassesManifest{" +
+                "aopXmlDigest='" + this.aopXmlDigest + '\'' +
+                ", classes=" + this.classDigests.keySet() +
+                '}';
+    }
+}
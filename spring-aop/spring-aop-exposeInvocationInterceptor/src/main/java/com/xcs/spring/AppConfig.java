@@ -1,5 +1,10 @@
 package com.xcs.spring;
 
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
@@ -9,4 +14,19 @@ import org.springframework.context.annotation.EnableAspectJAutoProxy;
 @ComponentScan("com.xcs.spring")
 public class AppConfig {
 
+    /**
+     * 在调用链最前面绑定调用上下文，代替 ExposeInvocationInterceptor
+     */
+    @Bean
+    public static Advisor exposeInvocationContextAdvisor() {
+        return ExposeInvocationContextInterceptor.ADVISOR;
+    }
+
+    /**
+     * 不使用 AspectJ 表达式，否则 Spring 会为调用链自动加入 ExposeInvocationInterceptor
+     */
+    @Bean
+    public static Advisor myMethodInterceptorAdvisor() {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(new RootClassFilter(MyService.class)), new MyMethodInterceptor());
+    }
 }
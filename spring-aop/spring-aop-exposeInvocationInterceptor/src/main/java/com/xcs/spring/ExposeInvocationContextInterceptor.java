@@ -0,0 +1,53 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.lang.Nullable;
+
+/**
+ * 代替 {@link ExposeInvocationInterceptor} 的拦截器，在方法调用期间通过 {@link InvocationContexts} 的载体绑定调用上下文快照。
+ * <p>
+ * 载体为作用域值时，绑定不产生 {@code ThreadLocal} 写入，调用结束后自动解除；回退到 {@code ThreadLocal} 时在调用结束后恢复原值。
+ * 与 {@link ExposeInvocationInterceptor} 一样应当位于拦截器链的最前面，之后的拦截器通过 {@link InvocationContexts#current()} 读取上下文。
+ * <p>
+ * AspectJ 风格的通知通过 {@link ExposeInvocationInterceptor#currentInvocation()} 获取连接点，Spring 会为它们自动加入原来的拦截器，
+ * 因此本拦截器只替代由普通 {@link MethodInterceptor} 组成的调用链中的那一个。
+ *
+ * @author xcs
+ * @date 2026年10月19日14:20:36
+ */
+public final class ExposeInvocationContextInterceptor implements MethodInterceptor, PriorityOrdered {
+
+    /**
+     * 此类的单例实例
+     */
+    public static final ExposeInvocationContextInterceptor INSTANCE = new ExposeInvocationContextInterceptor();
+
+    /**
+     * 此类的单例通知器，匹配所有方法
+     */
+    public static final Advisor ADVISOR = new DefaultPointcutAdvisor(INSTANCE) {
+        @Override
+        public String toString() {
+            return ExposeInvocationContextInterceptor.class.getName() + ".ADVISOR";
+        }
+    };
+
+    private ExposeInvocationContextInterceptor() {
+    }
+
+    @Override
+    @Nullable
+    public Object invoke(MethodInvocation mi) throws Throwable {
+        return InvocationContexts.proceedWith(mi);
+    }
+
+    @Override
+    public int getOrder() {
+        return PriorityOrdered.HIGHEST_PRECEDENCE + 1;
+    }
+}
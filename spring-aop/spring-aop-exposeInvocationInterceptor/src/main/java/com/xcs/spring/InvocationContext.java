@@ -0,0 +1,83 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * 方法调用上下文的不可变快照。
+ * <p>
+ * {@link MethodInvocation} 只在当前线程的调用期间有效，而且参数数组可能在之后被修改。快照只复制方法、参数、
+ * 目标对象与代理对象的引用（参数数组做浅拷贝），可以安全地交给其他线程使用，
+ * 通常通过 {@link InvocationContexts} 在异步任务之间传递。
+ *
+ * @author xcs
+ * @date 2026年10月18日20:58:04
+ */
+public final class InvocationContext {
+
+    private final Method method;
+
+    private final Object[] arguments;
+
+    private final Object target;
+
+    private final Object proxy;
+
+    private InvocationContext(Method method, Object[] arguments, Object target, Object proxy) {
+        this.method = method;
+        this.arguments = arguments;
+        this.target = target;
+        this.proxy = proxy;
+    }
+
+    /**
+     * 为方法调用创建快照。
+     *
+     * @param invocation 方法调用
+     * @return 调用上下文快照
+     */
+    public static InvocationContext of(MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        Object proxy = (invocation instanceof ProxyMethodInvocation ? ((ProxyMethodInvocation) invocation).getProxy() : null);
+        return new InvocationContext(invocation.getMethod(), arguments.length == 0 ? arguments : arguments.clone(),
+                invocation.getThis(), proxy);
+    }
+
+    public Method getMethod() {
+        return this.method;
+    }
+
+    /**
+     * 获取调用参数。
+     *
+     * @return 参数数组的副本
+     */
+    public Object[] getArguments() {
+        return this.arguments.length == 0 ? this.arguments : this.arguments.clone();
+    }
+
+    public Object getThis() {
+        return this.target;
+    }
+
+    /**
+     * 获取代理对象。
+     *
+     * @return 代理对象，调用不是通过 Spring AOP 代理发起时返回null
+     */
+    public Object getProxy() {
+        return this.proxy;
+    }
+
+    @Override
+    public String toString() {
+        return "InvocationContext{" +
+                "method=" + this.method +
+                ", arguments=" + Arrays.toString(this.arguments) +
+                ", target=" + this.target +
+                '}';
+    }
+}
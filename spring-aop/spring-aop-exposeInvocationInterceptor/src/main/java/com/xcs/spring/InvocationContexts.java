@@ -0,0 +1,295 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.lang.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * 在线程与执行器之间传递 {@link InvocationContext} 的工具类。
+ * <p>
+ * {@link ExposeInvocationInterceptor#currentInvocation()} 依赖 {@code ThreadLocal}，任务一旦切换到其他执行器，
+ * 调用信息就丢失了。{@link ExposeInvocationContextInterceptor} 代替它，在方法调用期间把 {@link InvocationContext} 快照绑定到载体上，
+ * 任务交接时（{@link #wrap(Runnable)} 等方法）读取当前快照，并在任务执行期间重新绑定。
+ * <p>
+ * 载体在类加载时选择：运行在提供 {@code java.lang.ScopedValue} 的 JDK 上时使用作用域值，绑定只在任务执行期间有效，
+ * 适合虚拟线程；否则回退到 {@link ThreadLocal}，在任务结束后恢复原值。两种载体都不会被子线程继承：
+ * 线程池中的线程可能由任意任务创建，继承下来的上下文会一直残留，跨线程传递只通过 {@link #wrap(Runnable)} 等方法显式完成。
+ * 可以通过系统属性 {@code invocation.context.carrier=thread-local} 强制使用回退实现。
+ *
+ * @author xcs
+ * @date 2026年10月18日20:58:04
+ */
+public final class InvocationContexts {
+
+    private static final Carrier CARRIER = createCarrier();
+
+    private InvocationContexts() {
+    }
+
+    /**
+     * 获取载体上当前绑定的调用上下文。
+     * <p>
+     * 在传递进来的任务中又调用了被通知的方法时，{@link ExposeInvocationContextInterceptor} 在这次调用期间绑定更近的上下文，
+     * 返回的是它，而不是提交任务时的上下文。
+     *
+     * @return 调用上下文，没有绑定时返回null
+     */
+    @Nullable
+    public static InvocationContext current() {
+        return CARRIER.get();
+    }
+
+    /**
+     * 在绑定了指定上下文的作用域内执行任务。
+     *
+     * @param context 调用上下文，为null时不做绑定
+     * @param task    任务
+     * @return 任务的返回值
+     * @throws Exception 任务抛出的异常
+     */
+    public static <T> T callWith(@Nullable InvocationContext context, Callable<T> task) throws Exception {
+        if (context == null) {
+            return task.call();
+        }
+        try {
+            return CARRIER.call(context, task::call);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new UndeclaredThrowableException(ex);
+        }
+    }
+
+    /**
+     * 在绑定了方法调用快照的作用域内继续执行调用链，供 {@link ExposeInvocationContextInterceptor} 使用。
+     *
+     * @param invocation 方法调用
+     * @return 调用链的返回值
+     * @throws Throwable 调用链抛出的异常
+     */
+    static Object proceedWith(MethodInvocation invocation) throws Throwable {
+        return CARRIER.call(InvocationContext.of(invocation), invocation::proceed);
+    }
+
+    /**
+     * 在绑定了指定上下文的作用域内执行任务。
+     *
+     * @param context 调用上下文，为null时不做绑定
+     * @param task    任务
+     */
+    public static void runWith(@Nullable InvocationContext context, Runnable task) {
+        try {
+            callWith(context, () -> {
+                task.run();
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * 捕获当前的调用上下文，返回在执行时重新绑定该上下文的任务。
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static Runnable wrap(Runnable task) {
+        InvocationContext context = current();
+        return () -> runWith(context, task);
+    }
+
+    /**
+     * 捕获当前的调用上下文，返回在执行时重新绑定该上下文的任务。
+     *
+     * @param task 任务
+     * @return 包装后的任务
+     */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        InvocationContext context = current();
+        return () -> callWith(context, task);
+    }
+
+    /**
+     * 捕获当前的调用上下文，返回在执行时重新绑定该上下文的 {@link Supplier}，适用于
+     * {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier, Executor)}。
+     *
+     * @param supplier 任务
+     * @return 包装后的任务
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> supplier) {
+        InvocationContext context = current();
+        return () -> {
+            try {
+                return callWith(context, supplier::get);
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        };
+    }
+
+    /**
+     * 返回一个执行器，提交任务时捕获提交线程的调用上下文并在任务执行期间绑定。
+     *
+     * @param executor 实际执行任务的执行器
+     * @return 传递调用上下文的执行器
+     */
+    public static Executor propagating(Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * 获取当前使用的载体名称。
+     *
+     * @return {@code scoped-value} 或 {@code thread-local}
+     */
+    public static String getCarrierName() {
+        return CARRIER.name();
+    }
+
+    private static Carrier createCarrier() {
+        if (!"thread-local".equals(System.getProperty("invocation.context.carrier"))) {
+            try {
+                return new ScopedValueCarrier();
+            } catch (Throwable ex) {
+                // 当前 JDK 不提供作用域值，或者未启用预览特性
+            }
+        }
+        return new ThreadLocalCarrier();
+    }
+
+    /**
+     * 在载体作用域内执行的任务，允许抛出任意异常，方法调用链可以直接使用。
+     */
+    @FunctionalInterface
+    private interface Task<T> {
+
+        T call() throws Throwable;
+    }
+
+    /**
+     * 调用上下文的载体。
+     */
+    private interface Carrier {
+
+        @Nullable
+        InvocationContext get();
+
+        <T> T call(InvocationContext context, Task<T> task) throws Throwable;
+
+        String name();
+    }
+
+    /**
+     * 基于 {@code java.lang.ScopedValue} 的载体。项目以 Java 11 编译，因此通过 {@link MethodHandle} 访问该 API，
+     * 只使用各个 JDK 版本中签名一致的 {@code where}、{@code Carrier.run} 与 {@code orElse}。
+     */
+    private static final class ScopedValueCarrier implements Carrier {
+
+        private final Object scopedValue;
+
+        private final MethodHandle where;
+
+        private final MethodHandle run;
+
+        private final MethodHandle orElse;
+
+        ScopedValueCarrier() throws Throwable {
+            Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+            Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            this.scopedValue = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass)).invoke();
+            this.where = lookup.findStatic(scopedValueClass, "where", MethodType.methodType(carrierClass, scopedValueClass, Object.class));
+            this.run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class));
+            this.orElse = lookup.findVirtual(scopedValueClass, "orElse", MethodType.methodType(Object.class, Object.class));
+            // 确认运行时允许使用该 API
+            get();
+        }
+
+        @Override
+        public InvocationContext get() {
+            try {
+                return (InvocationContext) this.orElse.invoke(this.scopedValue, (Object) null);
+            } catch (Throwable ex) {
+                throw new IllegalStateException("无法读取作用域值", ex);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T call(InvocationContext context, Task<T> task) throws Throwable {
+            Object[] result = new Object[1];
+            Throwable[] failure = new Throwable[1];
+            Runnable runnable = () -> {
+                try {
+                    result[0] = task.call();
+                } catch (Throwable ex) {
+                    failure[0] = ex;
+                }
+            };
+            try {
+                this.run.invoke(this.where.invoke(this.scopedValue, context), runnable);
+            } catch (Error | RuntimeException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("无法绑定作用域值", ex);
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            return (T) result[0];
+        }
+
+        @Override
+        public String name() {
+            return "scoped-value";
+        }
+    }
+
+    /**
+     * 基于 {@link ThreadLocal} 的载体，任务结束后恢复线程上原有的值。不使用 {@link InheritableThreadLocal}，
+     * 否则在任务执行期间创建的线程池线程会永久持有该任务的上下文。
+     */
+    private static final class ThreadLocalCarrier implements Carrier {
+
+        private final ThreadLocal<InvocationContext> holder = new ThreadLocal<>();
+
+        @Override
+        public InvocationContext get() {
+            return this.holder.get();
+        }
+
+        @Override
+        public <T> T call(InvocationContext context, Task<T> task) throws Throwable {
+            InvocationContext previous = this.holder.get();
+            this.holder.set(context);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    this.holder.set(previous);
+                } else {
+                    this.holder.remove();
+                }
+            }
+        }
+
+        @Override
+        public String name() {
+            return "thread-local";
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.xcs.spring;
 
-import org.springframework.aop.ProxyMethodInvocation;
-import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
-
 public class LogUtil {
 
     public static void print() {
-        ProxyMethodInvocation methodInvocation = (ProxyMethodInvocation) ExposeInvocationInterceptor.currentInvocation();
-        System.out.println("Method = " + methodInvocation.getMethod());
-        System.out.println("Arguments Length = " + methodInvocation.getArguments().length);
-        System.out.println("Target = " + methodInvocation.getThis());
-        System.out.println("Proxy Class = " + methodInvocation.getProxy().getClass());
+        // 读取绑定在当前调用或传递到当前任务中的调用上下文，在异步任务中同样可用
+        InvocationContext context = InvocationContexts.current();
+        System.out.println("Thread = " + Thread.currentThread().getName());
+        if (context == null) {
+            System.out.println("No invocation context bound");
+            return;
+        }
+        System.out.println("Method = " + context.getMethod());
+        System.out.println("Arguments Length = " + context.getArguments().length);
+        System.out.println("Target = " + context.getThis());
+        Object proxy = context.getProxy();
+        System.out.println("Proxy Class = " + (proxy != null ? proxy.getClass() : null));
     }
 }
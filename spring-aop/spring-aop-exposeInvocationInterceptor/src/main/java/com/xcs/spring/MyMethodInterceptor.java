@@ -1,15 +1,17 @@
 package com.xcs.spring;
 
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
-import org.springframework.stereotype.Component;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
 
-@Aspect
-@Component
-public class MyMethodInterceptor {
+import java.util.concurrent.CompletableFuture;
 
-    @Before("execution(public * com.xcs.spring.MyService.*(..))")
-    public void before() {
+public class MyMethodInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
         LogUtil.print();
+        // 在其他线程中异步记录日志，调用上下文随任务一起传递
+        CompletableFuture.runAsync(InvocationContexts.wrap(LogUtil::print)).join();
+        return invocation.proceed();
     }
 }
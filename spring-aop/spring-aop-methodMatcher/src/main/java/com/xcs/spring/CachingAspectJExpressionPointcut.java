@@ -0,0 +1,228 @@
+package com.xcs.spring;
+
+import org.aspectj.weaver.tools.PointcutExpression;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.MethodClassKey;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * 使用 {@link SharedPointcutCache} 的 {@link AspectJExpressionPointcut}。
+ * <p>
+ * 本类只记录表达式及其参数，第一次匹配时从共享缓存中取得同一表达式的已编译切点，之后的类匹配、方法匹配以及运行时匹配都委托给它，
+ * 多个使用相同表达式的切点因此只编译一次表达式、只做一次 shadow match。
+ * 启用了持久化时，静态的类匹配与方法匹配先查询共享切点在内存中记住的结果，未命中时才计算存储的键并查询 {@link ShadowMatchStore}。
+ * 包含 {@code bean()} 的表达式依赖当前创建的Bean名称，它们的结果不会被持久化。
+ * 持久化的标识包含声明作用域（其中的命名切点）与表达式中引用的类的摘要，这些类被重新编译后旧结果不会再被命中。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:27:48
+ */
+public class CachingAspectJExpressionPointcut extends AspectJExpressionPointcut {
+
+    @Nullable
+    private Class<?> declarationScope;
+
+    private String[] parameterNames = new String[0];
+
+    private Class<?>[] parameterTypes = new Class<?>[0];
+
+    @Nullable
+    private BeanFactory beanFactory;
+
+    @Nullable
+    private transient volatile SharedPointcutCache.CompiledPointcut delegate;
+
+    /**
+     * 可以持久化时为表达式的键，包含 {@code bean()} 的表达式为null
+     */
+    @Nullable
+    private transient volatile SharedPointcutCache.ExpressionKey persistentKey;
+
+    /**
+     * 持久化使用的标识，第一次查询存储时才计算，不能持久化时为空字符串
+     */
+    @Nullable
+    private transient volatile String persistentId;
+
+    public CachingAspectJExpressionPointcut() {
+    }
+
+    public CachingAspectJExpressionPointcut(Class<?> declarationScope, String[] paramNames, Class<?>[] paramTypes) {
+        super(declarationScope, paramNames, paramTypes);
+        this.declarationScope = declarationScope;
+        this.parameterNames = paramNames;
+        this.parameterTypes = paramTypes;
+    }
+
+    @Override
+    public void setPointcutDeclarationScope(Class<?> pointcutDeclarationScope) {
+        super.setPointcutDeclarationScope(pointcutDeclarationScope);
+        this.declarationScope = pointcutDeclarationScope;
+        reset();
+    }
+
+    @Override
+    public void setParameterNames(String... names) {
+        super.setParameterNames(names);
+        this.parameterNames = names;
+        reset();
+    }
+
+    @Override
+    public void setParameterTypes(Class<?>... types) {
+        super.setParameterTypes(types);
+        this.parameterTypes = types;
+        reset();
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        super.setBeanFactory(beanFactory);
+        this.beanFactory = beanFactory;
+        reset();
+    }
+
+    @Override
+    protected void onSetExpression(@Nullable String expression) throws IllegalArgumentException {
+        super.onSetExpression(expression);
+        reset();
+    }
+
+    private void reset() {
+        this.delegate = null;
+        this.persistentKey = null;
+        this.persistentId = null;
+    }
+
+    @Override
+    public PointcutExpression getPointcutExpression() {
+        return obtainDelegate().pointcut.getPointcutExpression();
+    }
+
+    @Override
+    public boolean matches(Class<?> targetClass) {
+        SharedPointcutCache.CompiledPointcut compiled = obtainDelegate();
+        ShadowMatchStore store = getShadowMatchStore();
+        if (store == null) {
+            return compiled.pointcut.matches(targetClass);
+        }
+        Boolean result = compiled.classMatches.get(targetClass);
+        if (result == null) {
+            String key = store.classMatchKey(getPersistentId(), targetClass);
+            result = (key != null ? store.get(key) : null);
+            if (result == null) {
+                result = compiled.pointcut.matches(targetClass);
+                if (key != null) {
+                    store.put(key, result);
+                }
+            }
+            compiled.classMatches.put(targetClass, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, boolean hasIntroductions) {
+        SharedPointcutCache.CompiledPointcut compiled = obtainDelegate();
+        ShadowMatchStore store = getShadowMatchStore();
+        if (store == null) {
+            // 委托的切点有自己的 shadow match 缓存
+            return compiled.pointcut.matches(method, targetClass, hasIntroductions);
+        }
+        Map<MethodClassKey, Boolean> matches = (hasIntroductions ? compiled.introductionMethodMatches : compiled.methodMatches);
+        MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+        Boolean result = matches.get(cacheKey);
+        if (result == null) {
+            String key = store.methodMatchKey(getPersistentId(), method, targetClass, hasIntroductions);
+            result = (key != null ? store.get(key) : null);
+            if (result == null) {
+                result = compiled.pointcut.matches(method, targetClass, hasIntroductions);
+                if (key != null) {
+                    store.put(key, result);
+                }
+            }
+            matches.put(cacheKey, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        return matches(method, targetClass, false);
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return obtainDelegate().pointcut.isRuntime();
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, Object... args) {
+        return obtainDelegate().pointcut.matches(method, targetClass, args);
+    }
+
+    /**
+     * 获取共享的已编译切点。
+     */
+    private SharedPointcutCache.CompiledPointcut obtainDelegate() {
+        SharedPointcutCache.CompiledPointcut delegate = this.delegate;
+        if (delegate == null) {
+            String expression = getExpression();
+            Assert.state(expression != null, "Must set property 'expression' before attempting to match");
+            SharedPointcutCache.ExpressionKey key = new SharedPointcutCache.ExpressionKey(expression, this.declarationScope,
+                    this.parameterNames, this.parameterTypes, this.beanFactory, determinePointcutClassLoader());
+            delegate = SharedPointcutCache.getInstance().obtain(key);
+            // bean() 的匹配结果与当前创建的Bean有关，不能持久化
+            this.persistentKey = (expression.contains("bean(") ? null : key);
+            this.persistentId = null;
+            this.delegate = delegate;
+        }
+        return delegate;
+    }
+
+    /**
+     * 与父类相同的类加载器选择逻辑，不同类加载器下的表达式不能共享。
+     */
+    @Nullable
+    private ClassLoader determinePointcutClassLoader() {
+        if (this.beanFactory instanceof ConfigurableBeanFactory) {
+            return ((ConfigurableBeanFactory) this.beanFactory).getBeanClassLoader();
+        }
+        if (this.declarationScope != null) {
+            return this.declarationScope.getClassLoader();
+        }
+        return ClassUtils.getDefaultClassLoader();
+    }
+
+    @Nullable
+    private ShadowMatchStore getShadowMatchStore() {
+        ShadowMatchStore store = SharedPointcutCache.getInstance().getShadowMatchStore();
+        return (store != null && getPersistentId() != null ? store : null);
+    }
+
+    /**
+     * 获取持久化使用的标识，其中包含声明作用域与表达式引用的类的摘要，只在启用了持久化后计算一次。
+     *
+     * @return 标识，不能持久化时返回null
+     */
+    @Nullable
+    private String getPersistentId() {
+        String persistentId = this.persistentId;
+        if (persistentId == null) {
+            SharedPointcutCache.ExpressionKey key = this.persistentKey;
+            persistentId = (key != null ? key.getPersistentId() : null);
+            if (persistentId == null) {
+                persistentId = "";
+            }
+            this.persistentId = persistentId;
+        }
+        return (persistentId.isEmpty() ? null : persistentId);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.aop.support.NameMatchMethodPointcut;
 import org.springframework.aop.support.annotation.AnnotationMethodMatcher;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
 
 public class MethodMatcherDemo {
 
@@ -31,5 +32,18 @@ public class MethodMatcherDemo {
         JdkRegexpMethodPointcut jdkRegexpMethodPointcut = new JdkRegexpMethodPointcut();
         jdkRegexpMethodPointcut.setPattern(".*set.*");
         System.out.println("jdkRegexpMethodPointcut matches = " + jdkRegexpMethodPointcut.matches(setNameMethod, target));
+
+        // 使用 CachingAspectJExpressionPointcut 共享已编译的表达式，并持久化匹配结果
+        SharedPointcutCache pointcutCache = SharedPointcutCache.getInstance();
+        ShadowMatchStore shadowMatchStore = pointcutCache.enablePersistence(
+                Path.of(System.getProperty("java.io.tmpdir"), "spring-aop-shadow-matches.properties"));
+        for (int i = 0; i < 3; i++) {
+            CachingAspectJExpressionPointcut cachingPointcut = new CachingAspectJExpressionPointcut();
+            cachingPointcut.setExpression("execution(* com.xcs.spring.MyService.*(..))");
+            System.out.println("cachingPointcut" + i + " matches = " + cachingPointcut.matches(setNameMethod, target));
+        }
+        System.out.println(pointcutCache);
+        System.out.println(shadowMatchStore);
+        shadowMatchStore.flush();
     }
 }
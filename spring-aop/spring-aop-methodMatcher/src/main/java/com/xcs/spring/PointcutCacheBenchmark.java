@@ -0,0 +1,56 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比每个 Advisor 各自编译表达式的 {@link AspectJExpressionPointcut} 与共享编译结果的 {@link CachingAspectJExpressionPointcut}。
+ * 每次调用都创建一个新的切点并完成类匹配与方法匹配，模拟容器启动时多个 Advisor 使用同一表达式的场景。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointcutCacheBenchmark {
+
+    private static final String EXPRESSION = "execution(* com.xcs.spring.MyService.*(..)) && @annotation(com.xcs.spring.MyMethodAnnotation)";
+
+    private Method method;
+
+    @Setup
+    public void setup() throws Exception {
+        this.method = MyService.class.getDeclaredMethod("setName");
+    }
+
+    @Benchmark
+    public boolean springPointcut() {
+        return matches(new AspectJExpressionPointcut());
+    }
+
+    @Benchmark
+    public boolean cachingPointcut() {
+        return matches(new CachingAspectJExpressionPointcut());
+    }
+
+    private boolean matches(AspectJExpressionPointcut pointcut) {
+        pointcut.setExpression(EXPRESSION);
+        return pointcut.matches(MyService.class) && pointcut.matches(this.method, MyService.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PointcutCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
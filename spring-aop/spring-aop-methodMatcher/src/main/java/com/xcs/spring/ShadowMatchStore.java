@@ -0,0 +1,281 @@
+package com.xcs.spring;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 持久化的切点匹配结果存储。
+ * <p>
+ * AspectJ 的 shadow match 结果只取决于切点表达式以及相关类的字节码，因此可以跨进程复用。
+ * 每条结果的键由表达式、目标类与方法声明类的“继承层次摘要”以及方法签名计算得出。继承层次摘要是类自身及其所有父类、接口的类文件摘要的组合，
+ * 类或其父类型被重新编译后摘要随之变化，旧结果不会再被命中。方法的参数、返回值与异常类型也计入摘要，
+ * 因为 {@code execution(* *(com.xcs.Base+))} 这类模式的结果取决于它们的继承层次；表达式本身的标识由
+ * {@link SharedPointcutCache} 计算，包含声明作用域与表达式引用的类的摘要。JDK 中的类以 JDK 版本代替类文件摘要；
+ * 读取不到类文件的类（例如运行时生成的代理类）不参与持久化。
+ * <p>
+ * 结果保存在本地的 properties 文件中，通过 {@link #flush()} 写回，过期的条目不会自动清除，可以直接删除该文件重建。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:12:40
+ */
+public class ShadowMatchStore {
+
+    /**
+     * 无法计算摘要的类在缓存中的占位值
+     */
+    private static final String NOT_PERSISTABLE = "";
+
+    private static final String JDK_DIGEST_PREFIX = "jdk-" + System.getProperty("java.version") + ":";
+
+    private final Path file;
+
+    private final Map<String, Boolean> results = new ConcurrentHashMap<>();
+
+    /**
+     * 类的继承层次摘要只取决于类文件，在所有存储之间共享
+     */
+    private static final Map<Class<?>, String> hierarchyDigests = new ConcurrentReferenceHashMap<>();
+
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private ShadowMatchStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * 打开存储文件，文件不存在时创建空的存储。
+     *
+     * @param file 存储文件
+     * @return 存储
+     * @throws IOException 读取失败时抛出
+     */
+    public static ShadowMatchStore open(Path file) throws IOException {
+        ShadowMatchStore store = new ShadowMatchStore(file);
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                store.results.put(key, Boolean.valueOf(properties.getProperty(key)));
+            }
+        }
+        return store;
+    }
+
+    /**
+     * 获取已保存的匹配结果。
+     *
+     * @param key 由 {@link #classMatchKey} 或 {@link #methodMatchKey} 计算的键
+     * @return 匹配结果，没有保存时返回 {@code null}
+     */
+    @Nullable
+    public Boolean get(String key) {
+        Boolean result = this.results.get(key);
+        if (result != null) {
+            this.hitCount.increment();
+        } else {
+            this.missCount.increment();
+        }
+        return result;
+    }
+
+    public void put(String key, boolean result) {
+        if (this.results.put(key, result) == null) {
+            this.dirty.set(true);
+        }
+    }
+
+    /**
+     * 计算类匹配结果的键。
+     *
+     * @param expressionId 切点表达式的标识
+     * @param targetClass  目标类
+     * @return 键，目标类无法持久化时返回 {@code null}
+     */
+    @Nullable
+    public String classMatchKey(String expressionId, Class<?> targetClass) {
+        String targetDigest = hierarchyDigest(targetClass);
+        if (targetDigest == null) {
+            return null;
+        }
+        return digest("class\n" + expressionId + '\n' + targetClass.getName() + '\n' + targetDigest);
+    }
+
+    /**
+     * 计算方法匹配结果的键。
+     *
+     * @param expressionId     切点表达式的标识
+     * @param method           方法
+     * @param targetClass      目标类
+     * @param hasIntroductions 是否存在引入
+     * @return 键，目标类或方法声明类无法持久化时返回 {@code null}
+     */
+    @Nullable
+    public String methodMatchKey(String expressionId, Method method, Class<?> targetClass, boolean hasIntroductions) {
+        String targetDigest = hierarchyDigest(targetClass);
+        String declaringDigest = hierarchyDigest(method.getDeclaringClass());
+        String signatureDigest = signatureDigest(method);
+        if (targetDigest == null || declaringDigest == null || signatureDigest == null) {
+            return null;
+        }
+        return digest("method\n" + expressionId + '\n' + targetClass.getName() + '\n' + targetDigest + '\n' +
+                method.toGenericString() + '\n' + declaringDigest + '\n' + signatureDigest + '\n' + hasIntroductions);
+    }
+
+    /**
+     * 计算方法参数、返回值与异常类型的继承层次摘要。
+     */
+    @Nullable
+    private static String signatureDigest(Method method) {
+        StringBuilder builder = new StringBuilder();
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!appendHierarchyDigest(builder, parameterType)) {
+                return null;
+            }
+        }
+        if (!appendHierarchyDigest(builder, method.getReturnType())) {
+            return null;
+        }
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (!appendHierarchyDigest(builder, exceptionType)) {
+                return null;
+            }
+        }
+        return digest(builder.toString());
+    }
+
+    private static boolean appendHierarchyDigest(StringBuilder builder, Class<?> type) {
+        String digest = hierarchyDigest(type);
+        if (digest == null) {
+            return false;
+        }
+        builder.append(digest).append(',');
+        return true;
+    }
+
+    /**
+     * 计算类及其全部父类型的类文件摘要，数组使用元素类型的摘要。
+     *
+     * @param clazz 类
+     * @return 摘要，类或其父类型读取不到类文件时返回 {@code null}
+     */
+    @Nullable
+    static String hierarchyDigest(Class<?> clazz) {
+        String digest = hierarchyDigests.get(clazz);
+        if (digest == null) {
+            digest = computeHierarchyDigest(clazz);
+            hierarchyDigests.put(clazz, digest);
+        }
+        return (NOT_PERSISTABLE.equals(digest) ? null : digest);
+    }
+
+    private static String computeHierarchyDigest(Class<?> clazz) {
+        if (clazz.isArray()) {
+            String componentDigest = hierarchyDigest(clazz.getComponentType());
+            return (componentDigest != null ? "[" + componentDigest : NOT_PERSISTABLE);
+        }
+        if (clazz.isPrimitive() || clazz.getClassLoader() == null) {
+            return JDK_DIGEST_PREFIX + clazz.getName();
+        }
+        StringBuilder builder = new StringBuilder(classFileDigest(clazz));
+        if (builder.length() == 0) {
+            return NOT_PERSISTABLE;
+        }
+        if (clazz.getSuperclass() != null) {
+            String superDigest = hierarchyDigest(clazz.getSuperclass());
+            if (superDigest == null) {
+                return NOT_PERSISTABLE;
+            }
+            builder.append(superDigest);
+        }
+        for (Class<?> ifc : clazz.getInterfaces()) {
+            String interfaceDigest = hierarchyDigest(ifc);
+            if (interfaceDigest == null) {
+                return NOT_PERSISTABLE;
+            }
+            builder.append(interfaceDigest);
+        }
+        return digest(builder.toString());
+    }
+
+    private static String classFileDigest(Class<?> clazz) {
+        String resourceName = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getClassLoader().getResourceAsStream(resourceName)) {
+            return (in != null ? DigestUtils.md5DigestAsHex(StreamUtils.copyToByteArray(in)) : NOT_PERSISTABLE);
+        } catch (IOException ex) {
+            return NOT_PERSISTABLE;
+        }
+    }
+
+    private static String digest(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 将新增的匹配结果写回文件。没有新增结果时不做任何操作。
+     *
+     * @throws IOException 写入失败时抛出
+     */
+    public synchronized void flush() throws IOException {
+        if (!this.dirty.getAndSet(false)) {
+            return;
+        }
+        Properties properties = new Properties();
+        this.results.forEach((key, result) -> properties.setProperty(key, result.toString()));
+        Path parent = this.file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        // 先写入临时文件再替换，避免进程中途退出留下不完整的文件
+        Path tempFile = Files.createTempFile(parent, this.file.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "AspectJ shadow match results");
+        }
+        Files.move(tempFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    public int size() {
+        return this.results.size();
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ShadowMatchStore{" +
+                "file=" + this.file +
+                ", size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                '}';
+    }
+}
@@ -0,0 +1,359 @@
+package com.xcs.spring;
+
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.core.MethodClassKey;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内共享的已编译切点表达式缓存。
+ * <p>
+ * 每个 {@link AspectJExpressionPointcut} 都会各自解析表达式，并各自维护一份 shadow match 缓存，
+ * 大量 Advisor 使用同一个表达式时，同样的解析与匹配会重复执行多次。这里按“表达式 + 声明作用域 + 参数 + 类加载器 + BeanFactory”
+ * 为每个表达式只保留一个已编译的 {@link AspectJExpressionPointcut}，由 {@link CachingAspectJExpressionPointcut} 委托给它完成匹配，
+ * 因此编译结果与 shadow match 缓存都被所有使用该表达式的切点共享。
+ * <p>
+ * 缓存本身只弱引用已编译的切点，它们由使用它们的 {@link CachingAspectJExpressionPointcut} 强引用，
+ * 所有切点都不再使用后条目被清除；键也只弱引用 {@link BeanFactory} 与类加载器，静态的缓存不会让已关闭的容器或类加载器一直可达。
+ * <p>
+ * 调用 {@link #enablePersistence(Path)} 后，匹配结果还会保存到 {@link ShadowMatchStore} 中，进程重启后直接复用。
+ *
+ * @author xcs
+ * @date 2026年10月19日00:20:15
+ */
+public final class SharedPointcutCache {
+
+    private static final SharedPointcutCache INSTANCE = new SharedPointcutCache();
+
+    /**
+     * 表达式中以点分隔的限定名，{@code ..} 与 {@code *} 会把通配模式截断为不完整的名称
+     */
+    private static final Pattern QUALIFIED_NAME = Pattern.compile("[A-Za-z_$][\\w$]*(?:\\.[A-Za-z_$][\\w$]*)+");
+
+    private final Map<ExpressionKey, CompiledReference> compiledPointcuts = new ConcurrentHashMap<>();
+
+    /**
+     * 已编译的切点被回收后，其弱引用会进入该队列
+     */
+    private final ReferenceQueue<CompiledPointcut> collectedPointcuts = new ReferenceQueue<>();
+
+    @Nullable
+    private volatile ShadowMatchStore shadowMatchStore;
+
+    private final LongAdder compileCount = new LongAdder();
+
+    private final LongAdder reuseCount = new LongAdder();
+
+    private SharedPointcutCache() {
+    }
+
+    public static SharedPointcutCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 获取表达式对应的共享切点，不存在或已被回收时创建。只有真正编译了表达式的线程计入编译次数。
+     *
+     * @param key 表达式的键
+     * @return 共享的切点
+     */
+    CompiledPointcut obtain(ExpressionKey key) {
+        expungeCollectedPointcuts();
+        CompiledReference reference = this.compiledPointcuts.get(key);
+        CompiledPointcut compiled = (reference != null ? reference.get() : null);
+        if (compiled != null) {
+            this.reuseCount.increment();
+            return compiled;
+        }
+        CompiledPointcut[] result = new CompiledPointcut[1];
+        this.compiledPointcuts.compute(key, (k, existing) -> {
+            CompiledPointcut current = (existing != null ? existing.get() : null);
+            if (current != null) {
+                result[0] = current;
+                this.reuseCount.increment();
+                return existing;
+            }
+            this.compileCount.increment();
+            result[0] = new CompiledPointcut(k.createPointcut());
+            return new CompiledReference(result[0], k, this.collectedPointcuts);
+        });
+        return result[0];
+    }
+
+    /**
+     * 移除已编译的切点已被回收的条目。
+     */
+    private void expungeCollectedPointcuts() {
+        Reference<? extends CompiledPointcut> reference;
+        while ((reference = this.collectedPointcuts.poll()) != null) {
+            this.compiledPointcuts.remove(((CompiledReference) reference).key, reference);
+        }
+    }
+
+    /**
+     * 启用匹配结果持久化，并在 JVM 退出时写回文件。
+     *
+     * @param file 存储文件
+     * @return 使用的存储
+     */
+    public synchronized ShadowMatchStore enablePersistence(Path file) {
+        ShadowMatchStore store = this.shadowMatchStore;
+        if (store != null) {
+            return store;
+        }
+        try {
+            store = ShadowMatchStore.open(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to open shadow match store " + file, ex);
+        }
+        ShadowMatchStore storeToFlush = store;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                storeToFlush.flush();
+            } catch (IOException ex) {
+                // 写回失败只会导致下次启动重新匹配
+            }
+        }, "shadow-match-store-flush"));
+        this.shadowMatchStore = store;
+        return store;
+    }
+
+    @Nullable
+    public ShadowMatchStore getShadowMatchStore() {
+        return this.shadowMatchStore;
+    }
+
+    /**
+     * 清空已编译的表达式，不影响持久化的匹配结果。
+     */
+    public void clear() {
+        this.compiledPointcuts.clear();
+    }
+
+    public int size() {
+        expungeCollectedPointcuts();
+        return this.compiledPointcuts.size();
+    }
+
+    public long getCompileCount() {
+        return this.compileCount.sum();
+    }
+
+    public long getReuseCount() {
+        return this.reuseCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SharedPointcutCache{" +
+                "size=" + size() +
+                ", compiled=" + getCompileCount() +
+                ", reused=" + getReuseCount() +
+                '}';
+    }
+
+    /**
+     * 同一表达式的已编译切点，以及启用持久化后按类、按方法记住的静态匹配结果。
+     * 这些结果命中时不需要再计算 {@link ShadowMatchStore} 的键，持久化只在每个类、每个方法第一次匹配时才付出计算摘要的代价。
+     */
+    static final class CompiledPointcut {
+
+        final AspectJExpressionPointcut pointcut;
+
+        final Map<Class<?>, Boolean> classMatches = new ConcurrentHashMap<>(32);
+
+        final Map<MethodClassKey, Boolean> methodMatches = new ConcurrentHashMap<>(32);
+
+        final Map<MethodClassKey, Boolean> introductionMethodMatches = new ConcurrentHashMap<>(32);
+
+        CompiledPointcut(AspectJExpressionPointcut pointcut) {
+            this.pointcut = pointcut;
+        }
+    }
+
+    /**
+     * 缓存对已编译切点的弱引用，记录所属的键，被回收后据此移除条目。
+     */
+    private static final class CompiledReference extends WeakReference<CompiledPointcut> {
+
+        final ExpressionKey key;
+
+        CompiledReference(CompiledPointcut referent, ExpressionKey key, ReferenceQueue<CompiledPointcut> queue) {
+            super(referent, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * 决定表达式编译结果的全部输入。{@link BeanFactory} 与类加载器按对象标识比较并以弱引用保存，
+     * 已被回收的键只与自身相等。
+     */
+    static final class ExpressionKey {
+
+        private final String expression;
+
+        @Nullable
+        private final Class<?> declarationScope;
+
+        private final String[] parameterNames;
+
+        private final Class<?>[] parameterTypes;
+
+        @Nullable
+        private final WeakReference<BeanFactory> beanFactory;
+
+        @Nullable
+        private final WeakReference<ClassLoader> classLoader;
+
+        private final int hashCode;
+
+        ExpressionKey(String expression, @Nullable Class<?> declarationScope, String[] parameterNames,
+                      Class<?>[] parameterTypes, @Nullable BeanFactory beanFactory, @Nullable ClassLoader classLoader) {
+            this.expression = expression;
+            this.declarationScope = declarationScope;
+            this.parameterNames = parameterNames;
+            this.parameterTypes = parameterTypes;
+            this.beanFactory = (beanFactory != null ? new WeakReference<>(beanFactory) : null);
+            this.classLoader = (classLoader != null ? new WeakReference<>(classLoader) : null);
+            int hash = expression.hashCode() * 31 + ObjectUtils.nullSafeHashCode(declarationScope);
+            hash = hash * 31 + System.identityHashCode(beanFactory);
+            this.hashCode = hash * 31 + System.identityHashCode(classLoader);
+        }
+
+        private AspectJExpressionPointcut createPointcut() {
+            AspectJExpressionPointcut pointcut =
+                    new AspectJExpressionPointcut(this.declarationScope, this.parameterNames, this.parameterTypes);
+            pointcut.setExpression(this.expression);
+            BeanFactory beanFactory = getBeanFactory();
+            if (beanFactory != null) {
+                pointcut.setBeanFactory(beanFactory);
+            }
+            return pointcut;
+        }
+
+        @Nullable
+        private BeanFactory getBeanFactory() {
+            return (this.beanFactory != null ? this.beanFactory.get() : null);
+        }
+
+        @Nullable
+        private ClassLoader getClassLoader() {
+            return (this.classLoader != null ? this.classLoader.get() : null);
+        }
+
+        /**
+         * 跨进程稳定的标识，不包含类加载器与 BeanFactory。
+         * <p>
+         * 表达式的文本相同，匹配结果仍可能随声明作用域中的命名切点、表达式引用的命名切点类与类型、参数绑定的类型而变化，
+         * 因此标识中还包含这些类的继承层次摘要。表达式中的限定名按原样或相对声明作用域的包解析，无法加载的名称视为通配模式而忽略。
+         *
+         * @return 标识，相关的类读取不到类文件时返回null
+         */
+        @Nullable
+        String getPersistentId() {
+            StringBuilder builder = new StringBuilder(this.expression);
+            builder.append('|').append(this.declarationScope != null ? this.declarationScope.getName() : "");
+            builder.append('|').append(String.join(",", this.parameterNames));
+            builder.append('|');
+            for (Class<?> parameterType : this.parameterTypes) {
+                builder.append(parameterType.getName()).append(',');
+            }
+            Set<Class<?>> relatedClasses = new LinkedHashSet<>();
+            if (this.declarationScope != null) {
+                relatedClasses.add(this.declarationScope);
+            }
+            relatedClasses.addAll(resolveReferencedClasses());
+            Collections.addAll(relatedClasses, this.parameterTypes);
+            for (Class<?> relatedClass : relatedClasses) {
+                String digest = ShadowMatchStore.hierarchyDigest(relatedClass);
+                if (digest == null) {
+                    return null;
+                }
+                builder.append('|').append(relatedClass.getName()).append('=').append(digest);
+            }
+            return builder.toString();
+        }
+
+        /**
+         * 解析表达式中以限定名引用的类，例如命名切点所在的类、类型模式与注解类型。
+         * 对每个限定名从长到短尝试加载，{@code com.xcs.Pointcuts.web} 因此解析为 {@code com.xcs.Pointcuts}。
+         */
+        private Set<Class<?>> resolveReferencedClasses() {
+            Set<Class<?>> referencedClasses = new LinkedHashSet<>();
+            String scopePackage = (this.declarationScope != null ? ClassUtils.getPackageName(this.declarationScope) : "");
+            Matcher matcher = QUALIFIED_NAME.matcher(this.expression);
+            while (matcher.find()) {
+                String name = matcher.group();
+                while (name.indexOf('.') > 0) {
+                    Class<?> referencedClass = loadClass(name);
+                    if (referencedClass == null && !scopePackage.isEmpty()) {
+                        referencedClass = loadClass(scopePackage + '.' + name);
+                    }
+                    if (referencedClass != null) {
+                        referencedClasses.add(referencedClass);
+                        break;
+                    }
+                    name = name.substring(0, name.lastIndexOf('.'));
+                }
+            }
+            return referencedClasses;
+        }
+
+        @Nullable
+        private Class<?> loadClass(String name) {
+            try {
+                return ClassUtils.forName(name, getClassLoader());
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ExpressionKey)) {
+                return false;
+            }
+            ExpressionKey otherKey = (ExpressionKey) other;
+            return (this.expression.equals(otherKey.expression) &&
+                    this.declarationScope == otherKey.declarationScope &&
+                    Arrays.equals(this.parameterNames, otherKey.parameterNames) &&
+                    Arrays.equals(this.parameterTypes, otherKey.parameterTypes) &&
+                    sameReferent(this.beanFactory, otherKey.beanFactory) &&
+                    sameReferent(this.classLoader, otherKey.classLoader));
+        }
+
+        private static boolean sameReferent(@Nullable WeakReference<?> reference, @Nullable WeakReference<?> other) {
+            if (reference == null || other == null) {
+                return (reference == other);
+            }
+            Object referent = reference.get();
+            return (referent != null && referent == other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}
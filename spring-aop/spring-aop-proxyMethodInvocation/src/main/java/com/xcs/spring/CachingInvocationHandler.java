@@ -0,0 +1,155 @@
+package com.xcs.spring;
+
+import org.aopalliance.aop.Advice;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.adapter.AdvisorAdapterRegistry;
+import org.springframework.aop.framework.adapter.GlobalAdvisorAdapterRegistry;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 缓存拦截器链与方法句柄的 InvocationHandler 实现类，作为 {@link MyInvocationHandler} 的高性能版本。
+ * <ul>
+ *     <li>每个 {@link Method} 的拦截器链只在第一次调用时根据 Advisor 解析一次；</li>
+ *     <li>目标方法通过绑定到目标对象的 {@link MethodHandle} 调用，而不是反射；</li>
+ *     <li>方法调用对象按线程回收复用，非嵌套调用不再分配新对象。</li>
+ * </ul>
+ */
+class CachingInvocationHandler implements InvocationHandler {
+
+    // 目标对象
+    private final Object target;
+
+    // 应用到目标对象的 Advisor
+    private final Advisor[] advisors;
+
+    // 将 Advice 适配为 MethodInterceptor 的注册表
+    private final AdvisorAdapterRegistry registry = GlobalAdvisorAdapterRegistry.getInstance();
+
+    // 每个方法的调用分派信息
+    private final ConcurrentMap<Method, MethodDispatch> dispatchCache = new ConcurrentHashMap<>();
+
+    // 每个线程缓存一个空闲的调用对象，嵌套调用时才会额外分配
+    private final ThreadLocal<RecyclableMethodInvocation> freeInvocation = ThreadLocal.withInitial(RecyclableMethodInvocation::new);
+
+    /**
+     * 构造方法，使用一组对所有方法生效的 Advice。
+     * @param target 目标对象
+     * @param advices 拦截器或其它可被适配的 Advice
+     */
+    public CachingInvocationHandler(Object target, Advice... advices) {
+        this(target, toAdvisors(advices));
+    }
+
+    /**
+     * 构造方法，使用一组 Advisor，其切点决定拦截器链对哪些方法生效。
+     * @param target 目标对象
+     * @param advisors Advisor 列表
+     */
+    public CachingInvocationHandler(Object target, Advisor[] advisors) {
+        this.target = target;
+        this.advisors = advisors.clone();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDispatch dispatch = this.dispatchCache.get(method);
+        if (dispatch == null) {
+            dispatch = this.dispatchCache.computeIfAbsent(method, this::resolveDispatch);
+        }
+        // 没有拦截器时直接调用目标方法
+        if (dispatch.interceptors.length == 0) {
+            return dispatch.invoker.invokeExact(args != null ? args : MethodDispatch.EMPTY_ARGUMENTS);
+        }
+
+        RecyclableMethodInvocation invocation = this.freeInvocation.get();
+        // 调用对象正在被外层调用使用时（嵌套调用），分配一个新的
+        boolean recyclable = (invocation.getMethod() == null);
+        if (!recyclable) {
+            invocation = new RecyclableMethodInvocation();
+        }
+        try {
+            return invocation.bind(proxy, this.target, method, args, dispatch).proceed();
+        } finally {
+            if (recyclable) {
+                invocation.clear();
+            }
+        }
+    }
+
+    /**
+     * 解析方法的拦截器链并创建目标方法句柄。
+     * @param method 被调用的方法
+     * @return 调用分派信息
+     */
+    private MethodDispatch resolveDispatch(Method method) {
+        Class<?> targetClass = this.target.getClass();
+        List<MethodInterceptor> interceptors = new ArrayList<>();
+        List<MethodMatcher> runtimeMatchers = new ArrayList<>();
+        boolean hasRuntimeMatcher = false;
+        for (Advisor advisor : this.advisors) {
+            MethodMatcher methodMatcher = null;
+            if (advisor instanceof PointcutAdvisor) {
+                PointcutAdvisor pointcutAdvisor = (PointcutAdvisor) advisor;
+                if (!pointcutAdvisor.getPointcut().getClassFilter().matches(targetClass)) {
+                    continue;
+                }
+                methodMatcher = pointcutAdvisor.getPointcut().getMethodMatcher();
+                if (!methodMatcher.matches(method, targetClass)) {
+                    continue;
+                }
+            }
+            boolean runtime = (methodMatcher != null && methodMatcher.isRuntime());
+            hasRuntimeMatcher |= runtime;
+            for (MethodInterceptor interceptor : this.registry.getInterceptors(advisor)) {
+                interceptors.add(interceptor);
+                runtimeMatchers.add(runtime ? methodMatcher : null);
+            }
+        }
+        return new MethodDispatch(
+                interceptors.toArray(new MethodInterceptor[0]),
+                hasRuntimeMatcher ? runtimeMatchers.toArray(new MethodMatcher[0]) : null,
+                createInvoker(method));
+    }
+
+    /**
+     * 创建绑定到目标对象的方法句柄，并适配为统一的 {@code (Object[])Object} 签名。
+     * @param method 被调用的方法
+     * @return 方法句柄
+     */
+    private MethodHandle createInvoker(Method method) {
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                ReflectionUtils.makeAccessible(method);
+            }
+            return MethodHandles.lookup().unreflect(method)
+                    .bindTo(this.target)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Could not create method handle for " + method, ex);
+        }
+    }
+
+    private static Advisor[] toAdvisors(Advice... advices) {
+        Advisor[] advisors = new Advisor[advices.length];
+        for (int i = 0; i < advices.length; i++) {
+            advisors[i] = new DefaultPointcutAdvisor(advices[i]);
+        }
+        return advisors;
+    }
+}
@@ -0,0 +1,100 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比每次调用都创建 {@link MyReflectiveMethodInvocation} 的调用处理器与 {@link CachingInvocationHandler}
+ * 的单次调用耗时与内存分配。运行 main 方法时会启用 GC 分析器，结果中的 {@code gc.alloc.rate.norm} 即每次调用分配的字节数。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvocationHandlerBenchmark {
+
+    private Calculator reflectiveProxy;
+
+    private Calculator cachingProxy;
+
+    private int value;
+
+    @Setup
+    public void setup() {
+        Calculator target = new CalculatorImpl();
+        ClassLoader classLoader = Calculator.class.getClassLoader();
+        Class<?>[] interfaces = {Calculator.class};
+        this.reflectiveProxy = (Calculator) Proxy.newProxyInstance(classLoader, interfaces, new ReflectiveInvocationHandler(target));
+        this.cachingProxy = (Calculator) Proxy.newProxyInstance(classLoader, interfaces, new CachingInvocationHandler(target, new PassThroughInterceptor()));
+    }
+
+    @Benchmark
+    public int reflectiveInvocation() {
+        return this.reflectiveProxy.add(this.value, 1);
+    }
+
+    @Benchmark
+    public int cachingInvocation() {
+        return this.cachingProxy.add(this.value, 1);
+    }
+
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    public static class CalculatorImpl implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    /**
+     * 不输出日志的拦截器，避免输出耗时掩盖调用机制本身的开销。
+     */
+    public static class PassThroughInterceptor implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+    /**
+     * 与 {@link MyInvocationHandler} 相同的调用方式：每次调用都创建拦截器列表和方法调用对象。
+     */
+    static class ReflectiveInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+
+        ReflectiveInvocationHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MyReflectiveMethodInvocation invocation = new MyReflectiveMethodInvocation(proxy, target, method, args, target.getClass(), List.of(new PassThroughInterceptor()));
+            return invocation.proceed();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(InvocationHandlerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
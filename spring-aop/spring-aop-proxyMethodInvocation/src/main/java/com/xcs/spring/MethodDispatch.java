@@ -0,0 +1,38 @@
+package com.xcs.spring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.MethodMatcher;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * 单个方法的调用分派信息，在方法第一次被调用时解析并缓存，之后每次调用直接复用。
+ */
+final class MethodDispatch {
+
+    /**
+     * 空参数数组，避免无参方法每次调用时分配
+     */
+    static final Object[] EMPTY_ARGUMENTS = new Object[0];
+
+    /**
+     * 该方法匹配到的拦截器链
+     */
+    final MethodInterceptor[] interceptors;
+
+    /**
+     * 与拦截器一一对应的运行时方法匹配器，静态匹配的位置为null；整条链都是静态匹配时该数组为null
+     */
+    final MethodMatcher[] runtimeMatchers;
+
+    /**
+     * 绑定到目标对象的方法句柄，签名统一适配为 {@code (Object[])Object}
+     */
+    final MethodHandle invoker;
+
+    MethodDispatch(MethodInterceptor[] interceptors, MethodMatcher[] runtimeMatchers, MethodHandle invoker) {
+        this.interceptors = interceptors;
+        this.runtimeMatchers = runtimeMatchers;
+        this.invoker = invoker;
+    }
+}
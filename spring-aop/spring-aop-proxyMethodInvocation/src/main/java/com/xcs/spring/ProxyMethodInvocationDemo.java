@@ -13,5 +13,11 @@ public class ProxyMethodInvocationDemo {
         MyService proxyObject = (MyService) Proxy.newProxyInstance(clz.getClassLoader(), clz.getInterfaces(), new MyInvocationHandler(target));
         // 通过代理对象调用方法，实际上会调用 MyInvocationHandler 中的 invoke 方法
         proxyObject.foo();
+
+        // 使用缓存拦截器链与方法句柄的调用处理器创建代理对象
+        MyService cachingProxyObject = (MyService) Proxy.newProxyInstance(clz.getClassLoader(), clz.getInterfaces(), new CachingInvocationHandler(target, new MyMethodInterceptor()));
+        // 多次调用时拦截器链只解析一次，方法调用对象被复用
+        cachingProxyObject.foo();
+        cachingProxyObject.foo();
     }
 }
@@ -0,0 +1,156 @@
+package com.xcs.spring;
+
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.ProxyMethodInvocation;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 可复用的方法调用对象，由 {@link CachingInvocationHandler} 按线程回收复用，避免每次代理调用都创建新对象。
+ * <p>
+ * 与 {@link org.springframework.aop.framework.ReflectiveMethodInvocation} 不同，拦截器链和目标方法句柄来自缓存的
+ * {@link MethodDispatch}，到达链尾时通过 {@link java.lang.invoke.MethodHandle} 调用目标方法。
+ * 调用结束后该对象会被重置并交给下一次调用使用，因此拦截器如需在调用结束后继续持有调用对象，必须使用 {@link #invocableClone()}。
+ */
+public class RecyclableMethodInvocation implements ProxyMethodInvocation {
+
+    private Object proxy;
+
+    private Object target;
+
+    private Method method;
+
+    private Object[] arguments;
+
+    private MethodDispatch dispatch;
+
+    private int currentInterceptorIndex = -1;
+
+    private Map<String, Object> userAttributes;
+
+    /**
+     * 绑定一次新的调用。
+     *
+     * @param proxy     代理对象
+     * @param target    目标对象
+     * @param method    被调用的方法
+     * @param arguments 方法参数
+     * @param dispatch  方法的调用分派信息
+     * @return 当前调用对象
+     */
+    RecyclableMethodInvocation bind(Object proxy, Object target, Method method, Object[] arguments, MethodDispatch dispatch) {
+        this.proxy = proxy;
+        this.target = target;
+        this.method = method;
+        this.arguments = (arguments != null ? arguments : MethodDispatch.EMPTY_ARGUMENTS);
+        this.dispatch = dispatch;
+        this.currentInterceptorIndex = -1;
+        return this;
+    }
+
+    /**
+     * 清除本次调用的状态，防止回收后仍引用参数和目标对象。
+     */
+    void clear() {
+        this.proxy = null;
+        this.target = null;
+        this.method = null;
+        this.arguments = null;
+        this.dispatch = null;
+        this.userAttributes = null;
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        MethodDispatch dispatch = this.dispatch;
+        while (++this.currentInterceptorIndex < dispatch.interceptors.length) {
+            MethodMatcher runtimeMatcher = (dispatch.runtimeMatchers != null ? dispatch.runtimeMatchers[this.currentInterceptorIndex] : null);
+            // 运行时匹配失败则跳过该拦截器
+            if (runtimeMatcher == null || runtimeMatcher.matches(this.method, this.target.getClass(), this.arguments)) {
+                return dispatch.interceptors[this.currentInterceptorIndex].invoke(this);
+            }
+        }
+        return dispatch.invoker.invokeExact(this.arguments);
+    }
+
+    @Override
+    public Object getProxy() {
+        return this.proxy;
+    }
+
+    @Override
+    public Object getThis() {
+        return this.target;
+    }
+
+    @Override
+    public Method getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public AccessibleObject getStaticPart() {
+        return this.method;
+    }
+
+    @Override
+    public Object[] getArguments() {
+        return this.arguments;
+    }
+
+    @Override
+    public void setArguments(Object... arguments) {
+        this.arguments = arguments;
+    }
+
+    /**
+     * 创建一个不参与回收的副本，可以在调用结束后安全地持有或再次执行。
+     *
+     * @return 调用对象副本
+     */
+    @Override
+    public RecyclableMethodInvocation invocableClone() {
+        Object[] cloneArguments = this.arguments;
+        if (this.arguments.length > 0) {
+            cloneArguments = this.arguments.clone();
+        }
+        return invocableClone(cloneArguments);
+    }
+
+    @Override
+    public RecyclableMethodInvocation invocableClone(Object... arguments) {
+        RecyclableMethodInvocation clone = new RecyclableMethodInvocation();
+        clone.bind(this.proxy, this.target, this.method, arguments, this.dispatch);
+        clone.currentInterceptorIndex = this.currentInterceptorIndex;
+        if (this.userAttributes != null) {
+            clone.userAttributes = new HashMap<>(this.userAttributes);
+        }
+        return clone;
+    }
+
+    @Override
+    public void setUserAttribute(String key, Object value) {
+        if (value != null) {
+            if (this.userAttributes == null) {
+                this.userAttributes = new HashMap<>();
+            }
+            this.userAttributes.put(key, value);
+        } else if (this.userAttributes != null) {
+            this.userAttributes.remove(key);
+        }
+    }
+
+    @Override
+    public Object getUserAttribute(String key) {
+        return (this.userAttributes != null ? this.userAttributes.get(key) : null);
+    }
+
+    @Override
+    public String toString() {
+        return "RecyclableMethodInvocation: " + this.method + "; target is of class [" +
+                (this.target != null ? this.target.getClass().getName() : "null") + "]";
+    }
+}
@@ -0,0 +1,273 @@
+package com.xcs.spring;
+
+import org.springframework.aop.TargetSource;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 支持租约的目标源装饰器，包装一个池化目标源。
+ * <p>
+ * 默认情况下每次方法调用都会执行一次 {@code getTarget()}/{@code releaseTarget()}。
+ * 当调用线程通过 {@link #openLease()} 打开租约后，租约内第一次调用从池中借出目标对象并绑定到该线程，
+ * 后续调用复用同一个目标对象，直到租约被显式关闭或由作用域回调关闭时才归还到池中。
+ *
+ * @author xcs
+ * @date 2026年10月18日14:05:12
+ */
+public class LeaseScopedTargetSource implements TargetSource {
+
+    /**
+     * 被包装的池化目标源
+     */
+    private final TargetSource targetSource;
+
+    /**
+     * 当前线程持有的租约
+     */
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+
+    /**
+     * 构造函数，包装一个池化目标源。
+     *
+     * @param targetSource 被包装的池化目标源
+     */
+    public LeaseScopedTargetSource(TargetSource targetSource) {
+        Assert.notNull(targetSource, "TargetSource must not be null");
+        this.targetSource = targetSource;
+    }
+
+    /**
+     * 为当前线程打开租约。如果当前线程已持有租约，则复用该租约并增加嵌套层数，
+     * 只有最外层的租约关闭时目标对象才会被归还。
+     *
+     * @return 当前线程的租约
+     */
+    public Lease openLease() {
+        Lease lease = this.currentLease.get();
+        if (lease != null && !lease.isClosed()) {
+            lease.depth++;
+            return lease;
+        }
+        lease = new Lease();
+        this.currentLease.set(lease);
+        return lease;
+    }
+
+    /**
+     * 在租约内执行一个工作单元，执行结束后自动关闭租约。
+     *
+     * @param work 工作单元
+     * @param <V>  返回值类型
+     * @return 工作单元的返回值
+     * @throws Exception 如果工作单元执行失败
+     */
+    public <V> V callInLease(Callable<V> work) throws Exception {
+        try (Lease ignored = openLease()) {
+            return work.call();
+        }
+    }
+
+    @Override
+    public Class<?> getTargetClass() {
+        return this.targetSource.getTargetClass();
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * 获取目标对象。当前线程持有租约时，只在第一次调用时从池中借出目标对象。
+     *
+     * @return 目标对象
+     * @throws Exception 如果从池中获取目标对象失败
+     */
+    @Override
+    public Object getTarget() throws Exception {
+        Lease lease = this.currentLease.get();
+        if (lease == null) {
+            return this.targetSource.getTarget();
+        }
+        Object target = lease.enter();
+        if (target == null) {
+            // 租约已被其他线程上的作用域回调关闭
+            if (lease.isReleased()) {
+                this.currentLease.remove();
+            }
+            return this.targetSource.getTarget();
+        }
+        return target;
+    }
+
+    /**
+     * 释放目标对象。租约持有的目标对象在租约关闭前不会归还到池中；
+     * 租约在调用过程中被作用域回调关闭时，由最后一个结束的调用归还目标对象。
+     *
+     * @param target 待释放的目标对象
+     * @throws Exception 如果归还目标对象失败
+     */
+    @Override
+    public void releaseTarget(Object target) throws Exception {
+        Lease lease = this.currentLease.get();
+        if (lease != null && lease.target == target) {
+            lease.exit();
+            if (lease.isReleased()) {
+                this.currentLease.remove();
+            }
+            return;
+        }
+        this.targetSource.releaseTarget(target);
+    }
+
+    /**
+     * 目标对象租约。既可以通过 try-with-resources 显式关闭，
+     * 也可以作为 {@link Runnable} 注册为作用域的销毁回调（例如请求作用域或事务完成回调）。
+     * <p>
+     * 租约的状态保存在一个原子整数中：最低位表示已关闭，其余位是正在使用目标对象的调用数，{@link #RELEASED} 表示目标对象已归还。
+     * 所有状态变化都通过 CAS 完成，目标对象只会被归还一次：关闭时没有正在进行的调用则立即归还，
+     * 否则由最后一个结束的调用归还，其他线程上的回调不会在调用过程中把目标对象交还给池。
+     */
+    public final class Lease implements AutoCloseable, Runnable {
+
+        private static final int CLOSED = 1;
+
+        private static final int CALL = 2;
+
+        private static final int RELEASED = -1;
+
+        private final AtomicInteger state = new AtomicInteger();
+
+        /**
+         * 租约绑定的目标对象，在租约内第一次调用时借出
+         */
+        private volatile Object target;
+
+        /**
+         * 嵌套层数，只由持有租约的线程修改
+         */
+        private int depth = 1;
+
+        private Lease() {
+        }
+
+        /**
+         * 开始一次调用，必要时借出目标对象。
+         *
+         * @return 租约绑定的目标对象，租约已关闭时返回 {@code null}
+         * @throws Exception 如果从池中获取目标对象失败
+         */
+        private Object enter() throws Exception {
+            int current;
+            do {
+                current = this.state.get();
+                if (current == RELEASED || (current & CLOSED) != 0) {
+                    return null;
+                }
+            } while (!this.state.compareAndSet(current, current + CALL));
+            Object leased = this.target;
+            if (leased == null) {
+                try {
+                    leased = targetSource.getTarget();
+                } catch (Exception ex) {
+                    exit();
+                    throw ex;
+                }
+                this.target = leased;
+            }
+            return leased;
+        }
+
+        /**
+         * 结束一次调用，租约已关闭且这是最后一个调用时归还目标对象。
+         *
+         * @throws Exception 如果归还目标对象失败
+         */
+        private void exit() throws Exception {
+            int current;
+            int next;
+            do {
+                current = this.state.get();
+                next = current - CALL;
+                if (next == CLOSED) {
+                    next = RELEASED;
+                }
+            } while (!this.state.compareAndSet(current, next));
+            if (next == RELEASED) {
+                releaseLeasedTarget();
+            }
+        }
+
+        /**
+         * 关闭租约，最外层关闭时将目标对象归还到池中。
+         *
+         * @throws Exception 如果归还目标对象失败
+         */
+        @Override
+        public void close() throws Exception {
+            if (isClosed() || --this.depth > 0) {
+                return;
+            }
+            if (currentLease.get() == this) {
+                currentLease.remove();
+            }
+            closeLease();
+        }
+
+        /**
+         * 作为作用域销毁回调时调用，无论嵌套层数如何都关闭租约，可以在任意线程上执行。
+         */
+        @Override
+        public void run() {
+            try {
+                closeLease();
+            } catch (Exception ex) {
+                throw new IllegalStateException("关闭目标对象租约失败", ex);
+            }
+        }
+
+        private void closeLease() throws Exception {
+            int current;
+            int next;
+            do {
+                current = this.state.get();
+                if (current == RELEASED || (current & CLOSED) != 0) {
+                    return;
+                }
+                next = (current == 0 ? RELEASED : current | CLOSED);
+            } while (!this.state.compareAndSet(current, next));
+            if (next == RELEASED) {
+                releaseLeasedTarget();
+            }
+        }
+
+        private void releaseLeasedTarget() throws Exception {
+            Object leased = this.target;
+            this.target = null;
+            if (leased != null) {
+                targetSource.releaseTarget(leased);
+            }
+        }
+
+        /**
+         * 判断租约是否已经关闭。
+         *
+         * @return 已关闭返回true
+         */
+        public boolean isClosed() {
+            int current = this.state.get();
+            return (current == RELEASED || (current & CLOSED) != 0);
+        }
+
+        /**
+         * 判断目标对象是否已经归还。
+         *
+         * @return 已归还返回true
+         */
+        boolean isReleased() {
+            return this.state.get() == RELEASED;
+        }
+    }
+}
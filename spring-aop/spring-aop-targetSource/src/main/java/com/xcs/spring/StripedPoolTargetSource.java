@@ -0,0 +1,199 @@
+package com.xcs.spring;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.TargetSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * 基于无锁对象袋 {@link ConcurrentBag} 的池化目标源。
+ * <p>
+ * 与 {@link ConnectionPoolTargetSource} 使用单个 {@link java.util.concurrent.ArrayBlockingQueue} 不同，
+ * 该目标源获取与释放目标对象时不竞争同一把锁，并且支持获取超时与泄漏检测。
+ *
+ * @author xcs
+ * @date 2026年10月18日10:12:36
+ */
+public class StripedPoolTargetSource implements TargetSource, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(StripedPoolTargetSource.class);
+
+    /**
+     * 目标对象的类型
+     */
+    private final Class<?> targetClass;
+
+    /**
+     * 存放池化目标对象的对象袋
+     */
+    private final ConcurrentBag<Object> bag;
+
+    /**
+     * 获取目标对象的超时时间（毫秒）
+     */
+    private long acquireTimeout = 30_000;
+
+    /**
+     * 泄漏检测阈值（毫秒），目标对象被借出超过该时长即视为可能泄漏，0表示关闭泄漏检测
+     */
+    private long leakDetectionThreshold = 0;
+
+    /**
+     * 执行泄漏检测的调度器，仅在开启泄漏检测时创建
+     */
+    private ScheduledExecutorService leakDetector;
+
+    /**
+     * 构造函数，初始化连接池。
+     *
+     * @param targetClass   目标对象的类型
+     * @param poolSize      池大小
+     * @param targetFactory 根据序号创建目标对象的工厂
+     */
+    public StripedPoolTargetSource(Class<?> targetClass, int poolSize, IntFunction<?> targetFactory) {
+        Assert.notNull(targetClass, "Target class must not be null");
+        Assert.isTrue(poolSize > 0, "Pool size must be greater than 0");
+        this.targetClass = targetClass;
+        Object[] targets = new Object[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            targets[i] = targetFactory.apply(i);
+        }
+        this.bag = new ConcurrentBag<>(targets);
+    }
+
+    /**
+     * 设置获取目标对象的超时时间。
+     *
+     * @param acquireTimeout 超时时间（毫秒）
+     */
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    /**
+     * 设置泄漏检测阈值，大于0时开启泄漏检测。
+     *
+     * @param leakDetectionThreshold 泄漏检测阈值（毫秒）
+     */
+    public synchronized void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+        if (leakDetectionThreshold > 0 && this.leakDetector == null) {
+            this.leakDetector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "striped-pool-leak-detector");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(leakDetectionThreshold / 2, 1);
+            this.leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetClass() {
+        return this.targetClass;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return false;
+    }
+
+    /**
+     * 获取目标对象，超时未获取到时抛出异常，而不是无限期阻塞。
+     *
+     * @return 目标对象
+     * @throws Exception 如果获取超时或等待时线程被中断
+     */
+    @Override
+    public Object getTarget() throws Exception {
+        ConcurrentBag.BagEntry<Object> entry = this.bag.borrow(this.acquireTimeout, TimeUnit.MILLISECONDS);
+        if (entry == null) {
+            throw new AopInvocationException("获取目标对象超时，等待 " + this.acquireTimeout + " 毫秒后池中仍无可用对象，" +
+                    "池大小：" + this.bag.size() + "，等待线程数：" + this.bag.getWaitingThreadCount());
+        }
+        if (this.leakDetectionThreshold > 0) {
+            entry.borrowedAt = System.nanoTime();
+            entry.borrowTrace = new Exception("目标对象借出位置，线程：" + Thread.currentThread().getName());
+            entry.leakReported = false;
+        }
+        return entry.getItem();
+    }
+
+    /**
+     * 释放目标对象，将其归还到对象袋中。
+     *
+     * @param target 待释放的目标对象
+     * @throws IllegalArgumentException 如果对象不属于该池
+     * @throws IllegalStateException    如果对象当前未被借出，例如被重复释放
+     */
+    @Override
+    public void releaseTarget(Object target) {
+        ConcurrentBag.BagEntry<Object> entry = this.bag.find(target);
+        if (entry == null) {
+            throw new IllegalArgumentException("释放的对象不属于该池：" + target);
+        }
+        if (entry.getState() != ConcurrentBag.STATE_IN_USE) {
+            throw new IllegalStateException("释放的对象当前未被借出，可能被重复释放：" + target);
+        }
+        entry.borrowTrace = null;
+        this.bag.requite(entry);
+    }
+
+    /**
+     * 检查被借出时间超过阈值的目标对象，并输出借出位置。
+     */
+    private void detectLeaks() {
+        long now = System.nanoTime();
+        long threshold = TimeUnit.MILLISECONDS.toNanos(this.leakDetectionThreshold);
+        this.bag.forEach(entry -> {
+            Throwable trace = entry.borrowTrace;
+            if (trace != null && !entry.leakReported && entry.getState() == ConcurrentBag.STATE_IN_USE
+                    && now - entry.borrowedAt > threshold) {
+                entry.leakReported = true;
+                logger.warn("检测到可能的目标对象泄漏：" + entry.getItem() + " 已被借出超过 " + this.leakDetectionThreshold + " 毫秒", trace);
+            }
+        });
+    }
+
+    /**
+     * 获取当前被借出的目标对象数量。
+     *
+     * @return 借出数量
+     */
+    public int getActiveCount() {
+        int[] count = new int[1];
+        this.bag.forEach(entry -> {
+            if (entry.getState() == ConcurrentBag.STATE_IN_USE) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * 获取正在等待目标对象的线程数。
+     *
+     * @return 等待线程数
+     */
+    public int getWaitingThreadCount() {
+        return this.bag.getWaitingThreadCount();
+    }
+
+    /**
+     * 关闭泄漏检测调度器。
+     */
+    @Override
+    public synchronized void destroy() {
+        if (this.leakDetector != null) {
+            this.leakDetector.shutdownNow();
+            this.leakDetector = null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.xcs.spring;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 {@link ConnectionPoolTargetSource}（单个阻塞队列）与 {@link StripedPoolTargetSource}（无锁对象袋）
+ * 在高并发下通过代理调用目标方法的吞吐量。
+ *
+ * @author xcs
+ * @date 2026年10月18日10:12:36
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetSourceBenchmark {
+
+    /**
+     * 池大小
+     */
+    @Param({"8"})
+    public int poolSize;
+
+    private MyConnection queueProxy;
+
+    private MyConnection bagProxy;
+
+    private StripedPoolTargetSource stripedPoolTargetSource;
+
+    @Setup
+    public void setup() {
+        ProxyFactory queueProxyFactory = new ProxyFactory();
+        queueProxyFactory.setTargetSource(new ConnectionPoolTargetSource(this.poolSize));
+        this.queueProxy = (MyConnection) queueProxyFactory.getProxy();
+
+        this.stripedPoolTargetSource = new StripedPoolTargetSource(MyConnection.class, this.poolSize, i -> new MyConnection("Connection" + i));
+        ProxyFactory bagProxyFactory = new ProxyFactory();
+        bagProxyFactory.setTargetSource(this.stripedPoolTargetSource);
+        this.bagProxy = (MyConnection) bagProxyFactory.getProxy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.stripedPoolTargetSource.destroy();
+    }
+
+    @Benchmark
+    public String arrayBlockingQueue() {
+        return this.queueProxy.getName();
+    }
+
+    @Benchmark
+    public String concurrentBag() {
+        return this.bagProxy.getName();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // 默认使用64个线程，模拟高并发请求线程争用连接池
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        Options options = new OptionsBuilder()
+                .include(TargetSourceBenchmark.class.getSimpleName())
+                .threads(threads)
+                .build();
+        new Runner(options).run();
+    }
+}
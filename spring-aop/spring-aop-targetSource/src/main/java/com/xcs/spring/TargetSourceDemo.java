@@ -4,7 +4,7 @@ import org.springframework.aop.framework.ProxyFactory;
 
 public class TargetSourceDemo {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         // 创建代理工厂
         ProxyFactory proxyFactory = new ProxyFactory();
         // 设置目标源为连接池目标源，连接池大小为3
@@ -16,5 +16,22 @@ public class TargetSourceDemo {
         for (int i = 0; i < 10; i++) {
             System.out.println("MyConnection Name = " + proxy.getName());
         }
+
+        // 换行
+        System.out.println("==================================");
+
+        // 使用租约目标源包装无锁连接池目标源
+        LeaseScopedTargetSource leaseScopedTargetSource = new LeaseScopedTargetSource(
+                new StripedPoolTargetSource(MyConnection.class, 3, i -> new MyConnection("Connection" + i)));
+        ProxyFactory leaseProxyFactory = new ProxyFactory();
+        leaseProxyFactory.setTargetSource(leaseScopedTargetSource);
+        MyConnection leaseProxy = (MyConnection) leaseProxyFactory.getProxy();
+
+        // 在租约内调用10次方法，只从连接池中借出一次连接
+        try (LeaseScopedTargetSource.Lease ignored = leaseScopedTargetSource.openLease()) {
+            for (int i = 0; i < 10; i++) {
+                System.out.println("Leased MyConnection Name = " + leaseProxy.getName());
+            }
+        }
     }
 }
@@ -0,0 +1,359 @@
+package com.xcs.spring;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 无锁的并发对象袋，用于替代 {@link java.util.concurrent.ArrayBlockingQueue} 作为池化目标对象的容器。
+ * <p>
+ * 获取对象时依次尝试三条路径：
+ * <ol>
+ *     <li>线程本地快速路径：优先尝试当前线程上一次使用过的对象；</li>
+ *     <li>分段共享槽：从随机槽位开始扫描，通过 CAS 抢占空闲对象，使并发线程分散在不同槽位上，降低冲突；</li>
+ *     <li>等待队列：所有对象都被占用时登记为等待者并限时挂起，归还线程唤醒等待者后由其通过 CAS 抢占对象。</li>
+ * </ol>
+ * 整个获取与归还过程不持有任何全局锁。对象袋可以在创建时固定容量，也可以通过 {@link #add} 与 {@link #remove} 伸缩，
+ * 只有伸缩时才会复制槽位数组，读取方始终看到一个不可变的快照。
+ *
+ * @param <T> 池化对象的类型
+ * @author xcs
+ * @date 2026年10月18日10:12:36
+ */
+public class ConcurrentBag<T> {
+
+    /**
+     * 对象空闲
+     */
+    static final int STATE_NOT_IN_USE = 0;
+
+    /**
+     * 对象已被借出
+     */
+    static final int STATE_IN_USE = 1;
+
+    /**
+     * 对象已被移出对象袋
+     */
+    static final int STATE_REMOVED = -1;
+
+    /**
+     * 共享槽快照，扩容与缩容时整体替换
+     */
+    private volatile BagEntry<T>[] slots;
+
+    /**
+     * 当前线程最近一次借出的对象，既用于下一次获取的快速路径，也用于归还时快速定位条目
+     */
+    private final ThreadLocal<BagEntry<T>> lastEntry = new ThreadLocal<>();
+
+    /**
+     * 等待对象的线程队列，归还对象时从队首唤醒
+     */
+    private final Queue<Thread> waitQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 正在等待对象的线程数
+     */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /**
+     * 构造函数，创建一个空的对象袋。
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentBag() {
+        this.slots = new BagEntry[0];
+    }
+
+    /**
+     * 构造函数，初始化对象袋。
+     *
+     * @param items 需要放入对象袋中的对象
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentBag(T[] items) {
+        BagEntry<T>[] entries = new BagEntry[items.length];
+        for (int i = 0; i < items.length; i++) {
+            entries[i] = new BagEntry<>(items[i], STATE_NOT_IN_USE);
+        }
+        this.slots = entries;
+    }
+
+    /**
+     * 借出一个对象，在超时时间内没有可用对象时返回null。
+     *
+     * @param timeout 最长等待时间
+     * @param unit    时间单位
+     * @return 借出的对象条目，超时则返回null
+     * @throws InterruptedException 如果等待过程中线程被中断
+     */
+    public BagEntry<T> borrow(long timeout, TimeUnit unit) throws InterruptedException {
+        // 线程本地快速路径
+        BagEntry<T> entry = this.lastEntry.get();
+        if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+            return entry;
+        }
+
+        // 扫描共享槽
+        entry = scan();
+        if (entry != null || timeout <= 0) {
+            return entry;
+        }
+
+        // 先登记为等待者再重新扫描，保证与归还线程之间不会丢失唤醒
+        Thread current = Thread.currentThread();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.waiters.incrementAndGet();
+        this.waitQueue.offer(current);
+        boolean acquired = false;
+        try {
+            for (;;) {
+                entry = scan();
+                if (entry != null) {
+                    acquired = true;
+                    return entry;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                // 被归还线程唤醒时已经出队，再次等待前需要重新登记
+                if (!this.waitQueue.contains(current)) {
+                    this.waitQueue.offer(current);
+                }
+            }
+        } finally {
+            this.waiters.decrementAndGet();
+            // 已被出队说明消费了一次唤醒信号，如果该信号对应的对象仍然空闲，则传递给下一个等待者，避免信号丢失
+            if (!this.waitQueue.remove(current) && (!acquired || hasIdle())) {
+                signalNext();
+            }
+        }
+    }
+
+    /**
+     * 从随机槽位开始扫描共享槽，通过 CAS 抢占空闲对象，避免所有线程争抢同一个槽位。
+     *
+     * @return 抢占到的对象条目，没有空闲对象时返回null
+     */
+    private BagEntry<T> scan() {
+        BagEntry<T>[] snapshot = this.slots;
+        int length = snapshot.length;
+        if (length == 0) {
+            return null;
+        }
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            BagEntry<T> candidate = snapshot[(start + i) % length];
+            if (candidate.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                this.lastEntry.set(candidate);
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 向对象袋中添加一个对象。
+     *
+     * @param item     新对象
+     * @param borrowed 是否直接借给当前线程
+     * @return 新对象对应的条目
+     */
+    public synchronized BagEntry<T> add(T item, boolean borrowed) {
+        BagEntry<T> entry = new BagEntry<>(item, borrowed ? STATE_IN_USE : STATE_NOT_IN_USE);
+        BagEntry<T>[] snapshot = Arrays.copyOf(this.slots, this.slots.length + 1);
+        snapshot[snapshot.length - 1] = entry;
+        this.slots = snapshot;
+        if (borrowed) {
+            this.lastEntry.set(entry);
+        } else {
+            signalNext();
+        }
+        return entry;
+    }
+
+    /**
+     * 尝试将一个空闲对象移出对象袋，对象已被借出时移除失败。
+     *
+     * @param entry 待移除的条目
+     * @return 移除成功返回true
+     */
+    public synchronized boolean remove(BagEntry<T> entry) {
+        if (!entry.compareAndSet(STATE_NOT_IN_USE, STATE_REMOVED)) {
+            return false;
+        }
+        BagEntry<T>[] snapshot = this.slots;
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] == entry) {
+                BagEntry<T>[] copy = Arrays.copyOf(snapshot, snapshot.length - 1);
+                System.arraycopy(snapshot, i + 1, copy, i, snapshot.length - i - 1);
+                this.slots = copy;
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根据对象查找条目，优先命中线程本地缓存，否则扫描共享槽。
+     *
+     * @param item 借出的对象
+     * @return 对象对应的条目，如果对象不属于该对象袋则返回null
+     */
+    public BagEntry<T> find(Object item) {
+        BagEntry<T> entry = this.lastEntry.get();
+        if (entry != null && entry.item == item) {
+            return entry;
+        }
+        for (BagEntry<T> candidate : this.slots) {
+            if (candidate.item == item) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 归还对象，记录归还时间，并唤醒一个等待者通过 CAS 抢占该对象。
+     * <p>
+     * 状态通过 CAS 从借出改为空闲，重复归还或归还未借出的对象会失败，避免同一个对象被两个调用方同时借出。
+     *
+     * @param entry 借出的对象条目
+     * @throws IllegalStateException 如果条目当前不处于借出状态
+     */
+    public void requite(BagEntry<T> entry) {
+        entry.lastReturnedAt = System.nanoTime();
+        if (!entry.compareAndSet(STATE_IN_USE, STATE_NOT_IN_USE)) {
+            throw new IllegalStateException("归还的对象当前未被借出，可能被重复归还：" + entry.item);
+        }
+        this.lastEntry.set(entry);
+        signalNext();
+    }
+
+    /**
+     * 判断是否存在空闲对象。
+     *
+     * @return 存在空闲对象时返回true
+     */
+    private boolean hasIdle() {
+        for (BagEntry<T> entry : this.slots) {
+            if (entry.getState() == STATE_NOT_IN_USE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 唤醒队首的等待者。
+     */
+    private void signalNext() {
+        Thread waiter = this.waitQueue.poll();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * 遍历当前快照中的所有条目。
+     *
+     * @param action 对每个条目执行的操作
+     */
+    public void forEach(Consumer<BagEntry<T>> action) {
+        for (BagEntry<T> entry : this.slots) {
+            action.accept(entry);
+        }
+    }
+
+    /**
+     * 获取对象袋中的对象总数。
+     *
+     * @return 对象总数
+     */
+    public int size() {
+        return this.slots.length;
+    }
+
+    /**
+     * 获取正在等待对象的线程数。
+     *
+     * @return 等待线程数
+     */
+    public int getWaitingThreadCount() {
+        return this.waiters.get();
+    }
+
+    /**
+     * 对象袋中的条目，持有池化对象及其借用状态。
+     *
+     * @param <T> 池化对象的类型
+     */
+    public static final class BagEntry<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<BagEntry> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(BagEntry.class, "state");
+
+        /**
+         * 池化对象
+         */
+        private final T item;
+
+        /**
+         * 借用状态
+         */
+        private volatile int state;
+
+        /**
+         * 最近一次归还的时间（纳秒），用于空闲缩容
+         */
+        volatile long lastReturnedAt = System.nanoTime();
+
+        /**
+         * 借出时间（纳秒），用于泄漏检测
+         */
+        volatile long borrowedAt;
+
+        /**
+         * 借出时的调用栈，仅在开启泄漏检测时记录
+         */
+        volatile Throwable borrowTrace;
+
+        /**
+         * 是否已经报告过泄漏，避免重复输出
+         */
+        volatile boolean leakReported;
+
+        BagEntry(T item, int state) {
+            this.item = item;
+            this.state = state;
+        }
+
+        public T getItem() {
+            return this.item;
+        }
+
+        int getState() {
+            return this.state;
+        }
+
+        void setState(int state) {
+            this.state = state;
+        }
+
+        boolean compareAndSet(int expect, int update) {
+            return STATE_UPDATER.compareAndSet(this, expect, update);
+        }
+    }
+}
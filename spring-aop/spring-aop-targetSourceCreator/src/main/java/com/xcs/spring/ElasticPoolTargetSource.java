@@ -0,0 +1,343 @@
+package com.xcs.spring;
+
+import org.springframework.aop.AopInvocationException;
+import org.springframework.aop.target.AbstractPoolingTargetSource;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 弹性池化目标源，池大小在 {@code minSize} 与 {@code maxSize} 之间根据实际负载自动伸缩。
+ * <ul>
+ *     <li>扩容：获取目标对象的等待时间超过 {@code growWaitThreshold} 且池未达到上限时，创建新的目标对象；</li>
+ *     <li>缩容：目标对象空闲时间超过 {@code idleTimeout} 且池大小超过下限时，销毁该目标对象。</li>
+ * </ul>
+ * 池大小、等待次数与耗时、超时次数、扩缩容次数均通过getter暴露，便于接入监控。
+ *
+ * @author xcs
+ * @date 2026年10月18日15:40:27
+ */
+public class ElasticPoolTargetSource extends AbstractPoolingTargetSource {
+
+    /**
+     * 所有弹性池共享的空闲检测调度器
+     */
+    private static final ScheduledExecutorService IDLE_EVICTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "elastic-pool-idle-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 存放目标对象的对象袋
+     */
+    private final ConcurrentBag<Object> bag = new ConcurrentBag<>();
+
+    /**
+     * 已创建（含正在创建）的目标对象数量，用于在并发扩缩容时守住上下限
+     */
+    private final AtomicInteger poolSize = new AtomicInteger();
+
+    /**
+     * 池中至少保留的目标对象数量
+     */
+    private int minSize = 1;
+
+    /**
+     * 获取目标对象的超时时间（毫秒）
+     */
+    private long acquireTimeout = 30_000;
+
+    /**
+     * 触发扩容的等待时间阈值（毫秒）
+     */
+    private long growWaitThreshold = 5;
+
+    /**
+     * 触发缩容的空闲时间阈值（毫秒）
+     */
+    private long idleTimeout = 60_000;
+
+    /**
+     * 空闲检测任务
+     */
+    private ScheduledFuture<?> idleEvictionTask;
+
+    /**
+     * 获取目标对象的总次数
+     */
+    private final LongAdder borrowCount = new LongAdder();
+
+    /**
+     * 需要等待才能获取到目标对象的次数
+     */
+    private final LongAdder waitCount = new LongAdder();
+
+    /**
+     * 等待的总耗时（纳秒）
+     */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * 最长一次等待的耗时（纳秒）
+     */
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 获取超时的次数
+     */
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * 扩容次数
+     */
+    private final LongAdder growCount = new LongAdder();
+
+    /**
+     * 缩容次数
+     */
+    private final LongAdder shrinkCount = new LongAdder();
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMinSize() {
+        return this.minSize;
+    }
+
+    public void setAcquireTimeout(long acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public void setGrowWaitThreshold(long growWaitThreshold) {
+        this.growWaitThreshold = growWaitThreshold;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * 创建池，预先填充 {@code minSize} 个目标对象并启动空闲检测。
+     */
+    @Override
+    protected void createPool() {
+        if (this.minSize < 0 || this.minSize > getMaxSize()) {
+            throw new IllegalArgumentException("minSize must be between 0 and maxSize (" + getMaxSize() + ")");
+        }
+        for (int i = 0; i < this.minSize; i++) {
+            this.poolSize.incrementAndGet();
+            this.bag.add(newPrototypeInstance(), false);
+        }
+        long period = Math.max(this.idleTimeout / 2, 1);
+        this.idleEvictionTask = IDLE_EVICTOR.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 获取目标对象。没有空闲对象时先等待 {@code growWaitThreshold}，仍未获取到则尝试扩容，
+     * 已达到上限时继续等待直到 {@code acquireTimeout}。
+     *
+     * @return 目标对象
+     * @throws Exception 如果获取超时或等待时线程被中断
+     */
+    @Override
+    public Object getTarget() throws Exception {
+        this.borrowCount.increment();
+        ConcurrentBag.BagEntry<Object> entry = this.bag.borrow(0, TimeUnit.MILLISECONDS);
+        if (entry != null) {
+            return entry.getItem();
+        }
+
+        long start = System.nanoTime();
+        try {
+            entry = this.bag.borrow(this.growWaitThreshold, TimeUnit.MILLISECONDS);
+            if (entry == null) {
+                entry = tryGrow();
+            }
+            if (entry == null) {
+                long remaining = TimeUnit.MILLISECONDS.toNanos(this.acquireTimeout) - (System.nanoTime() - start);
+                entry = this.bag.borrow(remaining, TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            long waited = System.nanoTime() - start;
+            this.waitCount.increment();
+            this.waitNanos.add(waited);
+            this.maxWaitNanos.accumulate(waited);
+        }
+
+        if (entry == null) {
+            this.timeoutCount.increment();
+            throw new AopInvocationException("获取目标对象 '" + getTargetBeanName() + "' 超时，等待 " + this.acquireTimeout +
+                    " 毫秒后池中仍无可用对象，池大小：" + this.bag.size() + "，等待线程数：" + this.bag.getWaitingThreadCount());
+        }
+        return entry.getItem();
+    }
+
+    /**
+     * 在未达到上限时创建新的目标对象，并直接借给当前线程。
+     *
+     * @return 新对象对应的条目，已达到上限时返回null
+     */
+    private ConcurrentBag.BagEntry<Object> tryGrow() {
+        for (;;) {
+            int size = this.poolSize.get();
+            if (size >= getMaxSize()) {
+                return null;
+            }
+            if (this.poolSize.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
+        try {
+            ConcurrentBag.BagEntry<Object> entry = this.bag.add(newPrototypeInstance(), true);
+            this.growCount.increment();
+            return entry;
+        } catch (RuntimeException ex) {
+            this.poolSize.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    /**
+     * 销毁空闲时间超过 {@code idleTimeout} 的目标对象，直到池大小回落到 {@code minSize}。
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(this.idleTimeout);
+        this.bag.forEach(entry -> {
+            if (entry.getState() != ConcurrentBag.STATE_NOT_IN_USE || now - entry.lastReturnedAt < idleNanos) {
+                return;
+            }
+            int size = this.poolSize.get();
+            if (size <= this.minSize || !this.poolSize.compareAndSet(size, size - 1)) {
+                return;
+            }
+            if (this.bag.remove(entry)) {
+                this.shrinkCount.increment();
+                destroyPrototypeInstance(entry.getItem());
+            } else {
+                this.poolSize.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 将目标对象归还到池中。
+     *
+     * @param target 待归还的目标对象
+     * @throws IllegalStateException 如果对象不属于该池，或当前未被借出
+     */
+    @Override
+    public void releaseTarget(Object target) {
+        ConcurrentBag.BagEntry<Object> entry = this.bag.find(target);
+        if (entry == null) {
+            throw new IllegalStateException("释放的对象不属于该池：" + target);
+        }
+        this.bag.requite(entry);
+    }
+
+    @Override
+    public int getActiveCount() {
+        int[] count = new int[1];
+        this.bag.forEach(entry -> {
+            if (entry.getState() == ConcurrentBag.STATE_IN_USE) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Override
+    public int getIdleCount() {
+        int[] count = new int[1];
+        this.bag.forEach(entry -> {
+            if (entry.getState() == ConcurrentBag.STATE_NOT_IN_USE) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    public int getPoolSize() {
+        return this.bag.size();
+    }
+
+    public int getWaitingThreadCount() {
+        return this.bag.getWaitingThreadCount();
+    }
+
+    public long getBorrowCount() {
+        return this.borrowCount.sum();
+    }
+
+    public long getWaitCount() {
+        return this.waitCount.sum();
+    }
+
+    /**
+     * 获取平均等待时间（毫秒）。
+     *
+     * @return 平均等待时间，没有发生等待时返回0
+     */
+    public double getAverageWaitMillis() {
+        long count = this.waitCount.sum();
+        return count == 0 ? 0 : this.waitNanos.sum() / (double) count / 1_000_000;
+    }
+
+    public double getMaxWaitMillis() {
+        return this.maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    public long getGrowCount() {
+        return this.growCount.sum();
+    }
+
+    public long getShrinkCount() {
+        return this.shrinkCount.sum();
+    }
+
+    /**
+     * 停止空闲检测并销毁池中所有目标对象。
+     */
+    @Override
+    public void destroy() {
+        if (this.idleEvictionTask != null) {
+            this.idleEvictionTask.cancel(false);
+        }
+        this.bag.forEach(entry -> {
+            if (this.bag.remove(entry)) {
+                destroyPrototypeInstance(entry.getItem());
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "ElasticPoolTargetSource{" +
+                "targetBeanName='" + getTargetBeanName() + '\'' +
+                ", poolSize=" + getPoolSize() +
+                ", minSize=" + this.minSize +
+                ", maxSize=" + getMaxSize() +
+                ", active=" + getActiveCount() +
+                ", idle=" + getIdleCount() +
+                ", waiting=" + getWaitingThreadCount() +
+                ", borrows=" + getBorrowCount() +
+                ", waits=" + getWaitCount() +
+                ", avgWaitMillis=" + getAverageWaitMillis() +
+                ", maxWaitMillis=" + getMaxWaitMillis() +
+                ", timeouts=" + getTimeoutCount() +
+                ", grows=" + getGrowCount() +
+                ", shrinks=" + getShrinkCount() +
+                '}';
+    }
+}
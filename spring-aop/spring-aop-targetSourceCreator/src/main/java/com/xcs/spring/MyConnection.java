@@ -2,11 +2,20 @@ package com.xcs.spring;
 
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Service
+@PooledTarget(minSize = 1, maxSize = 3)
 public class MyConnection {
 
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
     private String name;
 
+    public MyConnection() {
+        this("Connection" + COUNTER.getAndIncrement());
+    }
+
     public MyConnection(String name) {
         this.name = name;
     }
@@ -0,0 +1,30 @@
+package com.xcs.spring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+
+/**
+ * 增强 {@link MyRequestHandler} 的切面。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:27:42
+ */
+@Aspect
+public class MyRequestAspect {
+
+    @Before("execution(* com.xcs.spring.MyRequestHandler.handle(..))")
+    public void before() {
+    }
+
+    @Around("execution(* com.xcs.spring.MyRequestHandler.*(..))")
+    public Object around(ProceedingJoinPoint pjp) throws Throwable {
+        return pjp.proceed();
+    }
+
+    @AfterReturning("execution(* com.xcs.spring.MyRequestHandler.handle(..))")
+    public void afterReturning() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.xcs.spring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 原型作用域的请求处理器，每次获取都创建一个新的实例，由 {@link MyRequestAspect} 增强。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:27:15
+ */
+public class MyRequestHandler {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private final int id = COUNTER.incrementAndGet();
+
+    public String handle(String request) {
+        return "Handler" + this.id + " handled " + request;
+    }
+
+    public int getId() {
+        return this.id;
+    }
+}
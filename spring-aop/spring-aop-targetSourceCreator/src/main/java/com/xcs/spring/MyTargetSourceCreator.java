@@ -1,14 +1,75 @@
 package com.xcs.spring;
 
-import org.springframework.aop.TargetSource;
-import org.springframework.aop.framework.autoproxy.TargetSourceCreator;
+import org.springframework.aop.framework.autoproxy.target.AbstractBeanFactoryBasedTargetSourceCreator;
+import org.springframework.aop.target.AbstractBeanFactoryBasedTargetSource;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为标注了 {@link PooledTarget} 的Bean创建弹性池化目标源。
+ * <p>
+ * 池的边界优先读取 {@code pooled-target.<beanName>.*} 配置，未配置时使用注解上声明的值。
+ * 目标对象通过父类提供的内部Bean工厂以原型方式创建。
+ */
+public class MyTargetSourceCreator extends AbstractBeanFactoryBasedTargetSourceCreator {
+
+    /**
+     * 配置前缀
+     */
+    private static final String PROPERTY_PREFIX = "pooled-target.";
+
+    /**
+     * 用于读取池配置的环境
+     */
+    private Environment environment = new StandardEnvironment();
+
+    /**
+     * 已创建的弹性池，按Bean名称索引，便于查询池的运行指标
+     */
+    private final Map<String, ElasticPoolTargetSource> targetSources = new ConcurrentHashMap<>();
+
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
 
-public class MyTargetSourceCreator implements TargetSourceCreator {
     @Override
-    public TargetSource getTargetSource(Class<?> beanClass, String beanName) {
-        if (MyConnection.class.isAssignableFrom(beanClass)) {
-            return new ConnectionPoolTargetSource(3);
+    protected AbstractBeanFactoryBasedTargetSource createBeanFactoryBasedTargetSource(Class<?> beanClass, String beanName) {
+        PooledTarget pooledTarget = AnnotatedElementUtils.findMergedAnnotation(beanClass, PooledTarget.class);
+        if (pooledTarget == null) {
+            return null;
         }
-        return null;
+        String prefix = PROPERTY_PREFIX + beanName + ".";
+        ElasticPoolTargetSource targetSource = new ElasticPoolTargetSource();
+        targetSource.setMinSize(this.environment.getProperty(prefix + "min-size", Integer.class, pooledTarget.minSize()));
+        targetSource.setMaxSize(this.environment.getProperty(prefix + "max-size", Integer.class, pooledTarget.maxSize()));
+        targetSource.setAcquireTimeout(this.environment.getProperty(prefix + "acquire-timeout", Long.class, pooledTarget.acquireTimeout()));
+        targetSource.setGrowWaitThreshold(this.environment.getProperty(prefix + "grow-wait-threshold", Long.class, pooledTarget.growWaitThreshold()));
+        targetSource.setIdleTimeout(this.environment.getProperty(prefix + "idle-timeout", Long.class, pooledTarget.idleTimeout()));
+        this.targetSources.put(beanName, targetSource);
+        return targetSource;
+    }
+
+    /**
+     * 获取为指定Bean创建的弹性池。
+     *
+     * @param beanName Bean名称
+     * @return 弹性池，未创建时返回null
+     */
+    public ElasticPoolTargetSource getTargetSource(String beanName) {
+        return this.targetSources.get(beanName);
+    }
+
+    /**
+     * 销毁所有弹性池及内部Bean工厂。
+     */
+    @Override
+    public void destroy() {
+        this.targetSources.values().forEach(ElasticPoolTargetSource::destroy);
+        this.targetSources.clear();
+        super.destroy();
     }
 }
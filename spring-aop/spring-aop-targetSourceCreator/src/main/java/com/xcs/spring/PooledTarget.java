@@ -0,0 +1,43 @@
+package com.xcs.spring;
+
+import java.lang.annotation.*;
+
+/**
+ * 标记一个需要通过弹性池化目标源代理的Bean，并声明池的边界。
+ * <p>
+ * 每个属性都可以通过 {@code pooled-target.<beanName>.<属性名>} 形式的配置覆盖，
+ * 例如 {@code pooled-target.myConnection.max-size=16}。
+ *
+ * @author xcs
+ * @date 2026年10月18日15:40:27
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PooledTarget {
+
+    /**
+     * 池中至少保留的目标对象数量，对应配置 {@code min-size}。
+     */
+    int minSize() default 1;
+
+    /**
+     * 池中最多创建的目标对象数量，对应配置 {@code max-size}。
+     */
+    int maxSize() default 8;
+
+    /**
+     * 获取目标对象的超时时间（毫秒），对应配置 {@code acquire-timeout}。
+     */
+    long acquireTimeout() default 30_000;
+
+    /**
+     * 等待时间超过该阈值（毫秒）且未达到上限时扩容，对应配置 {@code grow-wait-threshold}。
+     */
+    long growWaitThreshold() default 5;
+
+    /**
+     * 目标对象空闲超过该时长（毫秒）且超过下限时缩容，对应配置 {@code idle-timeout}。
+     */
+    long idleTimeout() default 60_000;
+}
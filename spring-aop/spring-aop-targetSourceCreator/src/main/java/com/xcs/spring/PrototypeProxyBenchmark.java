@@ -0,0 +1,83 @@
+package com.xcs.spring;
+
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比默认的 {@link AnnotationAwareAspectJAutoProxyCreator} 与 {@link TemplateCachingAutoProxyCreator}
+ * 创建一个被增强的原型Bean并调用一次方法的耗时与内存分配。
+ * <p>
+ * 容器中除了 {@link MyRequestAspect} 之外还有一个不匹配 {@link MyRequestHandler} 的切面，
+ * 默认的创建器每创建一个实例都要重新判断这些通知器是否适用。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrototypeProxyBenchmark {
+
+    @Param({"spring", "template"})
+    private String creator;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Setup
+    public void setup() {
+        AnnotationAwareAspectJAutoProxyCreator autoProxyCreator = ("template".equals(this.creator) ?
+                new TemplateCachingAutoProxyCreator() : new AnnotationAwareAspectJAutoProxyCreator());
+        autoProxyCreator.setProxyTargetClass(true);
+        this.context = new AnnotationConfigApplicationContext();
+        this.context.registerBean("autoProxyCreator", AnnotationAwareAspectJAutoProxyCreator.class, () -> autoProxyCreator);
+        this.context.registerBean(MyRequestAspect.class);
+        this.context.registerBean(UnrelatedAspect.class);
+        this.context.registerBean(MyRequestHandler.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+        this.context.refresh();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public String createAndInvoke() {
+        return this.context.getBean(MyRequestHandler.class).handle("request");
+    }
+
+    @Aspect
+    public static class UnrelatedAspect {
+
+        @Before("execution(* com.xcs.spring.MyConnection.*(..))")
+        public void beforeConnection() {
+        }
+
+        @Before("execution(* com.xcs.spring.ConcurrentBag.*(..))")
+        public void beforeBag() {
+        }
+
+        @AfterThrowing("execution(* com.xcs.spring.ElasticPoolTargetSource.*(..))")
+        public void afterThrowing() {
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PrototypeProxyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,34 @@
+package com.xcs.spring;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Scope;
+
+/**
+ * 原型Bean代理模板的配置，使用 {@link TemplateCachingAutoProxyCreator} 代替 {@code @EnableAspectJAutoProxy}。
+ * <p>
+ * 这里没有标注 {@code @Configuration}，避免被 {@link AppConfig} 的组件扫描注册两个自动代理创建器。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:28:06
+ */
+public class PrototypeProxyConfig {
+
+    @Bean
+    public static TemplateCachingAutoProxyCreator templateCachingAutoProxyCreator() {
+        TemplateCachingAutoProxyCreator autoProxyCreator = new TemplateCachingAutoProxyCreator();
+        autoProxyCreator.setProxyTargetClass(true);
+        return autoProxyCreator;
+    }
+
+    @Bean
+    public MyRequestAspect myRequestAspect() {
+        return new MyRequestAspect();
+    }
+
+    @Bean
+    @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+    public MyRequestHandler myRequestHandler() {
+        return new MyRequestHandler();
+    }
+}
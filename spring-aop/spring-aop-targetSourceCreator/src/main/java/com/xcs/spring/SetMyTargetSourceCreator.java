@@ -2,22 +2,53 @@ package com.xcs.spring;
 
 import org.springframework.aop.framework.autoproxy.AbstractAutoProxyCreator;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.EnvironmentAware;
 import org.springframework.core.Ordered;
 import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
 @Component
-public class SetMyTargetSourceCreator implements BeanPostProcessor , PriorityOrdered {
+public class SetMyTargetSourceCreator implements BeanPostProcessor, PriorityOrdered, BeanFactoryAware, EnvironmentAware, DisposableBean {
+
+    private final MyTargetSourceCreator targetSourceCreator = new MyTargetSourceCreator();
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.targetSourceCreator.setBeanFactory(beanFactory);
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.targetSourceCreator.setEnvironment(environment);
+    }
 
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
         if (bean instanceof AbstractAutoProxyCreator) {
-            ((AbstractAutoProxyCreator) bean).setCustomTargetSourceCreators(new MyTargetSourceCreator());
+            ((AbstractAutoProxyCreator) bean).setCustomTargetSourceCreators(this.targetSourceCreator);
         }
         return bean;
     }
 
+    /**
+     * 获取目标源创建器，便于查询弹性池的运行指标。
+     *
+     * @return 目标源创建器
+     */
+    public MyTargetSourceCreator getTargetSourceCreator() {
+        return this.targetSourceCreator;
+    }
+
+    @Override
+    public void destroy() {
+        this.targetSourceCreator.destroy();
+    }
+
     @Override
     public int getOrder() {
         return Ordered.HIGHEST_PRECEDENCE;
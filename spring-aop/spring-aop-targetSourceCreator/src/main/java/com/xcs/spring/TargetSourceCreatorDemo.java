@@ -15,5 +15,20 @@ public class TargetSourceCreatorDemo {
             // 打印 MyConnection 实例的名称
             System.out.println("MyConnection Name = " + myConnection.getName());
         }
+        // 打印弹性池的运行指标
+        MyTargetSourceCreator targetSourceCreator = context.getBean(SetMyTargetSourceCreator.class).getTargetSourceCreator();
+        System.out.println("Pool Metrics = " + targetSourceCreator.getTargetSource("myConnection"));
+        // 关闭上下文
+        context.close();
+
+        // 原型Bean的代理模板：第一次创建时生成模板，之后的实例只绑定目标对象
+        AnnotationConfigApplicationContext prototypeContext = new AnnotationConfigApplicationContext(PrototypeProxyConfig.class);
+        for (int i = 0; i < 3; i++) {
+            MyRequestHandler handler = prototypeContext.getBean(MyRequestHandler.class);
+            System.out.println(handler.getClass().getSimpleName() + " -> " + handler.handle("request" + i));
+        }
+        TemplateCachingAutoProxyCreator autoProxyCreator = prototypeContext.getBean(TemplateCachingAutoProxyCreator.class);
+        System.out.println("Proxy Template = " + autoProxyCreator.getTemplate("myRequestHandler"));
+        prototypeContext.close();
     }
 }
@@ -0,0 +1,357 @@
+package com.xcs.spring;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.aspectj.InstantiationModelAwarePointcutAdvisor;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.autoproxy.AutoProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.target.SingletonTargetSource;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.MethodClassKey;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为非单例Bean复用代理模板的 {@link AnnotationAwareAspectJAutoProxyCreator}。
+ * <p>
+ * 每创建一个原型Bean，默认的自动代理创建器都要重新筛选、排序通知器，创建新的 {@link ProxyFactory}，
+ * 新的代理配置中方法调用链缓存为空，每个方法第一次调用时还要重新计算调用链。而同一个Bean定义的每个实例，
+ * 这些结果都完全相同。本创建器在第一次创建某个非单例Bean时，按（Bean类型，通知器列表）生成一个不可变的 {@link ProxyTemplate}，
+ * 保存代理配置、通知器以及在所有实例之间共享的调用链缓存，之后的实例只需要绑定目标对象。
+ * <p>
+ * 单例Bean、由自定义 {@link TargetSource} 创建的代理以及已经是代理的Bean仍按父类的方式处理。
+ * 适用的通知器中存在 {@code perthis}、{@code pertarget} 等每个实例独立的切面时，每个实例都需要自己的切面实例，同样按父类的方式处理。
+ * 通过 {@code Advised} 修改了某个实例的通知器后，该实例不再使用模板的调用链缓存；
+ * 运行期间注册新的切面后需要调用 {@link #clearTemplates()}，这与父类对是否需要代理的缓存一致。
+ *
+ * @author xcs
+ * @date 2026年10月19日03:26:40
+ */
+public class TemplateCachingAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator {
+
+    /**
+     * 表示Bean不需要代理的模板
+     */
+    private static final ProxyTemplate NO_PROXY = new ProxyTemplate(Object.class, new ProxyFactory(), Collections.emptyList());
+
+    /**
+     * 表示Bean使用了每个实例独立的切面、不能共享模板，交给父类处理
+     */
+    private static final ProxyTemplate PER_INSTANCE = new ProxyTemplate(Object.class, new ProxyFactory(), Collections.emptyList());
+
+    /**
+     * 缓存键（与父类相同，{@code FactoryBean} 本身带有 {@code &} 前缀）到模板的映射，命中且Bean类型相同后不再筛选通知器
+     */
+    private final Map<Object, BeanTemplate> templatesByCacheKey = new ConcurrentHashMap<>(64);
+
+    /**
+     * （Bean类型，通知器列表）到模板的映射，通知器相同的Bean定义共享一个模板
+     */
+    private final Map<TemplateKey, ProxyTemplate> templates = new ConcurrentHashMap<>(64);
+
+    @Override
+    protected Object wrapIfNecessary(Object bean, String beanName, Object cacheKey) {
+        if (!StringUtils.hasLength(beanName) || AopUtils.isAopProxy(bean) || !isNonSingleton(beanName)) {
+            return super.wrapIfNecessary(bean, beanName, cacheKey);
+        }
+        Class<?> beanClass = bean.getClass();
+        BeanTemplate cached = this.templatesByCacheKey.get(cacheKey);
+        if (cached == null || cached.beanClass != beanClass) {
+            // 不使用 computeIfAbsent：筛选通知器时可能创建其他非单例Bean并递归进入这里。
+            // 不需要代理的结论同样与Bean类型绑定，原型 FactoryBean 每次返回的产品类型可能不同
+            cached = new BeanTemplate(beanClass, buildTemplate(beanClass, beanName));
+            this.templatesByCacheKey.put(cacheKey, cached);
+        }
+        ProxyTemplate template = cached.template;
+        if (template == NO_PROXY) {
+            return bean;
+        }
+        if (template == PER_INSTANCE) {
+            return super.wrapIfNecessary(bean, beanName, cacheKey);
+        }
+        return template.newProxy(new SingletonTargetSource(bean), getProxyClassLoader());
+    }
+
+    /**
+     * 清除所有代理模板，之后创建的实例重新筛选通知器。
+     */
+    public void clearTemplates() {
+        this.templatesByCacheKey.clear();
+        this.templates.clear();
+    }
+
+    /**
+     * 获取当前的模板数量，不同Bean定义的通知器相同时共享一个模板。
+     *
+     * @return 模板数量
+     */
+    public int getTemplateCount() {
+        return this.templates.size();
+    }
+
+    /**
+     * 获取Bean当前使用的代理模板。
+     *
+     * @param beanName Bean名称，{@code FactoryBean} 本身需要带上 {@code &} 前缀
+     * @return 代理模板，尚未创建过实例、不需要代理或不能使用模板时为 {@code null}
+     */
+    @Nullable
+    public ProxyTemplate getTemplate(String beanName) {
+        BeanTemplate cached = this.templatesByCacheKey.get(beanName);
+        if (cached == null || cached.template == NO_PROXY || cached.template == PER_INSTANCE) {
+            return null;
+        }
+        return cached.template;
+    }
+
+    private boolean isNonSingleton(String beanName) {
+        BeanFactory beanFactory = getBeanFactory();
+        if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
+            return false;
+        }
+        ConfigurableListableBeanFactory clbf = (ConfigurableListableBeanFactory) beanFactory;
+        return (clbf.containsBeanDefinition(beanName) && !clbf.getMergedBeanDefinition(beanName).isSingleton());
+    }
+
+    /**
+     * 与父类的 {@code wrapIfNecessary} 和 {@code createProxy} 相同的步骤，只是结果保存为模板而不是直接创建代理。
+     */
+    private ProxyTemplate buildTemplate(Class<?> beanClass, String beanName) {
+        if (isInfrastructureClass(beanClass) || shouldSkip(beanClass, beanName)) {
+            return NO_PROXY;
+        }
+        Object[] specificInterceptors = getAdvicesAndAdvisorsForBean(beanClass, beanName, null);
+        if (specificInterceptors == DO_NOT_PROXY) {
+            return NO_PROXY;
+        }
+        for (Object interceptor : specificInterceptors) {
+            if (interceptor instanceof InstantiationModelAwarePointcutAdvisor &&
+                    ((InstantiationModelAwarePointcutAdvisor) interceptor).isPerInstance()) {
+                // 共享模板会让所有实例共享同一个切面实例
+                return PER_INSTANCE;
+            }
+        }
+        // 与 AutoProxyUtils.exposeTargetClass 相同，isNonSingleton 已确认Bean定义存在
+        ((ConfigurableListableBeanFactory) getBeanFactory()).getMergedBeanDefinition(beanName)
+                .setAttribute(AutoProxyUtils.ORIGINAL_TARGET_CLASS_ATTRIBUTE, beanClass);
+
+        Advisor[] advisors = buildAdvisors(beanName, specificInterceptors);
+        TemplateKey key = new TemplateKey(beanClass, advisors);
+        ProxyTemplate template = this.templates.get(key);
+        if (template != null) {
+            return template;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.copyFrom(this);
+        if (!proxyFactory.isProxyTargetClass()) {
+            if (shouldProxyTargetClass(beanClass, beanName)) {
+                proxyFactory.setProxyTargetClass(true);
+            } else {
+                evaluateProxyInterfaces(beanClass, proxyFactory);
+            }
+        }
+        proxyFactory.addAdvisors(advisors);
+        customizeProxyFactory(proxyFactory);
+        proxyFactory.setFrozen(isFrozen());
+        if (advisorsPreFiltered()) {
+            proxyFactory.setPreFiltered(true);
+        }
+        template = new ProxyTemplate(beanClass, proxyFactory, Arrays.asList(advisors));
+        ProxyTemplate existing = this.templates.putIfAbsent(key, template);
+        return (existing != null ? existing : template);
+    }
+
+    /**
+     * 不可变的代理模板：代理配置、通知器以及所有实例共享的方法调用链缓存。
+     */
+    public static final class ProxyTemplate {
+
+        private final Class<?> beanClass;
+
+        private final ProxyFactory config;
+
+        private final List<Advisor> advisors;
+
+        private final Map<MethodClassKey, List<Object>> chains = new ConcurrentHashMap<>(32);
+
+        @Nullable
+        private volatile Class<?> proxyClass;
+
+        ProxyTemplate(Class<?> beanClass, ProxyFactory config, List<Advisor> advisors) {
+            this.beanClass = beanClass;
+            this.config = config;
+            this.advisors = Collections.unmodifiableList(advisors);
+        }
+
+        /**
+         * 为目标对象创建代理，代理类与调用链都来自模板。
+         *
+         * @param targetSource 目标源
+         * @param classLoader  代理类加载器
+         * @return 代理对象
+         */
+        Object newProxy(TargetSource targetSource, @Nullable ClassLoader classLoader) {
+            Object proxy = new BoundProxyFactory(this, targetSource).getProxy(classLoader);
+            if (this.proxyClass == null) {
+                this.proxyClass = proxy.getClass();
+            }
+            return proxy;
+        }
+
+        List<Object> getChain(Method method, @Nullable Class<?> targetClass, BoundProxyFactory config) {
+            MethodClassKey key = new MethodClassKey(method, targetClass);
+            List<Object> chain = this.chains.get(key);
+            if (chain == null) {
+                // 所有实例的通知器相同，用第一个需要该方法的实例计算即可
+                chain = config.getAdvisorChainFactory().getInterceptorsAndDynamicInterceptionAdvice(config, method, targetClass);
+                List<Object> existing = this.chains.putIfAbsent(key, chain);
+                if (existing != null) {
+                    chain = existing;
+                }
+            }
+            return chain;
+        }
+
+        public Class<?> getBeanClass() {
+            return this.beanClass;
+        }
+
+        public List<Advisor> getAdvisors() {
+            return this.advisors;
+        }
+
+        /**
+         * 获取代理类，在创建第一个实例之后可用。
+         *
+         * @return 代理类
+         */
+        @Nullable
+        public Class<?> getProxyClass() {
+            return this.proxyClass;
+        }
+
+        public int getCachedChainCount() {
+            return this.chains.size();
+        }
+
+        @Override
+        public String toString() {
+            return "ProxyTemplate{" +
+                    "beanClass=" + this.beanClass.getName() +
+                    ", proxyClass=" + (this.proxyClass != null ? this.proxyClass.getName() : null) +
+                    ", advisors=" + this.advisors.size() +
+                    ", cachedChains=" + this.chains.size() +
+                    '}';
+        }
+    }
+
+    /**
+     * 每个实例的代理配置，从模板复制而来，调用链直接取自模板的共享缓存。
+     */
+    static final class BoundProxyFactory extends ProxyFactory {
+
+        private final ProxyTemplate template;
+
+        /**
+         * 通知器被修改后不再使用模板的调用链
+         */
+        private volatile boolean detached;
+
+        private final boolean bound;
+
+        BoundProxyFactory(ProxyTemplate template, TargetSource targetSource) {
+            this.template = template;
+            copyConfigurationFrom(template.config, targetSource, template.advisors);
+            this.bound = true;
+        }
+
+        @Override
+        public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, @Nullable Class<?> targetClass) {
+            if (this.detached) {
+                return super.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+            }
+            return this.template.getChain(method, targetClass, this);
+        }
+
+        @Override
+        protected void adviceChanged() {
+            super.adviceChanged();
+            // 复制配置时添加通知器也会调用这里，此时 bound 仍为 false
+            if (this.bound) {
+                this.detached = true;
+            }
+        }
+    }
+
+    /**
+     * 缓存键对应的Bean类型与模板。
+     */
+    private static final class BeanTemplate {
+
+        private final Class<?> beanClass;
+
+        private final ProxyTemplate template;
+
+        BeanTemplate(Class<?> beanClass, ProxyTemplate template) {
+            this.beanClass = beanClass;
+            this.template = template;
+        }
+    }
+
+    /**
+     * 模板的键，通知器按顺序逐个比较引用。
+     */
+    private static final class TemplateKey {
+
+        private final Class<?> beanClass;
+
+        private final Advisor[] advisors;
+
+        private final int hashCode;
+
+        TemplateKey(Class<?> beanClass, Advisor[] advisors) {
+            this.beanClass = beanClass;
+            this.advisors = advisors;
+            int hash = beanClass.hashCode();
+            for (Advisor advisor : advisors) {
+                hash = 31 * hash + System.identityHashCode(advisor);
+            }
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof TemplateKey)) {
+                return false;
+            }
+            TemplateKey that = (TemplateKey) other;
+            if (this.beanClass != that.beanClass || this.advisors.length != that.advisors.length) {
+                return false;
+            }
+            for (int i = 0; i < this.advisors.length; i++) {
+                if (this.advisors[i] != that.advisors[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+}